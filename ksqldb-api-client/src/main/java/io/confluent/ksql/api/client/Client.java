@@ -38,6 +38,9 @@ public interface Client extends Closeable {
    * <p>If a non-200 response is received from the server, the {@code CompletableFuture} will be
    * failed.
    *
+   * <p>Cancelling the {@code CompletableFuture} before it completes aborts the request. Once it
+   * has completed, use {@link Client#terminatePushQuery(String)} to stop a push query.
+   *
    * @param sql statement of query to execute
    * @return a future that completes once the server response is received, and contains the query
    *         result if successful
@@ -307,6 +310,14 @@ public interface Client extends Closeable {
    */
   Map<String, Object> getVariables();
 
+  /**
+   * Returns metrics on the requests made by this client, such as the number of in-flight requests,
+   * request latencies and connection reuse.
+   *
+   * @return the metrics of this client
+   */
+  ClientMetrics getMetrics();
+
   /**
    * Closes the underlying HTTP client.
    */
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.api.client;
+
+/**
+ * Metrics on the requests made by a ksqlDB {@link Client}.
+ *
+ * <p>A request is considered in-flight from when it is sent until the future returned to the
+ * caller completes, e.g., until the metadata of a streaming query has been received, or until all
+ * rows of a {@link BatchedQueryResult} have been received. Request latencies are measured over the
+ * same interval.
+ */
+public interface ClientMetrics {
+
+  /**
+   * Returns the number of requests currently in-flight, across all servers.
+   *
+   * @return number of in-flight requests
+   */
+  int getInFlightRequests();
+
+  /**
+   * Returns the total number of requests made.
+   *
+   * @return number of requests
+   */
+  long getTotalRequests();
+
+  /**
+   * Returns the total number of requests that failed.
+   *
+   * @return number of failed requests
+   */
+  long getFailedRequests();
+
+  /**
+   * Returns the total number of connections opened to ksqlDB servers. Together with
+   * {@link #getTotalRequests()}, this indicates how well connections are being reused.
+   *
+   * @return number of connections opened
+   */
+  long getConnectionsOpened();
+
+  /**
+   * Returns the mean request latency, in milliseconds.
+   *
+   * @return mean request latency
+   */
+  double getRequestLatencyMeanMs();
+
+  /**
+   * Returns the maximum request latency, in milliseconds.
+   *
+   * @return maximum request latency
+   */
+  double getRequestLatencyMaxMs();
+
+  /**
+   * Returns an upper bound for the given percentile of request latencies, in milliseconds.
+   * Latencies are tracked in a histogram with exponentially sized buckets, so the returned value
+   * is accurate to within a factor of two.
+   *
+   * @param percentile the percentile, between 0 and 100
+   * @return request latency at the percentile
+   */
+  double getRequestLatencyPercentileMs(double percentile);
+}
@@ -16,6 +16,7 @@
 package io.confluent.ksql.api.client;
 
 import io.confluent.ksql.api.client.impl.ClientOptionsImpl;
+import java.util.List;
 
 /**
  * Options for the ksqlDB {@link Client}.
@@ -26,6 +27,8 @@ public interface ClientOptions {
   int DEFAULT_HOST_PORT = 8088;
   int DEFAULT_EXECUTE_QUERY_MAX_RESULT_ROWS = 10000;
   int DEFAULT_HTTP2_MULTIPLEXING_LIMIT = -1;
+  int DEFAULT_HTTP2_MAX_CONNECTIONS = 1;
+  int DEFAULT_HTTP2_STREAM_WINDOW_SIZE = -1;
 
   /**
    * Sets the host name of the ksqlDB server to connect to. Defaults to "localhost".
@@ -143,6 +146,48 @@ public interface ClientOptions {
    */
   ClientOptions setHttp2MultiplexingLimit(int http2MultiplexingLimit);
 
+  /**
+   * Sets whether query results should be requested in the compact binary format, rather than as
+   * delimited JSON. The binary format is cheaper to produce on the server and to decode in the
+   * client, but requires a server that supports it. Defaults to false.
+   *
+   * @param useBinaryQueryStreamFormat whether to request the binary format
+   * @return a reference to this
+   */
+  ClientOptions setUseBinaryQueryStreamFormat(boolean useBinaryQueryStreamFormat);
+
+  /**
+   * Sets the maximum number of HTTP/2 connections to open to each ksqlDB server. Requests are
+   * multiplexed over these connections, up to the HTTP/2 multiplexing limit per connection.
+   * Defaults to 1.
+   *
+   * @param http2MaxConnections number of connections
+   * @return a reference to this
+   */
+  ClientOptions setHttp2MaxConnections(int http2MaxConnections);
+
+  /**
+   * Sets the HTTP/2 flow control window size of each stream, i.e., the number of bytes the server
+   * may send on a single request before the client has consumed them. Larger windows allow more
+   * throughput on large query results, while smaller windows prevent a single slow query from
+   * buffering too much data. Defaults to -1, meaning the HTTP/2 default of 65535 bytes.
+   *
+   * @param http2StreamWindowSize window size in bytes
+   * @return a reference to this
+   */
+  ClientOptions setHttp2StreamWindowSize(int http2StreamWindowSize);
+
+  /**
+   * Sets additional ksqlDB servers, of the form {@code host:port}, to send requests to. Requests
+   * are load balanced across the host set via {@link #setHost(String)} and these servers, by
+   * sending each request to the server with the fewest in-flight requests. Requests to terminate a
+   * push query are always sent to the server running the query. Defaults to none.
+   *
+   * @param additionalHosts host and port of each additional server
+   * @return a reference to this
+   */
+  ClientOptions setAdditionalHosts(List<String> additionalHosts);
+
   /**
    * Returns the host name of the ksqlDB server to connect to.
    *
@@ -255,6 +300,34 @@ public interface ClientOptions {
    */
   int getHttp2MultiplexingLimit();
 
+  /**
+   * Returns whether query results are requested in the compact binary format.
+   *
+   * @return whether the binary format is used
+   */
+  boolean isUseBinaryQueryStreamFormat();
+
+  /**
+   * Returns the maximum number of HTTP/2 connections to open to each ksqlDB server.
+   *
+   * @return number of connections
+   */
+  int getHttp2MaxConnections();
+
+  /**
+   * Returns the HTTP/2 flow control window size of each stream.
+   *
+   * @return window size in bytes
+   */
+  int getHttp2StreamWindowSize();
+
+  /**
+   * Returns the additional ksqlDB servers to send requests to.
+   *
+   * @return host and port of each additional server
+   */
+  List<String> getAdditionalHosts();
+
   /**
    * Creates a copy of these {@code ClientOptions}.
    *
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.api.client.impl;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes the frames of the binary query stream format into rows.
+ *
+ * <p>See {@code BinaryQueryStreamResponseWriter} on the server for a description of the format.
+ */
+final class BinaryRowBatchDecoder {
+
+  static final String BINARY_CONTENT_TYPE = "application/vnd.ksqlapi.binary.v1";
+
+  static final int FRAME_LENGTH_SIZE = Integer.BYTES;
+
+  static final byte ROWS_FRAME = 1;
+  static final byte ERROR_FRAME = 2;
+
+  private static final byte BOOLEAN_ENCODING = 1;
+  private static final byte INT_ENCODING = 2;
+  private static final byte LONG_ENCODING = 3;
+  private static final byte DOUBLE_ENCODING = 4;
+  private static final byte STRING_ENCODING = 5;
+  private static final byte JSON_ENCODING = 6;
+
+  private BinaryRowBatchDecoder() {
+  }
+
+  static byte frameType(final Buffer frame) {
+    return frame.getByte(0);
+  }
+
+  static Buffer errorPayload(final Buffer frame) {
+    return frame.slice(1, frame.length());
+  }
+
+  /**
+   * Decodes a rows frame, i.e. a frame without its length prefix.
+   *
+   * @param frame the frame.
+   * @param numColumns the number of columns in each row.
+   * @return the decoded rows.
+   */
+  static List<JsonArray> decodeRows(final Buffer frame, final int numColumns) {
+    int pos = 1;
+    final int numRows = frame.getInt(pos);
+    pos += Integer.BYTES;
+
+    final Object[][] values = new Object[numRows][numColumns];
+    final int bitmapSize = (numRows + 7) / 8;
+
+    for (int col = 0; col < numColumns; col++) {
+      final byte encoding = frame.getByte(pos);
+      pos += 1;
+      final int bitmapStart = pos;
+      pos += bitmapSize;
+
+      for (int row = 0; row < numRows; row++) {
+        final boolean isNull = (frame.getByte(bitmapStart + row / 8) & (1 << (row % 8))) != 0;
+        if (isNull) {
+          continue;
+        }
+
+        switch (encoding) {
+          case BOOLEAN_ENCODING:
+            values[row][col] = frame.getByte(pos) != 0;
+            pos += 1;
+            break;
+          case INT_ENCODING:
+            values[row][col] = frame.getInt(pos);
+            pos += Integer.BYTES;
+            break;
+          case LONG_ENCODING:
+            values[row][col] = frame.getLong(pos);
+            pos += Long.BYTES;
+            break;
+          case DOUBLE_ENCODING:
+            values[row][col] = frame.getDouble(pos);
+            pos += Double.BYTES;
+            break;
+          case STRING_ENCODING: {
+            final int length = frame.getInt(pos);
+            pos += Integer.BYTES;
+            values[row][col] = frame.getString(pos, pos + length, StandardCharsets.UTF_8.name());
+            pos += length;
+            break;
+          }
+          case JSON_ENCODING: {
+            final int length = frame.getInt(pos);
+            pos += Integer.BYTES;
+            values[row][col] = frame.slice(pos, pos + length).toJson();
+            pos += length;
+            break;
+          }
+          default:
+            throw new IllegalStateException("Unknown column encoding: " + encoding);
+        }
+      }
+    }
+
+    final List<JsonArray> rows = new ArrayList<>(numRows);
+    for (final Object[] row : values) {
+      final List<Object> list = new ArrayList<>(numColumns);
+      for (final Object value : row) {
+        list.add(value);
+      }
+      rows.add(new JsonArray(list));
+    }
+    return rows;
+  }
+}
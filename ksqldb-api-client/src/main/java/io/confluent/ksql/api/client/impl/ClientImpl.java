@@ -16,12 +16,14 @@
 package io.confluent.ksql.api.client.impl;
 
 import static io.confluent.ksql.api.client.impl.DdlDmlRequestValidators.validateExecuteStatementRequest;
+import static io.netty.handler.codec.http.HttpHeaderNames.ACCEPT;
 import static io.netty.handler.codec.http.HttpHeaderNames.AUTHORIZATION;
 import static io.netty.handler.codec.http.HttpResponseStatus.OK;
 
 import io.confluent.ksql.api.client.AcksPublisher;
 import io.confluent.ksql.api.client.BatchedQueryResult;
 import io.confluent.ksql.api.client.Client;
+import io.confluent.ksql.api.client.ClientMetrics;
 import io.confluent.ksql.api.client.ClientOptions;
 import io.confluent.ksql.api.client.ConnectorDescription;
 import io.confluent.ksql.api.client.ConnectorInfo;
@@ -35,11 +37,13 @@ import io.confluent.ksql.api.client.StreamedQueryResult;
 import io.confluent.ksql.api.client.TableInfo;
 import io.confluent.ksql.api.client.TopicInfo;
 import io.confluent.ksql.api.client.exception.KsqlClientException;
+import io.confluent.ksql.api.client.impl.ServerEndpoints.Endpoint;
 import io.confluent.ksql.util.VertxSslOptionsFactory;
 import io.vertx.core.Context;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.Http2Settings;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpClientRequest;
@@ -49,7 +53,6 @@ import io.vertx.core.http.HttpVersion;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.net.JksOptions;
-import io.vertx.core.net.SocketAddress;
 import io.vertx.core.parsetools.RecordParser;
 import java.nio.charset.Charset;
 import java.util.Base64;
@@ -77,7 +80,8 @@ public class ClientImpl implements Client {
   private final ClientOptions clientOptions;
   private final Vertx vertx;
   private final HttpClient httpClient;
-  private final SocketAddress serverSocketAddress;
+  private final ServerEndpoints serverEndpoints;
+  private final ClientMetricsImpl clientMetrics;
   private final String basicAuthHeader;
   private final boolean ownedVertx;
   private final Map<String, Object> sessionVariables;
@@ -103,10 +107,11 @@ public class ClientImpl implements Client {
     this.clientOptions = clientOptions.copy();
     this.vertx = vertx;
     this.ownedVertx = ownedVertx;
-    this.httpClient = createHttpClient(vertx, clientOptions);
+    this.clientMetrics = new ClientMetricsImpl();
+    this.httpClient = createHttpClient(vertx, clientOptions)
+        .connectionHandler(connection -> clientMetrics.recordConnectionOpened());
     this.basicAuthHeader = createBasicAuthHeader(clientOptions);
-    this.serverSocketAddress =
-        SocketAddress.inetSocketAddress(clientOptions.getPort(), clientOptions.getHost());
+    this.serverEndpoints = ServerEndpoints.create(clientOptions);
     this.sessionVariables = new HashMap<>();
   }
 
@@ -121,8 +126,26 @@ public class ClientImpl implements Client {
       final Map<String, Object> properties
   ) {
     final CompletableFuture<StreamedQueryResult> cf = new CompletableFuture<>();
+    // The request is in flight until its stream ends, not just until its metadata arrives:
+    final CompletableFuture<Void> streamEnd = new CompletableFuture<>();
+    cf.whenComplete((result, error) -> {
+      if (error != null) {
+        streamEnd.completeExceptionally(error);
+      }
+    });
+
+    final Endpoint endpoint = serverEndpoints.select();
     makeQueryRequest(sql, properties, cf,
-        (ctx, rp, fut, req) -> new StreamQueryResponseHandler(ctx, rp, fut));
+        (ctx, rp, fut, req) -> new StreamQueryResponseHandler(
+            ctx, rp, fut, clientOptions.isUseBinaryQueryStreamFormat(),
+            // Push queries must be terminated on the server running them:
+            queryId -> serverEndpoints.pinQuery(queryId, endpoint),
+            queryId -> {
+              serverEndpoints.unpinQuery(queryId);
+              streamEnd.complete(null);
+            }),
+        endpoint,
+        streamEnd);
     return cf;
   }
 
@@ -142,7 +165,8 @@ public class ClientImpl implements Client {
         properties,
         result,
         (context, recordParser, cf, request) -> new ExecuteQueryResponseHandler(
-            context, recordParser, cf, clientOptions.getExecuteQueryMaxResultRows())
+            context, recordParser, cf, clientOptions.getExecuteQueryMaxResultRows(),
+            clientOptions.isUseBinaryQueryStreamFormat())
     );
     return result;
   }
@@ -194,11 +218,16 @@ public class ClientImpl implements Client {
   public CompletableFuture<Void> terminatePushQuery(final String queryId) {
     final CompletableFuture<Void> cf = new CompletableFuture<>();
 
-    makePostRequest(
+    makeRequest(
         CLOSE_QUERY_ENDPOINT,
-        new JsonObject().put("queryId", queryId),
+        new JsonObject().put("queryId", queryId).toBuffer(),
         cf,
-        response -> handleCloseQueryResponse(response, cf)
+        response -> handleCloseQueryResponse(response, cf),
+        true,
+        HttpMethod.POST,
+        Optional.empty(),
+        serverEndpoints.unpinQuery(queryId),
+        cf
     );
 
     return cf;
@@ -418,8 +447,14 @@ public class ClientImpl implements Client {
     return new HashMap<>(sessionVariables);
   }
 
+  @Override
+  public ClientMetrics getMetrics() {
+    return clientMetrics;
+  }
+
   @Override
   public void close() {
+    serverEndpoints.unpinAll();
     httpClient.close();
     if (ownedVertx) {
       vertx.close();
@@ -441,17 +476,37 @@ public class ClientImpl implements Client {
       final Map<String, Object> properties,
       final T cf,
       final StreamedResponseHandlerSupplier<T> responseHandlerSupplier
+  ) {
+    makeQueryRequest(sql, properties, cf, responseHandlerSupplier, serverEndpoints.select(), cf);
+  }
+
+  private <T extends CompletableFuture<?>> void makeQueryRequest(
+      final String sql,
+      final Map<String, Object> properties,
+      final T cf,
+      final StreamedResponseHandlerSupplier<T> responseHandlerSupplier,
+      final Endpoint endpoint,
+      final CompletableFuture<?> requestEnd
   ) {
     final JsonObject requestBody = new JsonObject()
         .put("sql", sql)
         .put("properties", properties)
         .put("sessionVariables", sessionVariables);
 
-    makePostRequest(
+    final Optional<String> acceptContentType = clientOptions.isUseBinaryQueryStreamFormat()
+        ? Optional.of(BinaryRowBatchDecoder.BINARY_CONTENT_TYPE)
+        : Optional.empty();
+
+    makeRequest(
         QUERY_STREAM_ENDPOINT,
-        requestBody,
+        requestBody.toBuffer(),
         cf,
-        response -> handleStreamedResponse(response, cf, responseHandlerSupplier)
+        response -> handleStreamedResponse(response, cf, responseHandlerSupplier),
+        true,
+        HttpMethod.POST,
+        acceptContentType,
+        endpoint,
+        requestEnd
     );
   }
 
@@ -495,14 +550,61 @@ public class ClientImpl implements Client {
       final Handler<HttpClientResponse> responseHandler,
       final boolean endRequest,
       final HttpMethod method) {
+    makeRequest(path, requestBody, cf, responseHandler, endRequest, method, Optional.empty());
+  }
+
+  private <T extends CompletableFuture<?>> void makeRequest(
+      final String path,
+      final Buffer requestBody,
+      final T cf,
+      final Handler<HttpClientResponse> responseHandler,
+      final boolean endRequest,
+      final HttpMethod method,
+      final Optional<String> acceptContentType) {
+    makeRequest(path, requestBody, cf, responseHandler, endRequest, method, acceptContentType,
+        serverEndpoints.select(), cf);
+  }
+
+  /**
+   * @param requestEnd completes once the request is no longer in flight. That's once {@code cf}
+   *     completes, other than for streamed queries, whose future completes on their metadata.
+   */
+  private <T extends CompletableFuture<?>> void makeRequest(
+      final String path,
+      final Buffer requestBody,
+      final T cf,
+      final Handler<HttpClientResponse> responseHandler,
+      final boolean endRequest,
+      final HttpMethod method,
+      final Optional<String> acceptContentType,
+      final Endpoint endpoint,
+      final CompletableFuture<?> requestEnd) {
+    final long startNanos = System.nanoTime();
+    clientMetrics.recordRequestStarted();
+    endpoint.requestStarted();
+    requestEnd.whenComplete((result, error) -> {
+      endpoint.requestCompleted();
+      clientMetrics.recordRequestCompleted(System.nanoTime() - startNanos, error != null);
+    });
+
     HttpClientRequest request = httpClient.request(method,
-        serverSocketAddress, clientOptions.getPort(), clientOptions.getHost(),
+        endpoint.getSocketAddress(), endpoint.getPort(), endpoint.getHost(),
         path,
         responseHandler)
         .exceptionHandler(cf::completeExceptionally);
     if (clientOptions.isUseBasicAuth()) {
       request = configureBasicAuth(request);
     }
+    if (acceptContentType.isPresent()) {
+      request = request.putHeader(ACCEPT.toString(), acceptContentType.get());
+    }
+    // Cancelling the future of a request that's yet to complete aborts it:
+    final HttpClientRequest sent = request;
+    cf.whenComplete((result, error) -> {
+      if (cf.isCancelled()) {
+        sent.reset();
+      }
+    });
     if (endRequest) {
       request.end(requestBody);
     } else {
@@ -622,7 +724,12 @@ public class ClientImpl implements Client {
         .setVerifyHost(clientOptions.isVerifyHost())
         .setDefaultHost(clientOptions.getHost())
         .setDefaultPort(clientOptions.getPort())
-        .setHttp2MultiplexingLimit(clientOptions.getHttp2MultiplexingLimit());
+        .setHttp2MultiplexingLimit(clientOptions.getHttp2MultiplexingLimit())
+        .setHttp2MaxPoolSize(clientOptions.getHttp2MaxConnections());
+    if (clientOptions.getHttp2StreamWindowSize() > 0) {
+      options = options.setInitialSettings(
+          new Http2Settings().setInitialWindowSize(clientOptions.getHttp2StreamWindowSize()));
+    }
     if (clientOptions.isUseTls() && !clientOptions.getTrustStore().isEmpty()) {
       final JksOptions jksOptions = VertxSslOptionsFactory.getJksTrustStoreOptions(
           clientOptions.getTrustStore(),
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.api.client.impl;
+
+import io.confluent.ksql.api.client.ClientMetrics;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ClientMetricsImpl implements ClientMetrics {
+
+  // Bucket i holds latencies in [2^(i-1), 2^i) microseconds, with bucket 0 holding those < 1us
+  private static final int NUM_BUCKETS = 40;
+
+  private final AtomicInteger inFlightRequests = new AtomicInteger();
+  private final LongAdder totalRequests = new LongAdder();
+  private final LongAdder failedRequests = new LongAdder();
+  private final LongAdder connectionsOpened = new LongAdder();
+  private final LongAdder totalLatencyMicros = new LongAdder();
+  private final LongAdder completedRequests = new LongAdder();
+  private final AtomicLong maxLatencyMicros = new AtomicLong();
+  private final AtomicLongArray latencyBuckets = new AtomicLongArray(NUM_BUCKETS);
+
+  void recordRequestStarted() {
+    totalRequests.increment();
+    inFlightRequests.incrementAndGet();
+  }
+
+  void recordRequestCompleted(final long latencyNanos, final boolean failed) {
+    inFlightRequests.decrementAndGet();
+    if (failed) {
+      failedRequests.increment();
+    }
+
+    final long micros = TimeUnit.NANOSECONDS.toMicros(latencyNanos);
+    completedRequests.increment();
+    totalLatencyMicros.add(micros);
+    maxLatencyMicros.accumulateAndGet(micros, Math::max);
+    latencyBuckets.incrementAndGet(bucketFor(micros));
+  }
+
+  void recordConnectionOpened() {
+    connectionsOpened.increment();
+  }
+
+  @Override
+  public int getInFlightRequests() {
+    return inFlightRequests.get();
+  }
+
+  @Override
+  public long getTotalRequests() {
+    return totalRequests.sum();
+  }
+
+  @Override
+  public long getFailedRequests() {
+    return failedRequests.sum();
+  }
+
+  @Override
+  public long getConnectionsOpened() {
+    return connectionsOpened.sum();
+  }
+
+  @Override
+  public double getRequestLatencyMeanMs() {
+    final long completed = completedRequests.sum();
+    return completed == 0 ? 0 : toMillis(totalLatencyMicros.sum()) / completed;
+  }
+
+  @Override
+  public double getRequestLatencyMaxMs() {
+    return toMillis(maxLatencyMicros.get());
+  }
+
+  @Override
+  public double getRequestLatencyPercentileMs(final double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+    }
+
+    final long[] counts = new long[NUM_BUCKETS];
+    long total = 0;
+    for (int i = 0; i < NUM_BUCKETS; i++) {
+      counts[i] = latencyBuckets.get(i);
+      total += counts[i];
+    }
+    if (total == 0) {
+      return 0;
+    }
+
+    final long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+    long seen = 0;
+    for (int i = 0; i < NUM_BUCKETS; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.min(toMillis(1L << i), getRequestLatencyMaxMs());
+      }
+    }
+    return getRequestLatencyMaxMs();
+  }
+
+  private static int bucketFor(final long micros) {
+    final int bucket = 64 - Long.numberOfLeadingZeros(micros);
+    return Math.min(bucket, NUM_BUCKETS - 1);
+  }
+
+  private static double toMillis(final long micros) {
+    return micros / 1000.0;
+  }
+
+  @Override
+  public String toString() {
+    return "ClientMetrics{"
+        + "inFlightRequests=" + getInFlightRequests()
+        + ", totalRequests=" + getTotalRequests()
+        + ", failedRequests=" + getFailedRequests()
+        + ", connectionsOpened=" + getConnectionsOpened()
+        + ", requestLatencyMeanMs=" + getRequestLatencyMeanMs()
+        + ", requestLatencyMaxMs=" + getRequestLatencyMaxMs()
+        + '}';
+  }
+}
@@ -15,7 +15,9 @@
 
 package io.confluent.ksql.api.client.impl;
 
+import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.api.client.ClientOptions;
+import java.util.List;
 import java.util.Objects;
 
 public class ClientOptionsImpl implements ClientOptions {
@@ -36,6 +38,10 @@ public class ClientOptionsImpl implements ClientOptions {
   private String basicAuthPassword;
   private int executeQueryMaxResultRows = ClientOptions.DEFAULT_EXECUTE_QUERY_MAX_RESULT_ROWS;
   private int http2MultiplexingLimit = ClientOptions.DEFAULT_HTTP2_MULTIPLEXING_LIMIT;
+  private boolean useBinaryQueryStreamFormat = false;
+  private int http2MaxConnections = ClientOptions.DEFAULT_HTTP2_MAX_CONNECTIONS;
+  private int http2StreamWindowSize = ClientOptions.DEFAULT_HTTP2_STREAM_WINDOW_SIZE;
+  private List<String> additionalHosts = ImmutableList.of();
 
   /**
    * {@code ClientOptions} should be instantiated via {@link ClientOptions#create}, NOT via this
@@ -53,7 +59,9 @@ public class ClientOptionsImpl implements ClientOptions {
       final String trustStorePath, final String trustStorePassword,
       final String keyStorePath, final String keyStorePassword, final String keyPassword,
       final String keyAlias, final String basicAuthUsername, final String basicAuthPassword,
-      final int executeQueryMaxResultRows, final int http2MultiplexingLimit) {
+      final int executeQueryMaxResultRows, final int http2MultiplexingLimit,
+      final boolean useBinaryQueryStreamFormat, final int http2MaxConnections,
+      final int http2StreamWindowSize, final List<String> additionalHosts) {
     this.host = Objects.requireNonNull(host);
     this.port = port;
     this.useTls = useTls;
@@ -70,6 +78,10 @@ public class ClientOptionsImpl implements ClientOptions {
     this.basicAuthPassword = basicAuthPassword;
     this.executeQueryMaxResultRows = executeQueryMaxResultRows;
     this.http2MultiplexingLimit = http2MultiplexingLimit;
+    this.useBinaryQueryStreamFormat = useBinaryQueryStreamFormat;
+    this.http2MaxConnections = http2MaxConnections;
+    this.http2StreamWindowSize = http2StreamWindowSize;
+    this.additionalHosts = additionalHosts;
   }
 
   @Override
@@ -158,6 +170,30 @@ public class ClientOptionsImpl implements ClientOptions {
     return this;
   }
 
+  @Override
+  public ClientOptions setUseBinaryQueryStreamFormat(final boolean useBinaryQueryStreamFormat) {
+    this.useBinaryQueryStreamFormat = useBinaryQueryStreamFormat;
+    return this;
+  }
+
+  @Override
+  public ClientOptions setHttp2MaxConnections(final int http2MaxConnections) {
+    this.http2MaxConnections = http2MaxConnections;
+    return this;
+  }
+
+  @Override
+  public ClientOptions setHttp2StreamWindowSize(final int http2StreamWindowSize) {
+    this.http2StreamWindowSize = http2StreamWindowSize;
+    return this;
+  }
+
+  @Override
+  public ClientOptions setAdditionalHosts(final List<String> additionalHosts) {
+    this.additionalHosts = ImmutableList.copyOf(additionalHosts);
+    return this;
+  }
+
   @Override
   public String getHost() {
     return host == null ? "" : host;
@@ -238,6 +274,26 @@ public class ClientOptionsImpl implements ClientOptions {
     return http2MultiplexingLimit;
   }
 
+  @Override
+  public boolean isUseBinaryQueryStreamFormat() {
+    return useBinaryQueryStreamFormat;
+  }
+
+  @Override
+  public int getHttp2MaxConnections() {
+    return http2MaxConnections;
+  }
+
+  @Override
+  public int getHttp2StreamWindowSize() {
+    return http2StreamWindowSize;
+  }
+
+  @Override
+  public List<String> getAdditionalHosts() {
+    return additionalHosts;
+  }
+
   @Override
   public ClientOptions copy() {
     return new ClientOptionsImpl(
@@ -247,7 +303,9 @@ public class ClientOptionsImpl implements ClientOptions {
         trustStorePath, trustStorePassword,
         keyStorePath, keyStorePassword, keyPassword, keyAlias,
         basicAuthUsername, basicAuthPassword,
-        executeQueryMaxResultRows, http2MultiplexingLimit);
+        executeQueryMaxResultRows, http2MultiplexingLimit,
+        useBinaryQueryStreamFormat, http2MaxConnections,
+        http2StreamWindowSize, additionalHosts);
   }
 
   // CHECKSTYLE_RULES.OFF: CyclomaticComplexity
@@ -275,14 +333,19 @@ public class ClientOptionsImpl implements ClientOptions {
         && Objects.equals(keyAlias, that.keyAlias)
         && Objects.equals(basicAuthUsername, that.basicAuthUsername)
         && Objects.equals(basicAuthPassword, that.basicAuthPassword)
-        && http2MultiplexingLimit == that.http2MultiplexingLimit;
+        && http2MultiplexingLimit == that.http2MultiplexingLimit
+        && useBinaryQueryStreamFormat == that.useBinaryQueryStreamFormat
+        && http2MaxConnections == that.http2MaxConnections
+        && http2StreamWindowSize == that.http2StreamWindowSize
+        && additionalHosts.equals(that.additionalHosts);
   }
 
   @Override
   public int hashCode() {
     return Objects.hash(host, port, useTls, verifyHost, useAlpn, trustStorePath,
         trustStorePassword, keyStorePath, keyStorePassword, keyPassword, keyAlias,
-        basicAuthUsername, basicAuthPassword, executeQueryMaxResultRows, http2MultiplexingLimit);
+        basicAuthUsername, basicAuthPassword, executeQueryMaxResultRows, http2MultiplexingLimit,
+        useBinaryQueryStreamFormat, http2MaxConnections, http2StreamWindowSize, additionalHosts);
   }
 
   @Override
@@ -303,6 +366,10 @@ public class ClientOptionsImpl implements ClientOptions {
         + ", basicAuthPassword='" + basicAuthPassword + '\''
         + ", executeQueryMaxResultRows=" + executeQueryMaxResultRows + '\''
         + ", http2MultiplexingLimit=" + http2MultiplexingLimit
+        + ", useBinaryQueryStreamFormat=" + useBinaryQueryStreamFormat
+        + ", http2MaxConnections=" + http2MaxConnections
+        + ", http2StreamWindowSize=" + http2StreamWindowSize
+        + ", additionalHosts=" + additionalHosts
         + '}';
   }
 }
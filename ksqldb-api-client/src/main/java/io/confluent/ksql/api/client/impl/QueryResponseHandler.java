@@ -20,6 +20,8 @@ import io.confluent.ksql.api.client.util.JsonMapper;
 import io.confluent.ksql.rest.entity.QueryResponseMetadata;
 import io.vertx.core.Context;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
 import io.vertx.core.parsetools.RecordParser;
 import java.util.concurrent.CompletableFuture;
 
@@ -28,15 +30,29 @@ abstract class QueryResponseHandler<T extends CompletableFuture<?>> extends Resp
   private static final ObjectMapper JSON_MAPPER = JsonMapper.get();
 
   protected boolean hasReadArguments;
+  private final boolean binaryFormat;
+  private int numColumns;
+  private boolean expectingFrameLength = true;
 
-  QueryResponseHandler(final Context context, final RecordParser recordParser, final T cf) {
+  QueryResponseHandler(
+      final Context context,
+      final RecordParser recordParser,
+      final T cf,
+      final boolean binaryFormat
+  ) {
     super(context, recordParser, cf);
+    this.binaryFormat = binaryFormat;
   }
 
   @Override
   protected void doHandleBodyBuffer(final Buffer buff) {
     if (!hasReadArguments) {
       handleArgs(buff);
+      if (binaryFormat) {
+        recordParser.fixedSizeMode(BinaryRowBatchDecoder.FRAME_LENGTH_SIZE);
+      }
+    } else if (binaryFormat) {
+      handleFrame(buff);
     } else {
       handleRow(buff);
     }
@@ -55,6 +71,10 @@ abstract class QueryResponseHandler<T extends CompletableFuture<?>> extends Resp
 
   protected abstract void handleRow(Buffer buff);
 
+  protected abstract void handleRow(JsonArray values);
+
+  protected abstract void handleError(JsonObject error);
+
   protected abstract void handleExceptionAfterFutureCompleted(Throwable t);
 
   private void handleArgs(final Buffer buff) {
@@ -68,6 +88,29 @@ abstract class QueryResponseHandler<T extends CompletableFuture<?>> extends Resp
       return;
     }
 
+    numColumns = queryResponseMetadata.columnNames.size();
     handleMetadata(queryResponseMetadata);
   }
+
+  private void handleFrame(final Buffer buff) {
+    if (expectingFrameLength) {
+      expectingFrameLength = false;
+      recordParser.fixedSizeMode(buff.getInt(0));
+      return;
+    }
+
+    expectingFrameLength = true;
+    recordParser.fixedSizeMode(BinaryRowBatchDecoder.FRAME_LENGTH_SIZE);
+
+    final byte frameType = BinaryRowBatchDecoder.frameType(buff);
+    if (frameType == BinaryRowBatchDecoder.ROWS_FRAME) {
+      for (final JsonArray row : BinaryRowBatchDecoder.decodeRows(buff, numColumns)) {
+        handleRow(row);
+      }
+    } else if (frameType == BinaryRowBatchDecoder.ERROR_FRAME) {
+      handleError(new JsonObject(BinaryRowBatchDecoder.errorPayload(buff)));
+    } else {
+      throw new IllegalStateException("Unknown frame type: " + frameType);
+    }
+  }
 }
\ No newline at end of file
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.api.client.impl;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.api.client.ClientOptions;
+import io.vertx.core.net.SocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The ksqlDB servers a client sends requests to.
+ *
+ * <p>Each request is sent to the server with the fewest in-flight requests from this client, with
+ * ties broken round-robin. Push queries are pinned to the server that runs them, so that they can
+ * later be terminated, until they're terminated or their stream ends.
+ */
+final class ServerEndpoints {
+
+  private final List<Endpoint> endpoints;
+  private final AtomicInteger nextIndex = new AtomicInteger();
+  private final Map<String, Endpoint> queryEndpoints = new ConcurrentHashMap<>();
+
+  private ServerEndpoints(final List<Endpoint> endpoints) {
+    this.endpoints = ImmutableList.copyOf(endpoints);
+  }
+
+  static ServerEndpoints create(final ClientOptions clientOptions) {
+    final ImmutableList.Builder<Endpoint> endpoints = ImmutableList.builder();
+    endpoints.add(new Endpoint(clientOptions.getHost(), clientOptions.getPort()));
+    for (final String hostAndPort : clientOptions.getAdditionalHosts()) {
+      endpoints.add(parse(hostAndPort));
+    }
+    return new ServerEndpoints(endpoints.build());
+  }
+
+  Endpoint select() {
+    if (endpoints.size() == 1) {
+      return endpoints.get(0);
+    }
+
+    final int start = Math.floorMod(nextIndex.getAndIncrement(), endpoints.size());
+    Endpoint selected = endpoints.get(start);
+    for (int i = 1; i < endpoints.size(); i++) {
+      final Endpoint candidate = endpoints.get((start + i) % endpoints.size());
+      if (candidate.getInFlightRequests() < selected.getInFlightRequests()) {
+        selected = candidate;
+      }
+    }
+    return selected;
+  }
+
+  void pinQuery(final String queryId, final Endpoint endpoint) {
+    if (queryId != null && endpoints.size() > 1) {
+      queryEndpoints.put(queryId, endpoint);
+    }
+  }
+
+  Endpoint unpinQuery(final String queryId) {
+    final Endpoint endpoint = queryId == null ? null : queryEndpoints.remove(queryId);
+    return endpoint == null ? endpoints.get(0) : endpoint;
+  }
+
+  void unpinAll() {
+    queryEndpoints.clear();
+  }
+
+  int numPinned() {
+    return queryEndpoints.size();
+  }
+
+  private static Endpoint parse(final String hostAndPort) {
+    final int separator = hostAndPort.lastIndexOf(':');
+    if (separator <= 0 || separator == hostAndPort.length() - 1) {
+      throw new IllegalArgumentException(
+          "Additional hosts must be of the form host:port. Got: " + hostAndPort);
+    }
+    final int port;
+    try {
+      port = Integer.parseInt(hostAndPort.substring(separator + 1));
+    } catch (final NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid port in additional host: " + hostAndPort, e);
+    }
+    return new Endpoint(hostAndPort.substring(0, separator), port);
+  }
+
+  static final class Endpoint {
+
+    private final String host;
+    private final int port;
+    private final SocketAddress socketAddress;
+    private final AtomicInteger inFlightRequests = new AtomicInteger();
+
+    Endpoint(final String host, final int port) {
+      this.host = Objects.requireNonNull(host);
+      this.port = port;
+      this.socketAddress = SocketAddress.inetSocketAddress(port, host);
+    }
+
+    String getHost() {
+      return host;
+    }
+
+    int getPort() {
+      return port;
+    }
+
+    SocketAddress getSocketAddress() {
+      return socketAddress;
+    }
+
+    int getInFlightRequests() {
+      return inFlightRequests.get();
+    }
+
+    void requestStarted() {
+      inFlightRequests.incrementAndGet();
+    }
+
+    void requestCompleted() {
+      inFlightRequests.decrementAndGet();
+    }
+  }
+}
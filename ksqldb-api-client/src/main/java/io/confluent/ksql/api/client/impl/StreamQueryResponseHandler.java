@@ -26,18 +26,30 @@ import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.parsetools.RecordParser;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public class StreamQueryResponseHandler
     extends QueryResponseHandler<CompletableFuture<StreamedQueryResult>> {
 
+  private final Consumer<String> onQueryStarted;
+  private final Consumer<String> onQueryEnded;
   private StreamedQueryResultImpl queryResult;
   private Map<String, Integer> columnNameToIndex;
   private boolean paused;
 
+  /**
+   * @param onQueryStarted called with the id of the query once its metadata arrives, before
+   *     {@code cf} completes.
+   * @param onQueryEnded called with the id of the query once its stream ends or fails.
+   */
   StreamQueryResponseHandler(final Context context, final RecordParser recordParser,
-      final CompletableFuture<StreamedQueryResult> cf) {
-    super(context, recordParser, cf);
+      final CompletableFuture<StreamedQueryResult> cf, final boolean binaryFormat,
+      final Consumer<String> onQueryStarted, final Consumer<String> onQueryEnded) {
+    super(context, recordParser, cf, binaryFormat);
+    this.onQueryStarted = Objects.requireNonNull(onQueryStarted);
+    this.onQueryEnded = Objects.requireNonNull(onQueryEnded);
   }
 
   @Override
@@ -49,47 +61,59 @@ public class StreamQueryResponseHandler
         RowUtil.columnTypesFromStrings(queryResponseMetadata.columnTypes)
     );
     this.columnNameToIndex = RowUtil.valueToIndexMap(queryResponseMetadata.columnNames);
+    onQueryStarted.accept(queryResult.queryID());
     cf.complete(queryResult);
   }
 
   @Override
   protected void handleRow(final Buffer buff) {
-    if (queryResult == null) {
-      throw new IllegalStateException("handleRow called before metadata processed");
-    }
-
     final Object json = buff.toJson();
     if (json instanceof JsonArray) {
-      final Row row = new RowImpl(
-          queryResult.columnNames(),
-          queryResult.columnTypes(),
-          (JsonArray) json,
-          columnNameToIndex
-      );
-      final boolean full = queryResult.accept(row);
-      if (full && !paused) {
-        recordParser.pause();
-        queryResult.drainHandler(this::publisherReceptive);
-        paused = true;
-      }
+      handleRow((JsonArray) json);
     } else if (json instanceof JsonObject) {
-      final JsonObject error = (JsonObject) json;
-      queryResult.handleError(new KsqlException(
-          error.getString("message")
-      ));
+      handleError((JsonObject) json);
     } else {
       throw new RuntimeException("Could not decode JSON: " + json);
     }
   }
 
+  @Override
+  protected void handleRow(final JsonArray values) {
+    if (queryResult == null) {
+      throw new IllegalStateException("handleRow called before metadata processed");
+    }
+
+    final Row row = new RowImpl(
+        queryResult.columnNames(),
+        queryResult.columnTypes(),
+        values,
+        columnNameToIndex
+    );
+    final boolean full = queryResult.accept(row);
+    if (full && !paused) {
+      recordParser.pause();
+      queryResult.drainHandler(this::publisherReceptive);
+      paused = true;
+    }
+  }
+
+  @Override
+  protected void handleError(final JsonObject error) {
+    queryResult.handleError(new KsqlException(
+        error.getString("message")
+    ));
+  }
+
   @Override
   protected void doHandleBodyEnd() {
     queryResult.complete();
+    onQueryEnded.accept(queryResult.queryID());
   }
 
   @Override
   public void handleExceptionAfterFutureCompleted(final Throwable t) {
     queryResult.handleError(new Exception(t));
+    onQueryEnded.accept(queryResult.queryID());
   }
 
   private void publisherReceptive() {
@@ -23,6 +23,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.instanceOf;
@@ -478,6 +479,62 @@ public class ClientTest extends BaseApiTest {
     verifyPullQueryServerState();
   }
 
+  @Test
+  public void shouldExecutePullQueryWithBinaryFormat() throws Exception {
+    // Given
+    final Client binaryClient = Client.create(
+        createJavaClientOptions().setUseBinaryQueryStreamFormat(true), vertx);
+
+    try {
+      // When
+      final BatchedQueryResult batchedQueryResult = binaryClient.executeQuery(DEFAULT_PULL_QUERY);
+
+      // Then
+      assertThat(batchedQueryResult.queryID().get(), is(nullValue()));
+
+      verifyRows(batchedQueryResult.get());
+
+      verifyPullQueryServerState();
+    } finally {
+      binaryClient.close();
+    }
+  }
+
+  @Test
+  public void shouldRecordRequestMetrics() throws Exception {
+    // When
+    javaClient.executeQuery(DEFAULT_PULL_QUERY).get();
+
+    // Then
+    final ClientMetrics metrics = javaClient.getMetrics();
+    assertThat(metrics.getTotalRequests(), is(1L));
+    assertThat(metrics.getFailedRequests(), is(0L));
+    assertThat(metrics.getInFlightRequests(), is(0));
+    assertThat(metrics.getConnectionsOpened(), is(1L));
+    assertThat(metrics.getRequestLatencyMaxMs(), greaterThan(0.0));
+  }
+
+  @Test
+  public void shouldStreamPushQueryWithBinaryFormat() throws Exception {
+    // Given
+    final Client binaryClient = Client.create(
+        createJavaClientOptions().setUseBinaryQueryStreamFormat(true), vertx);
+
+    try {
+      // When
+      final StreamedQueryResult streamedQueryResult = binaryClient
+          .streamQuery(DEFAULT_PUSH_QUERY, DEFAULT_PUSH_QUERY_REQUEST_PROPERTIES).get();
+
+      // Then
+      assertThat(streamedQueryResult.columnNames(), is(DEFAULT_COLUMN_NAMES));
+      assertThat(streamedQueryResult.columnTypes(), is(DEFAULT_COLUMN_TYPES));
+
+      shouldReceiveRows(streamedQueryResult, false);
+    } finally {
+      binaryClient.close();
+    }
+  }
+
   @Test
   public void shouldExecutePushWithLimitQuery() throws Exception {
     // When
@@ -541,6 +598,21 @@ public class ClientTest extends BaseApiTest {
     assertThatEventually(streamedQueryResult::isComplete, is(true));
   }
 
+  @Test
+  public void shouldCountPushQueryAsInFlightUntilItsStreamEnds() throws Exception {
+    // Given
+    final StreamedQueryResult streamedQueryResult =
+        javaClient.streamQuery(DEFAULT_PUSH_QUERY, DEFAULT_PUSH_QUERY_REQUEST_PROPERTIES).get();
+    assertThat(javaClient.getMetrics().getInFlightRequests(), is(1));
+
+    // When
+    javaClient.terminatePushQuery(streamedQueryResult.queryID()).get();
+
+    // Then
+    assertThatEventually(streamedQueryResult::isComplete, is(true));
+    assertThatEventually(() -> javaClient.getMetrics().getInFlightRequests(), is(0));
+  }
+
   @Test
   public void shouldTerminatePushQueryIssuedViaExecuteQuery() throws Exception {
     // Given
@@ -1021,7 +1093,8 @@ public class ClientTest extends BaseApiTest {
         new QueryDescription(new QueryId("id"), "sql", Optional.empty(),
             Collections.emptyList(), Collections.emptySet(), Collections.emptySet(), "topology",
             "executionPlan", Collections.emptyMap(), Collections.emptyMap(),
-            KsqlQueryType.PERSISTENT, Collections.emptyList(), Collections.emptySet()));
+            KsqlQueryType.PERSISTENT, Collections.emptyList(), Collections.emptySet(),
+            Collections.emptyList()));
     testEndpoints.setKsqlEndpointResponse(Collections.singletonList(entity));
 
     // When
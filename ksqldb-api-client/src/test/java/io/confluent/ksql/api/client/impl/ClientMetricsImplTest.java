@@ -0,0 +1,75 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.api.client.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class ClientMetricsImplTest {
+
+  private final ClientMetricsImpl metrics = new ClientMetricsImpl();
+
+  @Test
+  public void shouldTrackInFlightAndFailedRequests() {
+    // When:
+    metrics.recordRequestStarted();
+    metrics.recordRequestStarted();
+    metrics.recordRequestCompleted(TimeUnit.MILLISECONDS.toNanos(1), true);
+
+    // Then:
+    assertThat(metrics.getTotalRequests(), is(2L));
+    assertThat(metrics.getInFlightRequests(), is(1));
+    assertThat(metrics.getFailedRequests(), is(1L));
+  }
+
+  @Test
+  public void shouldTrackConnectionsOpened() {
+    // When:
+    metrics.recordConnectionOpened();
+
+    // Then:
+    assertThat(metrics.getConnectionsOpened(), is(1L));
+  }
+
+  @Test
+  public void shouldComputeLatencyStatistics() {
+    // Given:
+    for (int i = 0; i < 99; i++) {
+      metrics.recordRequestStarted();
+      metrics.recordRequestCompleted(TimeUnit.MILLISECONDS.toNanos(1), false);
+    }
+    metrics.recordRequestStarted();
+    metrics.recordRequestCompleted(TimeUnit.MILLISECONDS.toNanos(100), false);
+
+    // Then:
+    assertThat(metrics.getRequestLatencyMaxMs(), is(100.0));
+    assertThat(metrics.getRequestLatencyMeanMs(), is(1.99));
+    assertThat(metrics.getRequestLatencyPercentileMs(50), greaterThanOrEqualTo(1.0));
+    assertThat(metrics.getRequestLatencyPercentileMs(50), lessThan(2.1));
+    assertThat(metrics.getRequestLatencyPercentileMs(100), is(100.0));
+  }
+
+  @Test
+  public void shouldReturnZeroLatencyWithoutRequests() {
+    assertThat(metrics.getRequestLatencyMeanMs(), is(0.0));
+    assertThat(metrics.getRequestLatencyPercentileMs(99), is(0.0));
+  }
+}
@@ -15,6 +15,7 @@
 
 package io.confluent.ksql.api.client.impl;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.testing.EqualsTester;
 import io.confluent.ksql.api.client.ClientOptions;
 import org.junit.Test;
@@ -66,6 +67,18 @@ public class ClientOptionsImplTest {
         .addEqualityGroup(
             ClientOptions.create().setHttp2MultiplexingLimit(5)
         )
+        .addEqualityGroup(
+            ClientOptions.create().setUseBinaryQueryStreamFormat(true)
+        )
+        .addEqualityGroup(
+            ClientOptions.create().setHttp2MaxConnections(4)
+        )
+        .addEqualityGroup(
+            ClientOptions.create().setHttp2StreamWindowSize(1024 * 1024)
+        )
+        .addEqualityGroup(
+            ClientOptions.create().setAdditionalHosts(ImmutableList.of("other:8088"))
+        )
         .testEquals();
   }
 
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.api.client.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.api.client.ClientOptions;
+import io.confluent.ksql.api.client.impl.ServerEndpoints.Endpoint;
+import org.junit.Test;
+
+public class ServerEndpointsTest {
+
+  private static final ClientOptions OPTIONS = ClientOptions.create()
+      .setHost("host1")
+      .setPort(8088)
+      .setAdditionalHosts(ImmutableList.of("host2:8089"));
+
+  @Test
+  public void shouldOnlyUsePrimaryHostByDefault() {
+    // Given:
+    final ServerEndpoints endpoints = ServerEndpoints.create(ClientOptions.create());
+
+    // When:
+    final Endpoint first = endpoints.select();
+    final Endpoint second = endpoints.select();
+
+    // Then:
+    assertThat(first.getHost(), is(ClientOptions.DEFAULT_HOST));
+    assertThat(first.getPort(), is(ClientOptions.DEFAULT_HOST_PORT));
+    assertThat(second, is(first));
+  }
+
+  @Test
+  public void shouldRoundRobinBetweenIdleHosts() {
+    // Given:
+    final ServerEndpoints endpoints = ServerEndpoints.create(OPTIONS);
+
+    // When:
+    final Endpoint first = endpoints.select();
+    final Endpoint second = endpoints.select();
+
+    // Then:
+    assertThat(first.getHost(), is("host1"));
+    assertThat(second.getHost(), is("host2"));
+    assertThat(second.getPort(), is(8089));
+  }
+
+  @Test
+  public void shouldSelectHostWithFewestInFlightRequests() {
+    // Given:
+    final ServerEndpoints endpoints = ServerEndpoints.create(OPTIONS);
+    final Endpoint busy = endpoints.select();
+    busy.requestStarted();
+    busy.requestStarted();
+    final Endpoint other = endpoints.select();
+    other.requestStarted();
+
+    // When:
+    final Endpoint selected = endpoints.select();
+
+    // Then:
+    assertThat(selected, is(other));
+    assertThat(selected, is(not(busy)));
+  }
+
+  @Test
+  public void shouldRouteTerminateToServerRunningQuery() {
+    // Given:
+    final ServerEndpoints endpoints = ServerEndpoints.create(OPTIONS);
+    endpoints.select();
+    final Endpoint queryEndpoint = endpoints.select();
+    endpoints.pinQuery("query1", queryEndpoint);
+
+    // When:
+    final Endpoint endpoint = endpoints.unpinQuery("query1");
+
+    // Then:
+    assertThat(endpoint, is(queryEndpoint));
+    assertThat(endpoints.unpinQuery("query1").getHost(), is("host1"));
+  }
+
+  @Test
+  public void shouldRouteTerminateOfUnknownQueryToPrimaryHost() {
+    // Given:
+    final ServerEndpoints endpoints = ServerEndpoints.create(OPTIONS);
+
+    // When:
+    final Endpoint endpoint = endpoints.unpinQuery(null);
+
+    // Then:
+    assertThat(endpoint.getHost(), is("host1"));
+  }
+
+  @Test
+  public void shouldUnpinAllQueries() {
+    // Given:
+    final ServerEndpoints endpoints = ServerEndpoints.create(OPTIONS);
+    endpoints.pinQuery("query1", endpoints.select());
+    endpoints.pinQuery("query2", endpoints.select());
+
+    // When:
+    endpoints.unpinAll();
+
+    // Then:
+    assertThat(endpoints.numPinned(), is(0));
+  }
+
+  @Test
+  public void shouldThrowOnInvalidAdditionalHost() {
+    // When:
+    final Exception e = assertThrows(
+        IllegalArgumentException.class,
+        () -> ServerEndpoints.create(
+            ClientOptions.create().setAdditionalHosts(ImmutableList.of("host2")))
+    );
+
+    // Then:
+    assertThat(e.getMessage(), containsString("host:port"));
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import static io.confluent.ksql.GenericRow.genericRow;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.codegen.CodeGenRunner;
+import io.confluent.ksql.execution.codegen.helpers.SearchedCaseFunction;
+import io.confluent.ksql.execution.codegen.helpers.SearchedCaseFunction.LazyWhenClause;
+import io.confluent.ksql.execution.expression.tree.ComparisonExpression;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.expression.tree.LongLiteral;
+import io.confluent.ksql.execution.expression.tree.SearchedCaseExpression;
+import io.confluent.ksql.execution.expression.tree.StringLiteral;
+import io.confluent.ksql.execution.expression.tree.UnqualifiedColumnReferenceExp;
+import io.confluent.ksql.execution.expression.tree.WhenClause;
+import io.confluent.ksql.execution.interpreter.InterpretedExpressionFactory;
+import io.confluent.ksql.execution.transform.ExpressionEvaluator;
+import io.confluent.ksql.function.FunctionRegistry;
+import io.confluent.ksql.function.InternalFunctionRegistry;
+import io.confluent.ksql.logging.processing.NoopProcessingLogContext;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarks evaluating a bucketing CASE expression, i.e. {@code CASE WHEN V < 1 THEN 'b0'
+ * WHEN V < 2 THEN 'b1' ... ELSE 'other' END}, with the given number of branches.
+ *
+ * <p>{@code compiled} and {@code interpreted} evaluate the expression through code generation
+ * and the interpreter, respectively. {@code lazySuppliers} evaluates the same branches through
+ * {@link SearchedCaseFunction#searchedCaseFunction}, allocating a supplier per condition and
+ * result for every row, which is how generated code used to evaluate CASE expressions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(4)
+@Fork(1)
+public class CaseBenchmark {
+
+  private static final ColumnName V = ColumnName.of("V");
+
+  private static final LogicalSchema SCHEMA = LogicalSchema.builder()
+      .valueColumn(V, SqlTypes.BIGINT)
+      .build();
+
+  @State(Scope.Thread)
+  public static class CaseState {
+
+    @Param({"2", "10", "50"})
+    public int branches;
+
+    ExpressionEvaluator compiled;
+    ExpressionEvaluator interpreted;
+    String[] results;
+    List<GenericRow> rows;
+    int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      final List<WhenClause> whenClauses = IntStream.range(0, branches)
+          .mapToObj(i -> new WhenClause(
+              new ComparisonExpression(
+                  ComparisonExpression.Type.LESS_THAN,
+                  new UnqualifiedColumnReferenceExp(V),
+                  new LongLiteral(i + 1)
+              ),
+              new StringLiteral("b" + i)
+          ))
+          .collect(Collectors.toList());
+
+      final Expression expression = new SearchedCaseExpression(
+          whenClauses,
+          Optional.of(new StringLiteral("other"))
+      );
+
+      final KsqlConfig ksqlConfig = new KsqlConfig(Collections.emptyMap());
+      final FunctionRegistry functionRegistry = new InternalFunctionRegistry();
+
+      compiled = CodeGenRunner.compileExpression(
+          expression, "Select", SCHEMA, ksqlConfig, functionRegistry);
+      interpreted = InterpretedExpressionFactory.create(
+          expression, SCHEMA, functionRegistry, ksqlConfig);
+
+      results = IntStream.range(0, branches)
+          .mapToObj(i -> "b" + i)
+          .toArray(String[]::new);
+
+      // Rows that hit every branch, and the default, in turn:
+      rows = new ArrayList<>();
+      for (long v = 0; v <= branches; v++) {
+        rows.add(genericRow(v));
+      }
+    }
+
+    GenericRow nextRow() {
+      final GenericRow row = rows.get(next);
+      next = (next + 1) % rows.size();
+      return row;
+    }
+  }
+
+  @Benchmark
+  public Object compiled(final CaseState state) {
+    return evaluate(state.compiled, state.nextRow());
+  }
+
+  @Benchmark
+  public Object interpreted(final CaseState state) {
+    return evaluate(state.interpreted, state.nextRow());
+  }
+
+  @Benchmark
+  public Object lazySuppliers(final CaseState state) {
+    final Long v = (Long) state.nextRow().get(0);
+
+    final List<LazyWhenClause<String>> whenClauses = new ArrayList<>(state.branches);
+    for (int i = 0; i < state.branches; i++) {
+      final long bound = i + 1;
+      final String result = state.results[i];
+      whenClauses.add(SearchedCaseFunction.whenClause(() -> v < bound, () -> result));
+    }
+
+    return SearchedCaseFunction.searchedCaseFunction(whenClauses, () -> "other");
+  }
+
+  private static Object evaluate(final ExpressionEvaluator evaluator, final GenericRow row) {
+    return evaluator.evaluate(
+        row,
+        null,
+        NoopProcessingLogContext.NOOP_LOGGER,
+        () -> "Failed to evaluate CASE"
+    );
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    final Options opt = new OptionsBuilder()
+        .include(CaseBenchmark.class.getSimpleName())
+        .build();
+
+    new Runner(opt).run();
+  }
+}
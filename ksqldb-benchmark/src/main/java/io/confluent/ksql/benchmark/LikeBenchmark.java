@@ -0,0 +1,99 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import io.confluent.ksql.execution.codegen.helpers.LikeEvaluator;
+import io.confluent.ksql.execution.codegen.helpers.LikeMatcher;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarks SQL 'LIKE' matching for the common shapes of pattern.
+ *
+ * <p>{@code precompiled} is the path taken for literal patterns, {@code cached} the path for
+ * patterns that are only known per row, and {@code compilePerRow} the cost of compiling the
+ * pattern for every row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(4)
+@Fork(1)
+public class LikeBenchmark {
+
+  private static final String VALUE = "https://www.example.com/shop/checkout/confirm?id=1234";
+
+  @State(Scope.Thread)
+  public static class LikeState {
+
+    @Param({
+        "https://www.example.com/shop/checkout/confirm?id=1234", // exact
+        "https://www.example.com/%",                              // prefix
+        "%?id=1234",                                              // suffix
+        "%/checkout/%",                                           // contains
+        "%/shop/%/confirm%"                                       // complex
+    })
+    public String pattern;
+
+    LikeMatcher matcher;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      matcher = LikeMatcher.compile(pattern, Optional.empty());
+    }
+  }
+
+  @Benchmark
+  public boolean precompiled(final LikeState state) {
+    return state.matcher.matches(VALUE);
+  }
+
+  @Benchmark
+  public boolean cached(final LikeState state) {
+    return LikeEvaluator.matches(VALUE, state.pattern);
+  }
+
+  @Benchmark
+  public boolean compilePerRow(final LikeState state) {
+    return LikeMatcher.compile(state.pattern, Optional.empty()).matches(VALUE);
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    final Options opt = new OptionsBuilder()
+        .include(LikeBenchmark.class.getSimpleName())
+        .build();
+
+    new Runner(opt).run();
+  }
+}
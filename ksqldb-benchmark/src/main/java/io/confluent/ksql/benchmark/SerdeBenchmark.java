@@ -85,15 +85,22 @@ public class SerdeBenchmark {
 
   private static final String IMPRESSIONS_SCHEMA = "impressions";
   private static final String METRICS_SCHEMA = "metrics";
+  private static final String AGGREGATE_SCHEMA = "aggregate";
   private static final String SINGLE_KEY_SCHEMA = "single-key";
 
   private static final String SEPARATOR = "/";
 
   private static final String JSON_FORMAT = "JSON";
   private static final String AVRO_FORMAT = "Avro";
+  // Avro, deserialized via Connect's data model rather than the direct decoder:
+  private static final String AVRO_CONNECT_FORMAT = "AvroConnect";
   private static final String PROTOBUF_FORMAT = "Protobuf";
+  // Protobuf, serialized and deserialized via Connect's data model rather than the direct serde:
+  private static final String PROTOBUF_CONNECT_FORMAT = "ProtobufConnect";
   private static final String DELIMITED_FORMAT = "Delimited";
   private static final String KAFKA_FORMAT = "Kafka";
+  // The internal-only format used for repartition topics, changelog topics and state stores:
+  private static final String KSQL_BINARY_FORMAT = "KsqlBinary";
 
   private static final class Params {
 
@@ -134,14 +141,25 @@ public class SerdeBenchmark {
         IMPRESSIONS_SCHEMA + SEPARATOR + DELIMITED_FORMAT,
         // IMPRESSIONS + KAFKA excluded as KAFKA does not support multiple columns
         IMPRESSIONS_SCHEMA + SEPARATOR + PROTOBUF_FORMAT,
+        IMPRESSIONS_SCHEMA + SEPARATOR + PROTOBUF_CONNECT_FORMAT,
         IMPRESSIONS_SCHEMA + SEPARATOR + JSON_FORMAT,
         IMPRESSIONS_SCHEMA + SEPARATOR + AVRO_FORMAT,
+        IMPRESSIONS_SCHEMA + SEPARATOR + AVRO_CONNECT_FORMAT,
+        IMPRESSIONS_SCHEMA + SEPARATOR + KSQL_BINARY_FORMAT,
 
         // METRICS + DELIMITED_FORMAT excluded as DELIMITED does not support complex types
         // METRICS + KAFKA excluded as KAFKA does not support multiple columns
         METRICS_SCHEMA + SEPARATOR + PROTOBUF_FORMAT,
+        METRICS_SCHEMA + SEPARATOR + PROTOBUF_CONNECT_FORMAT,
         METRICS_SCHEMA + SEPARATOR + JSON_FORMAT,
-        METRICS_SCHEMA + SEPARATOR + AVRO_FORMAT
+        METRICS_SCHEMA + SEPARATOR + AVRO_FORMAT,
+        METRICS_SCHEMA + SEPARATOR + AVRO_CONNECT_FORMAT,
+        METRICS_SCHEMA + SEPARATOR + KSQL_BINARY_FORMAT,
+
+        // AGGREGATE models the value of an aggregate's state store and changelog:
+        AGGREGATE_SCHEMA + SEPARATOR + JSON_FORMAT,
+        AGGREGATE_SCHEMA + SEPARATOR + AVRO_FORMAT,
+        AGGREGATE_SCHEMA + SEPARATOR + KSQL_BINARY_FORMAT
     })
     public String params;
 
@@ -200,16 +218,32 @@ public class SerdeBenchmark {
     }
 
     private static FormatInfo getFormatInfo(final String formatName) {
-      if (AvroFormat.NAME.equals(formatName)) {
+      if (AvroFormat.NAME.equals(formatName) || isAvroViaConnect(formatName)) {
         return FormatInfo.of(
             FormatFactory.AVRO.name(),
             ImmutableMap.of(AvroFormat.FULL_SCHEMA_NAME, "benchmarkSchema")
         );
       }
 
+      if (isProtobufViaConnect(formatName)) {
+        return FormatInfo.of(FormatFactory.PROTOBUF.name());
+      }
+
+      if (KSQL_BINARY_FORMAT.toUpperCase().equals(formatName)) {
+        return FormatInfo.of(FormatFactory.KSQL_BINARY.name());
+      }
+
       return FormatInfo.of(formatName);
     }
 
+    private static boolean isAvroViaConnect(final String formatName) {
+      return AVRO_CONNECT_FORMAT.toUpperCase().equals(formatName);
+    }
+
+    private static boolean isProtobufViaConnect(final String formatName) {
+      return PROTOBUF_CONNECT_FORMAT.toUpperCase().equals(formatName);
+    }
+
     private static Serde<GenericKey> getGenericKeySerde(
         final LogicalSchema schema,
         final String formatName
@@ -240,10 +274,15 @@ public class SerdeBenchmark {
 
       final SchemaRegistryClient srClient = new MockSchemaRegistryClient();
 
+      final KsqlConfig ksqlConfig = new KsqlConfig(ImmutableMap.of(
+          KsqlConfig.KSQL_AVRO_DIRECT_DECODING_ENABLED, !isAvroViaConnect(formatName),
+          KsqlConfig.KSQL_PROTOBUF_DIRECT_SERDE_ENABLED, !isProtobufViaConnect(formatName)
+      ));
+
       return GenericRowSerDe.from(
           format,
           PersistenceSchema.from(schema.value(), SerdeFeatures.of()),
-          new KsqlConfig(Collections.emptyMap()),
+          ksqlConfig,
           () -> srClient,
           "benchmark",
           ProcessingLogContext.create()
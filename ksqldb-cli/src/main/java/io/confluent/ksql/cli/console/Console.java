@@ -78,6 +78,7 @@ import io.confluent.ksql.rest.entity.QueryDescriptionEntity;
 import io.confluent.ksql.rest.entity.QueryDescriptionList;
 import io.confluent.ksql.rest.entity.QueryHostStat;
 import io.confluent.ksql.rest.entity.QueryOffsetSummary;
+import io.confluent.ksql.rest.entity.QueryStepProfile;
 import io.confluent.ksql.rest.entity.QueryTopicOffsetSummary;
 import io.confluent.ksql.rest.entity.RunningQuery;
 import io.confluent.ksql.rest.entity.SourceDescription;
@@ -635,6 +636,38 @@ public class Console implements Closeable {
         .print(this);
   }
 
+  private void printStepProfiles(final QueryDescription query) {
+    final List<QueryStepProfile> profiles = query.getStepProfiles();
+    if (profiles.isEmpty()) {
+      return;
+    }
+
+    final double totalTimeNs = profiles.stream()
+        .mapToDouble(QueryStepProfile::getEstimatedTotalTimeNs)
+        .sum();
+
+    final List<List<String>> rows = profiles.stream()
+        .map(profile -> Arrays.asList(
+            profile.getStep(),
+            String.valueOf(profile.getRecordsIn()),
+            String.valueOf(profile.getRecordsOut()),
+            String.format("%.0f", profile.getAvgTimeNs()),
+            String.format("%.1f%%", totalTimeNs == 0
+                ? 0.0
+                : 100 * profile.getEstimatedTotalTimeNs() / totalTimeNs)))
+        .collect(Collectors.toList());
+
+    new Builder()
+        .withColumnHeaders("Step", "Records In", "Records Out", "Avg Time (ns)", "Time Share")
+        .withRows(rows)
+        .withHeaderLine(String.format(
+            "%n%-20s%n%-20s",
+            "Step Profile",
+            "------------"))
+        .build()
+        .print(this);
+  }
+
   private void printQueryError(final QueryDescription query) {
     writer().println();
 
@@ -810,6 +843,7 @@ public class Console implements Closeable {
     printExecutionPlan(query);
     printTopology(query);
     printOverriddenProperties(query);
+    printStepProfiles(query);
     printQueryError(query);
   }
 
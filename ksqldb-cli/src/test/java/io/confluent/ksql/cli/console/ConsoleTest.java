@@ -70,6 +70,7 @@ import io.confluent.ksql.rest.entity.QueryDescriptionEntity;
 import io.confluent.ksql.rest.entity.QueryHostStat;
 import io.confluent.ksql.rest.entity.QueryOffsetSummary;
 import io.confluent.ksql.rest.entity.QueryStatusCount;
+import io.confluent.ksql.rest.entity.QueryStepProfile;
 import io.confluent.ksql.rest.entity.QueryTopicOffsetSummary;
 import io.confluent.ksql.rest.entity.RunningQuery;
 import io.confluent.ksql.rest.entity.SchemaInfo;
@@ -372,6 +373,48 @@ public class ConsoleTest {
                     Collections.emptySet(),
                     Optional.empty()
                 )
+            ),
+            ImmutableList.of()
+        )
+    );
+
+    final KsqlEntityList entityList = new KsqlEntityList(ImmutableList.of(queryEntity));
+
+    // When:
+    console.printKsqlEntityList(entityList);
+
+    // Then:
+    final String output = terminal.getOutputString();
+    Approvals.verify(output, approvalOptions);
+  }
+
+  @Test
+  public void shouldPrintExplainQueryWithStepProfiles() {
+    // Given:
+    final QueryDescriptionEntity queryEntity = new QueryDescriptionEntity(
+        "statement",
+        new QueryDescription(
+            new QueryId("id"),
+            "statement",
+            Optional.empty(),
+            ImmutableList.of(
+                new FieldInfo(
+                    "name",
+                    new SchemaInfo(SqlBaseType.STRING, ImmutableList.of(), null),
+                    Optional.empty())),
+            ImmutableSet.of("source"),
+            ImmutableSet.of("sink"),
+            "topology",
+            "executionPlan",
+            ImmutableMap.of(),
+            ImmutableMap.of(),
+            KsqlQueryType.PERSISTENT,
+            ImmutableList.of(),
+            ImmutableSet.of(),
+            ImmutableList.of(
+                new QueryStepProfile("KsqlTopic-Source", 100, 100, 10, 20_000),
+                new QueryStepProfile("WhereFilter", 100, 40, 10, 5_000),
+                new QueryStepProfile("Sink", 40, 40, 4, 10_000)
             )
         )
     );
@@ -27,7 +27,13 @@ import java.util.stream.Collectors;
 
 public class GenericRow {
 
+  /**
+   * Placeholder for a column of a lazy row that has not yet been decoded.
+   */
+  private static final Object NOT_DECODED = new Object();
+
   private final ArrayList<Object> values;
+  private ColumnDecoder decoder;
 
   public GenericRow() {
     this(0);
@@ -46,6 +52,30 @@ public class GenericRow {
     return new GenericRow().appendAll(columns);
   }
 
+  /**
+   * Create a row whose columns are decoded on demand, the first time each is accessed.
+   *
+   * <p>Useful where a row has many columns, only a few of which may be read, e.g. a record that
+   * is rejected by a filter on one of its columns.
+   *
+   * @param numColumns the number of columns the decoder provides.
+   * @param decoder the decoder of the columns.
+   * @param additionalCapacity the number of additional elements to allocate space for.
+   * @return the lazy row.
+   */
+  public static GenericRow fromDecoder(
+      final int numColumns,
+      final ColumnDecoder decoder,
+      final int additionalCapacity
+  ) {
+    final GenericRow row = new GenericRow(numColumns + additionalCapacity);
+    for (int i = 0; i < numColumns; i++) {
+      row.values.add(NOT_DECODED);
+    }
+    row.decoder = Objects.requireNonNull(decoder, "decoder");
+    return row;
+  }
+
   /**
    * Ensure the row has enough capacity to hold {@code additionalCapacity} more elements than its
    * current size.
@@ -63,7 +93,8 @@ public class GenericRow {
   }
 
   public Object get(final int index) {
-    return values.get(index);
+    final Object value = values.get(index);
+    return value == NOT_DECODED ? decode(index) : value;
   }
 
   public void set(final int index, final Object value) {
@@ -82,11 +113,13 @@ public class GenericRow {
 
   @JsonProperty("columns")
   public List<Object> values() {
+    decodeAll();
     return Collections.unmodifiableList(values);
   }
 
   @Override
   public String toString() {
+    decodeAll();
     return values.stream()
         .map(GenericRow::formatValue)
         .collect(Collectors.joining(" | ", "[ ", " ]"));
@@ -103,14 +136,54 @@ public class GenericRow {
     }
 
     final GenericRow that = (GenericRow) o;
+    this.decodeAll();
+    that.decodeAll();
     return Objects.equals(this.values, that.values);
   }
 
   @Override
   public int hashCode() {
+    decodeAll();
     return Objects.hash(values);
   }
 
+  private Object decode(final int index) {
+    final Object value = decoder.decode(index);
+    values.set(index, value);
+    return value;
+  }
+
+  private void decodeAll() {
+    if (decoder == null) {
+      return;
+    }
+
+    for (int i = 0; i < values.size(); i++) {
+      if (values.get(i) == NOT_DECODED) {
+        decode(i);
+      }
+    }
+
+    // Release the decoder, and the data it decodes from, once no longer needed:
+    decoder = null;
+  }
+
+  /**
+   * Decodes the columns of a lazy row.
+   *
+   * @see #fromDecoder
+   */
+  public interface ColumnDecoder {
+
+    /**
+     * Called at most once for each column.
+     *
+     * @param index the index of the column.
+     * @return the decoded value of the column.
+     */
+    Object decode(int index);
+  }
+
   static String formatValue(final Object value) {
     if (value == null) {
       return "null";
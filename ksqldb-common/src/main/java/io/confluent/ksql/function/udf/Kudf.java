@@ -15,6 +15,19 @@
 
 package io.confluent.ksql.function.udf;
 
+import java.util.List;
+import java.util.Optional;
+
 public interface Kudf {
   Object evaluate(Object... args);
+
+  /**
+   * Called once, before the first call to {@link #evaluate}, with the arguments whose values are
+   * the same for every call.
+   *
+   * @param constantArgs one entry per argument, holding its value if it is constant.
+   * @see PreparableUdf
+   */
+  default void prepare(final List<Optional<Object>> constantArgs) {
+  }
 }
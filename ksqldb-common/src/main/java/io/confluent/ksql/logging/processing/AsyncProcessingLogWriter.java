@@ -0,0 +1,387 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.logging.processing;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.confluent.ksql.logging.processing.ProcessingLogger.ErrorMessage;
+import io.confluent.ksql.metrics.MetricCollectors;
+import io.confluent.ksql.util.ReservedInternalTopics;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.CumulativeCount;
+import org.apache.kafka.common.metrics.stats.Rate;
+import org.apache.kafka.common.metrics.stats.WindowedCount;
+import org.apache.kafka.common.utils.Time;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaAndValue;
+import org.apache.kafka.connect.data.Struct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes processing log messages on a background thread, so that a flood of errors, e.g. from a
+ * producer writing malformed records, doesn't slow down the threads processing the records.
+ *
+ * <p>Messages are queued on a bounded, lock-free queue, and both built and written by a single
+ * writer thread, in batches. As the rows messages reference may still be in use by the logging
+ * thread, messages are snapshotted before being queued, see
+ * {@link ErrorMessage#snapshot}. Messages logged while the queue is full are dropped. The writer
+ * thread is started when a message is logged and stops once it has been idle for a while, as
+ * processing log contexts have no lifecycle of their own. Messages still queued when the JVM
+ * shuts down are written by a shutdown hook.
+ *
+ * <p>Repeats of the same error from the same logger within the dedup window are sampled: only
+ * one in every {@code sampleRate} repeats is written, and the number of repeats that weren't is
+ * logged once the window ends.
+ */
+final class AsyncProcessingLogWriter {
+
+  private static final Logger LOG = LoggerFactory.getLogger(AsyncProcessingLogWriter.class);
+
+  private static final String METRIC_GROUP = "processing-log";
+  private static final int BATCH_SIZE = 500;
+  private static final int MAX_TRACKED_ERRORS = 10_000;
+  private static final long IDLE_PARK_NS = TimeUnit.MILLISECONDS.toNanos(50);
+  private static final long IDLE_EXIT_MS = 5_000;
+  // All error types name their message field the same:
+  private static final String ERROR_MESSAGE_FIELD =
+      ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR_FIELD_MESSAGE;
+
+  // The writers whose thread is running, flushed on shutdown:
+  private static final Set<AsyncProcessingLogWriter> RUNNING = ConcurrentHashMap.newKeySet();
+
+  static {
+    Runtime.getRuntime().addShutdownHook(new Thread(
+        () -> RUNNING.forEach(AsyncProcessingLogWriter::flush),
+        "ksql-processing-log-flush"
+    ));
+  }
+
+  private final ProcessingLogConfig config;
+  private final int capacity;
+  private final long dedupWindowMs;
+  private final int sampleRate;
+  private final Time time;
+  private final Consumer<Runnable> writerStarter;
+  private final Sensor droppedSensor;
+  private final Sensor suppressedSensor;
+  private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger queued = new AtomicInteger();
+  private final AtomicBoolean running = new AtomicBoolean();
+
+  // Only accessed by the writer thread, or the shutdown hook, holding the lock on this writer:
+  private final Map<ErrorKey, Repeats> repeats = new HashMap<>();
+  private long lastSweepMs;
+
+  AsyncProcessingLogWriter(final ProcessingLogConfig config) {
+    this(
+        config,
+        Time.SYSTEM,
+        MetricCollectors.getMetrics(),
+        task -> {
+          final Thread writer = new Thread(task, "ksql-processing-log-writer");
+          writer.setDaemon(true);
+          writer.start();
+        }
+    );
+  }
+
+  @VisibleForTesting
+  AsyncProcessingLogWriter(
+      final ProcessingLogConfig config,
+      final Time time,
+      final Metrics metrics,
+      final Consumer<Runnable> writerStarter
+  ) {
+    this.config = requireNonNull(config, "config");
+    this.capacity = config.getInt(ProcessingLogConfig.ASYNC_QUEUE_SIZE);
+    this.dedupWindowMs = config.getLong(ProcessingLogConfig.DEDUP_WINDOW_MS);
+    this.sampleRate = config.getInt(ProcessingLogConfig.DEDUP_SAMPLE_RATE);
+    this.time = requireNonNull(time, "time");
+    this.writerStarter = requireNonNull(writerStarter, "writerStarter");
+    this.droppedSensor = countSensor(metrics, "processing-log-dropped",
+        "Processing log messages dropped as the queue of messages to write was full");
+    this.suppressedSensor = countSensor(metrics, "processing-log-suppressed",
+        "Processing log messages not written as they repeated a recent error");
+  }
+
+  /**
+   * @param name the name of the logger.
+   * @param logger the logger to write messages to.
+   * @return a logger that queues messages to be written to {@code logger} by this writer.
+   */
+  ProcessingLogger wrap(final String name, final ProcessingLogger logger) {
+    requireNonNull(name, "name");
+    requireNonNull(logger, "logger");
+    return msg -> submit(name, logger, msg);
+  }
+
+  private void submit(final String name, final ProcessingLogger logger, final ErrorMessage msg) {
+    if (queued.incrementAndGet() > capacity) {
+      queued.decrementAndGet();
+      droppedSensor.record();
+      return;
+    }
+
+    final ErrorMessage snapshot;
+    try {
+      snapshot = msg.snapshot(config);
+    } catch (final Exception e) {
+      queued.decrementAndGet();
+      LOG.warn("Failed to queue processing log message for logger " + name, e);
+      return;
+    }
+
+    queue.offer(new Entry(name, logger, snapshot));
+    if (running.compareAndSet(false, true)) {
+      writerStarter.accept(this::run);
+    }
+  }
+
+  private void run() {
+    RUNNING.add(this);
+    long lastWriteMs = time.milliseconds();
+    while (true) {
+      if (drain() > 0) {
+        lastWriteMs = time.milliseconds();
+        continue;
+      }
+
+      if (!hasRepeats() && time.milliseconds() - lastWriteMs >= IDLE_EXIT_MS) {
+        running.set(false);
+        // Keep running if a message was queued before running was cleared:
+        if (queue.isEmpty() || !running.compareAndSet(false, true)) {
+          RUNNING.remove(this);
+          return;
+        }
+      }
+
+      LockSupport.parkNanos(IDLE_PARK_NS);
+    }
+  }
+
+  /**
+   * Write all queued messages, and report any suppressed repeats.
+   */
+  @VisibleForTesting
+  synchronized void flush() {
+    while (drain() > 0) {
+      // Keep draining
+    }
+    sweep(Long.MAX_VALUE);
+  }
+
+  private synchronized boolean hasRepeats() {
+    return !repeats.isEmpty();
+  }
+
+  /**
+   * Write a batch of queued messages.
+   *
+   * @return the number of messages taken off the queue.
+   */
+  @VisibleForTesting
+  synchronized int drain() {
+    int drained = 0;
+    Entry entry;
+    while (drained < BATCH_SIZE && (entry = queue.poll()) != null) {
+      queued.decrementAndGet();
+      write(entry);
+      drained++;
+    }
+
+    final long now = time.milliseconds();
+    if (now - lastSweepMs >= dedupWindowMs) {
+      sweep(now);
+      lastSweepMs = now;
+    }
+    return drained;
+  }
+
+  private void write(final Entry entry) {
+    try {
+      final SchemaAndValue msg = entry.msg.get(config);
+      if (shouldWrite(entry.name, msg)) {
+        entry.logger.error(c -> msg);
+      }
+    } catch (final Exception e) {
+      LOG.warn("Failed to write processing log message to logger " + entry.name, e);
+    }
+  }
+
+  private boolean shouldWrite(final String name, final SchemaAndValue msg) {
+    if (dedupWindowMs <= 0 || !(msg.value() instanceof Struct)) {
+      return true;
+    }
+
+    final long now = time.milliseconds();
+    final ErrorKey key = ErrorKey.of(name, (Struct) msg.value());
+    final Repeats previous = repeats.get(key);
+    if (previous == null || now - previous.windowStartMs >= dedupWindowMs) {
+      if (previous != null) {
+        previous.report(key);
+      } else if (repeats.size() >= MAX_TRACKED_ERRORS) {
+        return true;
+      }
+      repeats.put(key, new Repeats(now));
+      return true;
+    }
+
+    previous.count++;
+    if (previous.count % sampleRate == 0) {
+      return true;
+    }
+
+    previous.suppressed++;
+    suppressedSensor.record();
+    return false;
+  }
+
+  private void sweep(final long now) {
+    final Iterator<Map.Entry<ErrorKey, Repeats>> it = repeats.entrySet().iterator();
+    while (it.hasNext()) {
+      final Map.Entry<ErrorKey, Repeats> e = it.next();
+      if (now - e.getValue().windowStartMs >= dedupWindowMs) {
+        e.getValue().report(e.getKey());
+        it.remove();
+      }
+    }
+  }
+
+  private static Sensor countSensor(
+      final Metrics metrics,
+      final String name,
+      final String description
+  ) {
+    // Each processing log context has its own writer, but they share their metrics:
+    final Sensor existing = metrics.getSensor(name);
+    if (existing != null) {
+      return existing;
+    }
+
+    final String group = ReservedInternalTopics.KSQL_INTERNAL_TOPIC_PREFIX + METRIC_GROUP;
+    final Sensor sensor = metrics.sensor(name);
+    sensor.add(
+        metrics.metricName(name + "-total", group, description, Collections.emptyMap()),
+        new CumulativeCount());
+    sensor.add(
+        metrics.metricName(name + "-rate", group, description + " per second",
+            Collections.emptyMap()),
+        new Rate(new WindowedCount()));
+    return sensor;
+  }
+
+  private static final class Entry {
+
+    private final String name;
+    private final ProcessingLogger logger;
+    private final ErrorMessage msg;
+
+    Entry(final String name, final ProcessingLogger logger, final ErrorMessage msg) {
+      this.name = name;
+      this.logger = logger;
+      this.msg = msg;
+    }
+  }
+
+  private static final class Repeats {
+
+    private final long windowStartMs;
+    private long count;
+    private long suppressed;
+
+    Repeats(final long windowStartMs) {
+      this.windowStartMs = windowStartMs;
+    }
+
+    void report(final ErrorKey key) {
+      if (suppressed > 0) {
+        LOG.warn("Processing log {} suppressed {} of {} repeats of error: {}",
+            key.name, suppressed, count, key.message);
+      }
+    }
+  }
+
+  private static final class ErrorKey {
+
+    private final String name;
+    private final Object type;
+    private final String message;
+
+    private ErrorKey(final String name, final Object type, final String message) {
+      this.name = name;
+      this.type = type;
+      this.message = message;
+    }
+
+    static ErrorKey of(final String name, final Struct struct) {
+      String message = null;
+      for (final Field field : struct.schema().fields()) {
+        if (field.schema().type() != Schema.Type.STRUCT) {
+          continue;
+        }
+
+        final Struct error = struct.getStruct(field.name());
+        if (error != null && error.schema().field(ERROR_MESSAGE_FIELD) != null) {
+          message = error.getString(ERROR_MESSAGE_FIELD);
+          break;
+        }
+      }
+
+      final Object type = struct.schema().field(ProcessingLogMessageSchema.TYPE) == null
+          ? null
+          : struct.get(ProcessingLogMessageSchema.TYPE);
+
+      return new ErrorKey(name, type, message);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final ErrorKey that = (ErrorKey) o;
+      return name.equals(that.name)
+          && Objects.equals(type, that.type)
+          && Objects.equals(message, that.message);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(name, type, message);
+    }
+  }
+}
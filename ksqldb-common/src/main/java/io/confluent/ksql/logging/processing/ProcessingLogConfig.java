@@ -81,6 +81,29 @@ public class ProcessingLogConfig extends AbstractConfig {
   private static final String INCLUDE_ROWS_DOC =
       "Toggles whether or not the processing log should include rows in log messages";
 
+  public static final String ASYNC_QUEUE_SIZE = propertyName("async.queue.size");
+  private static final int ASYNC_QUEUE_SIZE_DEFAULT = 10_000;
+  private static final String ASYNC_QUEUE_SIZE_DOC =
+      "The maximum number of processing log messages queued to be written by the background "
+          + "writer. Messages logged while the queue is full are dropped, and counted by the "
+          + "processing-log-dropped metric. Set to 0 to write messages synchronously on the "
+          + "thread that logs them.";
+
+  public static final String DEDUP_WINDOW_MS = propertyName("dedup.window.ms");
+  private static final long DEDUP_WINDOW_MS_DEFAULT = 1000L;
+  private static final String DEDUP_WINDOW_MS_DOC =
+      "The time, in milliseconds, over which repeats of the same error from the same logger are "
+          + "collapsed. Only a sample of the repeats within the window is written, and the "
+          + "number of repeats not written is logged once the window ends. Set to 0 to write "
+          + "every message. Only applies if messages are written asynchronously.";
+
+  public static final String DEDUP_SAMPLE_RATE = propertyName("dedup.sample.rate");
+  private static final int DEDUP_SAMPLE_RATE_DEFAULT = 100;
+  private static final String DEDUP_SAMPLE_RATE_DOC = String.format(
+      "One in every this many repeats of the same error within \"%s\" is written to the "
+          + "processing log.",
+      DEDUP_WINDOW_MS);
+
   private static final ConfigDef CONFIG_DEF = new ConfigDef()
       .define(
           STREAM_AUTO_CREATE,
@@ -123,7 +146,28 @@ public class ProcessingLogConfig extends AbstractConfig {
           Type.BOOLEAN,
           false,
           Importance.HIGH,
-          INCLUDE_ROWS_DOC
+          INCLUDE_ROWS_DOC)
+      .define(
+          ASYNC_QUEUE_SIZE,
+          Type.INT,
+          ASYNC_QUEUE_SIZE_DEFAULT,
+          ConfigDef.Range.atLeast(0),
+          Importance.LOW,
+          ASYNC_QUEUE_SIZE_DOC)
+      .define(
+          DEDUP_WINDOW_MS,
+          Type.LONG,
+          DEDUP_WINDOW_MS_DEFAULT,
+          ConfigDef.Range.atLeast(0),
+          Importance.LOW,
+          DEDUP_WINDOW_MS_DOC)
+      .define(
+          DEDUP_SAMPLE_RATE,
+          Type.INT,
+          DEDUP_SAMPLE_RATE_DEFAULT,
+          ConfigDef.Range.atLeast(1),
+          Importance.LOW,
+          DEDUP_SAMPLE_RATE_DOC
       );
 
   public static Set<String> configNames() {
@@ -16,6 +16,7 @@
 package io.confluent.ksql.logging.processing;
 
 import io.confluent.common.logging.StructuredLoggerFactory;
+import java.util.Optional;
 
 public final class ProcessingLogContextImpl implements ProcessingLogContext {
   private final ProcessingLogConfig config;
@@ -25,7 +26,10 @@ public final class ProcessingLogContextImpl implements ProcessingLogContext {
     this.config = config;
     this.loggerFactory = new ProcessingLoggerFactoryImpl(
         config,
-        new StructuredLoggerFactory(ProcessingLogConstants.PREFIX)
+        new StructuredLoggerFactory(ProcessingLogConstants.PREFIX),
+        config.getInt(ProcessingLogConfig.ASYNC_QUEUE_SIZE) > 0
+            ? Optional.of(new AsyncProcessingLogWriter(config))
+            : Optional.empty()
     );
   }
 
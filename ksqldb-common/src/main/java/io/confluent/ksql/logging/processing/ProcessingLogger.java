@@ -36,6 +36,20 @@ public interface ProcessingLogger {
      * @return the schema and structured error message.
      */
     SchemaAndValue get(ProcessingLogConfig config);
+
+    /**
+     * Called, on the thread logging the message, before the message is handed to another thread
+     * to be built and written.
+     *
+     * <p>Implementations that reference mutable state, e.g. the row being processed, should
+     * return a message holding a copy of whatever of that state {@link #get} will need.
+     *
+     * @param config the processing config.
+     * @return a message that is safe to build on another thread.
+     */
+    default ErrorMessage snapshot(ProcessingLogConfig config) {
+      return this;
+    }
   }
 
   /**
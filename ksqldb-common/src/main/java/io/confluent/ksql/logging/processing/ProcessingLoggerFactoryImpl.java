@@ -18,32 +18,48 @@ package io.confluent.ksql.logging.processing;
 import io.confluent.common.logging.StructuredLogger;
 import io.confluent.common.logging.StructuredLoggerFactory;
 import java.util.Collection;
+import java.util.Optional;
 import java.util.function.BiFunction;
 
 public class ProcessingLoggerFactoryImpl implements ProcessingLoggerFactory {
   private final ProcessingLogConfig config;
   private final StructuredLoggerFactory innerFactory;
   private final BiFunction<ProcessingLogConfig, StructuredLogger, ProcessingLogger> loggerFactory;
+  private final Optional<AsyncProcessingLogWriter> asyncWriter;
 
   ProcessingLoggerFactoryImpl(
       final ProcessingLogConfig config,
-      final StructuredLoggerFactory innerFactory) {
-    this(config, innerFactory, ProcessingLoggerImpl::new);
+      final StructuredLoggerFactory innerFactory,
+      final Optional<AsyncProcessingLogWriter> asyncWriter) {
+    this(config, innerFactory, ProcessingLoggerImpl::new, asyncWriter);
   }
 
   ProcessingLoggerFactoryImpl(
       final ProcessingLogConfig config,
       final StructuredLoggerFactory innerFactory,
       final BiFunction<ProcessingLogConfig, StructuredLogger, ProcessingLogger> loggerFactory
+  ) {
+    this(config, innerFactory, loggerFactory, Optional.empty());
+  }
+
+  ProcessingLoggerFactoryImpl(
+      final ProcessingLogConfig config,
+      final StructuredLoggerFactory innerFactory,
+      final BiFunction<ProcessingLogConfig, StructuredLogger, ProcessingLogger> loggerFactory,
+      final Optional<AsyncProcessingLogWriter> asyncWriter
   ) {
     this.config = config;
     this.innerFactory = innerFactory;
     this.loggerFactory = loggerFactory;
+    this.asyncWriter = asyncWriter;
   }
 
   @Override
   public ProcessingLogger getLogger(final String name) {
-    return loggerFactory.apply(config, innerFactory.getLogger(name));
+    final ProcessingLogger logger = loggerFactory.apply(config, innerFactory.getLogger(name));
+    return asyncWriter
+        .map(writer -> writer.wrap(name, logger))
+        .orElse(logger);
   }
 
   @Override
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.metrics;
+
+import com.google.common.collect.Maps;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+/**
+ * Tracks the offsets committed by the consumers of each Kafka Streams application, as a cheap
+ * signal of whether the state stores of a partition may have changed.
+ *
+ * <p>The position of a partition is a number that increases each time a commit advances the
+ * offset of any topic with that partition number. A store partition whose position is unchanged
+ * has processed no input since the position was read, up to the last commit. Positions are only
+ * known for partitions that this instance has seen committed since the last rebalance of the
+ * application, so partitions hosted as standbys, or processed with exactly-once semantics, have
+ * no known position.
+ */
+public final class CommittedOffsetTracker {
+
+  private static final Map<String, CommittedOffsetTracker> TRACKERS = Maps.newConcurrentMap();
+
+  private final Map<TopicPartition, Long> committed = new HashMap<>();
+  private final Map<Integer, Long> positions = new HashMap<>();
+  private long nextPosition;
+
+  private CommittedOffsetTracker() {
+  }
+
+  private synchronized void commit(final Map<TopicPartition, OffsetAndMetadata> offsets) {
+    for (final Map.Entry<TopicPartition, OffsetAndMetadata> e : offsets.entrySet()) {
+      final TopicPartition tp = e.getKey();
+      final long offset = e.getValue().offset();
+      final Long previous = committed.put(tp, offset);
+      if (previous == null || previous != offset || !positions.containsKey(tp.partition())) {
+        positions.put(tp.partition(), nextPosition++);
+      }
+    }
+  }
+
+  private synchronized OptionalLong position(final int partition) {
+    final Long position = positions.get(partition);
+    return position == null ? OptionalLong.empty() : OptionalLong.of(position);
+  }
+
+  private synchronized void reset() {
+    positions.clear();
+  }
+
+  /**
+   * Record offsets committed by a consumer of an application.
+   *
+   * @param applicationId the application id, i.e. the consumer group id.
+   * @param offsets the committed offsets.
+   */
+  public static void recordCommit(
+      final String applicationId,
+      final Map<TopicPartition, OffsetAndMetadata> offsets
+  ) {
+    if (applicationId == null || offsets.isEmpty()) {
+      return;
+    }
+    TRACKERS.computeIfAbsent(applicationId, aid -> new CommittedOffsetTracker()).commit(offsets);
+  }
+
+  /**
+   * @param applicationId the application id.
+   * @param partition the partition number.
+   * @return the position of the partition, or empty if it is not known.
+   */
+  public static OptionalLong position(final String applicationId, final int partition) {
+    final CommittedOffsetTracker tracker = TRACKERS.get(applicationId);
+    return tracker == null ? OptionalLong.empty() : tracker.position(partition);
+  }
+
+  /**
+   * Forget the positions of an application, e.g. because its partitions may have been reassigned.
+   * All positions read before this call are then treated as stale.
+   *
+   * @param applicationId the application id.
+   */
+  public static void notifyApplicationStateChange(final String applicationId) {
+    final CommittedOffsetTracker tracker = TRACKERS.get(applicationId);
+    if (tracker != null) {
+      tracker.reset();
+    }
+  }
+
+  public static void notifyApplicationClose(final String applicationId) {
+    TRACKERS.remove(applicationId);
+  }
+}
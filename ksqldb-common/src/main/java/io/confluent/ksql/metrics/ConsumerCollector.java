@@ -24,8 +24,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
-import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerInterceptor;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
@@ -45,8 +43,9 @@ public class ConsumerCollector implements MetricCollector, ConsumerInterceptor<O
   public static final String CONSUMER_TOTAL_MESSAGES = "consumer-total-messages";
   public static final String CONSUMER_TOTAL_BYTES = "consumer-total-bytes";
 
-  private final Map<String, TopicSensors<ConsumerRecord<Object, Object>>> topicSensors =
-      new HashMap<>();
+  private final Map<String, TopicSensors<Batch>> topicSensors = new HashMap<>();
+  // Sensors by the topic name as consumed, saving the lower-casing of each name:
+  private final Map<String, TopicSensors<Batch>> sensorsByTopic = new HashMap<>();
   private Metrics metrics;
   private String id;
   private String groupId;
@@ -78,6 +77,7 @@ public class ConsumerCollector implements MetricCollector, ConsumerInterceptor<O
 
   @Override
   public void onCommit(final Map<TopicPartition, OffsetAndMetadata> map) {
+    CommittedOffsetTracker.recordCommit(groupId, map);
   }
 
   @Override
@@ -91,30 +91,46 @@ public class ConsumerCollector implements MetricCollector, ConsumerInterceptor<O
     return records;
   }
 
+  /**
+   * Records are counted per partition, and each count recorded once per batch, rather than
+   * recording every record on each sensor.
+   */
   private void collect(final ConsumerRecords<Object, Object> consumerRecords) {
-    final Stream<ConsumerRecord<Object, Object>> stream =
-        StreamSupport.stream(consumerRecords.spliterator(), false);
-    stream.forEach(record -> record(record.topic().toLowerCase(), false, record));
+    for (final TopicPartition partition : consumerRecords.partitions()) {
+      final List<ConsumerRecord<Object, Object>> records = consumerRecords.records(partition);
+      if (records.isEmpty()) {
+        continue;
+      }
+
+      double bytes = 0;
+      for (final ConsumerRecord<Object, Object> record : records) {
+        bytes += (double) record.serializedValueSize() + record.serializedKeySize();
+      }
+
+      sensorsFor(partition.topic()).increment(new Batch(records.size(), bytes), false);
+    }
   }
 
-  private void record(
-      final String topic,
-      final boolean isError,
-      final ConsumerRecord<Object, Object> record
-  ) {
-    topicSensors.computeIfAbsent(getCounterKey(topic), k ->
-        new TopicSensors<>(topic, buildSensors(k))
-    ).increment(record, isError);
+  private TopicSensors<Batch> sensorsFor(final String topic) {
+    final TopicSensors<Batch> sensors = sensorsByTopic.get(topic);
+    if (sensors != null) {
+      return sensors;
+    }
+
+    final String key = getCounterKey(topic.toLowerCase());
+    final TopicSensors<Batch> created = topicSensors.computeIfAbsent(key, k ->
+        new TopicSensors<>(k, buildSensors(k))
+    );
+    sensorsByTopic.put(topic, created);
+    return created;
   }
 
   private String getCounterKey(final String topic) {
     return topic;
   }
 
-  private List<SensorMetric<ConsumerRecord<Object, Object>>> buildSensors(
-      final String key
-  ) {
-    final List<SensorMetric<ConsumerRecord<Object, Object>>> sensors = new ArrayList<>();
+  private List<SensorMetric<Batch>> buildSensors(final String key) {
+    final List<SensorMetric<Batch>> sensors = new ArrayList<>();
 
     // Note: synchronized due to metrics registry not handling concurrent add/check-exists
     // activity in a reliable way
@@ -122,13 +138,7 @@ public class ConsumerCollector implements MetricCollector, ConsumerInterceptor<O
       addSensor(key, CONSUMER_MESSAGES_PER_SEC, new Rate(), sensors, false);
       addSensor(key, CONSUMER_TOTAL_MESSAGES, new CumulativeSum(), sensors, false);
       addSensor(key, CONSUMER_TOTAL_BYTES, new CumulativeSum(), sensors, false,
-          (r) -> {
-            if (r == null) {
-              return 0.0;
-            } else {
-              return ((double) r.serializedValueSize() + r.serializedKeySize());
-            }
-          });
+          (b) -> b.bytes);
     }
     return sensors;
   }
@@ -137,19 +147,19 @@ public class ConsumerCollector implements MetricCollector, ConsumerInterceptor<O
       final String key,
       final String metricNameString,
       final MeasurableStat stat,
-      final List<SensorMetric<ConsumerRecord<Object, Object>>> sensors,
+      final List<SensorMetric<Batch>> sensors,
       final boolean isError
   ) {
-    addSensor(key, metricNameString, stat, sensors, isError, (r) -> (double)1);
+    addSensor(key, metricNameString, stat, sensors, isError, (b) -> (double) b.records);
   }
 
   private void addSensor(
       final String key,
       final String metricNameString,
       final MeasurableStat stat,
-      final List<SensorMetric<ConsumerRecord<Object, Object>>> sensors,
+      final List<SensorMetric<Batch>> sensors,
       final boolean isError,
-      final Function<ConsumerRecord<Object, Object>, Double> recordValue
+      final Function<Batch, Double> recordValue
   ) {
     final String name = "cons-" + key + "-" + metricNameString + "-" + id;
 
@@ -169,10 +179,10 @@ public class ConsumerCollector implements MetricCollector, ConsumerInterceptor<O
 
     final KafkaMetric metric = metrics.metrics().get(metricName);
 
-    sensors.add(new SensorMetric<ConsumerRecord<Object, Object>>(sensor, metric, time, isError) {
-      void record(final ConsumerRecord<Object, Object> record) {
-        sensor.record(recordValue.apply(record));
-        super.record(record);
+    sensors.add(new SensorMetric<Batch>(sensor, metric, time, isError) {
+      void record(final Batch batch) {
+        sensor.record(recordValue.apply(batch));
+        super.record(batch);
       }
     });
   }
@@ -180,6 +190,7 @@ public class ConsumerCollector implements MetricCollector, ConsumerInterceptor<O
   public void close() {
     MetricCollectors.remove(this.id);
     topicSensors.values().forEach(v -> v.close(metrics));
+    sensorsByTopic.clear();
   }
 
   @Override
@@ -196,4 +207,17 @@ public class ConsumerCollector implements MetricCollector, ConsumerInterceptor<O
   public String toString() {
     return getClass().getSimpleName() + " id:" + this.id + " " + topicSensors.keySet();
   }
+
+  /**
+   * The records consumed from a partition in a single batch.
+   */
+  private static final class Batch {
+    private final int records;
+    private final double bytes;
+
+    Batch(final int records, final double bytes) {
+      this.records = records;
+      this.bytes = bytes;
+    }
+  }
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.metrics;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.apache.kafka.common.metrics.Measurable;
+import org.apache.kafka.common.utils.Time;
+
+/**
+ * A lock-free histogram of latencies, with the log-linear bucketing of an HDR histogram.
+ *
+ * <p>Values below {@code 64} are tracked exactly. Larger values are tracked in buckets whose
+ * width doubles with each power of two, with 32 buckets per power of two, giving a relative
+ * precision of around 3% across the whole range. Values above {@code maxValue} are tracked as
+ * {@code maxValue}.
+ *
+ * <p>Each thread records into its own recorder, so recording never contends with other threads
+ * or takes a lock. Recorders are merged when a percentile is read. Like the Kafka
+ * {@code Percentiles} stat this replaces, only values recorded in the current and previous time
+ * windows are included.
+ */
+public final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 6;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+  private static final int NUM_WINDOWS = 2;
+
+  private final long maxValue;
+  private final int numBuckets;
+  private final long windowMs;
+  private final Time time;
+  private final List<Recorder> recorders = new CopyOnWriteArrayList<>();
+  private final ThreadLocal<Recorder> threadRecorder = ThreadLocal.withInitial(this::newRecorder);
+
+  /**
+   * @param maxValue the highest value to track.
+   * @param windowMs the length of each time window, in milliseconds.
+   * @param time the time source.
+   */
+  public LatencyHistogram(final long maxValue, final long windowMs, final Time time) {
+    if (maxValue < SUB_BUCKET_COUNT) {
+      throw new IllegalArgumentException("maxValue must be at least " + SUB_BUCKET_COUNT);
+    }
+    if (windowMs <= 0) {
+      throw new IllegalArgumentException("windowMs must be positive");
+    }
+    this.maxValue = maxValue;
+    this.numBuckets = bucketIndex(maxValue) + 1;
+    this.windowMs = windowMs;
+    this.time = requireNonNull(time, "time");
+  }
+
+  /**
+   * Record a value. Negative values are recorded as zero.
+   *
+   * @param value the value to record.
+   */
+  public void record(final long value) {
+    final long clamped = Math.min(Math.max(value, 0), maxValue);
+    threadRecorder.get().record(bucketIndex(clamped), time.milliseconds() / windowMs);
+  }
+
+  /**
+   * Get the value at a percentile of the recorded values.
+   *
+   * <p>As with an HDR histogram, the value returned is the highest value that falls in the same
+   * bucket as the value at the percentile.
+   *
+   * @param percentile the percentile, between 0 and 100.
+   * @return the value at the percentile, or zero if no values have been recorded.
+   */
+  public double percentile(final double percentile) {
+    final long window = time.milliseconds() / windowMs;
+    final long[] counts = new long[numBuckets];
+    long total = 0;
+    for (final Recorder recorder : recorders) {
+      total += recorder.addTo(counts, window);
+    }
+
+    if (total == 0) {
+      return 0.0;
+    }
+
+    final long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= target) {
+        return Math.min(highestEquivalentValue(i), maxValue);
+      }
+    }
+    return maxValue;
+  }
+
+  /**
+   * @param percentile the percentile, between 0 and 100.
+   * @return a measurable that reports the value at the percentile.
+   */
+  public Measurable percentileMeasurable(final double percentile) {
+    return (config, now) -> percentile(percentile);
+  }
+
+  @VisibleForTesting
+  static int bucketIndex(final long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+
+    final int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+    final int subBucket = (int) (value >>> shift) - SUB_BUCKET_HALF_COUNT;
+    return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF_COUNT + subBucket;
+  }
+
+  @VisibleForTesting
+  static long highestEquivalentValue(final int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+
+    final int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF_COUNT + 1;
+    final long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF_COUNT
+        + SUB_BUCKET_HALF_COUNT;
+    return ((subBucket + 1) << shift) - 1;
+  }
+
+  private Recorder newRecorder() {
+    final Recorder recorder = new Recorder(numBuckets);
+    recorders.add(recorder);
+    return recorder;
+  }
+
+  /**
+   * The counts recorded by a single thread. Only the owning thread writes to a recorder, so counts
+   * are updated with ordered writes rather than atomic read-modify-writes.
+   */
+  private static final class Recorder {
+
+    private final AtomicIntegerArray[] counts = new AtomicIntegerArray[NUM_WINDOWS];
+    private final AtomicLongArray windows = new AtomicLongArray(NUM_WINDOWS);
+
+    Recorder(final int numBuckets) {
+      for (int i = 0; i < NUM_WINDOWS; i++) {
+        counts[i] = new AtomicIntegerArray(numBuckets);
+        windows.set(i, -1);
+      }
+    }
+
+    void record(final int bucket, final long window) {
+      final int slot = (int) (window % NUM_WINDOWS);
+      final AtomicIntegerArray slotCounts = counts[slot];
+      if (windows.get(slot) != window) {
+        // Window has rolled over: discard the counts of the window this slot last held.
+        windows.lazySet(slot, -1);
+        for (int i = 0; i < slotCounts.length(); i++) {
+          slotCounts.lazySet(i, 0);
+        }
+        windows.set(slot, window);
+      }
+      slotCounts.lazySet(bucket, slotCounts.get(bucket) + 1);
+    }
+
+    long addTo(final long[] merged, final long window) {
+      long total = 0;
+      for (int slot = 0; slot < NUM_WINDOWS; slot++) {
+        final long slotWindow = windows.get(slot);
+        if (slotWindow < 0 || slotWindow > window || window - slotWindow >= NUM_WINDOWS) {
+          continue;
+        }
+
+        final AtomicIntegerArray slotCounts = counts[slot];
+        for (int i = 0; i < merged.length; i++) {
+          final int count = slotCounts.get(i);
+          merged[i] += count;
+          total += count;
+        }
+      }
+      return total;
+    }
+  }
+}
@@ -16,13 +16,20 @@
 package io.confluent.ksql.metrics;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.confluent.common.utils.Time;
 import io.confluent.ksql.metrics.TopicSensors.SensorMetric;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerInterceptor;
 import org.apache.kafka.clients.producer.ProducerRecord;
@@ -39,11 +46,24 @@ public class ProducerCollector implements MetricCollector, ProducerInterceptor<O
   public static final String PRODUCER_MESSAGES_PER_SEC = "messages-per-sec";
   public static final String PRODUCER_TOTAL_MESSAGES = "total-messages";
 
-  private final Map<String, TopicSensors<ProducerRecord<Object, Object>>> topicSensors =
-      new HashMap<>();
+  // Sends are counted on the sending thread, and the counts recorded on the sensors at most once
+  // per flush interval, or when the stats are read. Counts are also flushed every interval in the
+  // background, so that sends are recorded even once they stop:
+  private static final long FLUSH_INTERVAL_MS = 1000;
+  private static final ScheduledExecutorService FLUSHER =
+      Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+          .setNameFormat("ksql-producer-collector-flush")
+          .setDaemon(true)
+          .build());
+
+  private final Map<String, TopicSensors<Long>> topicSensors = new ConcurrentHashMap<>();
+  // Counters by the topic name as sent, saving the lower-casing of each name:
+  private final Map<String, TopicCounter> counters = new ConcurrentHashMap<>();
+  private final AtomicLong lastFlushMs = new AtomicLong();
   private Metrics metrics;
   private String id;
   private Time time;
+  private ScheduledFuture<?> scheduledFlush;
 
   public void configure(final Map<String, ?> map) {
     final String id = (String) map.get(ProducerConfig.CLIENT_ID_CONFIG);
@@ -55,9 +75,20 @@ public class ProducerCollector implements MetricCollector, ProducerInterceptor<O
   }
 
   ProducerCollector configure(final Metrics metrics, final String id, final Time time) {
+    return configure(metrics, id, time, FLUSHER);
+  }
+
+  ProducerCollector configure(
+      final Metrics metrics,
+      final String id,
+      final Time time,
+      final ScheduledExecutorService flusher
+  ) {
     this.id = id;
     this.metrics = metrics;
     this.time = time;
+    this.scheduledFlush = flusher.scheduleAtFixedRate(
+        this::flush, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
     return this;
   }
 
@@ -67,23 +98,38 @@ public class ProducerCollector implements MetricCollector, ProducerInterceptor<O
 
   @Override
   public ProducerRecord<Object, Object> onSend(final ProducerRecord<Object, Object> record) {
-    collect(record, false);
+    counterFor(record.topic()).pending.increment();
+    maybeFlush();
     return record;
   }
 
-  private void collect(final ProducerRecord<Object, Object> record, final boolean isError) {
-    collect(isError, record.topic().toLowerCase());
+  private TopicCounter counterFor(final String topic) {
+    final TopicCounter counter = counters.get(topic);
+    if (counter != null) {
+      return counter;
+    }
+
+    return counters.computeIfAbsent(topic, t -> {
+      final String key = getKey(t.toLowerCase());
+      return new TopicCounter(
+          topicSensors.computeIfAbsent(key, k -> new TopicSensors<>(k, buildSensors(k))));
+    });
   }
 
-  private void collect(final boolean isError, final String topic) {
-    topicSensors
-        .computeIfAbsent(getKey(topic), k -> new TopicSensors<>(topic, buildSensors(k)))
-        .increment(null, isError);
+  private void maybeFlush() {
+    final long now = time.milliseconds();
+    final long last = lastFlushMs.get();
+    if (now - last >= FLUSH_INTERVAL_MS && lastFlushMs.compareAndSet(last, now)) {
+      flush();
+    }
   }
 
+  private synchronized void flush() {
+    counters.values().forEach(TopicCounter::flush);
+  }
 
-  private List<SensorMetric<ProducerRecord<Object, Object>>> buildSensors(final String key) {
-    final List<SensorMetric<ProducerRecord<Object, Object>>> sensors = new ArrayList<>();
+  private List<SensorMetric<Long>> buildSensors(final String key) {
+    final List<SensorMetric<Long>> sensors = new ArrayList<>();
 
     // Note: synchronized due to metrics registry not handling concurrent add/check-exists
     // activity in a reliable way
@@ -98,7 +144,7 @@ public class ProducerCollector implements MetricCollector, ProducerInterceptor<O
       final String key,
       final String metricNameString,
       final MeasurableStat stat,
-      final List<SensorMetric<ProducerRecord<Object, Object>>> results
+      final List<SensorMetric<Long>> results
   ) {
     final String name = "prod-" + key + "-" + metricNameString + "-" + id;
 
@@ -118,10 +164,10 @@ public class ProducerCollector implements MetricCollector, ProducerInterceptor<O
     final KafkaMetric metric = metrics.metrics().get(metricName);
 
     results.add(
-        new SensorMetric<ProducerRecord<Object, Object>>(sensor, metric, time, false) {
-          void record(final ProducerRecord<Object, Object> record) {
-            sensor.record(1);
-            super.record(record);
+        new SensorMetric<Long>(sensor, metric, time, false) {
+          void record(final Long count) {
+            sensor.record(count);
+            super.record(count);
           }
         });
   }
@@ -132,17 +178,23 @@ public class ProducerCollector implements MetricCollector, ProducerInterceptor<O
   }
 
   public void close() {
+    if (scheduledFlush != null) {
+      scheduledFlush.cancel(false);
+    }
     MetricCollectors.remove(this.id);
     topicSensors.values().forEach(v -> v.close(metrics));
+    counters.clear();
   }
 
   @Override
   public Collection<TopicSensors.Stat> stats(final String topic, final boolean isError) {
+    flush();
     return MetricUtils.stats(topic, isError, topicSensors.values());
   }
 
   @Override
   public double aggregateStat(final String name, final boolean isError) {
+    flush();
     return MetricUtils.aggregateStat(name, isError, topicSensors.values());
   }
 
@@ -150,4 +202,27 @@ public class ProducerCollector implements MetricCollector, ProducerInterceptor<O
   public String toString() {
     return getClass().getSimpleName() + " " + this.id + " " + this.topicSensors.toString();
   }
+
+  private static final class TopicCounter {
+    private final TopicSensors<Long> sensors;
+    private final LongAdder pending = new LongAdder();
+    private long flushed;
+
+    TopicCounter(final TopicSensors<Long> sensors) {
+      this.sensors = sensors;
+    }
+
+    /**
+     * Only called while holding the collector's lock. Sends counted concurrently are picked up
+     * by the next flush.
+     */
+    void flush() {
+      final long total = pending.sum();
+      final long count = total - flushed;
+      if (count > 0) {
+        flushed = total;
+        sensors.increment(count, false);
+      }
+    }
+  }
 }
@@ -270,6 +270,16 @@ public class KsqlConfig extends AbstractConfig {
       "Config to enable full table scans for pull queries";
   public static final boolean KSQL_QUERY_PULL_TABLE_SCAN_ENABLED_DEFAULT = false;
 
+  public static final String KSQL_QUERY_PULL_TABLE_SCAN_LOAD_BALANCING_ENABLED
+      = "ksql.query.pull.table.scan.load.balancing.enabled";
+  public static final String KSQL_QUERY_PULL_TABLE_SCAN_LOAD_BALANCING_ENABLED_DOC =
+      "Enables spreading the partitions of pull query table scans over all the hosts that may "
+          + "serve them, i.e. the active and any standbys allowed by the routing filters, such as "
+          + "the maximum offset lag. Each partition is read from the host with the fewest "
+          + "partition reads outstanding from this server, rather than from its active host, so "
+          + "scans may return results as stale as the allowed lag of the standbys.";
+  public static final boolean KSQL_QUERY_PULL_TABLE_SCAN_LOAD_BALANCING_ENABLED_DEFAULT = false;
+
   public static final String KSQL_QUERY_PULL_INTERPRETER_ENABLED
       = "ksql.query.pull.interpreter.enabled";
   public static final String KSQL_QUERY_PULL_INTERPRETER_ENABLED_DOC =
@@ -278,6 +288,69 @@ public class KsqlConfig extends AbstractConfig {
           + " much faster for short-lived queries.";
   public static final boolean KSQL_QUERY_PULL_INTERPRETER_ENABLED_DEFAULT = true;
 
+  public static final String KSQL_QUERY_PULL_PLAN_CACHE_SIZE_CONFIG
+      = "ksql.query.pull.plan.cache.size";
+  public static final String KSQL_QUERY_PULL_PLAN_CACHE_SIZE_DOC =
+      "The maximum number of parsed and analyzed pull query statements to cache, keyed by their"
+          + " statement text. Session variables referenced as whole literals are bound on each"
+          + " execution, so a parameterized pull query is only parsed and analyzed once. Set to 0"
+          + " to disable the cache.";
+  public static final int KSQL_QUERY_PULL_PLAN_CACHE_SIZE_DEFAULT = 1000;
+
+  public static final String KSQL_QUERY_PULL_RESULT_CACHE_MAX_ENTRIES_CONFIG
+      = "ksql.query.pull.result.cache.max.entries";
+  public static final String KSQL_QUERY_PULL_RESULT_CACHE_MAX_ENTRIES_DOC =
+      "The maximum number of pull query results to cache, keyed by their statement text and the"
+          + " partitions requested. A cached result is served while the committed offsets of the"
+          + " partitions it was read from are unchanged, or while it is younger than "
+          + "ksql.query.pull.result.cache.staleness.ms. Set to 0 to disable the cache.";
+  public static final int KSQL_QUERY_PULL_RESULT_CACHE_MAX_ENTRIES_DEFAULT = 0;
+
+  public static final String KSQL_QUERY_PULL_RESULT_CACHE_MAX_ROWS_CONFIG
+      = "ksql.query.pull.result.cache.max.rows.per.entry";
+  public static final String KSQL_QUERY_PULL_RESULT_CACHE_MAX_ROWS_DOC =
+      "The maximum number of rows in a pull query result for it to be cached.";
+  public static final int KSQL_QUERY_PULL_RESULT_CACHE_MAX_ROWS_DEFAULT = 100;
+
+  public static final String KSQL_QUERY_PULL_RESULT_CACHE_STALENESS_MS_CONFIG
+      = "ksql.query.pull.result.cache.staleness.ms";
+  public static final String KSQL_QUERY_PULL_RESULT_CACHE_STALENESS_MS_DOC =
+      "The time, in milliseconds, for which a cached pull query result may be served even if the"
+          + " state it was read from may have changed since. Set to 0 to only serve results whose"
+          + " partitions are known to be unchanged.";
+  public static final long KSQL_QUERY_PULL_RESULT_CACHE_STALENESS_MS_DEFAULT = 0L;
+
+  public static final String KSQL_QUERY_PULL_ADMISSION_KEY_LOOKUP_MAX_PARTITIONS_CONFIG
+      = "ksql.query.pull.admission.key.lookup.max.partitions";
+  public static final String KSQL_QUERY_PULL_ADMISSION_KEY_LOOKUP_MAX_PARTITIONS_DOC =
+      "The maximum number of partitions that pull query key lookups may be reading at once on"
+          + " this server. Each key lookup counts as the number of partitions its keys are in."
+          + " Key lookups beyond the limit are queued. Set to 0 for no limit.";
+  public static final int KSQL_QUERY_PULL_ADMISSION_KEY_LOOKUP_MAX_PARTITIONS_DEFAULT = 0;
+
+  public static final String KSQL_QUERY_PULL_ADMISSION_TABLE_SCAN_MAX_PARTITIONS_CONFIG
+      = "ksql.query.pull.admission.table.scan.max.partitions";
+  public static final String KSQL_QUERY_PULL_ADMISSION_TABLE_SCAN_MAX_PARTITIONS_DOC =
+      "The maximum number of partitions that pull query table scans may be reading at once on"
+          + " this server. Each table scan counts as the number of partitions it reads, so that"
+          + " scans can't take up the pull query thread pool at the expense of key lookups."
+          + " Table scans beyond the limit are queued. Set to 0 for no limit.";
+  public static final int KSQL_QUERY_PULL_ADMISSION_TABLE_SCAN_MAX_PARTITIONS_DEFAULT = 0;
+
+  public static final String KSQL_QUERY_PULL_ADMISSION_MAX_QUEUED_CONFIG
+      = "ksql.query.pull.admission.max.queued";
+  public static final String KSQL_QUERY_PULL_ADMISSION_MAX_QUEUED_DOC =
+      "The maximum number of pull queries of each kind, key lookup or table scan, that may be"
+          + " queued waiting for their partition limit. Pull queries beyond this are rejected.";
+  public static final int KSQL_QUERY_PULL_ADMISSION_MAX_QUEUED_DEFAULT = 100;
+
+  public static final String KSQL_QUERY_PULL_ADMISSION_MAX_QUEUE_TIME_MS_CONFIG
+      = "ksql.query.pull.admission.max.queue.time.ms";
+  public static final String KSQL_QUERY_PULL_ADMISSION_MAX_QUEUE_TIME_MS_DOC =
+      "The maximum time, in milliseconds, that a pull query may be queued waiting for its"
+          + " partition limit before it is rejected.";
+  public static final long KSQL_QUERY_PULL_ADMISSION_MAX_QUEUE_TIME_MS_DEFAULT = 1000L;
+
   public static final String KSQL_QUERY_PUSH_SCALABLE_ENABLED
       = "ksql.query.push.scalable.enabled";
   public static final String KSQL_QUERY_PUSH_SCALABLE_ENABLED_DOC =
@@ -293,6 +366,14 @@ public class KsqlConfig extends AbstractConfig {
           + "different performance characteristics.";
   public static final boolean KSQL_QUERY_PUSH_SCALABLE_INTERPRETER_ENABLED_DEFAULT = true;
 
+  public static final String KSQL_QUERY_PUSH_SCALABLE_CATCHUP_BUFFER_ROWS_CONFIG
+      = "ksql.query.push.scalable.catchup.buffer.rows";
+  public static final String KSQL_QUERY_PUSH_SCALABLE_CATCHUP_BUFFER_ROWS_DOC =
+      "The number of recent rows of each partition that a persistent query keeps for scalable "
+          + "push queries to catch up from when they fall behind, rather than dropping rows. "
+          + "Set to 0 to disable.";
+  public static final int KSQL_QUERY_PUSH_SCALABLE_CATCHUP_BUFFER_ROWS_DEFAULT = 0;
+
   public static final String KSQL_STRING_CASE_CONFIG_TOGGLE = "ksql.cast.strings.preserve.nulls";
   public static final String KSQL_STRING_CASE_CONFIG_TOGGLE_DOC =
       "When casting a SQLType to string, if false, use String.valueof(), else if true use"
@@ -354,6 +435,26 @@ public class KsqlConfig extends AbstractConfig {
       + "\nKSQL also marks its own internal topics as read-only. This is not controlled by this "
       + "config.";
 
+  public static final String KSQL_TOPIC_METADATA_CACHE_TTL_MS_CONFIG =
+      "ksql.topic.metadata.cache.ttl.ms";
+  public static final long KSQL_TOPIC_METADATA_CACHE_TTL_MS_DEFAULT = 5000L;
+  public static final String KSQL_TOPIC_METADATA_CACHE_TTL_MS_DOC = "The time, in milliseconds, "
+      + "for which the descriptions and configs of existing Kafka topics are cached, so that "
+      + "statements that look up the same topics repeatedly don't each make a request to Kafka. "
+      + "Topics created, deleted or altered by KSQL are refreshed immediately, while changes made "
+      + "by other clients are visible once the cached metadata expires. Set to 0 to disable the "
+      + "cache.";
+
+  public static final String KSQL_SCHEMA_LOOKUP_CACHE_TTL_MS_CONFIG =
+      "ksql.schema.lookup.cache.ttl.ms";
+  public static final long KSQL_SCHEMA_LOOKUP_CACHE_TTL_MS_DEFAULT = 5000L;
+  public static final String KSQL_SCHEMA_LOOKUP_CACHE_TTL_MS_DOC = "The time, in milliseconds, "
+      + "for which the latest schema of each Schema Registry subject is cached, so that statements "
+      + "that infer or check the schemas of the same subjects don't each make a request to the "
+      + "Schema Registry. Subjects registered or deleted by KSQL are refreshed immediately, while "
+      + "schemas registered by other clients are visible once the cached schema expires. Set to 0 "
+      + "to disable the cache.";
+
   public static final String KSQL_TIMESTAMP_THROW_ON_INVALID = "ksql.timestamp.throw.on.invalid";
   public static final Boolean KSQL_TIMESTAMP_THROW_ON_INVALID_DEFAULT = false;
   public static final String KSQL_TIMESTAMP_THROW_ON_INVALID_DOC = "If an incoming message "
@@ -393,6 +494,56 @@ public class KsqlConfig extends AbstractConfig {
           + "if false, new lambda queries won't be processed but any existing lambda "
           + "queries are unaffected.";
 
+  public static final String KSQL_AVRO_DIRECT_DECODING_ENABLED =
+      "ksql.avro.direct.decoding.enabled";
+  public static final Boolean KSQL_AVRO_DIRECT_DECODING_ENABLED_DEFAULT = true;
+  public static final String KSQL_AVRO_DIRECT_DECODING_ENABLED_DOC =
+      "Feature flag for decoding Avro records directly into ksqlDB rows, using a decoder compiled "
+          + "per writer schema, rather than via Connect's data model. Records whose schemas the "
+          + "direct decoder does not support are always decoded via Connect.";
+
+  public static final String KSQL_PROTOBUF_DIRECT_SERDE_ENABLED =
+      "ksql.protobuf.direct.serde.enabled";
+  public static final Boolean KSQL_PROTOBUF_DIRECT_SERDE_ENABLED_DEFAULT = true;
+  public static final String KSQL_PROTOBUF_DIRECT_SERDE_ENABLED_DOC =
+      "Feature flag for reading and writing Protobuf messages directly from and to ksqlDB rows, "
+          + "using field tables compiled per schema, rather than via Connect's data model. "
+          + "Messages whose schemas the direct serde does not support are always handled via "
+          + "Connect.";
+
+  public static final String KSQL_INTERNAL_BINARY_VALUE_FORMAT_ENABLED =
+      "ksql.internal.binary.value.format.enabled";
+  public static final Boolean KSQL_INTERNAL_BINARY_VALUE_FORMAT_ENABLED_DEFAULT = false;
+  public static final String KSQL_INTERNAL_BINARY_VALUE_FORMAT_ENABLED_DOC =
+      "Feature flag for writing the values of new queries' repartition topics, changelog topics "
+          + "and state stores in the compact, positional KSQL_BINARY format, rather than in the "
+          + "value format of the query's source. Existing queries keep the format they were "
+          + "started with.";
+
+  public static final String KSQL_SOURCE_PRE_FILTER_ENABLED = "ksql.source.pre.filter.enabled";
+  public static final Boolean KSQL_SOURCE_PRE_FILTER_ENABLED_DEFAULT = true;
+  public static final String KSQL_SOURCE_PRE_FILTER_ENABLED_DOC =
+      "Feature flag for evaluating the simple column comparisons in the WHERE clause of a query "
+          + "over a stream as the stream's values are deserialized, dropping values that fail "
+          + "them before any further processing. The number of dropped values is reported in the "
+          + "source-pre-filter metrics.";
+
+  public static final String KSQL_QUERY_PROFILING_ENABLED = "ksql.query.profiling.enabled";
+  public static final Boolean KSQL_QUERY_PROFILING_ENABLED_DEFAULT = false;
+  public static final String KSQL_QUERY_PROFILING_ENABLED_DOC =
+      "Feature flag for profiling the steps of persistent queries. When enabled, the number of "
+          + "records into and out of the source, filter, projection, aggregation and sink steps "
+          + "of a query are counted, and the processing time of a sample of those records is "
+          + "measured. The results are shown by EXPLAIN <queryId> and reported in the "
+          + "query-profile metrics.";
+
+  public static final String KSQL_QUERY_PROFILING_SAMPLE_INTERVAL =
+      "ksql.query.profiling.sample.interval";
+  public static final Integer KSQL_QUERY_PROFILING_SAMPLE_INTERVAL_DEFAULT = 100;
+  public static final String KSQL_QUERY_PROFILING_SAMPLE_INTERVAL_DOC =
+      "When query profiling is enabled, the processing time of one in this many records is "
+          + "measured at each profiled step.";
+
   public static final String KSQL_SUPPRESS_BUFFER_SIZE_BYTES = "ksql.suppress.buffer.size.bytes";
   public static final Long KSQL_SUPPRESS_BUFFER_SIZE_BYTES_DEFAULT = -1L;
   public static final String KSQL_SUPPRESS_BUFFER_SIZE_BYTES_DOC =
@@ -838,6 +989,22 @@ public class KsqlConfig extends AbstractConfig {
             Importance.LOW,
             KSQL_READONLY_TOPICS_DOC
         )
+        .define(
+            KSQL_TOPIC_METADATA_CACHE_TTL_MS_CONFIG,
+            Type.LONG,
+            KSQL_TOPIC_METADATA_CACHE_TTL_MS_DEFAULT,
+            ConfigValidators.zeroOrPositive(),
+            Importance.LOW,
+            KSQL_TOPIC_METADATA_CACHE_TTL_MS_DOC
+        )
+        .define(
+            KSQL_SCHEMA_LOOKUP_CACHE_TTL_MS_CONFIG,
+            Type.LONG,
+            KSQL_SCHEMA_LOOKUP_CACHE_TTL_MS_DEFAULT,
+            ConfigValidators.zeroOrPositive(),
+            Importance.LOW,
+            KSQL_SCHEMA_LOOKUP_CACHE_TTL_MS_DOC
+        )
         .define(
             KSQL_TIMESTAMP_THROW_ON_INVALID,
             Type.BOOLEAN,
@@ -887,6 +1054,13 @@ public class KsqlConfig extends AbstractConfig {
             Importance.LOW,
             KSQL_QUERY_PULL_TABLE_SCAN_ENABLED_DOC
         )
+        .define(
+            KSQL_QUERY_PULL_TABLE_SCAN_LOAD_BALANCING_ENABLED,
+            Type.BOOLEAN,
+            KSQL_QUERY_PULL_TABLE_SCAN_LOAD_BALANCING_ENABLED_DEFAULT,
+            Importance.LOW,
+            KSQL_QUERY_PULL_TABLE_SCAN_LOAD_BALANCING_ENABLED_DOC
+        )
         .define(
             KSQL_QUERY_PULL_INTERPRETER_ENABLED,
             Type.BOOLEAN,
@@ -894,6 +1068,69 @@ public class KsqlConfig extends AbstractConfig {
             Importance.LOW,
             KSQL_QUERY_PULL_INTERPRETER_ENABLED_DOC
         )
+        .define(
+            KSQL_QUERY_PULL_PLAN_CACHE_SIZE_CONFIG,
+            Type.INT,
+            KSQL_QUERY_PULL_PLAN_CACHE_SIZE_DEFAULT,
+            Importance.LOW,
+            KSQL_QUERY_PULL_PLAN_CACHE_SIZE_DOC
+        )
+        .define(
+            KSQL_QUERY_PULL_RESULT_CACHE_MAX_ENTRIES_CONFIG,
+            Type.INT,
+            KSQL_QUERY_PULL_RESULT_CACHE_MAX_ENTRIES_DEFAULT,
+            ConfigValidators.zeroOrPositive(),
+            Importance.LOW,
+            KSQL_QUERY_PULL_RESULT_CACHE_MAX_ENTRIES_DOC
+        )
+        .define(
+            KSQL_QUERY_PULL_RESULT_CACHE_MAX_ROWS_CONFIG,
+            Type.INT,
+            KSQL_QUERY_PULL_RESULT_CACHE_MAX_ROWS_DEFAULT,
+            ConfigValidators.oneOrMore(),
+            Importance.LOW,
+            KSQL_QUERY_PULL_RESULT_CACHE_MAX_ROWS_DOC
+        )
+        .define(
+            KSQL_QUERY_PULL_RESULT_CACHE_STALENESS_MS_CONFIG,
+            Type.LONG,
+            KSQL_QUERY_PULL_RESULT_CACHE_STALENESS_MS_DEFAULT,
+            ConfigValidators.zeroOrPositive(),
+            Importance.LOW,
+            KSQL_QUERY_PULL_RESULT_CACHE_STALENESS_MS_DOC
+        )
+        .define(
+            KSQL_QUERY_PULL_ADMISSION_KEY_LOOKUP_MAX_PARTITIONS_CONFIG,
+            Type.INT,
+            KSQL_QUERY_PULL_ADMISSION_KEY_LOOKUP_MAX_PARTITIONS_DEFAULT,
+            ConfigValidators.zeroOrPositive(),
+            Importance.LOW,
+            KSQL_QUERY_PULL_ADMISSION_KEY_LOOKUP_MAX_PARTITIONS_DOC
+        )
+        .define(
+            KSQL_QUERY_PULL_ADMISSION_TABLE_SCAN_MAX_PARTITIONS_CONFIG,
+            Type.INT,
+            KSQL_QUERY_PULL_ADMISSION_TABLE_SCAN_MAX_PARTITIONS_DEFAULT,
+            ConfigValidators.zeroOrPositive(),
+            Importance.LOW,
+            KSQL_QUERY_PULL_ADMISSION_TABLE_SCAN_MAX_PARTITIONS_DOC
+        )
+        .define(
+            KSQL_QUERY_PULL_ADMISSION_MAX_QUEUED_CONFIG,
+            Type.INT,
+            KSQL_QUERY_PULL_ADMISSION_MAX_QUEUED_DEFAULT,
+            ConfigValidators.zeroOrPositive(),
+            Importance.LOW,
+            KSQL_QUERY_PULL_ADMISSION_MAX_QUEUED_DOC
+        )
+        .define(
+            KSQL_QUERY_PULL_ADMISSION_MAX_QUEUE_TIME_MS_CONFIG,
+            Type.LONG,
+            KSQL_QUERY_PULL_ADMISSION_MAX_QUEUE_TIME_MS_DEFAULT,
+            ConfigValidators.zeroOrPositive(),
+            Importance.LOW,
+            KSQL_QUERY_PULL_ADMISSION_MAX_QUEUE_TIME_MS_DOC
+        )
         .define(
             KSQL_QUERY_PUSH_SCALABLE_ENABLED,
             Type.BOOLEAN,
@@ -908,6 +1145,14 @@ public class KsqlConfig extends AbstractConfig {
             Importance.LOW,
             KSQL_QUERY_PUSH_SCALABLE_INTERPRETER_ENABLED_DOC
         )
+        .define(
+            KSQL_QUERY_PUSH_SCALABLE_CATCHUP_BUFFER_ROWS_CONFIG,
+            Type.INT,
+            KSQL_QUERY_PUSH_SCALABLE_CATCHUP_BUFFER_ROWS_DEFAULT,
+            ConfigValidators.zeroOrPositive(),
+            Importance.LOW,
+            KSQL_QUERY_PUSH_SCALABLE_CATCHUP_BUFFER_ROWS_DOC
+        )
         .define(
             KSQL_ERROR_CLASSIFIER_REGEX_PREFIX,
             Type.STRING,
@@ -1005,6 +1250,49 @@ public class KsqlConfig extends AbstractConfig {
             Importance.LOW,
             KSQL_LAMBDAS_ENABLED_DOC
         )
+        .define(
+            KSQL_AVRO_DIRECT_DECODING_ENABLED,
+            Type.BOOLEAN,
+            KSQL_AVRO_DIRECT_DECODING_ENABLED_DEFAULT,
+            Importance.LOW,
+            KSQL_AVRO_DIRECT_DECODING_ENABLED_DOC
+        )
+        .define(
+            KSQL_PROTOBUF_DIRECT_SERDE_ENABLED,
+            Type.BOOLEAN,
+            KSQL_PROTOBUF_DIRECT_SERDE_ENABLED_DEFAULT,
+            Importance.LOW,
+            KSQL_PROTOBUF_DIRECT_SERDE_ENABLED_DOC
+        )
+        .define(
+            KSQL_INTERNAL_BINARY_VALUE_FORMAT_ENABLED,
+            Type.BOOLEAN,
+            KSQL_INTERNAL_BINARY_VALUE_FORMAT_ENABLED_DEFAULT,
+            Importance.LOW,
+            KSQL_INTERNAL_BINARY_VALUE_FORMAT_ENABLED_DOC
+        )
+        .define(
+            KSQL_SOURCE_PRE_FILTER_ENABLED,
+            Type.BOOLEAN,
+            KSQL_SOURCE_PRE_FILTER_ENABLED_DEFAULT,
+            Importance.LOW,
+            KSQL_SOURCE_PRE_FILTER_ENABLED_DOC
+        )
+        .define(
+            KSQL_QUERY_PROFILING_ENABLED,
+            Type.BOOLEAN,
+            KSQL_QUERY_PROFILING_ENABLED_DEFAULT,
+            Importance.LOW,
+            KSQL_QUERY_PROFILING_ENABLED_DOC
+        )
+        .define(
+            KSQL_QUERY_PROFILING_SAMPLE_INTERVAL,
+            Type.INT,
+            KSQL_QUERY_PROFILING_SAMPLE_INTERVAL_DEFAULT,
+            ConfigValidators.oneOrMore(),
+            Importance.LOW,
+            KSQL_QUERY_PROFILING_SAMPLE_INTERVAL_DOC
+        )
         .withClientSslSupport();
 
     for (final CompatibilityBreakingConfigDef compatibilityBreakingConfigDef
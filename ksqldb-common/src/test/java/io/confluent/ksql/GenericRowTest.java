@@ -25,6 +25,8 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.testing.EqualsTester;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
 import org.apache.kafka.connect.data.Struct;
@@ -155,6 +157,57 @@ public class GenericRowTest {
 
   }
 
+  @Test
+  public void shouldDecodeLazyColumnsOnFirstAccessOnly() {
+    // Given:
+    final List<Integer> decoded = new ArrayList<>();
+    final GenericRow row = GenericRow.fromDecoder(3, index -> {
+      decoded.add(index);
+      return index * 10;
+    }, 0);
+
+    // When:
+    final Object first = row.get(2);
+    final Object second = row.get(2);
+
+    // Then:
+    assertThat(first, is(20));
+    assertThat(second, is(20));
+    assertThat(decoded, contains(2));
+    assertThat(row.size(), is(3));
+  }
+
+  @Test
+  public void shouldDecodeRemainingLazyColumnsWhenValuesRequested() {
+    // Given:
+    final List<Integer> decoded = new ArrayList<>();
+    final GenericRow row = GenericRow.fromDecoder(3, index -> {
+      decoded.add(index);
+      return index * 10;
+    }, 1);
+    row.get(1);
+    row.set(2, "replaced");
+    row.append("appended");
+
+    // When:
+    final List<Object> values = row.values();
+
+    // Then:
+    assertThat(values, contains(0, 10, "replaced", "appended"));
+    assertThat(decoded, contains(1, 0));
+  }
+
+  @Test
+  public void shouldCompareLazyRowsByValue() {
+    // Given:
+    final GenericRow lazy = GenericRow.fromDecoder(2, index -> "v" + index, 0);
+
+    // Then:
+    assertThat(lazy, is(genericRow("v0", "v1")));
+    assertThat(lazy.hashCode(), is(genericRow("v0", "v1").hashCode()));
+    assertThat(lazy.toString(), is("[ 'v0' | 'v1' ]"));
+  }
+
   @Test
   public void shouldHandleRowWithNoElements() {
     final GenericRow genericRow = new GenericRow();
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.logging.processing;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.logging.processing.ProcessingLogMessageSchema.MessageType;
+import io.confluent.ksql.logging.processing.ProcessingLogger.ErrorMessage;
+import io.confluent.ksql.util.ReservedInternalTopics;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.utils.Time;
+import org.apache.kafka.connect.data.SchemaAndValue;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AsyncProcessingLogWriterTest {
+
+  private static final String NAME = "query-1";
+  private static final long WINDOW_MS = 1000L;
+
+  @Mock
+  private ProcessingLogger inner;
+  @Mock
+  private Time time;
+
+  private final List<Runnable> writers = new ArrayList<>();
+  private Metrics metrics;
+  private AsyncProcessingLogWriter writer;
+  private ProcessingLogger logger;
+
+  @Before
+  public void setUp() {
+    metrics = new Metrics();
+    givenWriter(ImmutableMap.of(
+        ProcessingLogConfig.DEDUP_WINDOW_MS, WINDOW_MS,
+        ProcessingLogConfig.DEDUP_SAMPLE_RATE, 2
+    ));
+  }
+
+  @After
+  public void tearDown() {
+    metrics.close();
+  }
+
+  @Test
+  public void shouldWriteMessagesOnlyOnceDrained() {
+    // Given:
+    final SchemaAndValue msg = error("boom");
+    logger.error(config -> msg);
+    verify(inner, never()).error(any());
+
+    // When:
+    final int drained = writer.drain();
+
+    // Then:
+    assertThat(drained, is(1));
+    assertThat(written(1).get(0), is(sameInstance(msg)));
+  }
+
+  @Test
+  public void shouldStartWriterOnce() {
+    // When:
+    logger.error(config -> error("a"));
+    logger.error(config -> error("b"));
+
+    // Then:
+    assertThat(writers, hasSize(1));
+  }
+
+  @Test
+  public void shouldBuildMessagesOnDrain() {
+    // Given:
+    final AtomicInteger built = new AtomicInteger();
+    logger.error(config -> {
+      built.incrementAndGet();
+      return error("boom");
+    });
+    assertThat(built.get(), is(0));
+
+    // When:
+    writer.drain();
+
+    // Then:
+    assertThat(built.get(), is(1));
+  }
+
+  @Test
+  public void shouldSnapshotMessagesOnSubmit() {
+    // Given:
+    final ErrorMessage msg = mock(ErrorMessage.class);
+    final SchemaAndValue built = error("boom");
+    when(msg.snapshot(any())).thenReturn(config -> built);
+
+    // When:
+    logger.error(msg);
+    writer.drain();
+
+    // Then:
+    verify(msg).snapshot(any());
+    verify(msg, never()).get(any());
+    assertThat(written(1).get(0), is(sameInstance(built)));
+  }
+
+  @Test
+  public void shouldWriteQueuedMessagesOnFlush() {
+    // Given:
+    for (int i = 0; i != 3; ++i) {
+      final String message = "error-" + i;
+      logger.error(config -> error(message));
+    }
+
+    // When:
+    writer.flush();
+
+    // Then:
+    written(3);
+  }
+
+  @Test
+  public void shouldDropMessagesWhenQueueFull() {
+    // Given:
+    givenWriter(ImmutableMap.of(ProcessingLogConfig.ASYNC_QUEUE_SIZE, 2));
+
+    // When:
+    logger.error(config -> error("a"));
+    logger.error(config -> error("b"));
+    logger.error(config -> error("c"));
+
+    // Then:
+    assertThat(writer.drain(), is(2));
+    assertThat(metricValue("processing-log-dropped-total"), is(1.0));
+  }
+
+  @Test
+  public void shouldSampleRepeatedErrors() {
+    // Given:
+    for (int i = 0; i != 5; ++i) {
+      logger.error(config -> error("boom"));
+    }
+
+    // When:
+    writer.drain();
+
+    // Then: first, then every second repeat:
+    written(3);
+    assertThat(metricValue("processing-log-suppressed-total"), is(2.0));
+  }
+
+  @Test
+  public void shouldNotCollapseDifferentErrors() {
+    // Given:
+    logger.error(config -> error("a"));
+    logger.error(config -> error("b"));
+    writer.wrap("other", inner).error(config -> error("a"));
+
+    // When:
+    writer.drain();
+
+    // Then:
+    written(3);
+  }
+
+  @Test
+  public void shouldWriteRepeatsOnceWindowEnds() {
+    // Given:
+    logger.error(config -> error("boom"));
+    writer.drain();
+
+    // When:
+    when(time.milliseconds()).thenReturn(WINDOW_MS);
+    logger.error(config -> error("boom"));
+    writer.drain();
+
+    // Then:
+    written(2);
+  }
+
+  @Test
+  public void shouldWriteAllRepeatsIfDedupDisabled() {
+    // Given:
+    givenWriter(ImmutableMap.of(ProcessingLogConfig.DEDUP_WINDOW_MS, 0L));
+    for (int i = 0; i != 3; ++i) {
+      logger.error(config -> error("boom"));
+    }
+
+    // When:
+    writer.drain();
+
+    // Then:
+    written(3);
+  }
+
+  @Test
+  public void shouldKeepWritingIfMessageFailsToBuild() {
+    // Given:
+    logger.error(config -> {
+      throw new RuntimeException("bad message");
+    });
+    logger.error(config -> error("boom"));
+
+    // When:
+    final int drained = writer.drain();
+
+    // Then:
+    assertThat(drained, is(2));
+    written(1);
+  }
+
+  private void givenWriter(final Map<String, Object> props) {
+    writers.clear();
+    writer = new AsyncProcessingLogWriter(
+        new ProcessingLogConfig(props), time, metrics, writers::add);
+    logger = writer.wrap(NAME, inner);
+  }
+
+  private List<SchemaAndValue> written(final int times) {
+    final ArgumentCaptor<ErrorMessage> captor = ArgumentCaptor.forClass(ErrorMessage.class);
+    verify(inner, times(times)).error(captor.capture());
+    final List<SchemaAndValue> msgs = new ArrayList<>();
+    captor.getAllValues().forEach(msg -> msgs.add(msg.get(null)));
+    return msgs;
+  }
+
+  private static SchemaAndValue error(final String message) {
+    final MessageType type = MessageType.RECORD_PROCESSING_ERROR;
+    final Struct struct = new Struct(ProcessingLogMessageSchema.PROCESSING_LOG_SCHEMA)
+        .put(ProcessingLogMessageSchema.TYPE, type.getTypeId())
+        .put(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR, new Struct(type.getSchema())
+            .put(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR_FIELD_MESSAGE, message));
+    return new SchemaAndValue(ProcessingLogMessageSchema.PROCESSING_LOG_SCHEMA, struct);
+  }
+
+  private double metricValue(final String name) {
+    final MetricName metricName = metrics.metricName(
+        name,
+        ReservedInternalTopics.KSQL_INTERNAL_TOPIC_PREFIX + "processing-log",
+        Collections.emptyMap()
+    );
+    return (Double) metrics.metric(metricName).metricValue();
+  }
+}
@@ -26,6 +26,7 @@ import com.google.common.collect.ImmutableList;
 import io.confluent.common.logging.StructuredLogger;
 import io.confluent.common.logging.StructuredLoggerFactory;
 import java.util.Collection;
+import java.util.Optional;
 import java.util.function.BiFunction;
 import org.junit.Before;
 import org.junit.Test;
@@ -45,6 +46,10 @@ public class ProcessingLoggerFactoryImplTest {
   private BiFunction<ProcessingLogConfig, StructuredLogger, ProcessingLogger> loggerFactory;
   @Mock
   private ProcessingLogger logger;
+  @Mock
+  private AsyncProcessingLogWriter asyncWriter;
+  @Mock
+  private ProcessingLogger asyncLogger;
 
   private final Collection<String> loggers = ImmutableList.of("logger1", "logger2");
 
@@ -69,6 +74,20 @@ public class ProcessingLoggerFactoryImplTest {
     verify(loggerFactory).apply(config, innerLogger);
   }
 
+  @Test
+  public void shouldWrapLoggerWithAsyncWriter() {
+    // Given:
+    when(asyncWriter.wrap("foo.bar", logger)).thenReturn(asyncLogger);
+    factory = new ProcessingLoggerFactoryImpl(
+        config, innerFactory, loggerFactory, Optional.of(asyncWriter));
+
+    // When:
+    final ProcessingLogger logger = factory.getLogger("foo.bar");
+
+    // Then:
+    assertThat(logger, is(asyncLogger));
+  }
+
   @Test
   public void shouldGetLoggers() {
     // When:
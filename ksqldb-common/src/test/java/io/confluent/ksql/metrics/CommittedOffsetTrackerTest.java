@@ -0,0 +1,113 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.metrics;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.OptionalLong;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.After;
+import org.junit.Test;
+
+public class CommittedOffsetTrackerTest {
+
+  private static final String APP_ID = "test-app-id";
+  private static final TopicPartition SOURCE_0 = new TopicPartition("source", 0);
+  private static final TopicPartition SOURCE_1 = new TopicPartition("source", 1);
+  private static final TopicPartition REPARTITION_0 = new TopicPartition("repartition", 0);
+
+  @After
+  public void tearDown() {
+    CommittedOffsetTracker.notifyApplicationClose(APP_ID);
+  }
+
+  @Test
+  public void shouldNotKnowPositionOfUncommittedPartition() {
+    // Given:
+    commit(SOURCE_0, 10);
+
+    // Then:
+    assertThat(CommittedOffsetTracker.position(APP_ID, 1), is(OptionalLong.empty()));
+    assertThat(CommittedOffsetTracker.position("other", 0), is(OptionalLong.empty()));
+  }
+
+  @Test
+  public void shouldNotChangePositionIfOffsetsUnchanged() {
+    // Given:
+    commit(SOURCE_0, 10);
+    final OptionalLong position = CommittedOffsetTracker.position(APP_ID, 0);
+
+    // When:
+    commit(SOURCE_0, 10);
+    commit(SOURCE_1, 5);
+
+    // Then:
+    assertThat(position.isPresent(), is(true));
+    assertThat(CommittedOffsetTracker.position(APP_ID, 0), is(position));
+  }
+
+  @Test
+  public void shouldChangePositionIfAnyTopicOfPartitionAdvances() {
+    // Given:
+    commit(SOURCE_0, 10);
+    final OptionalLong position = CommittedOffsetTracker.position(APP_ID, 0);
+
+    // When:
+    commit(REPARTITION_0, 3);
+
+    // Then:
+    assertThat(CommittedOffsetTracker.position(APP_ID, 0), is(not(position)));
+  }
+
+  @Test
+  public void shouldForgetPositionsOnStateChange() {
+    // Given:
+    commit(SOURCE_0, 10);
+    final OptionalLong position = CommittedOffsetTracker.position(APP_ID, 0);
+
+    // When:
+    CommittedOffsetTracker.notifyApplicationStateChange(APP_ID);
+
+    // Then:
+    assertThat(CommittedOffsetTracker.position(APP_ID, 0), is(OptionalLong.empty()));
+
+    // When:
+    commit(SOURCE_0, 10);
+
+    // Then:
+    assertThat(CommittedOffsetTracker.position(APP_ID, 0), is(not(position)));
+  }
+
+  @Test
+  public void shouldForgetApplicationOnClose() {
+    // Given:
+    commit(SOURCE_0, 10);
+
+    // When:
+    CommittedOffsetTracker.notifyApplicationClose(APP_ID);
+
+    // Then:
+    assertThat(CommittedOffsetTracker.position(APP_ID, 0), is(OptionalLong.empty()));
+  }
+
+  private static void commit(final TopicPartition tp, final long offset) {
+    CommittedOffsetTracker.recordCommit(APP_ID, ImmutableMap.of(tp, new OffsetAndMetadata(offset)));
+  }
+}
@@ -58,4 +58,27 @@ public class ConsumerCollectorTest {
     assertThat( stats.toString(), containsString("name=consumer-messages-per-sec,"));
     assertThat( stats.toString(), containsString("total-messages, value=100.0"));
   }
+
+  @Test
+  public void shouldRecordAllRecordsOfBatch() {
+    // Given:
+    final ConsumerCollector collector = new ConsumerCollector();
+    collector.configure(new Metrics(), "group", new SystemTime());
+
+    final Map<TopicPartition, List<ConsumerRecord<Object, Object>>> records = ImmutableMap.of(
+        new TopicPartition(TEST_TOPIC, 0), Arrays.asList(
+            new ConsumerRecord<>(TEST_TOPIC, 0, 0, 1L, TimestampType.CREATE_TIME, 1L, 3, 10, "k", "v"),
+            new ConsumerRecord<>(TEST_TOPIC, 0, 1, 1L, TimestampType.CREATE_TIME, 1L, 3, 20, "k", "v")),
+        new TopicPartition("TestTopic", 1), Arrays.asList(
+            new ConsumerRecord<>("TestTopic", 1, 0, 1L, TimestampType.CREATE_TIME, 1L, 3, 30, "k", "v"))
+    );
+
+    // When:
+    collector.onConsume(new ConsumerRecords<>(records));
+
+    // Then:
+    final String stats = collector.stats(TEST_TOPIC, false).toString();
+    assertThat(stats, containsString("name=consumer-total-messages, value=3.0"));
+    assertThat(stats, containsString("name=consumer-total-bytes, value=69.0"));
+  }
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.metrics;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CountDownLatch;
+import org.apache.kafka.common.utils.Time;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LatencyHistogramTest {
+
+  private static final long MAX_VALUE = 10_000_000L;
+  private static final long WINDOW_MS = 30_000L;
+
+  @Mock
+  private Time time;
+
+  private LatencyHistogram histogram;
+
+  @Before
+  public void setUp() {
+    histogram = new LatencyHistogram(MAX_VALUE, WINDOW_MS, time);
+  }
+
+  @Test
+  public void shouldTrackSmallValuesExactly() {
+    for (long value = 0; value < 64; value++) {
+      assertThat(LatencyHistogram.highestEquivalentValue(
+          LatencyHistogram.bucketIndex(value)), is(value));
+    }
+  }
+
+  @Test
+  public void shouldTrackLargeValuesWithinPrecision() {
+    for (long value = 64; value < MAX_VALUE; value = value * 3 / 2 + 1) {
+      final long highest = LatencyHistogram.highestEquivalentValue(
+          LatencyHistogram.bucketIndex(value));
+
+      assertThat(highest, is(greaterThanOrEqualTo(value)));
+      assertThat((double) (highest - value) / value, is(lessThanOrEqualTo(1.0 / 32)));
+    }
+  }
+
+  @Test
+  public void shouldReturnZeroIfNothingRecorded() {
+    assertThat(histogram.percentile(50), is(0.0));
+  }
+
+  @Test
+  public void shouldComputePercentiles() {
+    // Given:
+    for (int i = 1; i <= 100; i++) {
+      histogram.record(i);
+    }
+
+    // Then:
+    assertThat(histogram.percentile(50), is(50.0));
+    assertThat(histogram.percentile(90), is(91.0));
+    assertThat(histogram.percentile(99), is(99.0));
+    assertThat(histogram.percentile(100), is(101.0));
+  }
+
+  @Test
+  public void shouldClampValues() {
+    // Given:
+    histogram.record(-10);
+    histogram.record(MAX_VALUE * 2);
+
+    // Then:
+    assertThat(histogram.percentile(50), is(0.0));
+    assertThat(histogram.percentile(100), is((double) MAX_VALUE));
+  }
+
+  @Test
+  public void shouldMergeValuesRecordedOnDifferentThreads() throws Exception {
+    // Given:
+    histogram.record(10);
+    final CountDownLatch recorded = new CountDownLatch(1);
+    final Thread other = new Thread(() -> {
+      histogram.record(20);
+      histogram.record(30);
+      recorded.countDown();
+    });
+
+    // When:
+    other.start();
+    recorded.await();
+
+    // Then:
+    assertThat(histogram.percentile(33), is(10.0));
+    assertThat(histogram.percentile(66), is(20.0));
+    assertThat(histogram.percentile(100), is(30.0));
+  }
+
+  @Test
+  public void shouldIncludeValuesFromPreviousWindow() {
+    // Given:
+    histogram.record(10);
+    when(time.milliseconds()).thenReturn(WINDOW_MS);
+    histogram.record(20);
+
+    // Then:
+    assertThat(histogram.percentile(50), is(10.0));
+    assertThat(histogram.percentile(100), is(20.0));
+  }
+
+  @Test
+  public void shouldExpireValuesFromOlderWindows() {
+    // Given:
+    histogram.record(10);
+    when(time.milliseconds()).thenReturn(2 * WINDOW_MS);
+    histogram.record(20);
+
+    // Then:
+    assertThat(histogram.percentile(50), is(20.0));
+  }
+
+  @Test
+  public void shouldExpireValuesWhenNothingRecorded() {
+    // Given:
+    histogram.record(10);
+
+    // When:
+    when(time.milliseconds()).thenReturn(2 * WINDOW_MS);
+
+    // Then:
+    assertThat(histogram.percentile(50), is(0.0));
+  }
+
+  @Test
+  public void shouldReportPercentileAsMeasurable() {
+    // Given:
+    histogram.record(42);
+
+    // Then:
+    assertThat(histogram.percentileMeasurable(99).measure(null, 0L), is(42.0));
+  }
+
+  @Test
+  public void shouldThrowOnMaxValueTooSmall() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new LatencyHistogram(10, WINDOW_MS, time)
+    );
+  }
+}
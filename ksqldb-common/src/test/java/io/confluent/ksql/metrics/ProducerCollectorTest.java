@@ -17,11 +17,20 @@ package io.confluent.ksql.metrics;
 
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
+import com.google.common.collect.ImmutableMap;
 import java.util.Collection;
+import java.util.concurrent.ScheduledExecutorService;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.MetricName;
 import org.apache.kafka.common.metrics.Metrics;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
 @SuppressWarnings("unchecked")
 public class ProducerCollectorTest {
@@ -40,4 +49,45 @@ public class ProducerCollectorTest {
 
     assertThat( stats.toString(), containsString("name=messages-per-sec,"));
   }
+
+  @Test
+  public void shouldRecordAllSendsWhenStatsRead() {
+    // Given:
+    final ProducerCollector collector = new ProducerCollector().configure(new Metrics(), "clientid", MetricCollectors.getTime());
+
+    // When:
+    for (int i = 0; i < 1000; i++){
+      collector.onSend(new ProducerRecord<>(i % 2 == 0 ? TEST_TOPIC : "Test-Topic", 1, "key", "value"));
+    }
+
+    // Then:
+    final Collection<TopicSensors.Stat> stats = collector.stats(TEST_TOPIC, false);
+    assertThat(stats.toString(), containsString("name=total-messages, value=1000.0"));
+  }
+
+  @Test
+  public void shouldRecordSendsOnScheduledFlush() {
+    // Given:
+    final Metrics metrics = new Metrics();
+    final ScheduledExecutorService flusher = mock(ScheduledExecutorService.class);
+    final ProducerCollector collector = new ProducerCollector()
+        .configure(metrics, "clientid", MetricCollectors.getTime(), flusher);
+    final ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+    verify(flusher).scheduleAtFixedRate(flush.capture(), anyLong(), anyLong(), any());
+    for (int i = 0; i < 10; i++){
+      collector.onSend(new ProducerRecord<>(TEST_TOPIC, 1, "key", "value"));
+    }
+
+    // When:
+    flush.getValue().run();
+
+    // Then:
+    final MetricName totalMessages = new MetricName(
+        ProducerCollector.PRODUCER_TOTAL_MESSAGES,
+        "producer-metrics",
+        "producer-prod-" + TEST_TOPIC + "-total-messages-clientid",
+        ImmutableMap.of("key", TEST_TOPIC, "id", "clientid")
+    );
+    assertThat(metrics.metrics().get(totalMessages).metricValue(), is(10.0));
+  }
 }
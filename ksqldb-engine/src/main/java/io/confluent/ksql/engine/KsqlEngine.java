@@ -23,7 +23,9 @@ import io.confluent.ksql.analyzer.Analysis;
 import io.confluent.ksql.analyzer.ImmutableAnalysis;
 import io.confluent.ksql.analyzer.QueryAnalyzer;
 import io.confluent.ksql.analyzer.RewrittenAnalysis;
+import io.confluent.ksql.execution.runtime.QueryProfiler;
 import io.confluent.ksql.execution.streams.RoutingOptions;
+import io.confluent.ksql.execution.streams.metrics.SourcePreFilterMetrics;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.internal.KsqlEngineMetrics;
 import io.confluent.ksql.internal.PullQueryExecutorMetrics;
@@ -31,6 +33,7 @@ import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.metastore.MetaStore;
 import io.confluent.ksql.metastore.MetaStoreImpl;
 import io.confluent.ksql.metastore.MutableMetaStore;
+import io.confluent.ksql.metrics.CommittedOffsetTracker;
 import io.confluent.ksql.metrics.StreamsErrorCollector;
 import io.confluent.ksql.name.SourceName;
 import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
@@ -68,6 +71,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
+import org.apache.kafka.streams.KafkaStreams;
 import org.apache.kafka.streams.StreamsConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -421,6 +425,15 @@ public class KsqlEngine implements KsqlExecutionContext, Closeable {
       this.ksqlConfig = ksqlConfig;
     }
 
+    @Override
+    public void onStateChange(
+        final QueryMetadata query,
+        final KafkaStreams.State before,
+        final KafkaStreams.State after
+    ) {
+      CommittedOffsetTracker.notifyApplicationStateChange(query.getQueryApplicationId());
+    }
+
     @Override
     public void onClose(
         final QueryMetadata query
@@ -443,6 +456,9 @@ public class KsqlEngine implements KsqlExecutionContext, Closeable {
       }
 
       StreamsErrorCollector.notifyApplicationClose(applicationId);
+      CommittedOffsetTracker.notifyApplicationClose(applicationId);
+      SourcePreFilterMetrics.notifyApplicationClose(applicationId);
+      QueryProfiler.notifyQueryClose(query.getQueryId());
     }
   }
 }
@@ -16,7 +16,9 @@
 package io.confluent.ksql.function;
 
 import io.confluent.ksql.function.udf.Kudf;
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import org.apache.kafka.common.metrics.Sensor;
 import org.apache.kafka.common.utils.Time;
 
@@ -46,4 +48,9 @@ class UdfMetricProducer implements Kudf {
       sensor.record(time.nanoseconds() - start);
     }
   }
+
+  @Override
+  public void prepare(final List<Optional<Object>> constantArgs) {
+    kudf.prepare(constantArgs);
+  }
 }
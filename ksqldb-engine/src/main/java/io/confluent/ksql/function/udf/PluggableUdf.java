@@ -17,7 +17,9 @@ package io.confluent.ksql.function.udf;
 
 import io.confluent.ksql.function.FunctionInvoker;
 import io.confluent.ksql.security.ExtensionSecurityManager;
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Class to allow conversion from Kudf to UdfInvoker.
@@ -48,4 +50,18 @@ public class PluggableUdf implements Kudf {
     }
   }
 
+  @Override
+  public void prepare(final List<Optional<Object>> constantArgs) {
+    if (!(actualUdf instanceof PreparableUdf)) {
+      return;
+    }
+
+    try {
+      ExtensionSecurityManager.INSTANCE.pushInUdf();
+      ((PreparableUdf) actualUdf).prepare(constantArgs);
+    } finally {
+      ExtensionSecurityManager.INSTANCE.popOutUdf();
+    }
+  }
+
 }
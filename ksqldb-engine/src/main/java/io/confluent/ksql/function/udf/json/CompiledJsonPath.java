@@ -0,0 +1,160 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udf.json;
+
+import static com.fasterxml.jackson.core.JsonToken.END_ARRAY;
+import static com.fasterxml.jackson.core.JsonToken.FIELD_NAME;
+import static com.fasterxml.jackson.core.JsonToken.START_ARRAY;
+import static com.fasterxml.jackson.core.JsonToken.START_OBJECT;
+import static com.fasterxml.jackson.core.JsonToken.VALUE_NULL;
+import static com.fasterxml.jackson.core.JsonToken.VALUE_STRING;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.util.json.JsonPathTokenizer;
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A JSONPath, tokenized once, that can be resolved against either a parsed JSON tree or a
+ * stream of JSON tokens.
+ *
+ * <p>Resolving against a token stream skips over everything not on the path without building a
+ * tree. Only the value at the path, if it is an object, array or number, is read into a tree, so
+ * that it is rendered exactly as it would be when resolving against a tree. Both ways of
+ * resolving give the same result for the same document.
+ */
+final class CompiledJsonPath {
+
+  private final String path;
+  private final List<String> tokens;
+
+  CompiledJsonPath(final String path) {
+    this.path = Objects.requireNonNull(path, "path");
+    this.tokens = ImmutableList.copyOf(new JsonPathTokenizer(path));
+  }
+
+  String path() {
+    return path;
+  }
+
+  /**
+   * @param root the parsed document
+   * @return the value at the path, or {@code null} if the path does not exist
+   */
+  String resolve(final JsonNode root) {
+    JsonNode currentNode = root;
+    for (final String token : tokens) {
+      if (currentNode instanceof ArrayNode) {
+        try {
+          final int index = Integer.parseInt(token);
+          currentNode = currentNode.get(index);
+        } catch (final NumberFormatException e) {
+          return null;
+        }
+      } else {
+        currentNode = currentNode.get(token);
+      }
+
+      if (currentNode == null) {
+        return null;
+      }
+    }
+
+    if (currentNode.isTextual()) {
+      return currentNode.asText();
+    } else {
+      return currentNode.toString();
+    }
+  }
+
+  /**
+   * Resolves the path against a stream of tokens, with the same result as parsing the stream
+   * into a tree and resolving against that: the whole of the first value in the stream is read,
+   * so that it is validated as the tree parse would, and where an object has duplicate keys, the
+   * last is used.
+   *
+   * @param parser a parser positioned before the start of the document, whose codec reads
+   *               trees the same way as the reader used to parse documents passed to
+   *               {@link #resolve(JsonNode)}
+   * @return the value at the path, or {@code null} if the path does not exist
+   * @throws IOException if the document is not valid JSON
+   */
+  String resolve(final JsonParser parser) throws IOException {
+    if (parser.nextToken() == null) {
+      return null;
+    }
+    return resolve(parser, 0);
+  }
+
+  /**
+   * Resolves the remainder of the path against the value the parser is at, reading up to the
+   * end of that value, without building a tree for anything but the value at the path.
+   */
+  private String resolve(final JsonParser parser, final int depth) throws IOException {
+    final JsonToken current = parser.currentToken();
+    if (depth == tokens.size()) {
+      return render(parser, current);
+    }
+
+    final String token = tokens.get(depth);
+    String result = null;
+    if (current == START_OBJECT) {
+      while (parser.nextToken() == FIELD_NAME) {
+        final String name = parser.getCurrentName();
+        parser.nextToken();
+        if (token.equals(name)) {
+          result = resolve(parser, depth + 1);
+        } else {
+          parser.skipChildren();
+        }
+      }
+    } else if (current == START_ARRAY) {
+      int index;
+      try {
+        index = Integer.parseInt(token);
+      } catch (final NumberFormatException e) {
+        index = -1;
+      }
+
+      int i = 0;
+      while (parser.nextToken() != END_ARRAY) {
+        if (i++ == index) {
+          result = resolve(parser, depth + 1);
+        } else {
+          parser.skipChildren();
+        }
+      }
+    }
+    return result;
+  }
+
+  private static String render(final JsonParser parser, final JsonToken current)
+      throws IOException {
+    if (current == VALUE_STRING) {
+      return parser.getText();
+    }
+    if (current == VALUE_NULL) {
+      return "null";
+    }
+    final JsonNode node = parser.readValueAsTree();
+    return node.toString();
+  }
+}
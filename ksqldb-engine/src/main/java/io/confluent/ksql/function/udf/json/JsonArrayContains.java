@@ -28,6 +28,7 @@ import static com.fasterxml.jackson.core.JsonToken.VALUE_TRUE;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonFactoryBuilder;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonParser.NumberType;
 import com.fasterxml.jackson.core.JsonToken;
 import io.confluent.ksql.function.FunctionCategory;
 import io.confluent.ksql.function.udf.Udf;
@@ -88,7 +89,7 @@ public class JsonArrayContains {
 
         parser.skipChildren();
         if (TOKEN_COMPAT.getOrDefault(token, foo -> false).test(val)) {
-          if (token == VALUE_NULL || Objects.equals(parser.readValueAs(val.getClass()), val)) {
+          if (matches(parser, token, val)) {
             return true;
           }
         }
@@ -100,4 +101,31 @@ public class JsonArrayContains {
     }
   }
 
+  /**
+   * Compares the current scalar token with a value of a compatible type, reading the token
+   * directly from the parser rather than binding it to a new object.
+   */
+  private static boolean matches(
+      final JsonParser parser,
+      final JsonToken token,
+      final Object val
+  ) throws IOException {
+    switch (token) {
+      case VALUE_NUMBER_INT:
+        if (val instanceof Integer) {
+          return parser.getNumberType() == NumberType.INT
+              && parser.getIntValue() == (Integer) val;
+        }
+        return parser.getNumberType() != NumberType.BIG_INTEGER
+            && parser.getLongValue() == (Long) val;
+      case VALUE_NUMBER_FLOAT:
+        return Double.compare(parser.getDoubleValue(), (Double) val) == 0;
+      case VALUE_STRING:
+        return parser.getText().equals(val);
+      default:
+        // Booleans and nulls are fully checked by TOKEN_COMPAT:
+        return true;
+    }
+  }
+
 }
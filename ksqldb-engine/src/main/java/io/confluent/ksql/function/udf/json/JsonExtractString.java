@@ -15,31 +15,81 @@
 
 package io.confluent.ksql.function.udf.json;
 
+import static com.fasterxml.jackson.core.JsonFactory.Feature.CANONICALIZE_FIELD_NAMES;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectReader;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.google.common.collect.ImmutableList;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.confluent.ksql.function.FunctionCategory;
 import io.confluent.ksql.function.KsqlFunctionException;
+import io.confluent.ksql.function.udf.PreparableUdf;
 import io.confluent.ksql.function.udf.Udf;
 import io.confluent.ksql.function.udf.UdfDescription;
 import io.confluent.ksql.function.udf.UdfParameter;
-import io.confluent.ksql.util.json.JsonPathTokenizer;
+import io.confluent.ksql.util.KsqlException;
 import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.util.List;
+import java.util.Optional;
 
 @UdfDescription(
     name = "extractjsonfield",
     category = FunctionCategory.JSON,
     description = "Given a STRING that contains JSON data, extract the value at the specified "
         + " JSONPath or NULL if the specified path does not exist.")
-public class JsonExtractString {
+public class JsonExtractString implements PreparableUdf {
 
   private static final ObjectReader OBJECT_READER = UdfJsonMapper.INSTANCE.get().reader();
 
-  private List<String> tokens = null;
+  private static final JsonFactory PARSER_FACTORY = new JsonFactoryBuilder()
+      .disable(CANONICALIZE_FIELD_NAMES)
+      .build()
+      .setCodec(UdfJsonMapper.INSTANCE.get());
+
+  /**
+   * The last document seen on each thread, shared by all instances of the UDF.
+   *
+   * <p>Each EXTRACTJSONFIELD call in a query has its own instance of the UDF, but calls on the
+   * same column of a row are all passed the same {@code String} instance. The first call on a
+   * document resolves its path by streaming over the document. Should a second call see the
+   * same instance, the document is parsed into a tree once, which it and any further calls on
+   * the same row then share. Streaming gives the same result as resolving against the tree, so
+   * all calls agree however the document is resolved.
+   *
+   * <p>Both the document and its tree are only weakly held, so as not to keep the last row
+   * processed by each thread alive. Should the tree be collected, it is parsed again.
+   */
+  private static final ThreadLocal<LastDocument> LAST_DOCUMENT =
+      ThreadLocal.withInitial(LastDocument::new);
+
+  private CompiledJsonPath compiledPath = null;
+
+  @Override
+  public void prepare(final List<Optional<Object>> constantArgs) {
+    if (constantArgs.size() < 2) {
+      return;
+    }
+
+    final Optional<Object> path = constantArgs.get(1);
+    if (!path.isPresent() || !(path.get() instanceof String)) {
+      return;
+    }
+
+    try {
+      compiledPath = new CompiledJsonPath((String) path.get());
+    } catch (final KsqlException e) {
+      // Left to be reported for each invocation.
+    }
+  }
 
   @Udf
+  @SuppressFBWarnings(
+      value = "ES_COMPARING_PARAMETER_STRING_WITH_EQ",
+      justification = "the same instance, not an equal string, identifies the same column and row"
+  )
   public String extract(
       @UdfParameter(description = "The input JSON string") final String input,
       @UdfParameter(description = "The JSONPath to extract") final String path) {
@@ -48,33 +98,32 @@ public class JsonExtractString {
       return null;
     }
 
-    if (tokens == null) {
-      final JsonPathTokenizer tokenizer = new JsonPathTokenizer(path);
-      tokens = ImmutableList.copyOf(tokenizer);
+    CompiledJsonPath jsonPath = compiledPath;
+    if (jsonPath == null || !jsonPath.path().equals(path)) {
+      jsonPath = new CompiledJsonPath(path);
+      compiledPath = jsonPath;
     }
 
-    JsonNode currentNode = parseJsonDoc(input);
-    for (final String token : tokens) {
-      if (currentNode instanceof ArrayNode) {
-        try {
-          final int index = Integer.parseInt(token);
-          currentNode = currentNode.get(index);
-        } catch (final NumberFormatException e) {
-          return null;
-        }
-      } else {
-        currentNode = currentNode.get(token);
-      }
-
-      if (currentNode == null) {
-        return null;
-      }
+    final LastDocument last = LAST_DOCUMENT.get();
+    if (last.input.get() != input) {
+      last.input = new WeakReference<>(input);
+      last.tree = new WeakReference<>(null);
+      return streamJsonDoc(input, jsonPath);
     }
 
-    if (currentNode.isTextual()) {
-      return currentNode.asText();
-    } else {
-      return currentNode.toString();
+    JsonNode tree = last.tree.get();
+    if (tree == null) {
+      tree = parseJsonDoc(input);
+      last.tree = new WeakReference<>(tree);
+    }
+    return jsonPath.resolve(tree);
+  }
+
+  private static String streamJsonDoc(final String jsonString, final CompiledJsonPath jsonPath) {
+    try (JsonParser parser = PARSER_FACTORY.createParser(jsonString)) {
+      return jsonPath.resolve(parser);
+    } catch (final IOException e) {
+      throw new KsqlFunctionException("Invalid JSON format:" + jsonString, e);
     }
   }
 
@@ -85,4 +134,9 @@ public class JsonExtractString {
       throw new KsqlFunctionException("Invalid JSON format:" + jsonString, e);
     }
   }
+
+  private static final class LastDocument {
+    private WeakReference<String> input = new WeakReference<>(null);
+    private WeakReference<JsonNode> tree = new WeakReference<>(null);
+  }
 }
@@ -32,6 +32,9 @@ import java.util.regex.Pattern;
         + " Words are delimited by whitespace."
 )
 public class InitCap {
+
+  private static final Pattern WORD = Pattern.compile("[^\\s]+\\s*");
+
   @Udf(description = "Returns the string with the the first letter"
       + " of each word capitalized and the rest lowercased")
   public String initcap(
@@ -42,14 +45,13 @@ public class InitCap {
       return null;
     }
 
-    final Pattern pattern = Pattern.compile("[^\\s]+\\s*");
-    final Matcher matcher = pattern.matcher(str.toLowerCase());
-    String initCapped = "";
+    final Matcher matcher = WORD.matcher(str.toLowerCase());
+    final StringBuilder initCapped = new StringBuilder(str.length());
     while (matcher.find()) {
       final String part = matcher.group();
-      initCapped = initCapped.concat(part.substring(0, 1).toUpperCase() + part.substring(1));
+      initCapped.append(part.substring(0, 1).toUpperCase()).append(part.substring(1));
     }
 
-    return initCapped;
+    return initCapped.toString();
   }
 }
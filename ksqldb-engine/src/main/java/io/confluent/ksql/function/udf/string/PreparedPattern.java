@@ -0,0 +1,67 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udf.string;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * The regular expression argument of a regex UDF, compiled once if its value is known up front.
+ *
+ * @see io.confluent.ksql.function.udf.PreparableUdf
+ */
+final class PreparedPattern {
+
+  private final int argIndex;
+  private Pattern pattern;
+
+  PreparedPattern(final int argIndex) {
+    this.argIndex = argIndex;
+  }
+
+  void prepare(final List<Optional<Object>> constantArgs) {
+    if (constantArgs.size() <= argIndex) {
+      return;
+    }
+
+    final Optional<Object> regex = constantArgs.get(argIndex);
+    if (!regex.isPresent() || !(regex.get() instanceof String)) {
+      return;
+    }
+
+    try {
+      pattern = Pattern.compile((String) regex.get());
+    } catch (final PatternSyntaxException e) {
+      // Left to be reported by the UDF for each invocation, as before.
+    }
+  }
+
+  /**
+   * @param regex the regular expression passed to the UDF
+   * @param compiler compiles the regular expression, if it is not the one prepared
+   * @return the compiled regular expression
+   */
+  Pattern getOrCompile(final String regex, final Function<String, Pattern> compiler) {
+    final Pattern prepared = pattern;
+    if (prepared != null && prepared.pattern().equals(regex)) {
+      return prepared;
+    }
+    return compiler.apply(regex);
+  }
+}
@@ -16,10 +16,13 @@
 package io.confluent.ksql.function.udf.string;
 
 import io.confluent.ksql.function.FunctionCategory;
+import io.confluent.ksql.function.udf.PreparableUdf;
 import io.confluent.ksql.function.udf.Udf;
 import io.confluent.ksql.function.udf.UdfDescription;
 import io.confluent.ksql.function.udf.UdfParameter;
 import io.confluent.ksql.util.KsqlConstants;
+import java.util.List;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -29,7 +32,15 @@ import java.util.regex.Pattern;
     author = KsqlConstants.CONFLUENT_AUTHOR,
     description = "extract the first subtring matched by a regex pattern"
 )
-public class RegexpExtract {
+public class RegexpExtract implements PreparableUdf {
+
+  private final PreparedPattern preparedPattern = new PreparedPattern(0);
+
+  @Override
+  public void prepare(final List<Optional<Object>> constantArgs) {
+    preparedPattern.prepare(constantArgs);
+  }
+
   @Udf(description = "Returns first substring of the input that matches the given regex pattern")
   public String regexpExtract(
       @UdfParameter(description = "The regex pattern") final String pattern,
@@ -50,7 +61,7 @@ public class RegexpExtract {
       return null;
     }
 
-    final Pattern p = Pattern.compile(pattern);
+    final Pattern p = preparedPattern.getOrCompile(pattern, Pattern::compile);
     final Matcher m = p.matcher(input);
 
     if (group > m.groupCount()) {
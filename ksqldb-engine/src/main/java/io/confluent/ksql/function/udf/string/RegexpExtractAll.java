@@ -17,12 +17,14 @@ package io.confluent.ksql.function.udf.string;
 
 import io.confluent.ksql.function.FunctionCategory;
 import io.confluent.ksql.function.KsqlFunctionException;
+import io.confluent.ksql.function.udf.PreparableUdf;
 import io.confluent.ksql.function.udf.Udf;
 import io.confluent.ksql.function.udf.UdfDescription;
 import io.confluent.ksql.function.udf.UdfParameter;
 import io.confluent.ksql.util.KsqlConstants;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -32,7 +34,14 @@ import java.util.regex.PatternSyntaxException;
     category = FunctionCategory.REGULAR_EXPRESSION,
     author = KsqlConstants.CONFLUENT_AUTHOR,
     description = "Extracts the all subtrings matched by a regex pattern")
-public class RegexpExtractAll {
+public class RegexpExtractAll implements PreparableUdf {
+
+  private final PreparedPattern preparedPattern = new PreparedPattern(0);
+
+  @Override
+  public void prepare(final List<Optional<Object>> constantArgs) {
+    preparedPattern.prepare(constantArgs);
+  }
 
   @Udf(description = "Returns all substrings of the input that matches the given regex pattern")
   public List<String> regexpExtractAll(
@@ -53,7 +62,7 @@ public class RegexpExtractAll {
       return null;
     }
 
-    final Pattern p = getPattern(pattern);
+    final Pattern p = preparedPattern.getOrCompile(pattern, RegexpExtractAll::getPattern);
     final Matcher m = p.matcher(input);
 
     if (group > m.groupCount()) {
@@ -67,7 +76,7 @@ public class RegexpExtractAll {
     return matches;
   }
 
-  private Pattern getPattern(final String regexp) {
+  private static Pattern getPattern(final String regexp) {
     try {
       return Pattern.compile(regexp);
     } catch (PatternSyntaxException e) {
@@ -17,17 +17,28 @@ package io.confluent.ksql.function.udf.string;
 
 import io.confluent.ksql.function.FunctionCategory;
 import io.confluent.ksql.function.KsqlFunctionException;
+import io.confluent.ksql.function.udf.PreparableUdf;
 import io.confluent.ksql.function.udf.Udf;
 import io.confluent.ksql.function.udf.UdfDescription;
 import io.confluent.ksql.function.udf.UdfParameter;
 import io.confluent.ksql.util.KsqlConstants;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 @UdfDescription(name = "regexp_replace",
     author = KsqlConstants.CONFLUENT_AUTHOR,
     category = FunctionCategory.REGULAR_EXPRESSION,
     description = "Replaces all matches of a regexp in a string with a new substring.")
-public class RegexpReplace {
+public class RegexpReplace implements PreparableUdf {
+
+  private final PreparedPattern preparedPattern = new PreparedPattern(1);
+
+  @Override
+  public void prepare(final List<Optional<Object>> constantArgs) {
+    preparedPattern.prepare(constantArgs);
+  }
 
   @Udf(description = "Returns a new string with all matches of regexp in str replaced with newStr")
   public String regexpReplace(
@@ -43,8 +54,14 @@ public class RegexpReplace {
       return null;
     }
 
+    return preparedPattern.getOrCompile(regexp, RegexpReplace::getPattern)
+        .matcher(str)
+        .replaceAll(newStr);
+  }
+
+  private static Pattern getPattern(final String regexp) {
     try {
-      return str.replaceAll(regexp, newStr);
+      return Pattern.compile(regexp);
     } catch (PatternSyntaxException e) {
       throw new KsqlFunctionException("Invalid regular expression pattern: " + regexp, e);
     }
@@ -18,12 +18,14 @@ package io.confluent.ksql.function.udf.string;
 import com.google.common.base.Splitter;
 import io.confluent.ksql.function.FunctionCategory;
 import io.confluent.ksql.function.KsqlFunctionException;
+import io.confluent.ksql.function.udf.PreparableUdf;
 import io.confluent.ksql.function.udf.Udf;
 import io.confluent.ksql.function.udf.UdfDescription;
 import io.confluent.ksql.function.udf.UdfParameter;
 import io.confluent.ksql.util.KsqlConstants;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
@@ -36,7 +38,14 @@ import java.util.regex.PatternSyntaxException;
         + "If the regexp is not found, then the original string is returned as the only "
         + "element in the array. If the regexp is empty, then all characters in the string are "
         + "split.")
-public class RegexpSplitToArray {
+public class RegexpSplitToArray implements PreparableUdf {
+
+  private final PreparedPattern preparedPattern = new PreparedPattern(1);
+
+  @Override
+  public void prepare(final List<Optional<Object>> constantArgs) {
+    preparedPattern.prepare(constantArgs);
+  }
 
   @Udf(description = "Splits a string into an array of substrings based on a regexp.")
   public List<String> regexpSplit(
@@ -52,7 +61,7 @@ public class RegexpSplitToArray {
     }
 
     // Use Guava version to be compatible with other splitting functions.
-    final Pattern p = getPattern(regexp);
+    final Pattern p = preparedPattern.getOrCompile(regexp, RegexpSplitToArray::getPattern);
     if (regexp.isEmpty() || p.matcher("").matches()) {
       return Arrays.asList(p.split(string));
     } else {
@@ -60,7 +69,7 @@ public class RegexpSplitToArray {
     }
   }
 
-  private Pattern getPattern(final String regexp) {
+  private static Pattern getPattern(final String regexp) {
     try {
       return Pattern.compile(regexp);
     } catch (PatternSyntaxException e) {
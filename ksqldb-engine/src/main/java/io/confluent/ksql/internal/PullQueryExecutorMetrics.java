@@ -18,6 +18,7 @@ package io.confluent.ksql.internal;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMap.Builder;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.confluent.ksql.metrics.LatencyHistogram;
 import io.confluent.ksql.metrics.MetricCollectors;
 import io.confluent.ksql.physical.pull.PullPhysicalPlan.PullPhysicalPlanType;
 import io.confluent.ksql.physical.pull.PullPhysicalPlan.PullSourceType;
@@ -32,6 +33,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.MetricName;
 import org.apache.kafka.common.metrics.MeasurableStat;
 import org.apache.kafka.common.metrics.Metrics;
 import org.apache.kafka.common.metrics.Sensor;
@@ -40,9 +42,6 @@ import org.apache.kafka.common.metrics.stats.CumulativeCount;
 import org.apache.kafka.common.metrics.stats.CumulativeSum;
 import org.apache.kafka.common.metrics.stats.Max;
 import org.apache.kafka.common.metrics.stats.Min;
-import org.apache.kafka.common.metrics.stats.Percentile;
-import org.apache.kafka.common.metrics.stats.Percentiles;
-import org.apache.kafka.common.metrics.stats.Percentiles.BucketSizing;
 import org.apache.kafka.common.metrics.stats.Rate;
 import org.apache.kafka.common.utils.Time;
 
@@ -51,10 +50,12 @@ public class PullQueryExecutorMetrics implements Closeable {
 
   private static final String PULL_QUERY_METRIC_GROUP = "pull-query";
   private static final String PULL_REQUESTS = "pull-query-requests";
-  private static final long MAX_LATENCY_BUCKET_VALUE_MICROS = TimeUnit.SECONDS.toMicros(10);
-  private static final int NUM_LATENCY_BUCKETS = 1000;
+  private static final long MAX_LATENCY_VALUE_MICROS = TimeUnit.SECONDS.toMicros(10);
+  private static final double[] LATENCY_PERCENTILES = {50.0, 75.0, 90.0, 99.0};
 
   private final List<Sensor> sensors;
+  private final Map<Sensor, LatencyHistogram> latencyHistograms = new HashMap<>();
+  private final List<MetricName> latencyHistogramMetrics = new ArrayList<>();
   private final Sensor localRequestsSensor;
   private final Sensor remoteRequestsSensor;
   private final Sensor latencySensor;
@@ -116,6 +117,7 @@ public class PullQueryExecutorMetrics implements Closeable {
   @Override
   public void close() {
     sensors.forEach(sensor -> metrics.removeSensor(sensor.name()));
+    latencyHistogramMetrics.forEach(metrics::removeMetric);
   }
 
   public void recordLocalRequests(final double value) {
@@ -144,16 +146,21 @@ public class PullQueryExecutorMetrics implements Closeable {
   private void innerRecordLatency(final long startTimeNanos, final MetricsKey key) {
     // Record latency at microsecond scale
     final long nowNanos = time.nanoseconds();
-    final double latency = TimeUnit.NANOSECONDS.toMicros(nowNanos - startTimeNanos);
-    this.latencySensor.record(latency);
+    final long latency = TimeUnit.NANOSECONDS.toMicros(nowNanos - startTimeNanos);
+    recordLatency(latencySensor, latency);
     this.requestRateSensor.record(1);
     if (latencySensorMap.containsKey(key)) {
-      latencySensorMap.get(key).record(latency);
+      recordLatency(latencySensorMap.get(key), latency);
     } else {
       throw new IllegalStateException("Metrics not configured correctly, missing " + key);
     }
   }
 
+  private void recordLatency(final Sensor sensor, final long latencyMicros) {
+    sensor.record(latencyMicros);
+    latencyHistograms.get(sensor).record(latencyMicros);
+  }
+
   public void recordErrorRate(
       final double value,
       final PullSourceType sourceType,
@@ -524,35 +531,23 @@ public class PullQueryExecutorMetrics implements Closeable {
         new CumulativeCount()
     );
 
-    sensor.add(new Percentiles(
-        4 * NUM_LATENCY_BUCKETS,
-        MAX_LATENCY_BUCKET_VALUE_MICROS,
-        BucketSizing.LINEAR,
-        new Percentile(metrics.metricName(
-            metricNamePrefix + "-distribution-50",
-            servicePrefix + PULL_QUERY_METRIC_GROUP,
-            "Latency distribution" + descriptionSuffix,
-            metricsTags
-        ), 50.0),
-        new Percentile(metrics.metricName(
-            metricNamePrefix + "-distribution-75",
-            servicePrefix + PULL_QUERY_METRIC_GROUP,
-            "Latency distribution" + descriptionSuffix,
-            metricsTags
-        ), 75.0),
-        new Percentile(metrics.metricName(
-            metricNamePrefix + "-distribution-90",
-            servicePrefix + PULL_QUERY_METRIC_GROUP,
-            "Latency distribution" + descriptionSuffix,
-            metricsTags
-        ), 90.0),
-        new Percentile(metrics.metricName(
-            metricNamePrefix + "-distribution-99",
-            servicePrefix + PULL_QUERY_METRIC_GROUP,
-            "Latency distribution" + descriptionSuffix,
-            metricsTags
-        ), 99.0)
-    ));
+    // Percentiles are tracked by a histogram shared by all the metrics added to the sensor, as
+    // they all record the same latencies.
+    final LatencyHistogram histogram = latencyHistograms.computeIfAbsent(
+        sensor,
+        s -> new LatencyHistogram(
+            MAX_LATENCY_VALUE_MICROS, metrics.config().timeWindowMs(), time)
+    );
+    for (final double percentile : LATENCY_PERCENTILES) {
+      final MetricName metricName = metrics.metricName(
+          metricNamePrefix + "-distribution-" + (int) percentile,
+          servicePrefix + PULL_QUERY_METRIC_GROUP,
+          "Latency distribution" + descriptionSuffix,
+          metricsTags
+      );
+      metrics.addMetric(metricName, histogram.percentileMeasurable(percentile));
+      latencyHistogramMetrics.add(metricName);
+    }
   }
 
   private Sensor configureRequestSizeSensor() {
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.internal;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.metrics.LatencyHistogram;
+import io.confluent.ksql.metrics.MetricCollectors;
+import io.confluent.ksql.util.KsqlConstants;
+import io.confluent.ksql.util.ReservedInternalTopics;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.Avg;
+import org.apache.kafka.common.metrics.stats.CumulativeCount;
+import org.apache.kafka.common.metrics.stats.Max;
+import org.apache.kafka.common.utils.Time;
+
+/**
+ * Metrics for scalable push queries.
+ *
+ * <p>Row latency is the time, in milliseconds, from the timestamp of a row in the source topic to
+ * the row being handed to the output of the push query request that it matches.
+ */
+public class ScalablePushQueryMetrics implements Closeable {
+
+  private static final String SCALABLE_PUSH_QUERY_METRIC_GROUP = "scalable-push-query";
+  private static final String ROW_LATENCY = "scalable-push-query-row-latency";
+  private static final long MAX_LATENCY_VALUE_MS = TimeUnit.HOURS.toMillis(1);
+  private static final double[] LATENCY_PERCENTILES = {50.0, 75.0, 90.0, 99.0};
+
+  private final Metrics metrics;
+  private final Map<String, String> metricsTags;
+  private final Time time;
+  private final Sensor rowLatencySensor;
+  private final LatencyHistogram rowLatencyHistogram;
+  private final List<MetricName> histogramMetrics = new ArrayList<>();
+
+  public ScalablePushQueryMetrics(
+      final String ksqlServiceId,
+      final Map<String, String> customMetricsTags,
+      final Time time
+  ) {
+    final Map<String, String> tags = new HashMap<>(
+        Objects.requireNonNull(customMetricsTags, "customMetricsTags"));
+    tags.put(KsqlConstants.KSQL_SERVICE_ID_METRICS_TAG, ksqlServiceId);
+    this.metricsTags = ImmutableMap.copyOf(tags);
+    this.time = Objects.requireNonNull(time, "time");
+    this.metrics = MetricCollectors.getMetrics();
+    this.rowLatencySensor = configureRowLatencySensor();
+    this.rowLatencyHistogram = new LatencyHistogram(
+        MAX_LATENCY_VALUE_MS, metrics.config().timeWindowMs(), time);
+    configureRowLatencyPercentiles();
+  }
+
+  @Override
+  public void close() {
+    metrics.removeSensor(rowLatencySensor.name());
+    histogramMetrics.forEach(metrics::removeMetric);
+  }
+
+  /**
+   * Record the latency of a row output by a scalable push query.
+   *
+   * @param rowTimeMs the timestamp of the row in the source topic.
+   */
+  public void recordRowLatency(final long rowTimeMs) {
+    final long latency = Math.max(0, time.milliseconds() - rowTimeMs);
+    rowLatencySensor.record(latency);
+    rowLatencyHistogram.record(latency);
+  }
+
+  public Metrics getMetrics() {
+    return metrics;
+  }
+
+  private Sensor configureRowLatencySensor() {
+    final Sensor sensor = metrics.sensor(SCALABLE_PUSH_QUERY_METRIC_GROUP + "-" + ROW_LATENCY);
+    sensor.add(
+        metricName(ROW_LATENCY + "-avg", "Average row latency of scalable push queries"),
+        new Avg()
+    );
+    sensor.add(
+        metricName(ROW_LATENCY + "-max", "Max row latency of scalable push queries"),
+        new Max()
+    );
+    sensor.add(
+        metricName(ROW_LATENCY + "-total", "Total number of rows output by scalable push queries"),
+        new CumulativeCount()
+    );
+    return sensor;
+  }
+
+  private void configureRowLatencyPercentiles() {
+    for (final double percentile : LATENCY_PERCENTILES) {
+      final MetricName metricName = metricName(
+          ROW_LATENCY + "-distribution-" + (int) percentile,
+          "Row latency distribution of scalable push queries"
+      );
+      metrics.addMetric(metricName, rowLatencyHistogram.percentileMeasurable(percentile));
+      histogramMetrics.add(metricName);
+    }
+  }
+
+  private MetricName metricName(final String name, final String description) {
+    return metrics.metricName(
+        name,
+        ReservedInternalTopics.KSQL_INTERNAL_TOPIC_PREFIX + SCALABLE_PUSH_QUERY_METRIC_GROUP,
+        description,
+        metricsTags
+    );
+  }
+}
@@ -28,6 +28,7 @@ import io.confluent.ksql.execution.streams.materialization.Locator.KsqlPartition
 import io.confluent.ksql.execution.streams.materialization.MaterializationException;
 import io.confluent.ksql.internal.PullQueryExecutorMetrics;
 import io.confluent.ksql.parser.tree.Query;
+import io.confluent.ksql.physical.pull.PullPhysicalPlan.PullPhysicalPlanType;
 import io.confluent.ksql.query.PullQueryQueue;
 import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.rest.client.RestResponse;
@@ -46,14 +47,15 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -66,6 +68,10 @@ public final class HARouting implements AutoCloseable {
   private final RoutingFilterFactory routingFilterFactory;
   private final Optional<PullQueryExecutorMetrics> pullQueryMetrics;
   private final RouteQuery routeQuery;
+  private final Optional<PullQueryResultCache> resultCache;
+  private final Optional<PullQueryAdmissionController> admissionController;
+  private final LeastOutstandingRequestsBalancer balancer = new LeastOutstandingRequestsBalancer();
+  private final boolean balanceTableScans;
 
   public HARouting(
       final RoutingFilterFactory routingFilterFactory,
@@ -73,7 +79,8 @@ public final class HARouting implements AutoCloseable {
       final KsqlConfig ksqlConfig
   ) {
     this(routingFilterFactory, pullQueryMetrics, ksqlConfig,
-         HARouting::executeOrRouteQuery);
+         HARouting::executeOrRouteQuery, PullQueryResultCache.create(ksqlConfig),
+         PullQueryAdmissionController.create(ksqlConfig));
   }
 
 
@@ -82,7 +89,9 @@ public final class HARouting implements AutoCloseable {
       final RoutingFilterFactory routingFilterFactory,
       final Optional<PullQueryExecutorMetrics> pullQueryMetrics,
       final KsqlConfig ksqlConfig,
-      final RouteQuery routeQuery
+      final RouteQuery routeQuery,
+      final Optional<PullQueryResultCache> resultCache,
+      final Optional<PullQueryAdmissionController> admissionController
   ) {
     this.routingFilterFactory =
         Objects.requireNonNull(routingFilterFactory, "routingFilterFactory");
@@ -91,11 +100,18 @@ public final class HARouting implements AutoCloseable {
         new ThreadFactoryBuilder().setNameFormat("pull-query-executor-%d").build());
     this.pullQueryMetrics = Objects.requireNonNull(pullQueryMetrics, "pullQueryMetrics");
     this.routeQuery = Objects.requireNonNull(routeQuery);
+    this.resultCache = Objects.requireNonNull(resultCache, "resultCache");
+    this.admissionController =
+        Objects.requireNonNull(admissionController, "admissionController");
+    this.balanceTableScans =
+        ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PULL_TABLE_SCAN_LOAD_BALANCING_ENABLED);
   }
 
   @Override
   public void close() {
     executorService.shutdown();
+    resultCache.ifPresent(PullQueryResultCache::close);
+    admissionController.ifPresent(PullQueryAdmissionController::close);
   }
 
   public CompletableFuture<Void> handlePullQuery(
@@ -107,6 +123,18 @@ public final class HARouting implements AutoCloseable {
       final QueryId queryId,
       final PullQueryQueue pullQueryQueue
   ) {
+    final Optional<PullQueryResultCache.Key> cacheKey = resultCache
+        .flatMap(cache -> cache.key(statement, pullPhysicalPlan, routingOptions));
+    final Optional<List<PullQueryRow>> cachedRows = cacheKey
+        .flatMap(key -> resultCache.get().get(key));
+    if (cachedRows.isPresent()) {
+      // Enqueueing may block until the client has consumed enough rows, so don't do it inline:
+      return CompletableFuture.runAsync(() -> {
+        pullQueryQueue.acceptRows(cachedRows.get());
+        pullQueryQueue.close();
+      }, executorService);
+    }
+
     final List<KsqlPartitionLocation> allLocations = pullPhysicalPlan.getMaterialization().locator()
         .locate(
             pullPhysicalPlan.getKeys(),
@@ -135,41 +163,69 @@ public final class HARouting implements AutoCloseable {
     }
 
     // at this point we should filter out the hosts that we should not route to
-    final List<KsqlPartitionLocation> locations = allLocations
+    final List<KsqlPartitionLocation> filteredLocations = allLocations
         .stream()
         .map(KsqlPartitionLocation::removeFilteredHosts)
         .collect(Collectors.toList());
 
+    // Scans read every partition, so spread them over the standbys too, if enabled:
+    final List<KsqlPartitionLocation> locations = balanceTableScans
+        && pullPhysicalPlan.getPlanType() == PullPhysicalPlanType.TABLE_SCAN
+        ? balancer.assign(filteredLocations)
+        : filteredLocations;
+
+    // Throws if the query is rejected right away, before anything is captured:
+    final CompletableFuture<PullQueryAdmissionController.Permit> admitted = admissionController
+        .map(controller -> controller.admit(pullPhysicalPlan.getPlanType(), locations.size()))
+        .orElseGet(() -> CompletableFuture.completedFuture(
+            PullQueryAdmissionController.Permit.NONE));
+
+    final Optional<PullQueryResultCache.ResultCapture> capture = cacheKey
+        .map(key -> resultCache.get().capture(key, locations.stream()
+            .map(KsqlPartitionLocation::getPartition)
+            .collect(Collectors.toList())));
+    capture.ifPresent(c -> pullQueryQueue.addRowListener(c::addRow));
+
     final CompletableFuture<Void> completableFuture = new CompletableFuture<>();
-    executorService.submit(() -> {
-      try {
-        executeRounds(serviceContext, pullPhysicalPlan, statement, routingOptions, outputSchema,
-            queryId, locations, pullQueryQueue);
-        completableFuture.complete(null);
-      } catch (Throwable t) {
-        completableFuture.completeExceptionally(t);
-      }
-    });
+    admitted
+        .thenApplyAsync(permit -> {
+          try {
+            return executeRounds(serviceContext, pullPhysicalPlan, statement, routingOptions,
+                outputSchema, queryId, locations, pullQueryQueue, capture, 0)
+                .whenComplete((r, t) -> permit.release());
+          } catch (final RuntimeException e) {
+            permit.release();
+            throw e;
+          }
+        }, executorService)
+        .thenCompose(Function.identity())
+        .whenComplete((v, t) -> {
+          if (t == null) {
+            completableFuture.complete(null);
+          } else {
+            completableFuture.completeExceptionally(unwrap(t));
+          }
+        });
 
     return completableFuture;
   }
 
-  private void executeRounds(
+  private CompletableFuture<Void> executeRounds(
       final ServiceContext serviceContext,
       final PullPhysicalPlan pullPhysicalPlan,
       final ConfiguredStatement<Query> statement,
       final RoutingOptions routingOptions,
       final LogicalSchema outputSchema,
       final QueryId queryId,
-      final List<KsqlPartitionLocation> locations,
-      final PullQueryQueue pullQueryQueue
-  ) throws InterruptedException {
-    // The remaining partition locations to retrieve without error
-    List<KsqlPartitionLocation> remainingLocations = ImmutableList.copyOf(locations);
+      final List<KsqlPartitionLocation> remainingLocations,
+      final PullQueryQueue pullQueryQueue,
+      final Optional<PullQueryResultCache.ResultCapture> capture,
+      final int round
+  ) {
     // For each round, each set of partition location objects is grouped by host, and all
     // keys associated with that host are batched together. For any requests that fail,
-    // the partition location objects will be added to remainingLocations, and the next round
-    // will attempt to fetch them from the next node in their prioritized list.
+    // the partition location objects will be retried in the next round, which will attempt to
+    // fetch them from the next node in their prioritized list.
     // For example, locations might be:
     // [ Partition 0 <Host 1, Host 2>,
     //   Partition 1 <Host 2, Host 1>,
@@ -177,50 +233,67 @@ public final class HARouting implements AutoCloseable {
     // In Round 0, fetch from Host 1: [Partition 0, Partition 2], from Host 2: [Partition 1]
     // If everything succeeds, we're done.  If Host 1 failed, then we'd have a Round 1:
     // In Round 1, fetch from Host 2: [Partition 0, Partition 2].
-    for (int round = 0; ; round++) {
-      // Group all partition location objects by their nth round node
-      final Map<KsqlNode, List<KsqlPartitionLocation>> groupedByHost
-          = groupByHost(statement, remainingLocations, round);
-
-      // Make requests to each host, specifying the partitions we're interested in from
-      // this host.
-      final Map<KsqlNode, Future<RoutingResult>> futures = new LinkedHashMap<>();
-      for (Map.Entry<KsqlNode, List<KsqlPartitionLocation>> entry : groupedByHost.entrySet()) {
-        final KsqlNode node = entry.getKey();
-        futures.put(node, executorService.submit(
-            () -> routeQuery.routeQuery(
-                node, entry.getValue(), statement, serviceContext, routingOptions,
-                pullQueryMetrics, pullPhysicalPlan, outputSchema, queryId, pullQueryQueue)
-        ));
-      }
+    // Rounds are chained asynchronously, so no thread is held while waiting on the requests.
+
+    // Group all partition location objects by their nth round node
+    final Map<KsqlNode, List<KsqlPartitionLocation>> groupedByHost
+        = groupByHost(statement, remainingLocations, round);
+
+    // Make requests to each host, specifying the partitions we're interested in from
+    // this host.
+    final Map<KsqlNode, CompletableFuture<RoutingResult>> futures = new LinkedHashMap<>();
+    for (Map.Entry<KsqlNode, List<KsqlPartitionLocation>> entry : groupedByHost.entrySet()) {
+      final KsqlNode node = entry.getKey();
+      final int partitions = entry.getValue().size();
+      balancer.started(node, partitions);
+      futures.put(node, CompletableFuture.supplyAsync(
+          () -> routeQuery.routeQuery(
+              node, entry.getValue(), statement, serviceContext, routingOptions,
+              pullQueryMetrics, pullPhysicalPlan, outputSchema, queryId, pullQueryQueue,
+              executorService),
+          executorService
+      ).thenCompose(Function.identity())
+          .whenComplete((r, t) -> balancer.finished(node, partitions)));
+    }
 
-      // Go through all of the results of the requests, either aggregating rows or adding
-      // the locations to the nextRoundRemaining list.
-      final ImmutableList.Builder<KsqlPartitionLocation> nextRoundRemaining
-          = ImmutableList.builder();
-      for (Map.Entry<KsqlNode, Future<RoutingResult>> entry : futures.entrySet()) {
-        final Future<RoutingResult> future = entry.getValue();
-        final KsqlNode node = entry.getKey();
-        RoutingResult routingResult = null;
-        try {
-          routingResult = future.get();
-        } catch (ExecutionException e) {
-          throw new MaterializationException("Unable to execute pull query", e);
-        }
-        if (routingResult == RoutingResult.STANDBY_FALLBACK) {
-          nextRoundRemaining.addAll(groupedByHost.get(node));
-        } else {
-          Preconditions.checkState(routingResult == RoutingResult.SUCCESS);
-        }
-      }
-      remainingLocations = nextRoundRemaining.build();
+    return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]))
+        .<Void>handle((v, t) -> {
+          if (t != null) {
+            throw new MaterializationException("Unable to execute pull query", unwrap(t));
+          }
+          return null;
+        })
+        .thenCompose(v -> {
+          // Go through all of the results of the requests, adding the locations of those that
+          // fell back to standbys to the next round.
+          final ImmutableList.Builder<KsqlPartitionLocation> nextRoundRemaining
+              = ImmutableList.builder();
+          for (Map.Entry<KsqlNode, CompletableFuture<RoutingResult>> entry : futures.entrySet()) {
+            final RoutingResult routingResult = entry.getValue().join();
+            if (routingResult == RoutingResult.STANDBY_FALLBACK) {
+              nextRoundRemaining.addAll(groupedByHost.get(entry.getKey()));
+            } else {
+              Preconditions.checkState(routingResult == RoutingResult.SUCCESS);
+            }
+          }
+          final List<KsqlPartitionLocation> nextRoundLocations = nextRoundRemaining.build();
+
+          // If there are no partition locations remaining, then we're done.
+          if (nextRoundLocations.isEmpty()) {
+            // A queue that's already closed, e.g. as the client went away, may be missing rows:
+            if (!pullQueryQueue.isClosed()) {
+              capture.ifPresent(PullQueryResultCache.ResultCapture::complete);
+            }
+            pullQueryQueue.close();
+            return CompletableFuture.completedFuture(null);
+          }
+          return executeRounds(serviceContext, pullPhysicalPlan, statement, routingOptions,
+              outputSchema, queryId, nextRoundLocations, pullQueryQueue, capture, round + 1);
+        });
+  }
 
-      // If there are no partition locations remaining, then we're done.
-      if (remainingLocations.size() == 0) {
-        pullQueryQueue.close();
-        return;
-      }
-    }
+  private static Throwable unwrap(final Throwable t) {
+    return t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
   }
 
   /**
@@ -250,7 +323,7 @@ public final class HARouting implements AutoCloseable {
 
   @VisibleForTesting
   interface RouteQuery {
-    RoutingResult routeQuery(
+    CompletableFuture<RoutingResult> routeQuery(
         KsqlNode node,
         List<KsqlPartitionLocation> locations,
         ConfiguredStatement<Query> statement,
@@ -260,12 +333,13 @@ public final class HARouting implements AutoCloseable {
         PullPhysicalPlan pullPhysicalPlan,
         LogicalSchema outputSchema,
         QueryId queryId,
-        PullQueryQueue pullQueryQueue
+        PullQueryQueue pullQueryQueue,
+        Executor executor
     );
   }
 
   @VisibleForTesting
-  static RoutingResult executeOrRouteQuery(
+  static CompletableFuture<RoutingResult> executeOrRouteQuery(
       final KsqlNode node,
       final List<KsqlPartitionLocation> locations,
       final ConfiguredStatement<Query> statement,
@@ -275,30 +349,40 @@ public final class HARouting implements AutoCloseable {
       final PullPhysicalPlan pullPhysicalPlan,
       final LogicalSchema outputSchema,
       final QueryId queryId,
-      final PullQueryQueue pullQueryQueue
+      final PullQueryQueue pullQueryQueue,
+      final Executor executor
   ) {
     final BiFunction<List<?>, LogicalSchema, PullQueryRow> rowFactory = (rawRow, schema) ->
         new PullQueryRow(rawRow, schema, Optional.ofNullable(
             routingOptions.getIsDebugRequest() ? node : null));
     if (node.isLocal()) {
+      LOG.debug("Query {} executed locally at host {} at timestamp {}.",
+                statement.getStatementText(), node.location(), System.currentTimeMillis());
+      pullQueryMetrics
+          .ifPresent(queryExecutorMetrics -> queryExecutorMetrics.recordLocalRequests(1));
+      CompletableFuture<Void> execution;
       try {
-        LOG.debug("Query {} executed locally at host {} at timestamp {}.",
-                  statement.getStatementText(), node.location(), System.currentTimeMillis());
-        pullQueryMetrics
-            .ifPresent(queryExecutorMetrics -> queryExecutorMetrics.recordLocalRequests(1));
-        pullPhysicalPlan.execute(locations, pullQueryQueue,  rowFactory);
-        return RoutingResult.SUCCESS;
-      } catch (StandbyFallbackException e) {
-        LOG.warn("Error executing query locally at node {}. Falling back to standby state which "
-                + "may return stale results", node, e.getCause());
-        return RoutingResult.STANDBY_FALLBACK;
+        execution = pullPhysicalPlan.execute(locations, pullQueryQueue, rowFactory, executor);
       } catch (Exception e) {
+        execution = new CompletableFuture<>();
+        execution.completeExceptionally(e);
+      }
+      return execution.handle((v, t) -> {
+        if (t == null) {
+          return RoutingResult.SUCCESS;
+        }
+        final Throwable cause = unwrap(t);
+        if (cause instanceof StandbyFallbackException) {
+          LOG.warn("Error executing query locally at node {}. Falling back to standby state which "
+              + "may return stale results", node, cause.getCause());
+          return RoutingResult.STANDBY_FALLBACK;
+        }
         throw new KsqlException(
             String.format("Error executing query locally at node %s: %s", node.location(),
-                e.getMessage()),
-            e
+                cause.getMessage()),
+            cause
         );
-      }
+      });
     } else {
       try {
         LOG.debug("Query {} routed to host {} at timestamp {}.",
@@ -307,11 +391,11 @@ public final class HARouting implements AutoCloseable {
             .ifPresent(queryExecutorMetrics -> queryExecutorMetrics.recordRemoteRequests(1));
         forwardTo(node, locations, statement, serviceContext, pullQueryQueue, rowFactory,
             outputSchema);
-        return RoutingResult.SUCCESS;
+        return CompletableFuture.completedFuture(RoutingResult.SUCCESS);
       } catch (StandbyFallbackException e) {
         LOG.warn("Error forwarding query to node {}. Falling back to standby state which may "
                 + "return stale results", node.location(), e.getCause());
-        return RoutingResult.STANDBY_FALLBACK;
+        return CompletableFuture.completedFuture(RoutingResult.STANDBY_FALLBACK);
       } catch (Exception e) {
         throw new KsqlException(
             String.format("Error forwarding query to node %s: %s", node.location(), e.getMessage()),
@@ -456,7 +540,8 @@ public final class HARouting implements AutoCloseable {
     }
   }
 
-  private enum RoutingResult {
+  @VisibleForTesting
+  enum RoutingResult {
     SUCCESS,
     STANDBY_FALLBACK
   }
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical.pull;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.execution.streams.materialization.Locator.KsqlNode;
+import io.confluent.ksql.execution.streams.materialization.Locator.KsqlPartitionLocation;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Spreads the partitions of a pull query over the hosts that can serve them, using a
+ * least-outstanding-requests policy.
+ *
+ * <p>The balancer counts the partitions being read from each host by the pull queries of this
+ * server. Each partition is assigned to the host, of those it may be read from, with the fewest
+ * partitions outstanding, counting those already assigned for the same query. The remaining
+ * hosts are kept, in their original order, to fall back to should the read fail.
+ */
+final class LeastOutstandingRequestsBalancer {
+
+  private final ConcurrentMap<URI, AtomicInteger> outstanding = new ConcurrentHashMap<>();
+
+  /**
+   * @param locations the locations of the partitions to read, with the hosts each may be read
+   *                  from.
+   * @return the locations, with the host each partition should be read from first.
+   */
+  List<KsqlPartitionLocation> assign(final List<KsqlPartitionLocation> locations) {
+    final Map<URI, Integer> assigned = new HashMap<>();
+    final ImmutableList.Builder<KsqlPartitionLocation> balanced = ImmutableList.builder();
+    for (final KsqlPartitionLocation location : locations) {
+      final List<KsqlNode> nodes = location.getNodes();
+      if (nodes.size() <= 1) {
+        balanced.add(location);
+        continue;
+      }
+
+      // Ties go to the earliest node, i.e. prefer the active:
+      int chosen = 0;
+      int least = Integer.MAX_VALUE;
+      for (int i = 0; i < nodes.size(); i++) {
+        final URI host = nodes.get(i).location();
+        final int load = outstanding(host) + assigned.getOrDefault(host, 0);
+        if (load < least) {
+          least = load;
+          chosen = i;
+        }
+      }
+
+      assigned.merge(nodes.get(chosen).location(), 1, Integer::sum);
+      if (chosen == 0) {
+        balanced.add(location);
+        continue;
+      }
+
+      final ImmutableList.Builder<KsqlNode> reordered = ImmutableList.builder();
+      reordered.add(nodes.get(chosen));
+      for (int i = 0; i < nodes.size(); i++) {
+        if (i != chosen) {
+          reordered.add(nodes.get(i));
+        }
+      }
+      balanced.add(location.withNodes(reordered.build()));
+    }
+    return balanced.build();
+  }
+
+  /**
+   * Record that a read of some partitions from a host has started.
+   *
+   * @param node the host.
+   * @param partitions the number of partitions being read.
+   */
+  void started(final KsqlNode node, final int partitions) {
+    outstanding.computeIfAbsent(node.location(), h -> new AtomicInteger())
+        .addAndGet(partitions);
+  }
+
+  /**
+   * Record that a read started by {@link #started} has finished, successfully or not.
+   *
+   * @param node the host.
+   * @param partitions the number of partitions that were read.
+   */
+  void finished(final KsqlNode node, final int partitions) {
+    final AtomicInteger count = outstanding.get(node.location());
+    if (count != null) {
+      count.addAndGet(-partitions);
+    }
+  }
+
+  int outstanding(final URI host) {
+    final AtomicInteger count = outstanding.get(host);
+    return count == null ? 0 : count.get();
+  }
+}
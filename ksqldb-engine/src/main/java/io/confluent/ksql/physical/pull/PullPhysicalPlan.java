@@ -31,6 +31,8 @@ import io.confluent.ksql.schema.ksql.LogicalSchema;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -52,6 +54,7 @@ public class PullPhysicalPlan {
   private final PullSourceType pullSourceType;
   private final Materialization mat;
   private final DataSourceOperator dataSourceOperator;
+  private final String applicationId;
 
   public PullPhysicalPlan(
       final AbstractPhysicalOperator root,
@@ -61,7 +64,8 @@ public class PullPhysicalPlan {
       final PullPhysicalPlanType pullPhysicalPlanType,
       final PullSourceType pullSourceType,
       final Materialization mat,
-      final DataSourceOperator dataSourceOperator
+      final DataSourceOperator dataSourceOperator,
+      final String applicationId
   ) {
     this.root = Objects.requireNonNull(root, "root");
     this.schema = Objects.requireNonNull(schema, "schema");
@@ -73,32 +77,75 @@ public class PullPhysicalPlan {
     this.mat = Objects.requireNonNull(mat, "mat");
     this.dataSourceOperator = Objects.requireNonNull(
         dataSourceOperator, "dataSourceOperator");
+    this.applicationId = Objects.requireNonNull(applicationId, "applicationId");
   }
 
-  public void execute(
+  /**
+   * Executes the plan, enqueuing the resulting rows on the supplied queue.
+   *
+   * <p>Rows are only read from the data source while the queue has capacity. Once the queue is
+   * full, execution is suspended, without holding on to a thread, and is resumed on the supplied
+   * executor once the consumer has made room. Hence, a slow consumer throttles how quickly the
+   * data source is scanned rather than blocking a pull query thread.
+   *
+   * @param locations the partition locations to read.
+   * @param pullQueryQueue the queue to enqueue rows on.
+   * @param rowFactory creates the rows to enqueue.
+   * @param executor the executor on which to resume execution once the queue has capacity.
+   * @return a future that completes once all rows have been enqueued, or the queue was closed.
+   */
+  public CompletableFuture<Void> execute(
       final List<KsqlPartitionLocation> locations,
       final PullQueryQueue pullQueryQueue,
-      final BiFunction<List<?>, LogicalSchema, PullQueryRow> rowFactory) {
-
-    // We only know at runtime which partitions to get from which node.
-    // That's why we need to set this explicitly for the dataSource operators
-    dataSourceOperator.setPartitionLocations(locations);
-
-    open();
-    List<?> row;
-    while ((row = (List<?>)next()) != null) {
-      if (pullQueryQueue.isClosed()) {
-        // If the queue has been closed, we stop adding rows and cleanup. This should be triggered
-        // because the client has closed their connection with the server before the results have
-        // completed.
-        LOGGER.info("Queue closed before results completed. Stopping execution.");
-        break;
-      }
-      if (!pullQueryQueue.acceptRow(rowFactory.apply(row, schema))) {
-        LOGGER.info("Failed to queue row");
-      }
+      final BiFunction<List<?>, LogicalSchema, PullQueryRow> rowFactory,
+      final Executor executor) {
+
+    final CompletableFuture<Void> future = new CompletableFuture<>();
+    try {
+      // We only know at runtime which partitions to get from which node.
+      // That's why we need to set this explicitly for the dataSource operators
+      dataSourceOperator.setPartitionLocations(locations);
+
+      open();
+    } catch (final Exception e) {
+      future.completeExceptionally(e);
+      return future;
     }
-    close();
+
+    new Runnable() {
+      @Override
+      public void run() {
+        try {
+          while (true) {
+            if (pullQueryQueue.isClosed()) {
+              // If the queue has been closed, we stop adding rows and cleanup. This should be
+              // triggered because the client has closed their connection with the server before
+              // the results have completed.
+              LOGGER.info("Queue closed before results completed. Stopping execution.");
+              break;
+            }
+            if (!pullQueryQueue.hasCapacity()) {
+              // Suspend until the consumer has polled some rows:
+              pullQueryQueue.onCapacity(() -> executor.execute(this));
+              return;
+            }
+            final List<?> row = (List<?>) next();
+            if (row == null) {
+              break;
+            }
+            if (!pullQueryQueue.acceptRow(rowFactory.apply(row, schema))) {
+              LOGGER.info("Failed to queue row");
+            }
+          }
+          close();
+          future.complete(null);
+        } catch (final Exception e) {
+          future.completeExceptionally(e);
+        }
+      }
+    }.run();
+
+    return future;
   }
 
   private void open() {
@@ -165,6 +212,13 @@ public class PullPhysicalPlan {
     return queryId;
   }
 
+  /**
+   * @return the application id of the persistent query whose state stores are queried.
+   */
+  public String getApplicationId() {
+    return applicationId;
+  }
+
   /**
    * The types we consider for metrics purposes. These should only be added to. You can deprecate
    * a field, but don't delete it or change its meaning
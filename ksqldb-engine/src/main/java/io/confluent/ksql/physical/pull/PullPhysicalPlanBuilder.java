@@ -151,7 +151,8 @@ public class PullPhysicalPlanBuilder {
         pullPhysicalPlanType,
         pullSourceType,
         mat,
-        dataSourceOperator);
+        dataSourceOperator,
+        persistentQueryMetadata.getQueryApplicationId());
   }
 
   private ProjectOperator translateProjectNode(final QueryProjectNode logicalNode) {
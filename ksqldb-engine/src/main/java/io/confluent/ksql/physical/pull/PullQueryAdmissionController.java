@@ -0,0 +1,301 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical.pull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.confluent.ksql.metrics.MetricCollectors;
+import io.confluent.ksql.physical.pull.PullPhysicalPlan.PullPhysicalPlanType;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.KsqlConstants;
+import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.ReservedInternalTopics;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.Avg;
+import org.apache.kafka.common.metrics.stats.CumulativeCount;
+import org.apache.kafka.common.metrics.stats.Max;
+import org.apache.kafka.common.metrics.stats.Rate;
+import org.apache.kafka.common.metrics.stats.WindowedCount;
+import org.apache.kafka.common.utils.Time;
+
+/**
+ * Admits pull queries according to their cost, so that a few expensive table scans can't take
+ * up the pull query thread pool at the expense of many cheap key lookups.
+ *
+ * <p>The cost of a pull query is the number of partitions it reads. Key lookups and table scans
+ * each have their own limit on the total cost of the queries running at once. A query that
+ * would exceed the limit of its kind is queued until enough running queries of the same kind
+ * complete, or is rejected if the queue is full, or once it has been queued for the maximum
+ * queue time. A query costing more than the whole limit is admitted once no other query of its
+ * kind is running, rather than never.
+ */
+public final class PullQueryAdmissionController implements AutoCloseable {
+
+  private static final String METRIC_GROUP = "pull-query-admission";
+
+  private final Map<PullPhysicalPlanType, CostClass> classes;
+  private final int maxQueued;
+  private final long maxQueueTimeMs;
+  private final Time time;
+  private final ScheduledExecutorService timeouts;
+  private final Metrics metrics;
+  private final List<Sensor> sensors = new ArrayList<>();
+
+  /**
+   * A running pull query, whose cost is freed once released.
+   */
+  public interface Permit {
+
+    Permit NONE = () -> { };
+
+    void release();
+  }
+
+  /**
+   * @param ksqlConfig the config.
+   * @return the controller, or empty if neither kind of pull query is limited.
+   */
+  public static Optional<PullQueryAdmissionController> create(final KsqlConfig ksqlConfig) {
+    final int keyLookupLimit = ksqlConfig.getInt(
+        KsqlConfig.KSQL_QUERY_PULL_ADMISSION_KEY_LOOKUP_MAX_PARTITIONS_CONFIG);
+    final int tableScanLimit = ksqlConfig.getInt(
+        KsqlConfig.KSQL_QUERY_PULL_ADMISSION_TABLE_SCAN_MAX_PARTITIONS_CONFIG);
+    if (keyLookupLimit == 0 && tableScanLimit == 0) {
+      return Optional.empty();
+    }
+
+    return Optional.of(new PullQueryAdmissionController(
+        ImmutableMap.of(
+            PullPhysicalPlanType.KEY_LOOKUP, keyLookupLimit,
+            PullPhysicalPlanType.TABLE_SCAN, tableScanLimit
+        ),
+        ksqlConfig.getInt(KsqlConfig.KSQL_QUERY_PULL_ADMISSION_MAX_QUEUED_CONFIG),
+        ksqlConfig.getLong(KsqlConfig.KSQL_QUERY_PULL_ADMISSION_MAX_QUEUE_TIME_MS_CONFIG),
+        Time.SYSTEM,
+        Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("pull-query-admission-timeout")
+            .setDaemon(true)
+            .build()),
+        MetricCollectors.getMetrics(),
+        ksqlConfig.getString(KsqlConfig.KSQL_SERVICE_ID_CONFIG)
+    ));
+  }
+
+  @VisibleForTesting
+  PullQueryAdmissionController(
+      final Map<PullPhysicalPlanType, Integer> limits,
+      final int maxQueued,
+      final long maxQueueTimeMs,
+      final Time time,
+      final ScheduledExecutorService timeouts,
+      final Metrics metrics,
+      final String ksqlServiceId
+  ) {
+    this.maxQueued = maxQueued;
+    this.maxQueueTimeMs = maxQueueTimeMs;
+    this.time = Objects.requireNonNull(time, "time");
+    this.timeouts = Objects.requireNonNull(timeouts, "timeouts");
+    this.metrics = Objects.requireNonNull(metrics, "metrics");
+
+    final Map<String, String> tags =
+        Collections.singletonMap(KsqlConstants.KSQL_SERVICE_ID_METRICS_TAG, ksqlServiceId);
+    final Map<PullPhysicalPlanType, CostClass> classes = new EnumMap<>(PullPhysicalPlanType.class);
+    limits.forEach((type, limit) -> {
+      if (limit > 0) {
+        classes.put(type, new CostClass(type, limit, tags));
+      }
+    });
+    this.classes = Collections.unmodifiableMap(classes);
+  }
+
+  @Override
+  public void close() {
+    timeouts.shutdownNow();
+    sensors.forEach(sensor -> metrics.removeSensor(sensor.name()));
+  }
+
+  /**
+   * Admit a pull query.
+   *
+   * @param type the type of the pull query.
+   * @param partitions the number of partitions the pull query reads.
+   * @return a future that completes with the permit of the query once it is admitted, or
+   *         completes exceptionally if the query is rejected after being queued.
+   * @throws KsqlException if the query is rejected immediately, as the queue is full.
+   */
+  public CompletableFuture<Permit> admit(final PullPhysicalPlanType type, final int partitions) {
+    final CostClass costClass = classes.get(type);
+    if (costClass == null) {
+      return CompletableFuture.completedFuture(Permit.NONE);
+    }
+    return costClass.admit(Math.max(1, partitions));
+  }
+
+  private final class CostClass {
+
+    private final String name;
+    private final int limit;
+    private final Deque<Waiter> queue = new ArrayDeque<>();
+    private final Sensor queueTimeSensor;
+    private final Sensor rejectedSensor;
+    private int inUse;
+
+    CostClass(
+        final PullPhysicalPlanType type,
+        final int limit,
+        final Map<String, String> tags
+    ) {
+      this.name = type.name().toLowerCase().replace('_', '-');
+      this.limit = limit;
+
+      final String group = ReservedInternalTopics.KSQL_INTERNAL_TOPIC_PREFIX + METRIC_GROUP;
+      this.queueTimeSensor = metrics.sensor(METRIC_GROUP + "-" + name + "-queue-time");
+      queueTimeSensor.add(
+          metrics.metricName(name + "-queue-time-avg", group,
+              "The average time, in milliseconds, " + name + " pull queries were queued", tags),
+          new Avg());
+      queueTimeSensor.add(
+          metrics.metricName(name + "-queue-time-max", group,
+              "The maximum time, in milliseconds, " + name + " pull queries were queued", tags),
+          new Max());
+
+      this.rejectedSensor = metrics.sensor(METRIC_GROUP + "-" + name + "-rejected");
+      rejectedSensor.add(
+          metrics.metricName(name + "-rejected-total", group,
+              "The number of " + name + " pull queries rejected", tags),
+          new CumulativeCount());
+      rejectedSensor.add(
+          metrics.metricName(name + "-rejected-rate", group,
+              "The number of " + name + " pull queries rejected per second", tags),
+          new Rate(new WindowedCount()));
+
+      sensors.add(queueTimeSensor);
+      sensors.add(rejectedSensor);
+    }
+
+    CompletableFuture<Permit> admit(final int partitions) {
+      // A query costing more than the limit can only run alone:
+      final int cost = Math.min(partitions, limit);
+
+      final Waiter waiter;
+      synchronized (this) {
+        if (queue.isEmpty() && inUse + cost <= limit) {
+          inUse += cost;
+          queueTimeSensor.record(0);
+          return CompletableFuture.completedFuture(new ClassPermit(cost));
+        }
+
+        if (queue.size() >= maxQueued) {
+          rejectedSensor.record();
+          throw new KsqlException(String.format(
+              "Host is at the pull query admission limit for %ss. Currently set to %d partitions "
+                  + "read at once, with at most %d queries queued.",
+              name.replace('-', ' '), limit, maxQueued));
+        }
+
+        waiter = new Waiter(cost, time.milliseconds());
+        queue.add(waiter);
+      }
+
+      timeouts.schedule(() -> timeout(waiter), maxQueueTimeMs, TimeUnit.MILLISECONDS);
+      return waiter.future;
+    }
+
+    private void timeout(final Waiter waiter) {
+      synchronized (this) {
+        if (!queue.remove(waiter)) {
+          return;
+        }
+      }
+
+      rejectedSensor.record();
+      waiter.future.completeExceptionally(new KsqlException(String.format(
+          "Pull query was queued for the admission limit of %ss for longer than %d ms.",
+          name.replace('-', ' '), maxQueueTimeMs)));
+      // The head of the queue may now fit:
+      admitQueued();
+    }
+
+    private void release(final int cost) {
+      synchronized (this) {
+        inUse -= cost;
+      }
+      admitQueued();
+    }
+
+    private void admitQueued() {
+      final List<Waiter> admitted = new ArrayList<>();
+      synchronized (this) {
+        while (!queue.isEmpty() && inUse + queue.peek().cost <= limit) {
+          final Waiter waiter = queue.poll();
+          inUse += waiter.cost;
+          admitted.add(waiter);
+        }
+      }
+
+      final long now = time.milliseconds();
+      for (final Waiter waiter : admitted) {
+        queueTimeSensor.record(now - waiter.queuedMs);
+        waiter.future.complete(new ClassPermit(waiter.cost));
+      }
+    }
+
+    private final class ClassPermit implements Permit {
+
+      private final int cost;
+      private final AtomicBoolean released = new AtomicBoolean();
+
+      ClassPermit(final int cost) {
+        this.cost = cost;
+      }
+
+      @Override
+      public void release() {
+        if (!released.getAndSet(true)) {
+          CostClass.this.release(cost);
+        }
+      }
+    }
+  }
+
+  private static final class Waiter {
+
+    private final int cost;
+    private final long queuedMs;
+    private final CompletableFuture<Permit> future = new CompletableFuture<>();
+
+    Waiter(final int cost, final long queuedMs) {
+      this.cost = cost;
+      this.queuedMs = queuedMs;
+    }
+  }
+}
@@ -0,0 +1,432 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical.pull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.confluent.ksql.execution.streams.RoutingOptions;
+import io.confluent.ksql.metrics.CommittedOffsetTracker;
+import io.confluent.ksql.metrics.MetricCollectors;
+import io.confluent.ksql.parser.tree.Query;
+import io.confluent.ksql.statement.ConfiguredStatement;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.KsqlConstants;
+import io.confluent.ksql.util.ReservedInternalTopics;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.CumulativeCount;
+import org.apache.kafka.common.metrics.stats.Rate;
+import org.apache.kafka.common.metrics.stats.WindowedCount;
+import org.apache.kafka.common.utils.Time;
+
+/**
+ * Caches the results of pull queries, so that repeating a pull query against state that hasn't
+ * changed doesn't read the state stores again.
+ *
+ * <p>Entries are keyed by the statement text, with any variables substituted, together
+ * with the partitions requested and the query whose state is read. Each entry is tagged with the
+ * position, as tracked by {@link CommittedOffsetTracker}, of each partition it was read from.
+ * An entry is served while the positions of all of its partitions are known and unchanged, i.e.
+ * while no commit has advanced the input of the partitions, or while it is younger than the
+ * configured staleness bound. Since positions are only advanced by commits, a cached result may
+ * miss updates processed since the last commit of its partitions.
+ *
+ * <p>Only results with at most the configured number of rows are cached. Debug requests, whose
+ * rows carry the node that served them, are never cached.
+ */
+public final class PullQueryResultCache implements AutoCloseable {
+
+  private static final String METRIC_GROUP = "pull-query-result-cache";
+  private static final long ROW_OVERHEAD_BYTES = 64;
+  private static final long VALUE_OVERHEAD_BYTES = 16;
+
+  private final Cache<Key, Entry> cache;
+  private final int maxRowsPerEntry;
+  private final long stalenessMs;
+  private final Time time;
+  private final PositionLookup positions;
+  private final Metrics metrics;
+  private final Sensor hitSensor;
+  private final Sensor missSensor;
+  private final Sensor invalidationSensor;
+  private final Sensor evictionSensor;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong lookups = new AtomicLong();
+  private final AtomicLong estimatedBytes = new AtomicLong();
+  private final List<MetricName> gauges = new ArrayList<>();
+
+  /**
+   * @param ksqlConfig the config.
+   * @return the cache, or empty if caching of pull query results is disabled.
+   */
+  public static Optional<PullQueryResultCache> create(final KsqlConfig ksqlConfig) {
+    final int maxEntries =
+        ksqlConfig.getInt(KsqlConfig.KSQL_QUERY_PULL_RESULT_CACHE_MAX_ENTRIES_CONFIG);
+    if (maxEntries <= 0) {
+      return Optional.empty();
+    }
+
+    return Optional.of(new PullQueryResultCache(
+        maxEntries,
+        ksqlConfig.getInt(KsqlConfig.KSQL_QUERY_PULL_RESULT_CACHE_MAX_ROWS_CONFIG),
+        ksqlConfig.getLong(KsqlConfig.KSQL_QUERY_PULL_RESULT_CACHE_STALENESS_MS_CONFIG),
+        Time.SYSTEM,
+        CommittedOffsetTracker::position,
+        MetricCollectors.getMetrics(),
+        ksqlConfig.getString(KsqlConfig.KSQL_SERVICE_ID_CONFIG)
+    ));
+  }
+
+  @VisibleForTesting
+  PullQueryResultCache(
+      final int maxEntries,
+      final int maxRowsPerEntry,
+      final long stalenessMs,
+      final Time time,
+      final PositionLookup positions,
+      final Metrics metrics,
+      final String ksqlServiceId
+  ) {
+    this.maxRowsPerEntry = maxRowsPerEntry;
+    this.stalenessMs = stalenessMs;
+    this.time = Objects.requireNonNull(time, "time");
+    this.positions = Objects.requireNonNull(positions, "positions");
+    this.metrics = Objects.requireNonNull(metrics, "metrics");
+
+    final Map<String, String> tags =
+        Collections.singletonMap(KsqlConstants.KSQL_SERVICE_ID_METRICS_TAG, ksqlServiceId);
+    this.hitSensor = countSensor("hit", "Pull queries served from the result cache", tags);
+    this.missSensor = countSensor("miss", "Pull queries whose result wasn't cached", tags);
+    this.invalidationSensor = countSensor("invalidation",
+        "Cached pull query results invalidated as their partitions changed", tags);
+    this.evictionSensor = countSensor("eviction",
+        "Cached pull query results evicted as the cache was full", tags);
+    addGauge("hit-ratio", "The ratio of pull queries served from the result cache", tags,
+        () -> {
+          final long total = lookups.get();
+          return total == 0 ? 0.0 : (double) hits.get() / total;
+        });
+    addGauge("estimated-bytes", "The estimated memory used by cached pull query results", tags,
+        () -> (double) estimatedBytes.get());
+
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(maxEntries)
+        .<Key, Entry>removalListener(notification -> {
+          estimatedBytes.addAndGet(-notification.getValue().bytes);
+          if (notification.getCause() == RemovalCause.SIZE) {
+            evictionSensor.record();
+          }
+        })
+        .build();
+  }
+
+  @Override
+  public void close() {
+    cache.invalidateAll();
+    for (final Sensor sensor
+        : ImmutableList.of(hitSensor, missSensor, invalidationSensor, evictionSensor)) {
+      metrics.removeSensor(sensor.name());
+    }
+    gauges.forEach(metrics::removeMetric);
+  }
+
+  /**
+   * @param statement the pull query.
+   * @param pullPhysicalPlan the plan of the pull query.
+   * @param routingOptions the routing options of the request.
+   * @return the key under which to cache the result of the pull query, or empty if its result
+   *         shouldn't be cached.
+   */
+  public Optional<Key> key(
+      final ConfiguredStatement<Query> statement,
+      final PullPhysicalPlan pullPhysicalPlan,
+      final RoutingOptions routingOptions
+  ) {
+    if (routingOptions.getIsDebugRequest()) {
+      return Optional.empty();
+    }
+
+    return Optional.of(new Key(
+        pullPhysicalPlan.getApplicationId(),
+        // The text, rather than the statement, as a statement served from the pull query plan
+        // cache has its variables bound in its analysis only:
+        statement.getStatementText(),
+        statement.getSessionConfig().getOverrides(),
+        routingOptions.getPartitions(),
+        routingOptions.getMaxOffsetLagAllowed(),
+        routingOptions.getIsSkipForwardRequest()
+    ));
+  }
+
+  /**
+   * @param key the key of the pull query.
+   * @return the cached result of the pull query, or empty if there is no result that can be served.
+   */
+  public Optional<List<PullQueryRow>> get(final Key key) {
+    lookups.incrementAndGet();
+    final Entry entry = cache.getIfPresent(key);
+    if (entry != null) {
+      if (isCurrent(key, entry)) {
+        hits.incrementAndGet();
+        hitSensor.record();
+        return Optional.of(entry.rows);
+      }
+      invalidationSensor.record();
+      cache.asMap().remove(key, entry);
+    }
+    missSensor.record();
+    return Optional.empty();
+  }
+
+  /**
+   * Starts capturing the result of a pull query, to cache once complete. Must be called before
+   * the query starts reading the partitions, so that any changes to them while the query runs
+   * invalidate the result.
+   *
+   * @param key the key of the pull query.
+   * @param partitions the partitions the pull query reads.
+   * @return the capture, to which rows should be added as they are produced.
+   */
+  public ResultCapture capture(final Key key, final Collection<Integer> partitions) {
+    final ImmutableMap.Builder<Integer, OptionalLong> builder = ImmutableMap.builder();
+    for (final Integer partition : partitions) {
+      builder.put(partition, positions.position(key.applicationId, partition));
+    }
+    return new ResultCapture(key, builder.build(), time.milliseconds());
+  }
+
+  private boolean isCurrent(final Key key, final Entry entry) {
+    if (time.milliseconds() - entry.createdMs < stalenessMs) {
+      return true;
+    }
+
+    if (entry.positions.isEmpty()) {
+      return false;
+    }
+
+    for (final Map.Entry<Integer, OptionalLong> e : entry.positions.entrySet()) {
+      final OptionalLong position = e.getValue();
+      if (!position.isPresent()
+          || !position.equals(positions.position(key.applicationId, e.getKey()))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private Sensor countSensor(
+      final String name,
+      final String description,
+      final Map<String, String> tags
+  ) {
+    final String group = ReservedInternalTopics.KSQL_INTERNAL_TOPIC_PREFIX + METRIC_GROUP;
+    final Sensor sensor = metrics.sensor(METRIC_GROUP + "-" + name);
+    sensor.add(
+        metrics.metricName(name + "-total", group, description, tags),
+        new CumulativeCount());
+    sensor.add(
+        metrics.metricName(name + "-rate", group, description + " per second", tags),
+        new Rate(new WindowedCount()));
+    return sensor;
+  }
+
+  private void addGauge(
+      final String name,
+      final String description,
+      final Map<String, String> tags,
+      final DoubleSupplier value
+  ) {
+    final MetricName metricName = metrics.metricName(
+        name,
+        ReservedInternalTopics.KSQL_INTERNAL_TOPIC_PREFIX + METRIC_GROUP,
+        description,
+        tags
+    );
+    metrics.addMetric(metricName, (config, now) -> value.getAsDouble());
+    gauges.add(metricName);
+  }
+
+  @VisibleForTesting
+  static long estimateBytes(final List<?> row) {
+    long bytes = ROW_OVERHEAD_BYTES;
+    for (final Object value : row) {
+      bytes += VALUE_OVERHEAD_BYTES;
+      if (value instanceof String) {
+        bytes += 2L * ((String) value).length();
+      } else if (value instanceof ByteBuffer) {
+        bytes += ((ByteBuffer) value).capacity();
+      } else if (value instanceof List) {
+        bytes += estimateBytes((List<?>) value);
+      } else if (value instanceof Map) {
+        final Map<?, ?> map = (Map<?, ?>) value;
+        bytes += estimateBytes(new ArrayList<>(map.keySet()))
+            + estimateBytes(new ArrayList<>(map.values()));
+      } else if (value != null) {
+        bytes += Long.BYTES;
+      }
+    }
+    return bytes;
+  }
+
+  @VisibleForTesting
+  interface PositionLookup {
+    OptionalLong position(String applicationId, int partition);
+  }
+
+  /**
+   * The result of a pull query as it is produced.
+   */
+  public final class ResultCapture {
+
+    private final Key key;
+    private final ImmutableMap<Integer, OptionalLong> positions;
+    private final long createdMs;
+    private final List<PullQueryRow> rows = new ArrayList<>();
+    private long bytes;
+    private boolean overflowed;
+
+    private ResultCapture(
+        final Key key,
+        final ImmutableMap<Integer, OptionalLong> positions,
+        final long createdMs
+    ) {
+      this.key = key;
+      this.positions = positions;
+      this.createdMs = createdMs;
+    }
+
+    /**
+     * Adds a row of the result. Rows may be added from multiple threads.
+     *
+     * @param row the row.
+     */
+    public synchronized void addRow(final PullQueryRow row) {
+      if (overflowed) {
+        return;
+      }
+      if (rows.size() >= maxRowsPerEntry) {
+        overflowed = true;
+        rows.clear();
+        return;
+      }
+      rows.add(row);
+      bytes += estimateBytes(row.getRow());
+    }
+
+    /**
+     * Caches the result, unless it has too many rows. Must only be called once all rows of the
+     * complete result have been added.
+     */
+    public synchronized void complete() {
+      if (overflowed) {
+        return;
+      }
+      estimatedBytes.addAndGet(bytes);
+      cache.put(key, new Entry(ImmutableList.copyOf(rows), positions, createdMs, bytes));
+    }
+  }
+
+  /**
+   * The key of a cached result.
+   */
+  public static final class Key {
+
+    private final String applicationId;
+    private final String statement;
+    private final Map<String, Object> overrides;
+    private final Set<Integer> partitions;
+    private final long maxOffsetLag;
+    private final boolean skipForward;
+
+    @VisibleForTesting
+    Key(
+        final String applicationId,
+        final String statement,
+        final Map<String, Object> overrides,
+        final Set<Integer> partitions,
+        final long maxOffsetLag,
+        final boolean skipForward
+    ) {
+      this.applicationId = Objects.requireNonNull(applicationId, "applicationId");
+      this.statement = Objects.requireNonNull(statement, "statement");
+      this.overrides = ImmutableMap.copyOf(overrides);
+      this.partitions = ImmutableSet.copyOf(partitions);
+      this.maxOffsetLag = maxOffsetLag;
+      this.skipForward = skipForward;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Key key = (Key) o;
+      return maxOffsetLag == key.maxOffsetLag
+          && skipForward == key.skipForward
+          && applicationId.equals(key.applicationId)
+          && statement.equals(key.statement)
+          && overrides.equals(key.overrides)
+          && partitions.equals(key.partitions);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(
+          applicationId, statement, overrides, partitions, maxOffsetLag, skipForward);
+    }
+  }
+
+  private static final class Entry {
+
+    private final List<PullQueryRow> rows;
+    private final ImmutableMap<Integer, OptionalLong> positions;
+    private final long createdMs;
+    private final long bytes;
+
+    Entry(
+        final List<PullQueryRow> rows,
+        final ImmutableMap<Integer, OptionalLong> positions,
+        final long createdMs,
+        final long bytes
+    ) {
+      this.rows = rows;
+      this.positions = positions;
+      this.createdMs = createdMs;
+      this.bytes = bytes;
+    }
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical.scalablepush;
+
+import io.confluent.ksql.execution.streams.materialization.TableRow;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Keeps the most recent rows seen by a {@link ScalablePushRegistry}, in a fixed size ring buffer
+ * per partition, so that a {@link ProcessingQueue} which has fallen behind can catch up without
+ * the registry holding an unbounded queue for it.
+ *
+ * <p>Each row is given an offset within its partition, counting every row the registry has seen
+ * from that partition, starting at 0. These are not the offsets of the source topic, as a single
+ * source record may result in any number of rows.
+ *
+ * <p>Each partition has its own lock. The registry holds it while it appends a row and offers it
+ * to the queues, and queues catch up on the partition holding the same lock, so a queue which is
+ * done catching up on a partition can go back to being offered its rows without missing or
+ * repeating any. A queue catching up only holds up the stream thread of that partition.
+ */
+final class CatchupBuffer {
+
+  private final int capacity;
+  private final UnaryOperator<TableRow> copier;
+  private final ConcurrentHashMap<Integer, Ring> partitions = new ConcurrentHashMap<>();
+
+  /**
+   * @param capacity the number of rows to keep per partition.
+   * @param copier makes a copy of a row, so that each queue reading it gets its own.
+   */
+  CatchupBuffer(final int capacity, final UnaryOperator<TableRow> copier) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive: " + capacity);
+    }
+    this.capacity = capacity;
+    this.copier = Objects.requireNonNull(copier, "copier");
+  }
+
+  /**
+   * Appends a row, evicting the oldest row of its partition if the partition is full.
+   *
+   * @param partition the partition of the row.
+   * @param row the row. It's kept as is, so should not be shared with any queue.
+   * @param onAppended called with the offset of the row, with the lock on the partition held.
+   * @return the offset of the row within its partition.
+   */
+  long append(final int partition, final TableRow row, final LongConsumer onAppended) {
+    final Ring ring = ring(partition);
+    synchronized (ring) {
+      final long offset = ring.append(row);
+      onAppended.accept(offset);
+      return offset;
+    }
+  }
+
+  /**
+   * Catches up a queue on a partition, with the lock on the partition held.
+   */
+  void catchUp(final int partition, final ProcessingQueue queue) {
+    final Ring ring = ring(partition);
+    synchronized (ring) {
+      queue.catchUp(this, partition);
+    }
+  }
+
+  /**
+   * @return the offset of the oldest row kept for the partition.
+   */
+  long startOffset(final int partition) {
+    final Ring ring = partitions.get(partition);
+    if (ring == null) {
+      return 0;
+    }
+    synchronized (ring) {
+      return ring.start();
+    }
+  }
+
+  /**
+   * @return the offset the next row of the partition will be given.
+   */
+  long endOffset(final int partition) {
+    final Ring ring = partitions.get(partition);
+    if (ring == null) {
+      return 0;
+    }
+    synchronized (ring) {
+      return ring.end;
+    }
+  }
+
+  /**
+   * @param partition the partition.
+   * @param offset the offset, between the start, inclusive, and end, exclusive, of the partition.
+   * @return a copy of the row at the offset.
+   */
+  TableRow get(final int partition, final long offset) {
+    final Ring ring = partitions.get(partition);
+    final TableRow row;
+    if (ring == null) {
+      row = null;
+    } else {
+      synchronized (ring) {
+        row = offset < ring.start() || offset >= ring.end ? null : ring.get(offset);
+      }
+    }
+    if (row == null) {
+      throw new IllegalArgumentException(
+          "Offset " + offset + " of partition " + partition + " is not buffered");
+    }
+    return copier.apply(row);
+  }
+
+  private Ring ring(final int partition) {
+    return partitions.computeIfAbsent(partition, p -> new Ring(capacity));
+  }
+
+  private static final class Ring {
+
+    private final TableRow[] rows;
+    private long end;
+
+    Ring(final int capacity) {
+      this.rows = new TableRow[capacity];
+    }
+
+    long start() {
+      return Math.max(0, end - rows.length);
+    }
+
+    long append(final TableRow row) {
+      rows[index(end)] = row;
+      return end++;
+    }
+
+    TableRow get(final long offset) {
+      return rows[index(offset)];
+    }
+
+    private int index(final long offset) {
+      return (int) (offset % rows.length);
+    }
+  }
+}
@@ -15,16 +15,27 @@
 
 package io.confluent.ksql.physical.scalablepush;
 
+import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.execution.streams.materialization.TableRow;
 import io.confluent.ksql.query.QueryId;
 import java.util.ArrayDeque;
 import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * A queue for storing pre-processed rows for a given scalable push query request. This queue
  * starts dropping rows if they're past the capacity, and keeps track so it can be reported to the
  * request.
  *
+ * <p>If the registry keeps a {@link CatchupBuffer}, rows are offered along with their partition
+ * and offset. Rather than dropping rows past the capacity, the queue then stops taking rows of
+ * that partition and catches up on it from the buffer as it is polled, only dropping rows if
+ * they've already been evicted from the buffer.
+ *
  * <p>The class is threadsafe since it's assumed that different threads are producing and consuming
  * the data.
  */
@@ -35,6 +46,11 @@ public class ProcessingQueue {
   private final Deque<TableRow> rowQueue;
   private final QueryId queryId;
   private final int queueSizeLimit;
+  // The offset of the next row to be queued from each partition:
+  private final Map<Integer, Long> nextOffsets = new HashMap<>();
+  // The partitions whose rows aren't taken, but caught up on from the buffer:
+  private final Set<Integer> catchingUp = new HashSet<>();
+  private Optional<CatchupBuffer> catchupBuffer = Optional.empty();
   private boolean closed = false;
   private boolean droppedRows = false;
   private Runnable newRowCallback = () -> { };
@@ -68,16 +84,102 @@ public class ProcessingQueue {
     return false;
   }
 
+  /**
+   * Adds a {@link TableRow}, which is also kept in the catch-up buffer, to the queue. This is
+   * expected to be called from the processor streams thread when a new row arrives, with the lock
+   * on the partition of the buffer held.
+   * @param partition The partition of the row
+   * @param offset The offset of the row within its partition of the catch-up buffer
+   * @param tableRow The row to add
+   * @return if the row has been added to the queue, rather than left to be caught up on later.
+   */
+  public synchronized boolean offer(
+      final int partition,
+      final long offset,
+      final TableRow tableRow
+  ) {
+    if (closed) {
+      return false;
+    } else if (!catchingUp.contains(partition) && rowQueue.size() < queueSizeLimit) {
+      rowQueue.offer(tableRow);
+      nextOffsets.put(partition, offset + 1);
+      newRowCallback.run();
+      return true;
+    }
+    // The first row of a partition not yet seen is where that partition catches up from:
+    nextOffsets.putIfAbsent(partition, offset);
+    if (catchingUp.add(partition)) {
+      // Only wake the consumer once it falls behind, which then polls until caught up:
+      newRowCallback.run();
+    }
+    return false;
+  }
+
   /**
    * Reads a row from the queue. This is expected to be called from the plan's physical operator
    * which is called from the Vertx context.
    * @return The next row or null if either the queue is closed or there's no data to return.
    */
-  public synchronized TableRow poll() {
-    if (!closed) {
-      return rowQueue.poll();
+  public TableRow poll() {
+    final CatchupBuffer buffer;
+    final Set<Integer> partitions;
+    synchronized (this) {
+      if (closed) {
+        return null;
+      }
+      if (!rowQueue.isEmpty() || catchingUp.isEmpty() || !catchupBuffer.isPresent()) {
+        return rowQueue.poll();
+      }
+      buffer = catchupBuffer.get();
+      partitions = ImmutableSet.copyOf(catchingUp);
+    }
+
+    // The lock on a partition of the buffer is always taken before the lock on the queue:
+    for (final int partition : partitions) {
+      buffer.catchUp(partition, this);
+    }
+
+    synchronized (this) {
+      return closed ? null : rowQueue.poll();
+    }
+  }
+
+  /**
+   * Queues as many rows of a partition as fit from the catch-up buffer. Called with the lock on
+   * the partition of the buffer held, so no rows of the partition are offered meanwhile.
+   */
+  synchronized void catchUp(final CatchupBuffer buffer, final int partition) {
+    if (closed || !catchingUp.contains(partition)) {
+      return;
+    }
+
+    final long start = buffer.startOffset(partition);
+    final long end = buffer.endOffset(partition);
+    long next = nextOffsets.getOrDefault(partition, end);
+    if (next < start) {
+      // Rows have been evicted since:
+      droppedRows = true;
+      next = start;
     }
-    return null;
+
+    while (next < end && rowQueue.size() < queueSizeLimit) {
+      rowQueue.offer(buffer.get(partition, next));
+      next++;
+    }
+
+    nextOffsets.put(partition, next);
+    if (next == end) {
+      catchingUp.remove(partition);
+    }
+  }
+
+  /**
+   * Sets the buffer to catch up from. This is expected to be called by the registry before any
+   * rows are offered with their offsets.
+   * @param catchupBuffer The buffer
+   */
+  synchronized void setCatchupBuffer(final CatchupBuffer catchupBuffer) {
+    this.catchupBuffer = Optional.of(catchupBuffer);
   }
 
   /**
@@ -100,7 +202,8 @@ public class ProcessingQueue {
   }
 
   /**
-   * Whether rows have been dropped due to hitting the queue limit.
+   * Whether rows have been dropped due to hitting the queue limit, or, when catching up, due to
+   * having been evicted from the catch-up buffer.
    */
   public synchronized boolean hasDroppedRows() {
     return droppedRows;
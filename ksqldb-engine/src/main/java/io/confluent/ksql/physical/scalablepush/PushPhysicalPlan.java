@@ -16,6 +16,7 @@
 package io.confluent.ksql.physical.scalablepush;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.confluent.ksql.internal.ScalablePushQueryMetrics;
 import io.confluent.ksql.physical.common.operators.AbstractPhysicalOperator;
 import io.confluent.ksql.physical.pull.PullPhysicalPlan;
 import io.confluent.ksql.physical.scalablepush.operators.PushDataSourceOperator;
@@ -26,6 +27,7 @@ import io.confluent.ksql.util.VertxUtils;
 import io.vertx.core.Context;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -71,8 +73,17 @@ public class PushPhysicalPlan {
   }
 
   public BufferedPublisher<List<?>> execute() {
+    return execute(Optional.empty());
+  }
+
+  /**
+   * Executes the plan, recording the latency of each output row if metrics are supplied.
+   */
+  public BufferedPublisher<List<?>> execute(
+      final Optional<ScalablePushQueryMetrics> scalablePushQueryMetrics
+  ) {
     final Publisher publisher = new Publisher(context);
-    context.runOnContext(v -> open(publisher));
+    context.runOnContext(v -> open(publisher, scalablePushQueryMetrics));
     return publisher;
   }
 
@@ -80,7 +91,10 @@ public class PushPhysicalPlan {
     return closed;
   }
 
-  private void maybeNext(final Publisher publisher) {
+  private void maybeNext(
+      final Publisher publisher,
+      final Optional<ScalablePushQueryMetrics> scalablePushQueryMetrics
+  ) {
     List<?> row;
     while ((row = (List<?>)next()) != null) {
       if (dataSourceOperator.droppedRows()) {
@@ -89,6 +103,8 @@ public class PushPhysicalPlan {
         break;
       } else {
         publisher.accept(row);
+        scalablePushQueryMetrics.ifPresent(
+            metrics -> metrics.recordRowLatency(dataSourceOperator.getLastRowTime()));
       }
     }
     if (!closed) {
@@ -97,17 +113,22 @@ public class PushPhysicalPlan {
       }
       // Schedule another batch async
       timer = context.owner()
-          .setTimer(100, timerId -> context.runOnContext(v -> maybeNext(publisher)));
+          .setTimer(100, timerId -> context.runOnContext(
+              v -> maybeNext(publisher, scalablePushQueryMetrics)));
     } else {
       publisher.close();
     }
   }
 
-  private void open(final Publisher publisher) {
+  private void open(
+      final Publisher publisher,
+      final Optional<ScalablePushQueryMetrics> scalablePushQueryMetrics
+  ) {
     VertxUtils.checkContext(context);
-    dataSourceOperator.setNewRowCallback(() -> context.runOnContext(v -> maybeNext(publisher)));
+    dataSourceOperator.setNewRowCallback(
+        () -> context.runOnContext(v -> maybeNext(publisher, scalablePushQueryMetrics)));
     root.open();
-    maybeNext(publisher);
+    maybeNext(publisher, scalablePushQueryMetrics);
   }
 
   private Object next() {
@@ -19,6 +19,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableMap;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.internal.ScalablePushQueryMetrics;
 import io.confluent.ksql.parser.tree.Query;
 import io.confluent.ksql.physical.pull.HARouting;
 import io.confluent.ksql.physical.scalablepush.locator.PushLocator.KsqlNode;
@@ -37,6 +38,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
@@ -51,11 +53,19 @@ public class PushRouting implements AutoCloseable {
 
   private static final Logger LOG = LoggerFactory.getLogger(HARouting.class);
 
+  private final Optional<ScalablePushQueryMetrics> scalablePushQueryMetrics;
+
   public PushRouting() {
+    this(Optional.empty());
+  }
+
+  public PushRouting(final Optional<ScalablePushQueryMetrics> scalablePushQueryMetrics) {
+    this.scalablePushQueryMetrics = scalablePushQueryMetrics;
   }
 
   @Override
   public void close() {
+    scalablePushQueryMetrics.ifPresent(ScalablePushQueryMetrics::close);
   }
 
   /**
@@ -107,7 +117,7 @@ public class PushRouting implements AutoCloseable {
     for (final KsqlNode node : hosts) {
       futureMap.put(node, executeOrRouteQuery(
           node, statement, serviceContext, pushPhysicalPlan, outputSchema,
-          transientQueryQueue, errorCallback::completeExceptionally));
+          transientQueryQueue, errorCallback::completeExceptionally, scalablePushQueryMetrics));
     }
     final PushConnectionsHandle pushConnectionsHandle = new PushConnectionsHandle(errorCallback);
     return CompletableFuture.allOf(futureMap.values().toArray(new CompletableFuture[0]))
@@ -146,7 +156,8 @@ public class PushRouting implements AutoCloseable {
       final PushPhysicalPlan pushPhysicalPlan,
       final LogicalSchema outputSchema,
       final TransientQueryQueue transientQueryQueue,
-      final Consumer<Throwable> errorCallback
+      final Consumer<Throwable> errorCallback,
+      final Optional<ScalablePushQueryMetrics> scalablePushQueryMetrics
   ) {
     if (node.isLocal()) {
       LOG.debug("Query {} executed locally at host {} at timestamp {}.",
@@ -154,7 +165,7 @@ public class PushRouting implements AutoCloseable {
       final AtomicReference<BufferedPublisher<List<?>>> publisherRef
           = new AtomicReference<>(null);
       return CompletableFuture.completedFuture(null)
-          .thenApply(v -> pushPhysicalPlan.execute())
+          .thenApply(v -> pushPhysicalPlan.execute(scalablePushQueryMetrics))
           .thenApply(publisher -> {
             publisherRef.set(publisher);
             publisher.subscribe(new LocalQueryStreamSubscriber(publisher.getContext(),
@@ -40,6 +40,7 @@ import org.apache.kafka.streams.processor.api.Processor;
 import org.apache.kafka.streams.processor.api.ProcessorContext;
 import org.apache.kafka.streams.processor.api.ProcessorSupplier;
 import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.processor.api.RecordMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,6 +48,9 @@ import org.slf4j.LoggerFactory;
  * This registry is kept with every persistent query, peeking at the stream which is the output
  * of the topology. These rows are then fed to any registered ProcessingQueues where they are
  * eventually passed on to scalable push queries.
+ *
+ * <p>The registry may also keep the most recent rows of each partition in a
+ * {@link CatchupBuffer}, from which queues that fall behind catch up.
  */
 public class ScalablePushRegistry implements ProcessorSupplier<Object, GenericRow, Void, Void> {
 
@@ -61,6 +65,7 @@ public class ScalablePushRegistry implements ProcessorSupplier<Object, GenericRo
   // view of the map, so we just iterate over the ConcurrentHashMap directly.
   private final ConcurrentHashMap<QueryId, ProcessingQueue> processingQueues
       = new ConcurrentHashMap<>();
+  private final Optional<CatchupBuffer> catchupBuffer;
   private boolean closed = false;
 
   public ScalablePushRegistry(
@@ -68,11 +73,24 @@ public class ScalablePushRegistry implements ProcessorSupplier<Object, GenericRo
       final LogicalSchema logicalSchema,
       final boolean isTable,
       final boolean windowed
+  ) {
+    this(pushLocator, logicalSchema, isTable, windowed, 0);
+  }
+
+  public ScalablePushRegistry(
+      final PushLocator pushLocator,
+      final LogicalSchema logicalSchema,
+      final boolean isTable,
+      final boolean windowed,
+      final int catchupBufferRows
   ) {
     this.pushLocator = pushLocator;
     this.logicalSchema = logicalSchema;
     this.isTable = isTable;
     this.windowed = windowed;
+    this.catchupBuffer = catchupBufferRows > 0
+        ? Optional.of(new CatchupBuffer(catchupBufferRows, this::copyRow))
+        : Optional.empty();
   }
 
   public synchronized void close() {
@@ -87,6 +105,7 @@ public class ScalablePushRegistry implements ProcessorSupplier<Object, GenericRo
     if (closed) {
       throw new IllegalStateException("Shouldn't register after closing");
     }
+    catchupBuffer.ifPresent(processingQueue::setCatchupBuffer);
     processingQueues.put(processingQueue.getQueryId(), processingQueue);
   }
 
@@ -115,8 +134,10 @@ public class ScalablePushRegistry implements ProcessorSupplier<Object, GenericRo
     return processingQueues.size();
   }
 
-  @SuppressWarnings("unchecked")
-  private void handleRow(final Record<Object, GenericRow> record) {
+  private void handleRow(
+      final Record<Object, GenericRow> record,
+      final Optional<RecordMetadata> recordMetadata
+  ) {
     final Object key = record.key();
     final GenericRow value = record.value();
 
@@ -124,33 +145,60 @@ public class ScalablePushRegistry implements ProcessorSupplier<Object, GenericRo
     if ((key == null && !logicalSchema.key().isEmpty()) || value == null) {
       return;
     }
-    for (ProcessingQueue queue : processingQueues.values()) {
-      final long timestamp = record.timestamp();
 
+    final long timestamp = record.timestamp();
+    if (catchupBuffer.isPresent() && recordMetadata.isPresent()) {
+      final CatchupBuffer buffer = catchupBuffer.get();
+      final int partition = recordMetadata.get().partition();
       try {
-        // The physical operators may modify the keys and values, so we make a copy to ensure
-        // that there's no cross-query interference.
-        final TableRow row;
-        if (!windowed) {
-          final GenericKey keyCopy = GenericKey.fromList(
-              key != null ? ((GenericKey) key).values() : Collections.emptyList());
-          final GenericRow valueCopy = GenericRow.fromList(value.values());
-          row = Row.of(logicalSchema, keyCopy, valueCopy, timestamp);
-        } else {
-          final Windowed<GenericKey> windowedKey = (Windowed<GenericKey>) key;
-          final Windowed<GenericKey> keyCopy =
-              new Windowed<>(GenericKey.fromList(windowedKey.key().values()),
-                  windowedKey.window());
-          final GenericRow valueCopy = GenericRow.fromList(value.values());
-          row = WindowedRow.of(logicalSchema, keyCopy, valueCopy, timestamp);
-        }
-        queue.offer(row);
+        // Queues catch up on the partition holding the same lock, so none can miss this row:
+        buffer.append(partition, copyRow(key, value, timestamp), offset -> {
+          for (ProcessingQueue queue : processingQueues.values()) {
+            try {
+              queue.offer(partition, offset, copyRow(key, value, timestamp));
+            } catch (final Throwable t) {
+              LOG.error("Error while offering row", t);
+            }
+          }
+        });
+      } catch (final Throwable t) {
+        LOG.error("Error while buffering row", t);
+      }
+      return;
+    }
+
+    for (ProcessingQueue queue : processingQueues.values()) {
+      try {
+        queue.offer(copyRow(key, value, timestamp));
       } catch (final Throwable t) {
         LOG.error("Error while offering row", t);
       }
     }
   }
 
+  private TableRow copyRow(final TableRow row) {
+    return copyRow(
+        windowed ? ((WindowedRow) row).windowedKey() : row.key(), row.value(), row.rowTime());
+  }
+
+  // The physical operators may modify the keys and values, so we make a copy to ensure
+  // that there's no cross-query interference.
+  @SuppressWarnings("unchecked")
+  private TableRow copyRow(final Object key, final GenericRow value, final long timestamp) {
+    final GenericRow valueCopy = GenericRow.fromList(value.values());
+    if (!windowed) {
+      final GenericKey keyCopy = GenericKey.fromList(
+          key != null ? ((GenericKey) key).values() : Collections.emptyList());
+      return Row.of(logicalSchema, keyCopy, valueCopy, timestamp);
+    } else {
+      final Windowed<GenericKey> windowedKey = (Windowed<GenericKey>) key;
+      final Windowed<GenericKey> keyCopy =
+          new Windowed<>(GenericKey.fromList(windowedKey.key().values()),
+              windowedKey.window());
+      return WindowedRow.of(logicalSchema, keyCopy, valueCopy, timestamp);
+    }
+  }
+
   @Override
   public Processor<Object, GenericRow, Void, Void> get() {
     return new PeekProcessor();
@@ -158,16 +206,18 @@ public class ScalablePushRegistry implements ProcessorSupplier<Object, GenericRo
 
   private final class PeekProcessor implements Processor<Object, GenericRow, Void, Void> {
 
+    private ProcessorContext<Void, Void> context;
+
     private PeekProcessor() {
 
     }
 
-    public void init(final ProcessorContext context) {
-
+    public void init(final ProcessorContext<Void, Void> context) {
+      this.context = context;
     }
 
     public void process(final Record<Object, GenericRow> record) {
-      handleRow(record);
+      handleRow(record, context.recordMetadata());
     }
 
     @Override
@@ -181,7 +231,8 @@ public class ScalablePushRegistry implements ProcessorSupplier<Object, GenericRo
       final Supplier<List<PersistentQueryMetadata>> allPersistentQueries,
       final boolean isTable,
       final boolean windowed,
-      final Map<String, Object> streamsProperties
+      final Map<String, Object> streamsProperties,
+      final int catchupBufferRows
   ) {
     final Object appServer = streamsProperties.get(StreamsConfig.APPLICATION_SERVER_CONFIG);
     if (appServer == null) {
@@ -201,6 +252,7 @@ public class ScalablePushRegistry implements ProcessorSupplier<Object, GenericRo
     }
 
     final PushLocator pushLocator = new AllHostsLocator(allPersistentQueries, localhost);
-    return Optional.of(new ScalablePushRegistry(pushLocator, logicalSchema, isTable, windowed));
+    return Optional.of(new ScalablePushRegistry(
+        pushLocator, logicalSchema, isTable, windowed, catchupBufferRows));
   }
 }
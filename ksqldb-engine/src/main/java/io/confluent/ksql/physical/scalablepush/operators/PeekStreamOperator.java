@@ -15,6 +15,7 @@
 
 package io.confluent.ksql.physical.scalablepush.operators;
 
+import io.confluent.ksql.execution.streams.materialization.TableRow;
 import io.confluent.ksql.physical.common.operators.AbstractPhysicalOperator;
 import io.confluent.ksql.physical.scalablepush.ProcessingQueue;
 import io.confluent.ksql.physical.scalablepush.ScalablePushRegistry;
@@ -32,6 +33,7 @@ public class PeekStreamOperator extends AbstractPhysicalOperator implements Push
   private final DataSourceNode logicalNode;
   private final ScalablePushRegistry scalablePushRegistry;
   private final ProcessingQueue processingQueue;
+  private long lastRowTime = -1;
 
   public PeekStreamOperator(
       final ScalablePushRegistry scalablePushRegistry,
@@ -50,7 +52,11 @@ public class PeekStreamOperator extends AbstractPhysicalOperator implements Push
 
   @Override
   public Object next() {
-    return processingQueue.poll();
+    final TableRow row = processingQueue.poll();
+    if (row != null) {
+      lastRowTime = row.rowTime();
+    }
+    return row;
   }
 
   @Override
@@ -93,4 +99,9 @@ public class PeekStreamOperator extends AbstractPhysicalOperator implements Push
   public boolean droppedRows() {
     return processingQueue.hasDroppedRows();
   }
+
+  @Override
+  public long getLastRowTime() {
+    return lastRowTime;
+  }
 }
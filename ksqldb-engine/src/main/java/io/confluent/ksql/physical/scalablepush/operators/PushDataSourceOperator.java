@@ -29,4 +29,7 @@ public interface PushDataSourceOperator {
 
   // If rows have been dropped.
   boolean droppedRows();
+
+  // The timestamp, in the source topic, of the row most recently read from the data source.
+  long getLastRowTime();
 }
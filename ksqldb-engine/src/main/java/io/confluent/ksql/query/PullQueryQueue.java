@@ -26,6 +26,8 @@ import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,7 +38,10 @@ import org.slf4j.LoggerFactory;
  *
  * <p>New rows are produced and enqueued by PullPhysicalPlan if the request is being handled locally
  * or HARouting if the request must be forwarded to another node. This is done with the method
- * acceptRow and may block the caller if the queue is at capacity.
+ * acceptRow and may block the caller if the queue is at capacity. Producers that can suspend
+ * themselves, such as PullPhysicalPlan, instead check {@link #hasCapacity()} and register with
+ * {@link #onCapacity(Runnable)} to be resumed once the consumer has made room, so that rows are
+ * only read from the data source when there is demand for them.
  *
  * <p>Rows are consumed by the request thread of the endpoint. This is done with the various poll
  * methods.
@@ -53,6 +58,7 @@ public class PullQueryQueue implements BlockingRowQueue {
   private final long offerTimeoutMs;
   private AtomicBoolean closed = new AtomicBoolean(false);
   private AtomicLong totalRowsQueued = new AtomicLong(0);
+  private final AtomicReference<Runnable> capacityCallback = new AtomicReference<>();
 
   /**
    * The callback run when we've hit the end of the data. Specifically, this happens when
@@ -63,6 +69,10 @@ public class PullQueryQueue implements BlockingRowQueue {
    * Callback is checked before enqueueing new rows and called when new rows are actually added.
    */
   private Runnable queuedCallback;
+  /**
+   * Listener called with each row as it is added, e.g. to capture the result of the query.
+   */
+  private Consumer<PullQueryRow> rowListener;
 
   public PullQueryQueue() {
     this(BLOCKING_QUEUE_CAPACITY, DEFAULT_OFFER_TIMEOUT_MS);
@@ -73,6 +83,7 @@ public class PullQueryQueue implements BlockingRowQueue {
       final long offerTimeoutMs) {
     this.queuedCallback = () -> { };
     this.limitHandler = () -> { };
+    this.rowListener = row -> { };
     this.rowQueue = new ArrayBlockingQueue<>(queueSizeLimit);
     this.offerTimeoutMs = offerTimeoutMs;
   }
@@ -92,15 +103,28 @@ public class PullQueryQueue implements BlockingRowQueue {
     };
   }
 
+  /**
+   * Adds a listener that is called with each row added to the queue, on the producing thread.
+   *
+   * @param listener the listener.
+   */
+  public void addRowListener(final Consumer<PullQueryRow> listener) {
+    this.rowListener = this.rowListener.andThen(listener);
+  }
+
   @Override
   public KeyValue<List<?>, GenericRow> poll(final long timeout, final TimeUnit unit)
       throws InterruptedException {
-    return pullQueryRowToKeyValue(rowQueue.poll(timeout, unit));
+    return pullQueryRowToKeyValue(pollRow(timeout, unit));
   }
 
   @Override
   public KeyValue<List<?>, GenericRow> poll() {
-    return pullQueryRowToKeyValue(rowQueue.poll());
+    final PullQueryRow row = rowQueue.poll();
+    if (row != null) {
+      signalCapacity();
+    }
+    return pullQueryRowToKeyValue(row);
   }
 
   @Override
@@ -116,14 +140,51 @@ public class PullQueryQueue implements BlockingRowQueue {
    * Similar to {@link #poll(long, TimeUnit)} , but returns a {@link PullQueryRow}.
    */
   public PullQueryRow pollRow(final long timeout, final TimeUnit unit) throws InterruptedException {
-    return rowQueue.poll(timeout, unit);
+    final PullQueryRow row = rowQueue.poll(timeout, unit);
+    if (row != null) {
+      signalCapacity();
+    }
+    return row;
   }
 
   /**
    * Similar to {@link #drainTo(Collection)}, but takes {@link PullQueryRow}s.
    */
   public void drainRowsTo(final Collection<PullQueryRow> collection) {
-    rowQueue.drainTo(collection);
+    if (rowQueue.drainTo(collection) > 0) {
+      signalCapacity();
+    }
+  }
+
+  /**
+   * @return whether a row can currently be enqueued without blocking.
+   */
+  public boolean hasCapacity() {
+    return rowQueue.remainingCapacity() > 0;
+  }
+
+  /**
+   * Registers a one-shot callback to run once the consumer has made room on the queue, or the
+   * queue has been closed. If either is already the case, the callback is run immediately.
+   *
+   * <p>Only a single callback is held at any one time, i.e. this is intended for a single
+   * producer that suspends itself rather than blocking while the queue is full.
+   *
+   * @param callback the callback to run.
+   */
+  public void onCapacity(final Runnable callback) {
+    capacityCallback.set(callback);
+    // Check again to avoid missing a poll that happened before the callback was registered:
+    if (hasCapacity() || closed.get()) {
+      signalCapacity();
+    }
+  }
+
+  private void signalCapacity() {
+    final Runnable callback = capacityCallback.getAndSet(null);
+    if (callback != null) {
+      callback.run();
+    }
   }
 
   @Override
@@ -149,6 +210,7 @@ public class PullQueryQueue implements BlockingRowQueue {
       // every queuing of a row, pull queries just declare they've reached their limit when close is
       // called.
       limitHandler.limitReached();
+      signalCapacity();
     }
   }
 
@@ -192,6 +254,7 @@ public class PullQueryQueue implements BlockingRowQueue {
       while (!closed.get()) {
         if (rowQueue.offer(row, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
           totalRowsQueued.incrementAndGet();
+          rowListener.accept(row);
           queuedCallback.run();
           return true;
         }
@@ -214,7 +214,8 @@ final class QueryExecutor {
       isTable = false;
     }
     final Optional<ScalablePushRegistry> registry = ScalablePushRegistry.create(schema,
-        allPersistentQueries, isTable, windowed, streamsProperties);
+        allPersistentQueries, isTable, windowed, streamsProperties,
+        ksqlConfig.getInt(KsqlConfig.KSQL_QUERY_PUSH_SCALABLE_CATCHUP_BUFFER_ROWS_CONFIG));
     registry.ifPresent(r -> stream.process(registry.get()));
     return registry;
   }
@@ -0,0 +1,318 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.schema.registry;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader.InvalidCacheLoadException;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.ksql.metrics.MetricCollectors;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.KsqlConstants;
+import io.confluent.ksql.util.ReservedInternalTopics;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.CumulativeCount;
+import org.apache.kafka.common.metrics.stats.Rate;
+import org.apache.kafka.common.metrics.stats.WindowedCount;
+
+/**
+ * Caches the Schema Registry lookups made while inferring schemas, inserting values and
+ * describing sources, which, unlike the lookups of the serializers, aren't covered by the
+ * per-client caches of {@code CachedSchemaRegistryClient} as each request gets a new client.
+ *
+ * <p>Only the clients used by statements should be wrapped. Serializers and deserializers are
+ * served by the cache of their own client, and shouldn't pay for this one on every record.
+ *
+ * <p>The latest schema of each subject is cached for the configured time, and is refreshed
+ * immediately if a new schema is registered to the subject, or the subject is deleted, through
+ * a wrapped client. Schemas
+ * looked up by id are immutable, so are cached until evicted. Concurrent lookups of the same
+ * subject or id are coalesced into a single request to the Schema Registry.
+ *
+ * <p>As the cache is shared by all the clients it wraps, it should only be shared by clients
+ * that use the same credentials.
+ */
+public final class SchemaRegistryLookupCache {
+
+  private static final String METRIC_GROUP = "schema-registry-lookup-cache";
+  private static final int MAX_ENTRIES = 10_000;
+
+  private static final Method GET_LATEST_SCHEMA_METADATA =
+      method("getLatestSchemaMetadata", String.class);
+  private static final Method GET_SCHEMA_BY_ID =
+      method("getSchemaById", int.class);
+  private static final Method GET_SCHEMA_BY_SUBJECT_AND_ID =
+      method("getSchemaBySubjectAndId", String.class, int.class);
+  private static final Set<String> SUBJECT_DELETIONS =
+      ImmutableSet.of("deleteSubject", "deleteSchemaVersion");
+
+  private final Cache<String, SchemaMetadata> latestSchemas;
+  private final Cache<SchemaId, ParsedSchema> schemas;
+  private final Sensor hitSensor;
+  private final Sensor missSensor;
+  private final Sensor coalescedSensor;
+
+  /**
+   * @param ksqlConfig the config.
+   * @return the cache, or empty if caching of Schema Registry lookups is disabled.
+   */
+  public static Optional<SchemaRegistryLookupCache> create(final KsqlConfig ksqlConfig) {
+    final long ttlMs = ksqlConfig.getLong(KsqlConfig.KSQL_SCHEMA_LOOKUP_CACHE_TTL_MS_CONFIG);
+    if (ttlMs <= 0) {
+      return Optional.empty();
+    }
+
+    return Optional.of(new SchemaRegistryLookupCache(
+        ttlMs,
+        Ticker.systemTicker(),
+        MetricCollectors.getMetrics(),
+        ksqlConfig.getString(KsqlConfig.KSQL_SERVICE_ID_CONFIG)
+    ));
+  }
+
+  @VisibleForTesting
+  SchemaRegistryLookupCache(
+      final long ttlMs,
+      final Ticker ticker,
+      final Metrics metrics,
+      final String ksqlServiceId
+  ) {
+    this.latestSchemas = CacheBuilder.newBuilder()
+        .maximumSize(MAX_ENTRIES)
+        .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+        .ticker(ticker)
+        .build();
+    this.schemas = CacheBuilder.newBuilder()
+        .maximumSize(MAX_ENTRIES)
+        .build();
+
+    final Map<String, String> tags =
+        Collections.singletonMap(KsqlConstants.KSQL_SERVICE_ID_METRICS_TAG, ksqlServiceId);
+    this.hitSensor = countSensor(metrics, "hit",
+        "Schema Registry lookups served from the cache", tags);
+    this.missSensor = countSensor(metrics, "miss",
+        "Schema Registry lookups sent to the Schema Registry", tags);
+    this.coalescedSensor = countSensor(metrics, "coalesced",
+        "Schema Registry lookups that waited on an identical lookup in flight", tags);
+  }
+
+  /**
+   * @param client the client to wrap.
+   * @return a client that serves lookups through this cache, and forwards all other calls to
+   *         {@code client}.
+   */
+  public SchemaRegistryClient wrap(final SchemaRegistryClient client) {
+    Objects.requireNonNull(client, "client");
+
+    return (SchemaRegistryClient) Proxy.newProxyInstance(
+        SchemaRegistryLookupCache.class.getClassLoader(),
+        new Class<?>[]{SchemaRegistryClient.class},
+        new CachingHandler(client)
+    );
+  }
+
+  private <K, V> V lookup(
+      final Cache<K, V> cache,
+      final K key,
+      final Callable<V> loader
+  ) throws Throwable {
+    final V cached = cache.getIfPresent(key);
+    if (cached != null) {
+      hitSensor.record();
+      return cached;
+    }
+
+    final AtomicBoolean loaded = new AtomicBoolean();
+    try {
+      final V value = cache.get(key, () -> {
+        loaded.set(true);
+        return loader.call();
+      });
+      (loaded.get() ? missSensor : coalescedSensor).record();
+      return value;
+    } catch (final InvalidCacheLoadException e) {
+      // Loader returned null, which isn't cached:
+      missSensor.record();
+      return null;
+    } catch (final ExecutionException | UncheckedExecutionException | ExecutionError e) {
+      throw e.getCause() == null ? e : e.getCause();
+    }
+  }
+
+  private final class CachingHandler implements InvocationHandler {
+
+    private final SchemaRegistryClient delegate;
+
+    private CachingHandler(final SchemaRegistryClient delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public Object invoke(
+        final Object proxy,
+        final Method method,
+        final Object[] args
+    ) throws Throwable {
+      if (method.equals(GET_LATEST_SCHEMA_METADATA)) {
+        return lookup(latestSchemas, (String) args[0],
+            () -> (SchemaMetadata) forward(method, args));
+      }
+
+      if (method.equals(GET_SCHEMA_BY_ID)) {
+        return lookup(schemas, new SchemaId(null, (int) args[0]),
+            () -> (ParsedSchema) forward(method, args));
+      }
+
+      if (method.equals(GET_SCHEMA_BY_SUBJECT_AND_ID)) {
+        return lookup(schemas, new SchemaId((String) args[0], (int) args[1]),
+            () -> (ParsedSchema) forward(method, args));
+      }
+
+      if (method.getName().equals("register")) {
+        final Object id = forward(method, args);
+        invalidateIfNewer((String) args[0], (Integer) id);
+        return id;
+      }
+
+      if (SUBJECT_DELETIONS.contains(method.getName())) {
+        try {
+          return forward(method, args);
+        } finally {
+          invalidateSubjects(args);
+        }
+      }
+
+      return forward(method, args);
+    }
+
+    private Object forward(final Method method, final Object[] args) throws Exception {
+      try {
+        return method.invoke(delegate, args);
+      } catch (final InvocationTargetException e) {
+        final Throwable cause = e.getCause();
+        if (cause instanceof Exception) {
+          throw (Exception) cause;
+        }
+        if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+        throw e;
+      }
+    }
+
+    private void invalidateIfNewer(final String subject, final int id) {
+      // Registering the schema that's already the latest doesn't change the subject:
+      final SchemaMetadata latest = latestSchemas.getIfPresent(subject);
+      if (latest != null && latest.getId() != id) {
+        latestSchemas.invalidate(subject);
+      }
+    }
+
+    private void invalidateSubjects(final Object[] args) {
+      if (args == null) {
+        return;
+      }
+
+      for (final Object arg : args) {
+        if (arg instanceof String) {
+          latestSchemas.invalidate(arg);
+        }
+      }
+    }
+  }
+
+  private static Sensor countSensor(
+      final Metrics metrics,
+      final String name,
+      final String description,
+      final Map<String, String> tags
+  ) {
+    // Caches created for different credentials share their metrics:
+    final String sensorName = METRIC_GROUP + "-" + name;
+    final Sensor existing = metrics.getSensor(sensorName);
+    if (existing != null) {
+      return existing;
+    }
+
+    final String group = ReservedInternalTopics.KSQL_INTERNAL_TOPIC_PREFIX + METRIC_GROUP;
+    final Sensor sensor = metrics.sensor(sensorName);
+    sensor.add(
+        metrics.metricName(name + "-total", group, description, tags),
+        new CumulativeCount());
+    sensor.add(
+        metrics.metricName(name + "-rate", group, description + " per second", tags),
+        new Rate(new WindowedCount()));
+    return sensor;
+  }
+
+  private static Method method(final String name, final Class<?>... paramTypes) {
+    try {
+      return SchemaRegistryClient.class.getMethod(name, paramTypes);
+    } catch (final NoSuchMethodException e) {
+      throw new IllegalStateException("SchemaRegistryClient does not have method: " + name, e);
+    }
+  }
+
+  private static final class SchemaId {
+
+    private final String subject;
+    private final int id;
+
+    private SchemaId(final String subject, final int id) {
+      this.subject = subject;
+      this.id = id;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final SchemaId that = (SchemaId) o;
+      return id == that.id
+          && Objects.equals(subject, that.subject);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(subject, id);
+    }
+  }
+}
@@ -16,7 +16,9 @@
 package io.confluent.ksql.serde;
 
 import io.confluent.ksql.execution.plan.Formats;
+import io.confluent.ksql.serde.binary.KsqlBinaryFormat;
 import io.confluent.ksql.serde.none.NoneFormat;
+import io.confluent.ksql.util.KsqlConfig;
 
 /**
  * Util class for creating internal formats.
@@ -51,6 +53,35 @@ public final class InternalFormats {
    * @see SerdeFeaturesFactory#buildInternal
    */
   public static Formats of(final KeyFormat keyFormat, final FormatInfo valueFormat) {
+    return build(keyFormat, valueFormat);
+  }
+
+  /**
+   * Build formats for internal topics, using the {@link KsqlBinaryFormat} for values if enabled.
+   *
+   * <p>The values of internal topics and state stores are only ever read by ksqlDB, with a
+   * schema known from the query plan, so they need not use the value format of the source. The
+   * chosen format is persisted in the plan, so existing queries keep reading and writing their
+   * internal topics in the format they were started with.
+   *
+   * @param keyFormat key format.
+   * @param valueFormat the value format of the source.
+   * @param ksqlConfig the config of the query being planned.
+   * @return Formats instance.
+   * @see KsqlConfig#KSQL_INTERNAL_BINARY_VALUE_FORMAT_ENABLED
+   */
+  public static Formats of(
+      final KeyFormat keyFormat,
+      final FormatInfo valueFormat,
+      final KsqlConfig ksqlConfig
+  ) {
+    final boolean binaryValues =
+        ksqlConfig.getBoolean(KsqlConfig.KSQL_INTERNAL_BINARY_VALUE_FORMAT_ENABLED);
+
+    return build(keyFormat, binaryValues ? FormatInfo.of(KsqlBinaryFormat.NAME) : valueFormat);
+  }
+
+  private static Formats build(final KeyFormat keyFormat, final FormatInfo valueFormat) {
     // Do not use NONE format for internal topics:
     if (keyFormat.getFormatInfo().getFormat().equals(NoneFormat.NAME)) {
       throw new IllegalArgumentException(NoneFormat.NAME + " can not be used for internal topics");
@@ -19,6 +19,7 @@ import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.properties.with.CommonCreateConfigs;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.types.SqlType;
+import io.confluent.ksql.serde.binary.KsqlBinaryFormat;
 import io.confluent.ksql.serde.json.JsonFormat;
 import io.confluent.ksql.serde.kafka.KafkaFormat;
 import io.confluent.ksql.serde.none.NoneFormat;
@@ -89,6 +90,11 @@ public final class SerdeFeaturesFactory {
       final SerdeFeatures explicitFeatures,
       final KsqlConfig ksqlConfig
   ) {
+    if (KsqlBinaryFormat.NAME.equals(valueFormat.name())) {
+      throw new KsqlException("The '" + KsqlBinaryFormat.NAME
+          + "' format can only be used for internal topics");
+    }
+
     final boolean singleColumn = schema.value().size() == 1;
 
     final ImmutableSet.Builder<SerdeFeature> builder = ImmutableSet.builder();
@@ -53,6 +53,50 @@ public class DefaultServiceContext implements ServiceContext {
         KafkaTopicClientImpl::new,
         srClientSupplier,
         connectClientSupplier,
+        ksqlClientSupplier
+    );
+  }
+
+  public DefaultServiceContext(
+      final KafkaClientSupplier kafkaClientSupplier,
+      final Supplier<Admin> adminClientSupplier,
+      final Function<Supplier<Admin>, KafkaTopicClient> topicClientProvider,
+      final Supplier<SchemaRegistryClient> srClientSupplier,
+      final Supplier<ConnectClient> connectClientSupplier,
+      final Supplier<SimpleKsqlClient> ksqlClientSupplier
+  ) {
+    this(
+        kafkaClientSupplier,
+        adminClientSupplier,
+        topicClientProvider,
+        srClientSupplier,
+        srClientSupplier,
+        connectClientSupplier,
+        ksqlClientSupplier,
+        KafkaConsumerGroupClientImpl::new
+    );
+  }
+
+  /**
+   * @param srClientFactory supplies the clients of queries and inserts.
+   * @param srClientSupplier supplies the client of {@link #getSchemaRegistryClient()}.
+   */
+  public DefaultServiceContext(
+      final KafkaClientSupplier kafkaClientSupplier,
+      final Supplier<Admin> adminClientSupplier,
+      final Function<Supplier<Admin>, KafkaTopicClient> topicClientProvider,
+      final Supplier<SchemaRegistryClient> srClientFactory,
+      final Supplier<SchemaRegistryClient> srClientSupplier,
+      final Supplier<ConnectClient> connectClientSupplier,
+      final Supplier<SimpleKsqlClient> ksqlClientSupplier
+  ) {
+    this(
+        kafkaClientSupplier,
+        adminClientSupplier,
+        topicClientProvider,
+        srClientFactory,
+        srClientSupplier,
+        connectClientSupplier,
         ksqlClientSupplier,
         KafkaConsumerGroupClientImpl::new
     );
@@ -73,6 +117,7 @@ public class DefaultServiceContext implements ServiceContext {
         adminClientSupplier,
         adminSupplier -> topicClient,
         srClientSupplier,
+        srClientSupplier,
         connectClientSupplier,
         ksqlClientSupplier,
         adminSupplier -> consumerGroupClient
@@ -83,6 +128,7 @@ public class DefaultServiceContext implements ServiceContext {
       final KafkaClientSupplier kafkaClientSupplier,
       final Supplier<Admin> adminClientSupplier,
       final Function<Supplier<Admin>, KafkaTopicClient> topicClientProvider,
+      final Supplier<SchemaRegistryClient> srClientFactory,
       final Supplier<SchemaRegistryClient> srClientSupplier,
       final Supplier<ConnectClient> connectClientSupplier,
       final Supplier<SimpleKsqlClient> ksqlClientSupplier,
@@ -91,7 +137,7 @@ public class DefaultServiceContext implements ServiceContext {
     requireNonNull(adminClientSupplier, "adminClientSupplier");
     this.adminClientSupplier = new MemoizedSupplier<>(adminClientSupplier);
 
-    this.srClientFactorySupplier = requireNonNull(srClientSupplier, "srClientSupplier");
+    this.srClientFactorySupplier = requireNonNull(srClientFactory, "srClientFactory");
 
     requireNonNull(connectClientSupplier, "connectClientSupplier");
     this.connectClientSupplier = new MemoizedSupplier<>(
@@ -100,6 +146,7 @@ public class DefaultServiceContext implements ServiceContext {
     requireNonNull(ksqlClientSupplier, "ksqlClientSupplier");
     this.ksqlClientSupplier = new MemoizedSupplier<>(ksqlClientSupplier);
 
+    requireNonNull(srClientSupplier, "srClientSupplier");
     this.srClient = new MemoizedSupplier<>(srClientSupplier);
 
     this.kafkaClientSupplier = requireNonNull(kafkaClientSupplier, "kafkaClientSupplier");
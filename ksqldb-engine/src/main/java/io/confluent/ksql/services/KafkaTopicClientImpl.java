@@ -15,7 +15,11 @@
 
 package io.confluent.ksql.services;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Throwables;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import io.confluent.ksql.exception.KafkaDeleteTopicsException;
@@ -30,6 +34,8 @@ import io.confluent.ksql.util.KsqlServerException;
 import io.confluent.ksql.util.Pair;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -65,7 +71,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Note: all calls make cross machine calls and are synchronous.
+ * Note: all calls that aren't served from the metadata cache make cross machine calls and are
+ * synchronous.
+ *
+ * <p>Topic descriptions and configs may be cached for a configurable time, so that repeated
+ * lookups of the same topics, e.g. while validating and then executing a statement, don't each
+ * make a round trip to Kafka. Only topics that exist are cached. Entries are invalidated when the
+ * topic is created, deleted or has its config altered through this client, so changes made by
+ * other clients are visible once the cached entries expire.
  */
 // CHECKSTYLE_RULES.OFF: ClassDataAbstractionCoupling
 @ThreadSafe
@@ -76,8 +89,11 @@ public class KafkaTopicClientImpl implements KafkaTopicClient {
 
   private static final String DEFAULT_REPLICATION_PROP = "default.replication.factor";
   private static final String DELETE_TOPIC_ENABLE = "delete.topic.enable";
+  private static final long MAX_CACHED_TOPICS = 10_000;
 
   private final Supplier<Admin> adminClient;
+  private final Cache<String, TopicDescription> descriptionCache;
+  private final Cache<String, Map<String, ConfigEntry>> configCache;
 
   /**
    * Construct a topic client from an existing admin client. Note, the admin client is shared
@@ -86,7 +102,31 @@ public class KafkaTopicClientImpl implements KafkaTopicClient {
    * @param sharedAdminClient the admin client .
    */
   public KafkaTopicClientImpl(final Supplier<Admin> sharedAdminClient) {
+    this(sharedAdminClient, 0L);
+  }
+
+  /**
+   * Construct a topic client from an existing admin client, which caches topic metadata.
+   *
+   * @param sharedAdminClient the admin client .
+   * @param metadataCacheTtlMs the time for which to cache topic metadata, or 0 to not cache it.
+   */
+  public KafkaTopicClientImpl(
+      final Supplier<Admin> sharedAdminClient,
+      final long metadataCacheTtlMs
+  ) {
+    this(sharedAdminClient, metadataCacheTtlMs, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  KafkaTopicClientImpl(
+      final Supplier<Admin> sharedAdminClient,
+      final long metadataCacheTtlMs,
+      final Ticker ticker
+  ) {
     this.adminClient = Objects.requireNonNull(sharedAdminClient, "sharedAdminClient");
+    this.descriptionCache = buildCache(metadataCacheTtlMs, ticker);
+    this.configCache = buildCache(metadataCacheTtlMs, ticker);
   }
 
   @Override
@@ -121,6 +161,7 @@ public class KafkaTopicClientImpl implements KafkaTopicClient {
               createOptions
           ).all().get(),
           ExecutorUtil.RetryBehaviour.ON_RETRYABLE);
+      invalidate(Collections.singleton(topic));
     } catch (final InterruptedException e) {
       Thread.currentThread().interrupt();
       throw new KafkaResponseGetFailedException(
@@ -166,14 +207,19 @@ public class KafkaTopicClientImpl implements KafkaTopicClient {
   @Override
   public boolean isTopicExists(final String topic) {
     LOG.trace("Checking for existence of topic '{}'", topic);
+    if (descriptionCache.getIfPresent(topic) != null) {
+      return true;
+    }
+
     try {
-      ExecutorUtil.executeWithRetries(
+      final TopicDescription description = ExecutorUtil.executeWithRetries(
           () -> adminClient.get().describeTopics(
               ImmutableList.of(topic),
               new DescribeTopicsOptions().includeAuthorizedOperations(true)
           ).values().get(topic).get(),
           RetryBehaviour.ON_RETRYABLE.and(e -> !(e instanceof UnknownTopicOrPartitionException))
       );
+      descriptionCache.put(topic, description);
       return true;
     } catch (final TopicAuthorizationException e) {
       throw new KsqlTopicAuthorizationException(
@@ -200,6 +246,28 @@ public class KafkaTopicClientImpl implements KafkaTopicClient {
 
   @Override
   public Map<String, TopicDescription> describeTopics(final Collection<String> topicNames) {
+    final Map<String, TopicDescription> descriptions = new HashMap<>();
+    final Set<String> uncached = new LinkedHashSet<>();
+    for (final String topicName : topicNames) {
+      final TopicDescription cached = descriptionCache.getIfPresent(topicName);
+      if (cached != null) {
+        descriptions.put(topicName, cached);
+      } else {
+        uncached.add(topicName);
+      }
+    }
+
+    if (!uncached.isEmpty()) {
+      final Map<String, TopicDescription> described = describeUncachedTopics(uncached);
+      descriptionCache.putAll(described);
+      descriptions.putAll(described);
+    }
+    return descriptions;
+  }
+
+  private Map<String, TopicDescription> describeUncachedTopics(
+      final Collection<String> topicNames
+  ) {
     try {
       return ExecutorUtil.executeWithRetries(
           () -> adminClient.get().describeTopics(
@@ -221,7 +289,14 @@ public class KafkaTopicClientImpl implements KafkaTopicClient {
 
   @Override
   public Map<String, String> getTopicConfig(final String topicName) {
-    return topicConfig(topicName, true);
+    final Map<String, ConfigEntry> cached = configCache.getIfPresent(topicName);
+    if (cached != null) {
+      return toConfigMap(cached.values(), true);
+    }
+
+    final Map<String, ConfigEntry> entries = describeConfig(topicName);
+    configCache.put(topicName, entries);
+    return toConfigMap(entries.values(), true);
   }
 
   @Override
@@ -250,6 +325,7 @@ public class KafkaTopicClientImpl implements KafkaTopicClient {
       ExecutorUtil.executeWithRetries(
           () -> adminClient.get().incrementalAlterConfigs(request).all().get(),
           ExecutorUtil.RetryBehaviour.ON_RETRYABLE);
+      configCache.invalidate(topicName);
 
       return true;
     } catch (final UnsupportedVersionException e) {
@@ -283,29 +359,35 @@ public class KafkaTopicClientImpl implements KafkaTopicClient {
       return;
     }
 
-    final DeleteTopicsResult deleteTopicsResult = adminClient.get().deleteTopics(topicsToDelete);
-    final Map<String, KafkaFuture<Void>> results = deleteTopicsResult.topicNameValues();
     final List<String> failList = Lists.newArrayList();
     final List<Pair<String, Throwable>> exceptionList = Lists.newArrayList();
-    for (final Map.Entry<String, KafkaFuture<Void>> entry : results.entrySet()) {
-      try {
-        entry.getValue().get(30, TimeUnit.SECONDS);
-      } catch (final Exception e) {
-        final Throwable rootCause = ExceptionUtils.getRootCause(e);
-
-        if (rootCause instanceof TopicDeletionDisabledException) {
-          throw new TopicDeletionDisabledException("Topic deletion is disabled. "
-              + "To delete the topic, you must set '" + DELETE_TOPIC_ENABLE + "' to true in "
-              + "the Kafka broker configuration.");
-        } else if (rootCause instanceof TopicAuthorizationException) {
-          throw new KsqlTopicAuthorizationException(
-              AclOperation.DELETE, Collections.singleton(entry.getKey()));
-        } else if (!(rootCause instanceof UnknownTopicOrPartitionException)) {
-          LOG.error(String.format("Could not delete topic '%s'", entry.getKey()), e);
-          failList.add(entry.getKey());
-          exceptionList.add(new Pair<>(entry.getKey(), rootCause));
+    invalidate(topicsToDelete);
+    try {
+      final DeleteTopicsResult deleteTopicsResult = adminClient.get().deleteTopics(topicsToDelete);
+      final Map<String, KafkaFuture<Void>> results = deleteTopicsResult.topicNameValues();
+      for (final Map.Entry<String, KafkaFuture<Void>> entry : results.entrySet()) {
+        try {
+          entry.getValue().get(30, TimeUnit.SECONDS);
+        } catch (final Exception e) {
+          final Throwable rootCause = ExceptionUtils.getRootCause(e);
+
+          if (rootCause instanceof TopicDeletionDisabledException) {
+            throw new TopicDeletionDisabledException("Topic deletion is disabled. "
+                + "To delete the topic, you must set '" + DELETE_TOPIC_ENABLE + "' to true in "
+                + "the Kafka broker configuration.");
+          } else if (rootCause instanceof TopicAuthorizationException) {
+            throw new KsqlTopicAuthorizationException(
+                AclOperation.DELETE, Collections.singleton(entry.getKey()));
+          } else if (!(rootCause instanceof UnknownTopicOrPartitionException)) {
+            LOG.error(String.format("Could not delete topic '%s'", entry.getKey()), e);
+            failList.add(entry.getKey());
+            exceptionList.add(new Pair<>(entry.getKey(), rootCause));
+          }
         }
       }
+    } finally {
+      // Descriptions fetched while the topics were being deleted may have been cached:
+      invalidate(topicsToDelete);
     }
 
     if (!failList.isEmpty()) {
@@ -393,6 +475,10 @@ public class KafkaTopicClientImpl implements KafkaTopicClient {
       final String topicName,
       final boolean includeDefaults
   ) {
+    return toConfigMap(describeConfig(topicName).values(), includeDefaults);
+  }
+
+  private Map<String, ConfigEntry> describeConfig(final String topicName) {
     final ConfigResource resource = new ConfigResource(ConfigResource.Type.TOPIC, topicName);
     final List<ConfigResource> request = Collections.singletonList(resource);
 
@@ -402,14 +488,35 @@ public class KafkaTopicClientImpl implements KafkaTopicClient {
           ExecutorUtil.RetryBehaviour.ON_RETRYABLE).get(resource);
       return config.entries().stream()
           .filter(e -> e.value() != null)
-          .filter(e -> includeDefaults || !e.isDefault())
-          .collect(Collectors.toMap(ConfigEntry::name, ConfigEntry::value));
+          .collect(Collectors.toMap(ConfigEntry::name, e -> e));
     } catch (final Exception e) {
       throw new KafkaResponseGetFailedException(
           "Failed to get config for Kafka Topic " + topicName, e);
     }
   }
 
+  private static Map<String, String> toConfigMap(
+      final Collection<ConfigEntry> entries,
+      final boolean includeDefaults
+  ) {
+    return entries.stream()
+        .filter(e -> includeDefaults || !e.isDefault())
+        .collect(Collectors.toMap(ConfigEntry::name, ConfigEntry::value));
+  }
+
+  private void invalidate(final Collection<String> topicNames) {
+    descriptionCache.invalidateAll(topicNames);
+    configCache.invalidateAll(topicNames);
+  }
+
+  private static <V> Cache<String, V> buildCache(final long ttlMs, final Ticker ticker) {
+    return CacheBuilder.newBuilder()
+        .maximumSize(MAX_CACHED_TOPICS)
+        .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+        .ticker(ticker)
+        .build();
+  }
+
   // 'alterConfigs' deprecated, but new `incrementalAlterConfigs` only available on Kafka v2.3+
   // So we need to continue to support older brokers until our min requirements reaches v2.3
   @SuppressWarnings({"deprecation", "RedundantSuppression"})
@@ -433,6 +540,7 @@ public class KafkaTopicClientImpl implements KafkaTopicClient {
       ExecutorUtil.executeWithRetries(
           () -> adminClient.get().alterConfigs(request).all().get(),
           ExecutorUtil.RetryBehaviour.ON_RETRYABLE);
+      configCache.invalidate(topicName);
 
       return true;
     } catch (final Exception e) {
@@ -17,6 +17,7 @@ package io.confluent.ksql.services;
 
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.ksql.schema.registry.KsqlSchemaRegistryClientFactory;
+import io.confluent.ksql.schema.registry.SchemaRegistryLookupCache;
 import io.confluent.ksql.util.KsqlConfig;
 import java.util.Collections;
 import java.util.Optional;
@@ -53,12 +54,42 @@ public final class ServiceContextFactory {
       final Supplier<ConnectClient> connectClientSupplier,
       final Supplier<SimpleKsqlClient> ksqlClientSupplier
   ) {
+    return create(
+        ksqlConfig,
+        kafkaClientSupplier,
+        srClientFactory,
+        Optional.empty(),
+        connectClientSupplier,
+        ksqlClientSupplier
+    );
+  }
+
+  /**
+   * @param lookupCache the cache to serve the Schema Registry lookups of statements through. As
+   *                    it's shared by every context it's passed to, the clients of
+   *                    {@code srClientFactory} must use the same credentials for all of them.
+   */
+  public static ServiceContext create(
+      final KsqlConfig ksqlConfig,
+      final KafkaClientSupplier kafkaClientSupplier,
+      final Supplier<SchemaRegistryClient> srClientFactory,
+      final Optional<SchemaRegistryLookupCache> lookupCache,
+      final Supplier<ConnectClient> connectClientSupplier,
+      final Supplier<SimpleKsqlClient> ksqlClientSupplier
+  ) {
+
+    final long topicMetadataCacheTtlMs =
+        ksqlConfig.getLong(KsqlConfig.KSQL_TOPIC_METADATA_CACHE_TTL_MS_CONFIG);
 
     return new DefaultServiceContext(
         kafkaClientSupplier,
         () -> kafkaClientSupplier
             .getAdmin(ksqlConfig.getKsqlAdminClientConfigProps()),
+        adminClient -> new KafkaTopicClientImpl(adminClient, topicMetadataCacheTtlMs),
         srClientFactory,
+        () -> lookupCache
+            .map(cache -> cache.wrap(srClientFactory.get()))
+            .orElseGet(srClientFactory),
         connectClientSupplier,
         ksqlClientSupplier
     );
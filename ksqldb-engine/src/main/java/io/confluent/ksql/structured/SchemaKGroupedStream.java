@@ -80,7 +80,7 @@ public class SchemaKGroupedStream {
       step = ExecutionStepFactory.streamWindowedAggregate(
           contextStacker,
           sourceStep,
-          InternalFormats.of(keyFormat, valueFormat),
+          InternalFormats.of(keyFormat, valueFormat, ksqlConfig),
           nonAggregateColumns,
           aggregations,
           windowExpression.get().getKsqlWindowExpression()
@@ -94,7 +94,7 @@ public class SchemaKGroupedStream {
       step = ExecutionStepFactory.streamAggregate(
           contextStacker,
           sourceStep,
-          InternalFormats.of(keyFormat, valueFormat),
+          InternalFormats.of(keyFormat, valueFormat, ksqlConfig),
           nonAggregateColumns,
           aggregations
       );
@@ -171,7 +171,7 @@ public class SchemaKStream<K> {
   ) {
     throwOnJoinKeyFormatsMismatch(schemaKTable);
 
-    final Formats fmts = InternalFormats.of(keyFormat, leftValueFormat);
+    final Formats fmts = InternalFormats.of(keyFormat, leftValueFormat, ksqlConfig);
 
     final StreamTableJoin<K> step = ExecutionStepFactory.streamTableJoin(
         contextStacker,
@@ -205,8 +205,8 @@ public class SchemaKStream<K> {
         contextStacker,
         JoinType.LEFT,
         keyColName,
-        InternalFormats.of(keyFormat, leftFormat),
-        InternalFormats.of(keyFormat, rightFormat),
+        InternalFormats.of(keyFormat, leftFormat, ksqlConfig),
+        InternalFormats.of(keyFormat, rightFormat, ksqlConfig),
         sourceStep,
         otherSchemaKStream.sourceStep,
         withinExpression.joinWindow(),
@@ -234,7 +234,7 @@ public class SchemaKStream<K> {
         contextStacker,
         JoinType.INNER,
         keyColName,
-        InternalFormats.of(keyFormat, leftValueFormat),
+        InternalFormats.of(keyFormat, leftValueFormat, ksqlConfig),
         sourceStep,
         schemaKTable.getSourceTableStep()
     );
@@ -262,8 +262,8 @@ public class SchemaKStream<K> {
         contextStacker,
         JoinType.INNER,
         keyColName,
-        InternalFormats.of(keyFormat, leftFormat),
-        InternalFormats.of(keyFormat, rightFormat),
+        InternalFormats.of(keyFormat, leftFormat, ksqlConfig),
+        InternalFormats.of(keyFormat, rightFormat, ksqlConfig),
         sourceStep,
         otherSchemaKStream.sourceStep,
         withinExpression.joinWindow(),
@@ -293,8 +293,8 @@ public class SchemaKStream<K> {
         contextStacker,
         JoinType.OUTER,
         keyColName,
-        InternalFormats.of(keyFormat, leftFormat),
-        InternalFormats.of(keyFormat, rightFormat),
+        InternalFormats.of(keyFormat, leftFormat, ksqlConfig),
+        InternalFormats.of(keyFormat, rightFormat, ksqlConfig),
         sourceStep,
         otherSchemaKStream.sourceStep,
         withinExpression.joinWindow(),
@@ -388,7 +388,7 @@ public class SchemaKStream<K> {
     final StreamGroupBy<K> source = ExecutionStepFactory.streamGroupBy(
         contextStacker,
         sourceStep,
-        InternalFormats.of(sanitizedKeyFormat, valueFormat),
+        InternalFormats.of(sanitizedKeyFormat, valueFormat, ksqlConfig),
         groupByExpressions
     );
 
@@ -418,7 +418,7 @@ public class SchemaKStream<K> {
         ExecutionStepFactory.streamGroupByKey(
             contextStacker,
             (ExecutionStep) sourceStep,
-            InternalFormats.of(rekeyedKeyFormat, valueFormat)
+            InternalFormats.of(rekeyedKeyFormat, valueFormat, ksqlConfig)
         );
     return new SchemaKGroupedStream(
         step,
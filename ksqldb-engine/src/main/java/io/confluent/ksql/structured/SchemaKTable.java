@@ -130,7 +130,7 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
         sourceTableStep,
         keyColumnNames,
         selectExpressions,
-        InternalFormats.of(keyFormat, valueFormat)
+        InternalFormats.of(keyFormat, valueFormat, ksqlConfig)
     );
 
     return new SchemaKTable<>(
@@ -195,7 +195,7 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
     final ExecutionStep<KTableHolder<K>> step = ExecutionStepFactory.tableSelectKey(
         contextStacker,
         sourceTableStep,
-        InternalFormats.of(newKeyFormat, valueFormat),
+        InternalFormats.of(newKeyFormat, valueFormat, ksqlConfig),
         keyExpression
     );
 
@@ -235,7 +235,7 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
     final TableGroupBy<K> step = ExecutionStepFactory.tableGroupBy(
         contextStacker,
         sourceTableStep,
-        InternalFormats.of(groupedKeyFormat, valueFormat),
+        InternalFormats.of(groupedKeyFormat, valueFormat, ksqlConfig),
         groupByExpressions
     );
 
@@ -331,7 +331,7 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
             contextStacker,
             JoinType.INNER,
             leftJoinColumnName,
-            InternalFormats.of(keyFormat, valueFormatInfo),
+            InternalFormats.of(keyFormat, valueFormatInfo, ksqlConfig),
             sourceTableStep,
             schemaKTable.getSourceTableStep(),
             leftJoinExpression
@@ -358,7 +358,7 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
             contextStacker,
             JoinType.LEFT,
             leftJoinColumnName,
-            InternalFormats.of(keyFormat, valueFormatInfo),
+            InternalFormats.of(keyFormat, valueFormatInfo, ksqlConfig),
             sourceTableStep,
             schemaKTable.getSourceTableStep(),
             leftJoinExpression
@@ -382,7 +382,7 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
         contextStacker,
         sourceTableStep,
         refinementInfo,
-        InternalFormats.of(keyFormat, valueFormat)
+        InternalFormats.of(keyFormat, valueFormat, ksqlConfig)
     );
 
     return new SchemaKTable<>(
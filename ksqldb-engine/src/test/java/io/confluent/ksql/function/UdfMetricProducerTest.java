@@ -17,7 +17,13 @@ package io.confluent.ksql.function;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.function.udf.Kudf;
+import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import org.apache.kafka.common.MetricName;
 import org.apache.kafka.common.metrics.KafkaMetric;
@@ -74,4 +80,18 @@ public class UdfMetricProducerTest {
     final Double actual = (Double) metric.metricValue();
     assertThat(actual.longValue(), equalTo(TimeUnit.MILLISECONDS.toNanos(10)));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldPassConstantArgumentsToUdf() {
+    // Given:
+    final Kudf kudf = mock(Kudf.class);
+    final UdfMetricProducer metricProducer = new UdfMetricProducer(sensor, kudf, time);
+    final List<Optional<Object>> constantArgs = ImmutableList.of(Optional.of("foo"));
+
+    // When:
+    metricProducer.prepare(constantArgs);
+
+    // Then:
+    verify(kudf).prepare(constantArgs);
+  }
+}
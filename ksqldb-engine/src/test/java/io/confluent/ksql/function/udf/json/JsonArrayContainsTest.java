@@ -58,6 +58,15 @@ public class JsonArrayContainsTest
         assertEquals(false, jsonUdf.contains(json, 5));
     }
 
+    @Test
+    public void shouldSkipIntegersOutOfRangeOfValue() {
+        final String json = "[4294967297, 9223372036854775808, 1]";
+        assertEquals(true, jsonUdf.contains(json, 1));
+        assertEquals(true, jsonUdf.contains(json, 1L));
+        assertEquals(true, jsonUdf.contains(json, 4294967297L));
+        assertEquals(false, jsonUdf.contains("[4294967297]", 1));
+    }
+
     @Test
     public void shouldFindLongsInJsonArray() {
         assertEquals(true, jsonUdf.contains("[1]", 1L));
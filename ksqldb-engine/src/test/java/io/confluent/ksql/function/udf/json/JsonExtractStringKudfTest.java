@@ -15,11 +15,15 @@
 
 package io.confluent.ksql.function.udf.json;
 
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertThrows;
 
+import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.function.KsqlFunctionException;
+import java.util.Optional;
 import java.util.stream.IntStream;
 import org.junit.Before;
 import org.junit.Test;
@@ -99,10 +103,127 @@ public class JsonExtractStringKudfTest {
     udf.extract("this is NOT a JSON doc", "$.thing1");
   }
 
+  @Test(expected = KsqlFunctionException.class)
+  public void shouldThrowOnInvalidJsonDocSharedByCalls() {
+    final String doc = new String("{\"thing1\": nope}");
+    try {
+      udf.extract(doc, "$.thing1");
+    } catch (final KsqlFunctionException e) {
+      // expected
+    }
+    new JsonExtractString().extract(doc, "$.thing1");
+  }
+
+  @Test
+  public void shouldUseLastDuplicateKeyForEveryCallOnDocument() {
+    // Given:
+    final String doc = new String("{\"a\": {\"b\": 1}, \"a\": {\"b\": 2}}");
+
+    // When:
+    final String first = udf.extract(doc, "$.a.b");
+    final String second = new JsonExtractString().extract(doc, "$.a.b");
+
+    // Then:
+    assertThat(first, is("2"));
+    assertThat(second, is("2"));
+  }
+
+  @Test
+  public void shouldThrowOnInvalidJsonAfterValueForEveryCallOnDocument() {
+    // Given:
+    final String doc = new String("{\"a\": 1, \"b\": nope}");
+
+    // When:
+    final Exception first = assertThrows(
+        KsqlFunctionException.class,
+        () -> udf.extract(doc, "$.a")
+    );
+    final Exception second = assertThrows(
+        KsqlFunctionException.class,
+        () -> new JsonExtractString().extract(doc, "$.a")
+    );
+
+    // Then:
+    assertThat(first.getMessage(), containsString("Invalid JSON format"));
+    assertThat(second.getMessage(), containsString("Invalid JSON format"));
+  }
+
+  @Test
+  public void shouldExtractDifferentPathsFromSameDocument() {
+    // Given:
+    final String doc = new String(JSON_DOC);
+    final JsonExtractString other = new JsonExtractString();
+    final JsonExtractString another = new JsonExtractString();
+
+    // When:
+    final String first = udf.extract(doc, "$.thing1.thing2");
+    final String second = other.extract(doc, "$.array.0");
+    final String third = another.extract(doc, "$.thing1");
+
+    // Then:
+    assertThat(first, is("hello"));
+    assertThat(second, is("101"));
+    assertThat(third, is("{\"thing2\":\"hello\"}"));
+  }
+
+  @Test
+  public void shouldHandlePathChangingBetweenCalls() {
+    // When:
+    final String first = udf.extract(JSON_DOC, "$.thing1.thing2");
+    final String second = udf.extract(JSON_DOC, "$.array[0]");
+
+    // Then:
+    assertThat(first, is("hello"));
+    assertThat(second, is("101"));
+  }
+
+  @Test
+  public void shouldExtractNumbersAsWritten() {
+    // When:
+    final String result = udf.extract("{\"a\": 1.23450, \"b\": 2}", "$.a");
+
+    // Then:
+    assertThat(result, is("1.23450"));
+  }
+
+  @Test
+  public void shouldExtractNullValueAsString() {
+    // When:
+    final String result = udf.extract("{\"a\": null}", "$.a");
+
+    // Then:
+    assertThat(result, is("null"));
+  }
+
+  @Test
+  public void shouldReturnNullForOutOfBoundsArrayIndex() {
+    assertThat(udf.extract(JSON_DOC, "$.array[2]"), is(nullValue()));
+    assertThat(new JsonExtractString().extract(JSON_DOC, "$.array[-1]"), is(nullValue()));
+  }
+
   @Test
   public void shouldBeThreadSafe() {
     IntStream.range(0, 10_000)
         .parallel()
         .forEach(idx -> shouldExtractJsonField());
   }
+
+  @Test
+  public void shouldUsePreparedPath() {
+    // Given:
+    udf.prepare(ImmutableList.of(Optional.empty(), Optional.of("$.thing1.thing2")));
+
+    // Then:
+    assertThat(udf.extract(JSON_DOC, "$.thing1.thing2"), is("hello"));
+    assertThat(udf.extract(JSON_DOC, "$.array.0"), is("101"));
+  }
+
+  @Test
+  public void shouldIgnoreInvalidPreparedPath() {
+    // When:
+    udf.prepare(ImmutableList.of(Optional.empty(), Optional.of("$$")));
+
+    // Then:
+    assertThat(udf.extract(JSON_DOC, "$.thing1.thing2"), is("hello"));
+  }
 }
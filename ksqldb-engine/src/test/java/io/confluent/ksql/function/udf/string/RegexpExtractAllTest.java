@@ -21,7 +21,9 @@ import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertNull;
 
+import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.function.KsqlFunctionException;
+import java.util.Optional;
 import org.junit.Test;
 
 public class RegexpExtractAllTest {
@@ -75,4 +77,14 @@ public class RegexpExtractAllTest {
   public void shouldHaveBadPattern() {
     udf.regexpExtractAll("(()", "test string");
   }
+
+  @Test
+  public void shouldUsePreparedPattern() {
+    // Given:
+    udf.prepare(ImmutableList.of(Optional.of("e.t"), Optional.empty()));
+
+    // Then:
+    assertThat(udf.regexpExtractAll("e.t", "test nest"), contains("est", "est"));
+    assertThat(udf.regexpExtractAll("s", "test nest"), contains("s", "s"));
+  }
 }
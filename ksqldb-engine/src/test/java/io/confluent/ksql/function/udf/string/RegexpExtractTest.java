@@ -18,6 +18,8 @@ package io.confluent.ksql.function.udf.string;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 
+import com.google.common.collect.ImmutableList;
+import java.util.Optional;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -61,4 +63,23 @@ public class RegexpExtractTest {
   public void shouldReturnNullIfGivenGroupNumberGreaterThanAvailableGroupNumbers() {
     assertNull(udf.regexpExtract("e", "test string", 3), null);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldUsePreparedPattern() {
+    // Given:
+    udf.prepare(ImmutableList.of(Optional.of("(.*) (.*)"), Optional.empty()));
+
+    // Then:
+    assertEquals(udf.regexpExtract("(.*) (.*)", "test string", 2), "string");
+    assertEquals(udf.regexpExtract("e.*", "test string"), "est string");
+  }
+
+  @Test
+  public void shouldIgnoreInvalidPreparedPattern() {
+    // When:
+    udf.prepare(ImmutableList.of(Optional.of("(.*"), Optional.empty()));
+
+    // Then:
+    assertEquals(udf.regexpExtract(".", "test string"), "t");
+  }
+}
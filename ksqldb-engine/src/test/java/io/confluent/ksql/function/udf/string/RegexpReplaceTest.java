@@ -19,7 +19,9 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.isEmptyOrNullString;
 
+import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.function.KsqlFunctionException;
+import java.util.Optional;
 import org.junit.Test;
 
 public class RegexpReplaceTest {
@@ -52,4 +54,14 @@ public class RegexpReplaceTest {
   public void shouldThrowExceptionOnBadPattern() {
     udf.regexpReplace("foobar", "(()", "bar");
   }
+
+  @Test
+  public void shouldUsePreparedPattern() {
+    // Given:
+    udf.prepare(ImmutableList.of(Optional.empty(), Optional.of("[aeiou]"), Optional.of("")));
+
+    // Then:
+    assertThat(udf.regexpReplace("foobar", "[aeiou]", ""), is("fbr"));
+    assertThat(udf.regexpReplace("foobar", "o", "0"), is("f00bar"));
+  }
 }
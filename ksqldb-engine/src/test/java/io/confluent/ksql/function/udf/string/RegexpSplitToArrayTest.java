@@ -5,7 +5,9 @@ import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
 
+import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.function.KsqlFunctionException;
+import java.util.Optional;
 import org.junit.Test;
 
 public class RegexpSplitToArrayTest {
@@ -76,4 +78,14 @@ public class RegexpSplitToArrayTest {
   public void shouldThrowOnInvalidPattern() {
     udf.regexpSplit("abcd", "(()");
   }
+
+  @Test
+  public void shouldUsePreparedPattern() {
+    // Given:
+    udf.prepare(ImmutableList.of(Optional.empty(), Optional.of("-+")));
+
+    // Then:
+    assertThat(udf.regexpSplit("a--b-c", "-+"), contains("a", "b", "c"));
+    assertThat(udf.regexpSplit("a--b-c", "-"), contains("a", "", "b", "c"));
+  }
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.metrics.MetricCollectors;
+import io.confluent.ksql.util.KsqlConstants;
+import io.confluent.ksql.util.ReservedInternalTopics;
+import java.util.Map;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.utils.Time;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ScalablePushQueryMetricsTest {
+
+  private static final String KSQL_SERVICE_ID = "test-ksql-service-id";
+  private static final Map<String, String> CUSTOM_TAGS = ImmutableMap.of("tag1", "value1");
+  private static final Map<String, String> TAGS = ImmutableMap.of(
+      "tag1", "value1",
+      KsqlConstants.KSQL_SERVICE_ID_METRICS_TAG, KSQL_SERVICE_ID
+  );
+
+  @Mock
+  private Time time;
+
+  private ScalablePushQueryMetrics pushMetrics;
+
+  @Before
+  public void setUp() {
+    MetricCollectors.initialize();
+    pushMetrics = new ScalablePushQueryMetrics(KSQL_SERVICE_ID, CUSTOM_TAGS, time);
+  }
+
+  @After
+  public void tearDown() {
+    pushMetrics.close();
+    MetricCollectors.cleanUp();
+  }
+
+  @Test
+  public void shouldRecordRowLatency() {
+    // Given:
+    when(time.milliseconds()).thenReturn(1000L);
+
+    // When:
+    pushMetrics.recordRowLatency(900L);
+    pushMetrics.recordRowLatency(800L);
+    pushMetrics.recordRowLatency(700L);
+
+    // Then:
+    assertThat(getMetricValue("-avg"), is(200.0));
+    assertThat(getMetricValue("-max"), is(300.0));
+    assertThat(getMetricValue("-total"), is(3.0));
+    assertThat(getMetricValue("-distribution-50"), is(203.0));
+    assertThat(getMetricValue("-distribution-99"), is(303.0));
+  }
+
+  @Test
+  public void shouldRecordRowsFromTheFutureAsZeroLatency() {
+    // Given:
+    when(time.milliseconds()).thenReturn(1000L);
+
+    // When:
+    pushMetrics.recordRowLatency(2000L);
+
+    // Then:
+    assertThat(getMetricValue("-max"), is(0.0));
+    assertThat(getMetricValue("-distribution-99"), is(0.0));
+  }
+
+  @Test
+  public void shouldRemoveMetricsOnClose() {
+    // When:
+    pushMetrics.close();
+
+    // Then:
+    final Metrics metrics = pushMetrics.getMetrics();
+    assertThat(metrics.metric(metricName("-avg")), is(nullValue()));
+    assertThat(metrics.metric(metricName("-distribution-50")), is(nullValue()));
+  }
+
+  private double getMetricValue(final String suffix) {
+    return (Double) pushMetrics.getMetrics().metric(metricName(suffix)).metricValue();
+  }
+
+  private MetricName metricName(final String suffix) {
+    return pushMetrics.getMetrics().metricName(
+        "scalable-push-query-row-latency" + suffix,
+        ReservedInternalTopics.KSQL_INTERNAL_TOPIC_PREFIX + "scalable-push-query",
+        TAGS
+    );
+  }
+}
@@ -30,6 +30,7 @@ import static org.mockito.Mockito.when;
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.config.SessionConfig;
 import io.confluent.ksql.execution.streams.RoutingFilter.Host;
@@ -43,6 +44,7 @@ import io.confluent.ksql.execution.streams.materialization.MaterializationExcept
 import io.confluent.ksql.execution.streams.materialization.ks.KsLocator.PartitionLocation;
 import io.confluent.ksql.parser.tree.Query;
 import io.confluent.ksql.physical.pull.HARouting.RouteQuery;
+import io.confluent.ksql.physical.pull.PullPhysicalPlan.PullPhysicalPlanType;
 import io.confluent.ksql.query.PullQueryQueue;
 import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.rest.client.RestResponse;
@@ -52,6 +54,7 @@ import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.services.SimpleKsqlClient;
 import io.confluent.ksql.statement.ConfiguredStatement;
 import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.KsqlHostInfo;
 import io.confluent.ksql.util.KsqlRequestConfig;
 import java.net.URI;
@@ -116,6 +119,14 @@ public class HARoutingTest {
   private KsqlConfig ksqlConfig;
   @Mock
   private SimpleKsqlClient ksqlClient;
+  @Mock
+  private PullQueryResultCache resultCache;
+  @Mock
+  private PullQueryResultCache.ResultCapture resultCapture;
+  @Mock
+  private PullQueryAdmissionController admissionController;
+  @Mock
+  private PullQueryAdmissionController.Permit permit;
 
   private KsqlPartitionLocation location1;
   private KsqlPartitionLocation location2;
@@ -168,8 +179,8 @@ public class HARoutingTest {
     doAnswer(i -> {
       final PullQueryQueue queue = i.getArgument(1);
       queue.acceptRow(PQ_ROW1);
-      return null;
-    }).when(pullPhysicalPlan).execute(eq(ImmutableList.of(location1, location3)), any(), any());
+      return CompletableFuture.completedFuture(null);
+    }).when(pullPhysicalPlan).execute(eq(ImmutableList.of(location1, location3)), any(), any(), any());
     when(ksqlClient.makeQueryRequest(eq(node2.location()), any(), any(), any(), any())).thenAnswer(
         i -> {
           Map<String, ?> requestProperties = i.getArgument(3);
@@ -191,20 +202,60 @@ public class HARoutingTest {
     future.get();
 
     // Then:
-    verify(pullPhysicalPlan).execute(eq(ImmutableList.of(location1, location3)), any(), any());
+    verify(pullPhysicalPlan).execute(eq(ImmutableList.of(location1, location3)), any(), any(), any());
 
     assertThat(pullQueryQueue.size(), is(2));
     assertThat(pullQueryQueue.pollRow(1, TimeUnit.SECONDS).getRow(), is(ROW1));
     assertThat(pullQueryQueue.pollRow(1, TimeUnit.SECONDS).getRow(), is(ROW2));
   }
 
+  @Test
+  public void shouldBalanceTableScanOverStandbys() throws InterruptedException, ExecutionException {
+    // Given:
+    when(ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PULL_TABLE_SCAN_LOAD_BALANCING_ENABLED))
+        .thenReturn(true);
+    when(pullPhysicalPlan.getPlanType()).thenReturn(PullPhysicalPlanType.TABLE_SCAN);
+    haRouting.close();
+    haRouting = new HARouting(routingFilterFactory, Optional.empty(), ksqlConfig);
+    locate(location1, location3);
+    doAnswer(i -> {
+      final PullQueryQueue queue = i.getArgument(1);
+      queue.acceptRow(PQ_ROW1);
+      return CompletableFuture.completedFuture(null);
+    }).when(pullPhysicalPlan).execute(eq(ImmutableList.of(location1)), any(), any(), any());
+    when(ksqlClient.makeQueryRequest(eq(node2.location()), any(), any(), any(), any())).thenAnswer(
+        i -> {
+          Map<String, ?> requestProperties = i.getArgument(3);
+          Consumer<List<StreamedRow>> rowConsumer = i.getArgument(4);
+          assertThat(requestProperties.get(KsqlRequestConfig.KSQL_REQUEST_QUERY_PULL_PARTITIONS),
+              is ("3"));
+          rowConsumer.accept(
+              ImmutableList.of(
+                  StreamedRow.header(queryId, logicalSchema),
+                  StreamedRow.pullRow(GenericRow.fromList(ROW2), Optional.empty())));
+          return RestResponse.successful(200, 1);
+        }
+    );
+
+    // When:
+    CompletableFuture<Void> future = haRouting.handlePullQuery(
+        serviceContext, pullPhysicalPlan, statement, routingOptions, logicalSchema, queryId,
+        pullQueryQueue);
+    future.get();
+
+    // Then: partition 3 is read from its standby, node2, rather than its active, node1:
+    verify(pullPhysicalPlan).execute(eq(ImmutableList.of(location1)), any(), any(), any());
+    verify(ksqlClient).makeQueryRequest(eq(node2.location()), any(), any(), any(), any());
+    assertThat(pullQueryQueue.size(), is(2));
+  }
+
   @Test
   public void shouldCallRouteQuery_twoRound() throws InterruptedException, ExecutionException {
     // Given:
     locate(location1, location2, location3, location4);
     doAnswer(i -> {
       throw new StandbyFallbackException("Error!");
-    }).when(pullPhysicalPlan).execute(eq(ImmutableList.of(location1, location3)), any(), any());
+    }).when(pullPhysicalPlan).execute(eq(ImmutableList.of(location1, location3)), any(), any(), any());
     when(ksqlClient.makeQueryRequest(eq(node2.location()), any(), any(), any(), any())).thenAnswer(
         new Answer() {
           private int count = 0;
@@ -239,7 +290,7 @@ public class HARoutingTest {
     future.get();
 
     // Then:
-    verify(pullPhysicalPlan).execute(eq(ImmutableList.of(location1, location3)), any(), any());
+    verify(pullPhysicalPlan).execute(eq(ImmutableList.of(location1, location3)), any(), any(), any());
     verify(ksqlClient, times(2)).makeQueryRequest(eq(node2.location()), any(), any(), any(), any());
 
     assertThat(pullQueryQueue.size(), is(2));
@@ -260,8 +311,8 @@ public class HARoutingTest {
     doAnswer(i -> {
       final PullQueryQueue queue = i.getArgument(1);
       queue.acceptRow(PQ_ROW1);
-      return null;
-    }).when(pullPhysicalPlan).execute(eq(ImmutableList.of(location2)), any(), any());
+      return CompletableFuture.completedFuture(null);
+    }).when(pullPhysicalPlan).execute(eq(ImmutableList.of(location2)), any(), any(), any());
 
     // When:
     CompletableFuture<Void> future = haRouting.handlePullQuery(serviceContext, pullPhysicalPlan,
@@ -270,7 +321,7 @@ public class HARoutingTest {
 
     // Then:
     verify(ksqlClient, times(1)).makeQueryRequest(eq(node2.location()), any(), any(), any(), any());
-    verify(pullPhysicalPlan).execute(eq(ImmutableList.of(location2)), any(), any());
+    verify(pullPhysicalPlan).execute(eq(ImmutableList.of(location2)), any(), any(), any());
 
     assertThat(pullQueryQueue.size(), is(1));
     assertThat(pullQueryQueue.pollRow(1, TimeUnit.SECONDS).getRow(), is(ROW1));
@@ -282,7 +333,7 @@ public class HARoutingTest {
     locate(location1, location2, location3, location4);
     doAnswer(i -> {
       throw new StandbyFallbackException("Error1!");
-    }).when(pullPhysicalPlan).execute(eq(ImmutableList.of(location1, location3)), any(), any());
+    }).when(pullPhysicalPlan).execute(eq(ImmutableList.of(location1, location3)), any(), any(), any());
     when(ksqlClient.makeQueryRequest(eq(node2.location()), any(), any(), any(), any())).thenAnswer(
         new Answer() {
           private int count = 0;
@@ -319,7 +370,7 @@ public class HARoutingTest {
     );
 
     // Then:
-    verify(pullPhysicalPlan).execute(eq(ImmutableList.of(location1, location3)), any(), any());
+    verify(pullPhysicalPlan).execute(eq(ImmutableList.of(location1, location3)), any(), any(), any());
     verify(ksqlClient, times(2)).makeQueryRequest(eq(node2.location()), any(), any(), any(), any());
 
     assertThat(e.getCause().getMessage(), containsString("Exhausted standby hosts to try."));
@@ -368,6 +419,8 @@ public class HARoutingTest {
     location1 = new PartitionLocation(Optional.empty(), 1, ImmutableList.of(badNode, node1));
     when(ksqlClient.makeQueryRequest(any(), any(), any(), any(), any()))
         .then(invocationOnMock -> RestResponse.successful(200, 2));
+    when(pullPhysicalPlan.execute(any(), any(), any(), any()))
+        .thenReturn(CompletableFuture.completedFuture(null));
     locate(location1, location2, location3, location4);
 
     // When:
@@ -510,6 +563,114 @@ public class HARoutingTest {
         containsString("Schemas logicalSchema2 from host node2 differs from schema logicalSchema"));
   }
 
+  @Test
+  public void shouldServeCachedResult() throws InterruptedException, ExecutionException {
+    // Given:
+    final PullQueryResultCache.Key key = givenResultCache();
+    when(resultCache.get(key)).thenReturn(Optional.of(ImmutableList.of(PQ_ROW1, PQ_ROW2)));
+
+    // When:
+    CompletableFuture<Void> future = haRouting.handlePullQuery(
+        serviceContext, pullPhysicalPlan, statement, routingOptions, logicalSchema, queryId,
+        pullQueryQueue);
+    future.get();
+
+    // Then:
+    verify(routeQuery, never()).routeQuery(any(), any(), any(), any(), any(), any(), any(), any(),
+        any(), any(), any());
+    assertThat(pullQueryQueue.isClosed(), is(true));
+    assertThat(pullQueryQueue.size(), is(2));
+    assertThat(pullQueryQueue.pollRow(1, TimeUnit.SECONDS).getRow(), is(ROW1));
+    assertThat(pullQueryQueue.pollRow(1, TimeUnit.SECONDS).getRow(), is(ROW2));
+  }
+
+  @Test
+  public void shouldCacheResultOnMiss() throws InterruptedException, ExecutionException {
+    // Given:
+    final PullQueryResultCache.Key key = givenResultCache();
+    when(resultCache.get(key)).thenReturn(Optional.empty());
+    when(resultCache.capture(key, ImmutableList.of(1, 3))).thenReturn(resultCapture);
+    locate(location1, location3);
+    when(routeQuery.routeQuery(eq(node1), any(), any(), any(), any(), any(), any(), any(), any(),
+        any(), any())).thenAnswer(i -> {
+          final PullQueryQueue queue = i.getArgument(9);
+          queue.acceptRow(PQ_ROW1);
+          return CompletableFuture.completedFuture(RoutingResult.SUCCESS);
+        });
+
+    // When:
+    CompletableFuture<Void> future = haRouting.handlePullQuery(
+        serviceContext, pullPhysicalPlan, statement, routingOptions, logicalSchema, queryId,
+        pullQueryQueue);
+    future.get();
+
+    // Then:
+    verify(resultCapture).addRow(PQ_ROW1);
+    verify(resultCapture).complete();
+  }
+
+  @Test
+  public void shouldReleaseAdmissionPermitOnceComplete()
+      throws InterruptedException, ExecutionException {
+    // Given:
+    haRouting.close();
+    haRouting = new HARouting(routingFilterFactory, Optional.empty(), ksqlConfig, routeQuery,
+        Optional.empty(), Optional.of(admissionController));
+    when(pullPhysicalPlan.getPlanType()).thenReturn(PullPhysicalPlanType.KEY_LOOKUP);
+    when(admissionController.admit(PullPhysicalPlanType.KEY_LOOKUP, 2))
+        .thenReturn(CompletableFuture.completedFuture(permit));
+    locate(location1, location3);
+    when(routeQuery.routeQuery(eq(node1), any(), any(), any(), any(), any(), any(), any(), any(),
+        any(), any())).thenReturn(CompletableFuture.completedFuture(RoutingResult.SUCCESS));
+
+    // When:
+    CompletableFuture<Void> future = haRouting.handlePullQuery(
+        serviceContext, pullPhysicalPlan, statement, routingOptions, logicalSchema, queryId,
+        pullQueryQueue);
+    future.get();
+
+    // Then:
+    verify(permit).release();
+  }
+
+  @Test
+  public void shouldNotRouteQueryRejectedByAdmission() {
+    // Given:
+    haRouting.close();
+    haRouting = new HARouting(routingFilterFactory, Optional.empty(), ksqlConfig, routeQuery,
+        Optional.empty(), Optional.of(admissionController));
+    when(pullPhysicalPlan.getPlanType()).thenReturn(PullPhysicalPlanType.KEY_LOOKUP);
+    final CompletableFuture<PullQueryAdmissionController.Permit> rejected =
+        new CompletableFuture<>();
+    rejected.completeExceptionally(new KsqlException("Queued for too long"));
+    when(admissionController.admit(PullPhysicalPlanType.KEY_LOOKUP, 2)).thenReturn(rejected);
+    locate(location1, location3);
+
+    // When:
+    final Exception e = assertThrows(
+        ExecutionException.class,
+        () -> haRouting.handlePullQuery(
+            serviceContext, pullPhysicalPlan, statement, routingOptions, logicalSchema, queryId,
+            pullQueryQueue).get()
+    );
+
+    // Then:
+    assertThat(Throwables.getRootCause(e).getMessage(), containsString("Queued for too long"));
+    verify(routeQuery, never()).routeQuery(any(), any(), any(), any(), any(), any(), any(), any(),
+        any(), any(), any());
+  }
+
+  private PullQueryResultCache.Key givenResultCache() {
+    final PullQueryResultCache.Key key = new PullQueryResultCache.Key(
+        "app-id", "foo", ImmutableMap.of(), ImmutableSet.of(), 0L, false);
+    when(resultCache.key(statement, pullPhysicalPlan, routingOptions)).thenReturn(Optional.of(key));
+    haRouting.close();
+    haRouting = new HARouting(
+        routingFilterFactory, Optional.empty(), ksqlConfig, routeQuery, Optional.of(resultCache),
+        Optional.empty());
+    return key;
+  }
+
   private void locate(final KsqlPartitionLocation... locations) {
     List<KsqlPartitionLocation> locationsList = ImmutableList.copyOf(locations);
     when(pullPhysicalPlan.getMaterialization().locator().locate(
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical.pull;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.execution.streams.materialization.Locator.KsqlNode;
+import io.confluent.ksql.execution.streams.materialization.Locator.KsqlPartitionLocation;
+import io.confluent.ksql.execution.streams.materialization.ks.KsLocator.PartitionLocation;
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LeastOutstandingRequestsBalancerTest {
+
+  @Mock
+  private KsqlNode node1;
+  @Mock
+  private KsqlNode node2;
+  @Mock
+  private KsqlNode node3;
+
+  private final LeastOutstandingRequestsBalancer balancer = new LeastOutstandingRequestsBalancer();
+
+  @Before
+  public void setUp() {
+    when(node1.location()).thenReturn(URI.create("http://node1:8088"));
+    when(node2.location()).thenReturn(URI.create("http://node2:8088"));
+    when(node3.location()).thenReturn(URI.create("http://node3:8088"));
+  }
+
+  @Test
+  public void shouldSpreadPartitionsOverAllHosts() {
+    // Given:
+    final List<KsqlPartitionLocation> locations = ImmutableList.of(
+        location(0, node1, node2, node3),
+        location(1, node1, node2, node3),
+        location(2, node1, node2, node3)
+    );
+
+    // When:
+    final List<KsqlPartitionLocation> balanced = balancer.assign(locations);
+
+    // Then:
+    assertThat(balanced.get(0).getNodes(), contains(node1, node2, node3));
+    assertThat(balanced.get(1).getNodes(), contains(node2, node1, node3));
+    assertThat(balanced.get(2).getNodes(), contains(node3, node1, node2));
+  }
+
+  @Test
+  public void shouldAvoidHostsWithOutstandingRequests() {
+    // Given:
+    balancer.started(node1, 2);
+    balancer.started(node2, 1);
+
+    // When:
+    final List<KsqlPartitionLocation> balanced = balancer.assign(ImmutableList.of(
+        location(0, node1, node2),
+        location(1, node1, node2)
+    ));
+
+    // Then:
+    assertThat(balanced.get(0).getNodes(), contains(node2, node1));
+    assertThat(balanced.get(1).getNodes(), contains(node1, node2));
+  }
+
+  @Test
+  public void shouldPreferActiveOnceRequestsFinish() {
+    // Given:
+    balancer.started(node1, 2);
+    balancer.finished(node1, 2);
+    final KsqlPartitionLocation location = location(0, node1, node2);
+
+    // When:
+    final List<KsqlPartitionLocation> balanced = balancer.assign(ImmutableList.of(location));
+
+    // Then:
+    assertThat(balanced.get(0), is(sameInstance(location)));
+    assertThat(balancer.outstanding(node1.location()), is(0));
+  }
+
+  @Test
+  public void shouldOnlyUseEligibleHosts() {
+    // Given:
+    balancer.started(node1, 10);
+    final KsqlPartitionLocation location = location(0, node1);
+
+    // When:
+    final List<KsqlPartitionLocation> balanced = balancer.assign(ImmutableList.of(location));
+
+    // Then:
+    assertThat(balanced.get(0), is(sameInstance(location)));
+  }
+
+  private static KsqlPartitionLocation location(final int partition, final KsqlNode... nodes) {
+    return new PartitionLocation(Optional.empty(), partition, ImmutableList.copyOf(nodes));
+  }
+}
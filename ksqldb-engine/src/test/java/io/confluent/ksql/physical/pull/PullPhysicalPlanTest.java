@@ -0,0 +1,152 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical.pull;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.execution.streams.materialization.Locator.KsqlPartitionLocation;
+import io.confluent.ksql.execution.streams.materialization.Materialization;
+import io.confluent.ksql.physical.common.operators.AbstractPhysicalOperator;
+import io.confluent.ksql.physical.pull.PullPhysicalPlan.PullPhysicalPlanType;
+import io.confluent.ksql.physical.pull.PullPhysicalPlan.PullSourceType;
+import io.confluent.ksql.physical.pull.operators.DataSourceOperator;
+import io.confluent.ksql.query.PullQueryQueue;
+import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PullPhysicalPlanTest {
+
+  private static final LogicalSchema SCHEMA = LogicalSchema.builder().build();
+  private static final List<?> ROW1 = ImmutableList.of(1);
+  private static final List<?> ROW2 = ImmutableList.of(2);
+
+  @Mock
+  private AbstractPhysicalOperator root;
+  @Mock
+  private Materialization materialization;
+  @Mock
+  private DataSourceOperator dataSourceOperator;
+  @Mock
+  private KsqlPartitionLocation location;
+  @Mock
+  private PullQueryRow pullQueryRow;
+
+  private final List<Runnable> resumed = new ArrayList<>();
+  private final BiFunction<List<?>, LogicalSchema, PullQueryRow> rowFactory =
+      (row, schema) -> pullQueryRow;
+
+  private PullQueryQueue queue;
+  private PullPhysicalPlan plan;
+
+  @Before
+  public void setUp() {
+    queue = new PullQueryQueue(1, 1);
+    plan = new PullPhysicalPlan(
+        root,
+        SCHEMA,
+        new QueryId("query-id"),
+        ImmutableList.of(),
+        PullPhysicalPlanType.TABLE_SCAN,
+        PullSourceType.NON_WINDOWED,
+        materialization,
+        dataSourceOperator,
+        "app-id"
+    );
+  }
+
+  @Test
+  public void shouldSuspendWhileQueueIsFull() {
+    // Given:
+    when(root.next()).thenReturn(ROW1, ROW2, null);
+
+    // When:
+    final CompletableFuture<Void> future = execute();
+
+    // Then:
+    assertThat(future.isDone(), is(false));
+    assertThat(queue.size(), is(1));
+    assertThat(resumed, is(empty()));
+    verify(root, times(1)).next();
+    verify(root, never()).close();
+  }
+
+  @Test
+  public void shouldResumeOnceQueueHasCapacity() {
+    // Given:
+    when(root.next()).thenReturn(ROW1, ROW2, null);
+    final CompletableFuture<Void> future = execute();
+
+    // When:
+    queue.poll();
+
+    // Then: resumed on the executor, rather than on the polling thread:
+    assertThat(resumed, hasSize(1));
+    verify(root, times(1)).next();
+
+    // When:
+    resumed.remove(0).run();
+    queue.poll();
+    resumed.remove(0).run();
+
+    // Then:
+    assertThat(future.isDone(), is(true));
+    assertThat(future.isCompletedExceptionally(), is(false));
+    assertThat(queue.getTotalRowsQueued(), is(2L));
+    verify(root, times(3)).next();
+    verify(root).close();
+  }
+
+  @Test
+  public void shouldStopIfQueueClosedWhileSuspended() {
+    // Given:
+    when(root.next()).thenReturn(ROW1, ROW2, null);
+    final CompletableFuture<Void> future = execute();
+
+    // When:
+    queue.close();
+    assertThat(resumed, hasSize(1));
+    resumed.remove(0).run();
+
+    // Then:
+    assertThat(future.isDone(), is(true));
+    assertThat(future.isCompletedExceptionally(), is(false));
+    assertThat(queue.getTotalRowsQueued(), is(1L));
+    verify(root, times(1)).next();
+    verify(root).close();
+  }
+
+  private CompletableFuture<Void> execute() {
+    return plan.execute(ImmutableList.of(location), queue, rowFactory, resumed::add);
+  }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical.pull;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.physical.pull.PullPhysicalPlan.PullPhysicalPlanType;
+import io.confluent.ksql.physical.pull.PullQueryAdmissionController.Permit;
+import io.confluent.ksql.util.KsqlConstants;
+import io.confluent.ksql.util.KsqlException;
+import io.confluent.ksql.util.ReservedInternalTopics;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.utils.Time;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PullQueryAdmissionControllerTest {
+
+  private static final int KEY_LOOKUP_LIMIT = 4;
+  private static final int TABLE_SCAN_LIMIT = 10;
+  private static final int MAX_QUEUED = 2;
+  private static final long MAX_QUEUE_TIME_MS = 1000L;
+
+  @Mock
+  private Time time;
+  @Mock
+  private ScheduledExecutorService timeouts;
+
+  private Metrics metrics;
+  private PullQueryAdmissionController controller;
+
+  @Before
+  public void setUp() {
+    metrics = new Metrics();
+    controller = new PullQueryAdmissionController(
+        ImmutableMap.of(
+            PullPhysicalPlanType.KEY_LOOKUP, KEY_LOOKUP_LIMIT,
+            PullPhysicalPlanType.TABLE_SCAN, TABLE_SCAN_LIMIT
+        ),
+        MAX_QUEUED,
+        MAX_QUEUE_TIME_MS,
+        time,
+        timeouts,
+        metrics,
+        "service-id"
+    );
+  }
+
+  @After
+  public void tearDown() {
+    controller.close();
+    metrics.close();
+  }
+
+  @Test
+  public void shouldAdmitQueriesWithinLimit() {
+    // When:
+    final CompletableFuture<Permit> first = controller.admit(PullPhysicalPlanType.KEY_LOOKUP, 2);
+    final CompletableFuture<Permit> second = controller.admit(PullPhysicalPlanType.KEY_LOOKUP, 2);
+
+    // Then:
+    assertThat(first.isDone(), is(true));
+    assertThat(second.isDone(), is(true));
+  }
+
+  @Test
+  public void shouldQueueQueryOverLimitUntilRelease() throws Exception {
+    // Given:
+    final Permit running = controller.admit(PullPhysicalPlanType.KEY_LOOKUP, 3).get();
+    when(time.milliseconds()).thenReturn(100L, 350L);
+    final CompletableFuture<Permit> queued = controller.admit(PullPhysicalPlanType.KEY_LOOKUP, 2);
+    assertThat(queued.isDone(), is(false));
+
+    // When:
+    running.release();
+
+    // Then:
+    assertThat(queued.isDone(), is(true));
+    assertThat(metricValue("key-lookup-queue-time-max"), is(250.0));
+  }
+
+  @Test
+  public void shouldOnlyReleaseOnce() throws Exception {
+    // Given:
+    final Permit running = controller.admit(PullPhysicalPlanType.KEY_LOOKUP, 4).get();
+    running.release();
+    controller.admit(PullPhysicalPlanType.KEY_LOOKUP, 4).get();
+
+    // When:
+    running.release();
+
+    // Then:
+    assertThat(controller.admit(PullPhysicalPlanType.KEY_LOOKUP, 1).isDone(), is(false));
+  }
+
+  @Test
+  public void shouldAdmitQueuedQueriesInOrder() throws Exception {
+    // Given:
+    final Permit running = controller.admit(PullPhysicalPlanType.KEY_LOOKUP, 4).get();
+    final CompletableFuture<Permit> large = controller.admit(PullPhysicalPlanType.KEY_LOOKUP, 3);
+    final CompletableFuture<Permit> small = controller.admit(PullPhysicalPlanType.KEY_LOOKUP, 2);
+
+    // When:
+    running.release();
+
+    // Then: the small query doesn't jump the queue, even though it would fit:
+    assertThat(large.isDone(), is(true));
+    assertThat(small.isDone(), is(false));
+
+    // When:
+    large.get().release();
+
+    // Then:
+    assertThat(small.isDone(), is(true));
+  }
+
+  @Test
+  public void shouldRejectQueryIfQueueFull() throws Exception {
+    // Given:
+    controller.admit(PullPhysicalPlanType.KEY_LOOKUP, 4).get();
+    for (int i = 0; i != MAX_QUEUED; ++i) {
+      controller.admit(PullPhysicalPlanType.KEY_LOOKUP, 1);
+    }
+
+    // When:
+    final Exception e = assertThrows(
+        KsqlException.class,
+        () -> controller.admit(PullPhysicalPlanType.KEY_LOOKUP, 1)
+    );
+
+    // Then:
+    assertThat(e.getMessage(), containsString(
+        "Host is at the pull query admission limit for key lookups."));
+    assertThat(metricValue("key-lookup-rejected-total"), is(1.0));
+  }
+
+  @Test
+  public void shouldRejectQueryQueuedForTooLong() throws Exception {
+    // Given:
+    controller.admit(PullPhysicalPlanType.KEY_LOOKUP, 4).get();
+    final CompletableFuture<Permit> queued = controller.admit(PullPhysicalPlanType.KEY_LOOKUP, 1);
+    final ArgumentCaptor<Runnable> timeout = ArgumentCaptor.forClass(Runnable.class);
+    verify(timeouts).schedule(timeout.capture(), eq(MAX_QUEUE_TIME_MS), eq(TimeUnit.MILLISECONDS));
+
+    // When:
+    timeout.getValue().run();
+
+    // Then:
+    final Exception e = assertThrows(ExecutionException.class, queued::get);
+    assertThat(e.getCause(), is(instanceOf(KsqlException.class)));
+    assertThat(e.getCause().getMessage(), containsString("for longer than 1000 ms"));
+    assertThat(metricValue("key-lookup-rejected-total"), is(1.0));
+  }
+
+  @Test
+  public void shouldIgnoreTimeoutOfAdmittedQuery() throws Exception {
+    // Given:
+    final Permit running = controller.admit(PullPhysicalPlanType.KEY_LOOKUP, 4).get();
+    final CompletableFuture<Permit> queued = controller.admit(PullPhysicalPlanType.KEY_LOOKUP, 1);
+    final ArgumentCaptor<Runnable> timeout = ArgumentCaptor.forClass(Runnable.class);
+    verify(timeouts).schedule(timeout.capture(), anyLong(), any());
+    running.release();
+
+    // When:
+    timeout.getValue().run();
+
+    // Then:
+    assertThat(queued.isCompletedExceptionally(), is(false));
+    assertThat(metricValue("key-lookup-rejected-total"), is(0.0));
+  }
+
+  @Test
+  public void shouldNotQueueKeyLookupsBehindTableScans() throws Exception {
+    // Given:
+    controller.admit(PullPhysicalPlanType.TABLE_SCAN, TABLE_SCAN_LIMIT).get();
+    controller.admit(PullPhysicalPlanType.TABLE_SCAN, 1);
+
+    // When:
+    final CompletableFuture<Permit> lookup = controller.admit(PullPhysicalPlanType.KEY_LOOKUP, 1);
+
+    // Then:
+    assertThat(lookup.isDone(), is(true));
+  }
+
+  @Test
+  public void shouldAdmitScanOverLimitOnceAlone() throws Exception {
+    // Given:
+    final Permit running = controller.admit(PullPhysicalPlanType.TABLE_SCAN, 1).get();
+    final CompletableFuture<Permit> huge =
+        controller.admit(PullPhysicalPlanType.TABLE_SCAN, TABLE_SCAN_LIMIT * 3);
+    assertThat(huge.isDone(), is(false));
+
+    // When:
+    running.release();
+
+    // Then:
+    assertThat(huge.isDone(), is(true));
+  }
+
+  @Test
+  public void shouldNotLimitQueriesWithoutLimit() {
+    // Given:
+    controller.close();
+    controller = new PullQueryAdmissionController(
+        ImmutableMap.of(
+            PullPhysicalPlanType.KEY_LOOKUP, 0,
+            PullPhysicalPlanType.TABLE_SCAN, TABLE_SCAN_LIMIT
+        ),
+        MAX_QUEUED, MAX_QUEUE_TIME_MS, time, timeouts, metrics, "service-id");
+
+    // When:
+    final CompletableFuture<Permit> permit =
+        controller.admit(PullPhysicalPlanType.KEY_LOOKUP, 1_000);
+
+    // Then:
+    assertThat(permit.join(), is(Permit.NONE));
+  }
+
+  private double metricValue(final String name) {
+    final MetricName metricName = metrics.metricName(
+        name,
+        ReservedInternalTopics.KSQL_INTERNAL_TOPIC_PREFIX + "pull-query-admission",
+        Collections.singletonMap(KsqlConstants.KSQL_SERVICE_ID_METRICS_TAG, "service-id")
+    );
+    return (Double) metrics.metric(metricName).metricValue();
+  }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical.pull;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.confluent.ksql.config.SessionConfig;
+import io.confluent.ksql.execution.streams.RoutingOptions;
+import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
+import io.confluent.ksql.parser.tree.Query;
+import io.confluent.ksql.physical.pull.PullQueryResultCache.Key;
+import io.confluent.ksql.physical.pull.PullQueryResultCache.ResultCapture;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.statement.ConfiguredStatement;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.ReservedInternalTopics;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.utils.Time;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class PullQueryResultCacheTest {
+
+  private static final String APP_ID = "app-id";
+  private static final Key KEY = key("SELECT * FROM T WHERE ID = 10");
+  private static final long STALENESS_MS = 1000L;
+
+  @Rule
+  public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+  @Mock
+  private Time time;
+  @Mock
+  private LogicalSchema schema;
+  @Mock
+  private Query query;
+  @Mock
+  private PullPhysicalPlan plan;
+  @Mock
+  private RoutingOptions routingOptions;
+
+  private final Map<Integer, Long> positions = new HashMap<>();
+  private Metrics metrics;
+  private PullQueryResultCache cache;
+  private PullQueryRow row1;
+  private PullQueryRow row2;
+
+  @Before
+  public void setUp() {
+    metrics = new Metrics();
+    cache = new PullQueryResultCache(2, 2, STALENESS_MS, time,
+        (applicationId, partition) -> positions.containsKey(partition)
+            ? OptionalLong.of(positions.get(partition))
+            : OptionalLong.empty(),
+        metrics, "service-id");
+    row1 = new PullQueryRow(ImmutableList.of("a", 1), schema, Optional.empty());
+    row2 = new PullQueryRow(ImmutableList.of("b", 2), schema, Optional.empty());
+  }
+
+  @After
+  public void tearDown() {
+    cache.close();
+    metrics.close();
+  }
+
+  @Test
+  public void shouldServeResultWhilePartitionsUnchanged() {
+    // Given:
+    positions.put(0, 5L);
+    givenCached(KEY, 0);
+    when(time.milliseconds()).thenReturn(STALENESS_MS * 10);
+
+    // When:
+    final Optional<List<PullQueryRow>> result = cache.get(KEY);
+
+    // Then:
+    assertThat(result.isPresent(), is(true));
+    assertThat(result.get(), contains(row1, row2));
+    assertThat(metricValue("hit-total"), is(1.0));
+    assertThat(metricValue("hit-ratio"), is(1.0));
+  }
+
+  @Test
+  public void shouldInvalidateResultOncePartitionChanges() {
+    // Given:
+    positions.put(0, 5L);
+    positions.put(1, 7L);
+    givenCached(KEY, 0, 1);
+    when(time.milliseconds()).thenReturn(STALENESS_MS * 10);
+    positions.put(1, 8L);
+
+    // When:
+    final Optional<List<PullQueryRow>> result = cache.get(KEY);
+
+    // Then:
+    assertThat(result, is(Optional.empty()));
+    assertThat(metricValue("invalidation-total"), is(1.0));
+    assertThat(metricValue("miss-total"), is(1.0));
+    assertThat(metricValue("estimated-bytes"), is(0.0));
+  }
+
+  @Test
+  public void shouldNotServeResultOfUnknownPartitionOnceStale() {
+    // Given:
+    givenCached(KEY, 0);
+    positions.put(0, 5L);
+    when(time.milliseconds()).thenReturn(STALENESS_MS);
+
+    // Then:
+    assertThat(cache.get(KEY), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldServeResultWithinStalenessBound() {
+    // Given:
+    givenCached(KEY, 0);
+    when(time.milliseconds()).thenReturn(STALENESS_MS - 1);
+
+    // Then:
+    assertThat(cache.get(KEY).isPresent(), is(true));
+  }
+
+  @Test
+  public void shouldNotCacheResultWithTooManyRows() {
+    // Given:
+    positions.put(0, 5L);
+    final ResultCapture capture = cache.capture(KEY, ImmutableList.of(0));
+    capture.addRow(row1);
+    capture.addRow(row2);
+    capture.addRow(row1);
+
+    // When:
+    capture.complete();
+
+    // Then:
+    assertThat(cache.get(KEY), is(Optional.empty()));
+    assertThat(metricValue("estimated-bytes"), is(0.0));
+  }
+
+  @Test
+  public void shouldTrackEvictionsAndMemory() {
+    // Given:
+    positions.put(0, 5L);
+    givenCached(key("A"), 0);
+    final double bytes = metricValue("estimated-bytes");
+    givenCached(key("B"), 0);
+    givenCached(key("C"), 0);
+
+    // Then:
+    assertThat(bytes > 0, is(true));
+    assertThat(metricValue("eviction-total"), is(1.0));
+    assertThat(metricValue("estimated-bytes"), is(2 * bytes));
+  }
+
+  @Test
+  public void shouldEstimateBytesOfRow() {
+    assertThat(PullQueryResultCache.estimateBytes(ImmutableList.of("ab", 1L)),
+        is(64L + 16 + 4 + 16 + 8));
+  }
+
+  @Test
+  public void shouldKeyOnStatementTextWithVariablesSubstituted() {
+    // Given: the same statement, as served from the pull query plan cache, bound to two values:
+    when(plan.getApplicationId()).thenReturn(APP_ID);
+    when(routingOptions.getPartitions()).thenReturn(ImmutableSet.of());
+
+    // When:
+    final Optional<Key> ten = cache.key(
+        statement("SELECT * FROM T WHERE ID = 10;"), plan, routingOptions);
+    final Optional<Key> twenty = cache.key(
+        statement("SELECT * FROM T WHERE ID = 20;"), plan, routingOptions);
+
+    // Then:
+    assertThat(ten.isPresent(), is(true));
+    assertThat(twenty.isPresent(), is(true));
+    assertThat(ten.get(), is(not(twenty.get())));
+  }
+
+  private ConfiguredStatement<Query> statement(final String text) {
+    return ConfiguredStatement.of(
+        PreparedStatement.of(text, query),
+        SessionConfig.of(new KsqlConfig(ImmutableMap.of()), ImmutableMap.of()));
+  }
+
+  private void givenCached(final Key key, final Integer... partitions) {
+    final ResultCapture capture = cache.capture(key, ImmutableList.copyOf(partitions));
+    capture.addRow(row1);
+    capture.addRow(row2);
+    capture.complete();
+  }
+
+  private static Key key(final String statement) {
+    return new Key(APP_ID, statement, ImmutableMap.of(), ImmutableSet.of(), 0L, false);
+  }
+
+  private double metricValue(final String name) {
+    final MetricName metricName = metrics.metricName(
+        name,
+        ReservedInternalTopics.KSQL_INTERNAL_TOPIC_PREFIX + "pull-query-result-cache",
+        Collections.singletonMap("ksql_service_id", "service-id")
+    );
+    return (Double) metrics.metric(metricName).metricValue();
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.physical.scalablepush;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.confluent.ksql.execution.streams.materialization.TableRow;
+import java.util.function.LongConsumer;
+import java.util.function.UnaryOperator;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CatchupBufferTest {
+
+  private static final LongConsumer NO_OP = offset -> { };
+
+  @Mock
+  private TableRow row1;
+  @Mock
+  private TableRow row2;
+  @Mock
+  private TableRow row3;
+  @Mock
+  private TableRow copy;
+  @Mock
+  private UnaryOperator<TableRow> copier;
+  @Mock
+  private LongConsumer onAppended;
+
+  @Test
+  public void shouldNumberRowsPerPartition() {
+    // Given:
+    final CatchupBuffer buffer = new CatchupBuffer(10, copier);
+
+    // When:
+    final long first = buffer.append(0, row1, NO_OP);
+    final long other = buffer.append(1, row2, NO_OP);
+    final long second = buffer.append(0, row3, NO_OP);
+
+    // Then:
+    assertThat(first, is(0L));
+    assertThat(other, is(0L));
+    assertThat(second, is(1L));
+    assertThat(buffer.startOffset(0), is(0L));
+    assertThat(buffer.endOffset(0), is(2L));
+    assertThat(buffer.endOffset(2), is(0L));
+  }
+
+  @Test
+  public void shouldPassOffsetOfAppendedRow() {
+    // Given:
+    final CatchupBuffer buffer = new CatchupBuffer(10, copier);
+    buffer.append(0, row1, NO_OP);
+
+    // When:
+    buffer.append(0, row2, onAppended);
+
+    // Then:
+    verify(onAppended).accept(1L);
+  }
+
+  @Test
+  public void shouldReturnCopies() {
+    // Given:
+    final CatchupBuffer buffer = new CatchupBuffer(10, copier);
+    buffer.append(0, row1, NO_OP);
+    when(copier.apply(row1)).thenReturn(copy);
+
+    // When:
+    final TableRow row = buffer.get(0, 0);
+
+    // Then:
+    assertThat(row, is(copy));
+  }
+
+  @Test
+  public void shouldEvictOldestRows() {
+    // Given:
+    final CatchupBuffer buffer = new CatchupBuffer(2, UnaryOperator.identity());
+    buffer.append(0, row1, NO_OP);
+    buffer.append(0, row2, NO_OP);
+
+    // When:
+    buffer.append(0, row3, NO_OP);
+
+    // Then:
+    assertThat(buffer.startOffset(0), is(1L));
+    assertThat(buffer.endOffset(0), is(3L));
+    assertThat(buffer.get(0, 1), is(row2));
+    assertThat(buffer.get(0, 2), is(row3));
+  }
+
+  @Test
+  public void shouldThrowOnEvictedOffset() {
+    // Given:
+    final CatchupBuffer buffer = new CatchupBuffer(1, UnaryOperator.identity());
+    buffer.append(0, row1, NO_OP);
+    buffer.append(0, row2, NO_OP);
+
+    // When:
+    final Exception e = assertThrows(
+        IllegalArgumentException.class,
+        () -> buffer.get(0, 0)
+    );
+
+    // Then:
+    assertThat(e.getMessage(), containsString("Offset 0 of partition 0 is not buffered"));
+  }
+}
@@ -8,6 +8,7 @@ import static org.mockito.Mockito.verify;
 
 import io.confluent.ksql.execution.streams.materialization.TableRow;
 import io.confluent.ksql.query.QueryId;
+import java.util.function.UnaryOperator;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -63,4 +64,111 @@ public class ProcessingQueueTest {
     assertThat(queue.poll(), nullValue());
     assertThat(queue.hasDroppedRows(), is(true));
   }
+
+  @Test
+  public void shouldCatchUpFromBufferInsteadOfDropping() {
+    // Given:
+    final CatchupBuffer buffer = new CatchupBuffer(10, UnaryOperator.identity());
+    final ProcessingQueue queue = new ProcessingQueue(new QueryId("a"), 2);
+    queue.setCatchupBuffer(buffer);
+    queue.setNewRowCallback(runnable);
+
+    // When:
+    assertThat(offer(buffer, queue, 0, row1), is(true));
+    assertThat(offer(buffer, queue, 0, row2), is(true));
+    assertThat(offer(buffer, queue, 0, row3), is(false));
+
+    // Then:
+    verify(runnable, times(3)).run();
+    assertThat(queue.poll(), is(row1));
+    assertThat(queue.poll(), is(row2));
+    assertThat(queue.poll(), is(row3));
+    assertThat(queue.poll(), nullValue());
+    assertThat(queue.hasDroppedRows(), is(false));
+  }
+
+  @Test
+  public void shouldOnlyWakeOnceWhenFallingBehind() {
+    // Given:
+    final CatchupBuffer buffer = new CatchupBuffer(10, UnaryOperator.identity());
+    final ProcessingQueue queue = new ProcessingQueue(new QueryId("a"), 1);
+    queue.setCatchupBuffer(buffer);
+    queue.setNewRowCallback(runnable);
+    offer(buffer, queue, 0, row1);
+
+    // When:
+    offer(buffer, queue, 0, row2);
+    offer(buffer, queue, 0, row3);
+
+    // Then:
+    verify(runnable, times(2)).run();
+  }
+
+  @Test
+  public void shouldOnlyCatchUpOnPartitionsBehind() {
+    // Given:
+    final CatchupBuffer buffer = new CatchupBuffer(10, UnaryOperator.identity());
+    final ProcessingQueue queue = new ProcessingQueue(new QueryId("a"), 1);
+    queue.setCatchupBuffer(buffer);
+    offer(buffer, queue, 0, row1);
+    offer(buffer, queue, 0, row2);
+    assertThat(queue.poll(), is(row1));
+
+    // When:
+    final boolean offered = offer(buffer, queue, 1, row3);
+
+    // Then:
+    assertThat(offered, is(true));
+    assertThat(queue.poll(), is(row3));
+    assertThat(queue.poll(), is(row2));
+    assertThat(queue.poll(), nullValue());
+  }
+
+  @Test
+  public void shouldTakeRowsAgainOnceCaughtUp() {
+    // Given:
+    final CatchupBuffer buffer = new CatchupBuffer(10, UnaryOperator.identity());
+    final ProcessingQueue queue = new ProcessingQueue(new QueryId("a"), 1);
+    queue.setCatchupBuffer(buffer);
+    offer(buffer, queue, 0, row1);
+    offer(buffer, queue, 0, row2);
+    assertThat(queue.poll(), is(row1));
+    assertThat(queue.poll(), is(row2));
+
+    // When:
+    final boolean offered = offer(buffer, queue, 0, row3);
+
+    // Then:
+    assertThat(offered, is(true));
+    assertThat(queue.poll(), is(row3));
+  }
+
+  @Test
+  public void shouldDropRowsEvictedFromBuffer() {
+    // Given:
+    final CatchupBuffer buffer = new CatchupBuffer(1, UnaryOperator.identity());
+    final ProcessingQueue queue = new ProcessingQueue(new QueryId("a"), 1);
+    queue.setCatchupBuffer(buffer);
+    offer(buffer, queue, 0, row1);
+    offer(buffer, queue, 0, row2);
+    offer(buffer, queue, 0, row3);
+
+    // When:
+    assertThat(queue.poll(), is(row1));
+    assertThat(queue.poll(), is(row3));
+
+    // Then:
+    assertThat(queue.hasDroppedRows(), is(true));
+  }
+
+  private static boolean offer(
+      final CatchupBuffer buffer,
+      final ProcessingQueue queue,
+      final int partition,
+      final TableRow row
+  ) {
+    final boolean[] offered = new boolean[1];
+    buffer.append(partition, row, offset -> offered[0] = queue.offer(partition, offset, row));
+    return offered[0];
+  }
 }
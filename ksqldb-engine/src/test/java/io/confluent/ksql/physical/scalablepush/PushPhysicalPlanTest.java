@@ -4,10 +4,13 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.confluent.ksql.internal.ScalablePushQueryMetrics;
 import io.confluent.ksql.physical.common.operators.AbstractPhysicalOperator;
 import io.confluent.ksql.physical.scalablepush.operators.PushDataSourceOperator;
 import io.confluent.ksql.query.QueryId;
@@ -17,6 +20,7 @@ import io.vertx.core.Context;
 import io.vertx.core.Vertx;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -44,6 +48,8 @@ public class PushPhysicalPlanTest {
   private ScalablePushRegistry scalablePushRegistry;
   @Mock
   private PushDataSourceOperator pushDataSourceOperator;
+  @Mock
+  private ScalablePushQueryMetrics scalablePushQueryMetrics;
   @Captor
   private ArgumentCaptor<Runnable> runnableCaptor;
 
@@ -91,6 +97,34 @@ public class PushPhysicalPlanTest {
     }
   }
 
+  @Test
+  public void shouldRecordRowLatency() throws InterruptedException {
+    final PushPhysicalPlan pushPhysicalPlan = new PushPhysicalPlan(root, logicalSchema, queryId,
+        scalablePushRegistry, pushDataSourceOperator, context);
+    doNothing().when(pushDataSourceOperator).setNewRowCallback(runnableCaptor.capture());
+    when(pushDataSourceOperator.droppedRows()).thenReturn(false);
+    when(pushDataSourceOperator.getLastRowTime()).thenReturn(1000L, 2000L);
+
+    final BufferedPublisher<List<?>> publisher = pushPhysicalPlan.execute(
+        Optional.of(scalablePushQueryMetrics));
+    final TestSubscriber<List<?>> subscriber = new TestSubscriber<>();
+    publisher.subscribe(subscriber);
+
+    context.owner().setPeriodic(50, timerId -> {
+      if (runnableCaptor.getValue() == null) {
+        return;
+      }
+      when(root.next()).thenReturn(ROW1, ROW2, null);
+
+      runnableCaptor.getValue().run();
+
+      context.owner().cancelTimer(timerId);
+    });
+
+    verify(scalablePushQueryMetrics, timeout(10000)).recordRowLatency(1000L);
+    verify(scalablePushQueryMetrics, timeout(10000)).recordRowLatency(2000L);
+  }
+
   @Test
   public void shouldStopOnDroppedRows() throws InterruptedException {
     final PushPhysicalPlan pushPhysicalPlan = new PushPhysicalPlan(root, logicalSchema, queryId,
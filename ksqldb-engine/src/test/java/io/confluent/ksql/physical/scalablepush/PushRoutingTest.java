@@ -127,7 +127,7 @@ public class PushRoutingTest {
     final PushRouting routing = new PushRouting();
     BufferedPublisher<List<?>> localPublisher = new BufferedPublisher<>(context);
     BufferedPublisher<StreamedRow> remotePublisher = new BufferedPublisher<>(context);
-    when(pushPhysicalPlan.execute()).thenReturn(localPublisher);
+    when(pushPhysicalPlan.execute(any())).thenReturn(localPublisher);
     when(simpleKsqlClient.makeQueryRequestStreamed(any(), any(), any(), any()))
         .thenReturn(createFuture(RestResponse.successful(200, remotePublisher)));
 
@@ -165,7 +165,7 @@ public class PushRoutingTest {
     when(pushRoutingOptions.getIsSkipForwardRequest()).thenReturn(true);
     final PushRouting routing = new PushRouting();
     BufferedPublisher<List<?>> localPublisher = new BufferedPublisher<>(context);
-    when(pushPhysicalPlan.execute()).thenReturn(localPublisher);
+    when(pushPhysicalPlan.execute(any())).thenReturn(localPublisher);
 
     // When:
     CompletableFuture<PushConnectionsHandle> future =
@@ -197,7 +197,7 @@ public class PushRoutingTest {
     // Given:
     when(pushRoutingOptions.getIsSkipForwardRequest()).thenReturn(true);
     final PushRouting routing = new PushRouting();
-    when(pushPhysicalPlan.execute()).thenThrow(new RuntimeException("Error!"));
+    when(pushPhysicalPlan.execute(any())).thenThrow(new RuntimeException("Error!"));
 
     // When:
     CompletableFuture<PushConnectionsHandle> future =
@@ -252,7 +252,7 @@ public class PushRoutingTest {
     when(pushRoutingOptions.getIsSkipForwardRequest()).thenReturn(true);
     final PushRouting routing = new PushRouting();
     BufferedPublisher<List<?>> localPublisher = new BufferedPublisher<>(context);
-    when(pushPhysicalPlan.execute()).thenReturn(localPublisher);
+    when(pushPhysicalPlan.execute(any())).thenReturn(localPublisher);
 
     // When:
     CompletableFuture<PushConnectionsHandle> future =
@@ -28,6 +28,7 @@ import org.apache.kafka.streams.kstream.Windowed;
 import org.apache.kafka.streams.processor.api.Processor;
 import org.apache.kafka.streams.processor.api.ProcessorContext;
 import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.processor.api.RecordMetadata;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -63,6 +64,8 @@ public class ScalablePushRegistryTest {
   private Windowed<GenericKey> windowed;
   @Mock
   private Window window;
+  @Mock
+  private RecordMetadata recordMetadata;
 
   @Before
   public void setUp() {
@@ -121,6 +124,32 @@ public class ScalablePushRegistryTest {
     assertThat(registry.numRegistered(), is(0));
   }
 
+  @Test
+  public void shouldBufferRowsAndOfferWithOffsets() {
+    // Given:
+    ScalablePushRegistry registry = new ScalablePushRegistry(locator, SCHEMA, false, false, 10);
+    when(record.key()).thenReturn(genericKey);
+    when(record.value()).thenReturn(genericRow);
+    when(record.timestamp()).thenReturn(TIMESTAMP);
+    when(genericKey.values()).thenAnswer(a -> KEY);
+    when(genericRow.values()).thenAnswer(a -> VALUE);
+    when(processorContext.recordMetadata()).thenReturn(Optional.of(recordMetadata));
+    when(recordMetadata.partition()).thenReturn(3);
+
+    // When:
+    registry.register(processingQueue);
+    final Processor<Object, GenericRow, Void, Void> processor = registry.get();
+    processor.init(processorContext);
+    processor.process(record);
+    processor.process(record);
+
+    // Then:
+    final Row row = Row.of(SCHEMA, GenericKey.fromList(KEY), GenericRow.fromList(VALUE), TIMESTAMP);
+    verify(processingQueue).setCatchupBuffer(any());
+    verify(processingQueue).offer(3, 0L, row);
+    verify(processingQueue).offer(3, 1L, row);
+  }
+
   @Test
   public void shouldCatchException() {
     // Given:
@@ -146,7 +175,7 @@ public class ScalablePushRegistryTest {
     // When:
     final Optional<ScalablePushRegistry> registry =
         ScalablePushRegistry.create(SCHEMA, Collections::emptyList, false, false,
-            ImmutableMap.of(StreamsConfig.APPLICATION_SERVER_CONFIG, "http://localhost:8088"));
+            ImmutableMap.of(StreamsConfig.APPLICATION_SERVER_CONFIG, "http://localhost:8088"), 0);
 
     // Then:
     assertThat(registry.isPresent(), is(true));
@@ -158,7 +187,7 @@ public class ScalablePushRegistryTest {
     final Exception e = assertThrows(
         IllegalArgumentException.class,
         () -> ScalablePushRegistry.create(SCHEMA, Collections::emptyList, false, false,
-            ImmutableMap.of(StreamsConfig.APPLICATION_SERVER_CONFIG, 123))
+            ImmutableMap.of(StreamsConfig.APPLICATION_SERVER_CONFIG, 123), 0)
     );
 
     // Then
@@ -171,7 +200,7 @@ public class ScalablePushRegistryTest {
     final Exception e = assertThrows(
         IllegalArgumentException.class,
         () -> ScalablePushRegistry.create(SCHEMA, Collections::emptyList, false, false,
-            ImmutableMap.of(StreamsConfig.APPLICATION_SERVER_CONFIG, "abc"))
+            ImmutableMap.of(StreamsConfig.APPLICATION_SERVER_CONFIG, "abc"), 0)
     );
 
     // Then
@@ -183,7 +212,7 @@ public class ScalablePushRegistryTest {
     // When
     final Optional<ScalablePushRegistry> registry =
         ScalablePushRegistry.create(SCHEMA, Collections::emptyList, false, false,
-            ImmutableMap.of());
+            ImmutableMap.of(), 0);
 
     // Then
     assertThat(registry.isPresent(), is(false));
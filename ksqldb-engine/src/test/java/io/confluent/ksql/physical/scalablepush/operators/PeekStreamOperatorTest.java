@@ -5,6 +5,7 @@ import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import io.confluent.ksql.execution.streams.materialization.TableRow;
 import io.confluent.ksql.physical.scalablepush.ProcessingQueue;
@@ -57,4 +58,25 @@ public class PeekStreamOperatorTest {
     locator.close();
     verify(registry, times(1)).unregister(processingQueue);
   }
+
+  @Test
+  public void shouldTrackTimeOfLastRow() {
+    // Given:
+    final PeekStreamOperator locator = new PeekStreamOperator(registry, dataSourceNode, QUERY_ID);
+    locator.open();
+    verify(registry).register(processingQueueCaptor.capture());
+    final ProcessingQueue processingQueue = processingQueueCaptor.getValue();
+    when(row1.rowTime()).thenReturn(1000L);
+    when(row2.rowTime()).thenReturn(2000L);
+    processingQueue.offer(row1);
+    processingQueue.offer(row2);
+
+    // When:
+    locator.next();
+    locator.next();
+    locator.next();
+
+    // Then:
+    assertThat(locator.getLastRowTime(), is(2000L));
+  }
 }
@@ -5,6 +5,7 @@ import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -80,6 +81,21 @@ public class PullQueryQueueTest {
     verify(queuedCallback, times(3)).run();
   }
 
+  @Test
+  public void shouldCallRowListenersWithQueuedRows() {
+    // Given:
+    final List<PullQueryRow> captured = new ArrayList<>();
+    queue.addRowListener(captured::add);
+
+    // When:
+    queue.acceptRow(VAL_ONE);
+    queue.close();
+    queue.acceptRow(VAL_TWO);
+
+    // Then:
+    assertThat(captured, contains(VAL_ONE));
+  }
+
   @Test
   public void shouldPoll() throws Exception {
     // Given:
@@ -127,6 +143,52 @@ public class PullQueryQueueTest {
     verify(queuedCallback, times(QUEUE_SIZE)).run();
   }
 
+  @Test
+  public void shouldRunCapacityCallbackImmediatelyIfQueueHasCapacity() {
+    // Given:
+    final Runnable callback = mock(Runnable.class);
+
+    // When:
+    queue.onCapacity(callback);
+
+    // Then:
+    verify(callback).run();
+  }
+
+  @Test
+  public void shouldRunCapacityCallbackOnceConsumerPolls() throws Exception {
+    // Given:
+    IntStream.range(0, QUEUE_SIZE)
+        .forEach(idx -> queue.acceptRow(VAL_ONE));
+    final Runnable callback = mock(Runnable.class);
+    queue.onCapacity(callback);
+    verify(callback, never()).run();
+    assertThat(queue.hasCapacity(), is(false));
+
+    // When:
+    queue.pollRow(1, TimeUnit.SECONDS);
+    queue.pollRow(1, TimeUnit.SECONDS);
+
+    // Then:
+    verify(callback, times(1)).run();
+    assertThat(queue.hasCapacity(), is(true));
+  }
+
+  @Test
+  public void shouldRunCapacityCallbackOnClose() {
+    // Given:
+    IntStream.range(0, QUEUE_SIZE)
+        .forEach(idx -> queue.acceptRow(VAL_ONE));
+    final Runnable callback = mock(Runnable.class);
+    queue.onCapacity(callback);
+
+    // When:
+    queue.close();
+
+    // Then:
+    verify(callback).run();
+  }
+
   private void givenWillCloseQueueAsync() {
     executorService = Executors.newSingleThreadScheduledExecutor();
     executorService.schedule(queue::close, 200, TimeUnit.MILLISECONDS);
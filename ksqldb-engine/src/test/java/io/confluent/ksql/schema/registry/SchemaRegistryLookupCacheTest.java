@@ -0,0 +1,284 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.schema.registry;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import io.confluent.ksql.util.ReservedInternalTopics;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Metrics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SchemaRegistryLookupCacheTest {
+
+  private static final String SUBJECT = "subject-value";
+  private static final long TTL_MS = 1000L;
+  private static final SchemaMetadata METADATA = new SchemaMetadata(1, 1, "schema");
+
+  @Mock
+  private SchemaRegistryClient delegate;
+  @Mock
+  private SchemaRegistryClient otherDelegate;
+  @Mock
+  private ParsedSchema schema;
+
+  private final FakeTicker ticker = new FakeTicker();
+  private Metrics metrics;
+  private SchemaRegistryLookupCache cache;
+
+  @Before
+  public void setUp() {
+    metrics = new Metrics();
+    cache = new SchemaRegistryLookupCache(TTL_MS, ticker, metrics, "service-id");
+  }
+
+  @After
+  public void tearDown() {
+    metrics.close();
+  }
+
+  @Test
+  public void shouldServeLatestSchemaFromCache() throws Exception {
+    // Given:
+    when(delegate.getLatestSchemaMetadata(SUBJECT)).thenReturn(METADATA);
+    final SchemaRegistryClient client = cache.wrap(delegate);
+    client.getLatestSchemaMetadata(SUBJECT);
+
+    // When:
+    final SchemaMetadata result = client.getLatestSchemaMetadata(SUBJECT);
+
+    // Then:
+    assertThat(result, is(sameInstance(METADATA)));
+    verify(delegate, times(1)).getLatestSchemaMetadata(SUBJECT);
+    assertThat(metricValue("hit-total"), is(1.0));
+    assertThat(metricValue("miss-total"), is(1.0));
+  }
+
+  @Test
+  public void shouldShareCacheBetweenClients() throws Exception {
+    // Given:
+    when(delegate.getSchemaBySubjectAndId(SUBJECT, 1)).thenReturn(schema);
+    cache.wrap(delegate).getSchemaBySubjectAndId(SUBJECT, 1);
+
+    // When:
+    final ParsedSchema result = cache.wrap(otherDelegate).getSchemaBySubjectAndId(SUBJECT, 1);
+
+    // Then:
+    assertThat(result, is(sameInstance(schema)));
+    verify(otherDelegate, never()).getSchemaBySubjectAndId(SUBJECT, 1);
+  }
+
+  @Test
+  public void shouldExpireLatestSchema() throws Exception {
+    // Given:
+    when(delegate.getLatestSchemaMetadata(SUBJECT)).thenReturn(METADATA);
+    final SchemaRegistryClient client = cache.wrap(delegate);
+    client.getLatestSchemaMetadata(SUBJECT);
+
+    // When:
+    ticker.advance(TTL_MS);
+    client.getLatestSchemaMetadata(SUBJECT);
+
+    // Then:
+    verify(delegate, times(2)).getLatestSchemaMetadata(SUBJECT);
+  }
+
+  @Test
+  public void shouldNotExpireSchemaById() throws Exception {
+    // Given:
+    when(delegate.getSchemaById(1)).thenReturn(schema);
+    final SchemaRegistryClient client = cache.wrap(delegate);
+    client.getSchemaById(1);
+
+    // When:
+    ticker.advance(TTL_MS);
+    client.getSchemaById(1);
+
+    // Then:
+    verify(delegate, times(1)).getSchemaById(1);
+  }
+
+  @Test
+  public void shouldRefreshLatestSchemaOnRegister() throws Exception {
+    // Given:
+    when(delegate.getLatestSchemaMetadata(SUBJECT)).thenReturn(METADATA);
+    final SchemaRegistryClient client = cache.wrap(delegate);
+    client.getLatestSchemaMetadata(SUBJECT);
+
+    // When:
+    client.register(SUBJECT, schema);
+    client.getLatestSchemaMetadata(SUBJECT);
+
+    // Then:
+    verify(delegate).register(SUBJECT, schema);
+    verify(delegate, times(2)).getLatestSchemaMetadata(SUBJECT);
+  }
+
+  @Test
+  public void shouldNotRefreshLatestSchemaOnRegisteringLatest() throws Exception {
+    // Given:
+    when(delegate.getLatestSchemaMetadata(SUBJECT)).thenReturn(METADATA);
+    when(delegate.register(SUBJECT, schema)).thenReturn(METADATA.getId());
+    final SchemaRegistryClient client = cache.wrap(delegate);
+    client.getLatestSchemaMetadata(SUBJECT);
+
+    // When:
+    final int id = client.register(SUBJECT, schema);
+    client.getLatestSchemaMetadata(SUBJECT);
+
+    // Then:
+    assertThat(id, is(METADATA.getId()));
+    verify(delegate, times(1)).getLatestSchemaMetadata(SUBJECT);
+  }
+
+  @Test
+  public void shouldRefreshLatestSchemaOnDelete() throws Exception {
+    // Given:
+    when(delegate.getLatestSchemaMetadata(SUBJECT)).thenReturn(METADATA);
+    final SchemaRegistryClient client = cache.wrap(delegate);
+    client.getLatestSchemaMetadata(SUBJECT);
+
+    // When:
+    client.deleteSubject(SUBJECT);
+    client.getLatestSchemaMetadata(SUBJECT);
+
+    // Then:
+    verify(delegate, times(2)).getLatestSchemaMetadata(SUBJECT);
+  }
+
+  @Test
+  public void shouldNotCacheFailedLookups() throws Exception {
+    // Given:
+    final RestClientException error = new RestClientException("not found", 404, 40401);
+    when(delegate.getLatestSchemaMetadata(SUBJECT)).thenThrow(error);
+    final SchemaRegistryClient client = cache.wrap(delegate);
+
+    // When:
+    final RestClientException e = assertThrows(
+        RestClientException.class,
+        () -> client.getLatestSchemaMetadata(SUBJECT)
+    );
+    assertThrows(RestClientException.class, () -> client.getLatestSchemaMetadata(SUBJECT));
+
+    // Then:
+    assertThat(e, is(sameInstance(error)));
+    verify(delegate, times(2)).getLatestSchemaMetadata(SUBJECT);
+  }
+
+  @Test
+  public void shouldCoalesceConcurrentLookups() throws Exception {
+    // Given:
+    final CountDownLatch loading = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    when(delegate.getLatestSchemaMetadata(SUBJECT)).thenAnswer(inv -> {
+      loading.countDown();
+      release.await(30, TimeUnit.SECONDS);
+      return METADATA;
+    });
+    final SchemaRegistryClient client = cache.wrap(delegate);
+
+    final CompletableFuture<SchemaMetadata> first = new CompletableFuture<>();
+    final CompletableFuture<SchemaMetadata> second = new CompletableFuture<>();
+    lookupAsync(client, first).start();
+    loading.await(30, TimeUnit.SECONDS);
+
+    // When:
+    final Thread waiter = lookupAsync(client, second);
+    waiter.start();
+    while (waiter.getState() != Thread.State.WAITING) {
+      Thread.sleep(1);
+    }
+    release.countDown();
+
+    // Then:
+    assertThat(first.get(30, TimeUnit.SECONDS), is(sameInstance(METADATA)));
+    assertThat(second.get(30, TimeUnit.SECONDS), is(sameInstance(METADATA)));
+    verify(delegate, times(1)).getLatestSchemaMetadata(SUBJECT);
+    assertThat(metricValue("miss-total"), is(1.0));
+    assertThat(metricValue("coalesced-total"), is(1.0));
+  }
+
+  @Test
+  public void shouldForwardOtherMethods() throws Exception {
+    // Given:
+    when(delegate.getAllSubjects()).thenReturn(ImmutableList.of(SUBJECT));
+
+    // When:
+    final Object result = cache.wrap(delegate).getAllSubjects();
+
+    // Then:
+    assertThat(result, is(ImmutableList.of(SUBJECT)));
+  }
+
+  private static Thread lookupAsync(
+      final SchemaRegistryClient client,
+      final CompletableFuture<SchemaMetadata> result
+  ) {
+    return new Thread(() -> {
+      try {
+        result.complete(client.getLatestSchemaMetadata(SUBJECT));
+      } catch (final Exception e) {
+        result.completeExceptionally(e);
+      }
+    });
+  }
+
+  private double metricValue(final String name) {
+    final MetricName metricName = metrics.metricName(
+        name,
+        ReservedInternalTopics.KSQL_INTERNAL_TOPIC_PREFIX + "schema-registry-lookup-cache",
+        Collections.singletonMap("ksql_service_id", "service-id")
+    );
+    return (Double) metrics.metric(metricName).metricValue();
+  }
+
+  private static final class FakeTicker extends Ticker {
+
+    private long nanos;
+
+    void advance(final long millis) {
+      nanos += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    @Override
+    public long read() {
+      return nanos;
+    }
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.execution.plan.Formats;
+import io.confluent.ksql.serde.binary.KsqlBinaryFormat;
+import io.confluent.ksql.serde.json.JsonFormat;
+import io.confluent.ksql.serde.kafka.KafkaFormat;
+import io.confluent.ksql.serde.none.NoneFormat;
+import io.confluent.ksql.util.KsqlConfig;
+import org.junit.Test;
+
+public class InternalFormatsTest {
+
+  private static final KeyFormat KEY_FORMAT = KeyFormat.nonWindowed(
+      FormatInfo.of(KafkaFormat.NAME),
+      SerdeFeatures.of(SerdeFeature.UNWRAP_SINGLES)
+  );
+
+  private static final FormatInfo VALUE_FORMAT = FormatInfo.of(JsonFormat.NAME);
+
+  @Test
+  public void shouldUseSourceValueFormatByDefault() {
+    // When:
+    final Formats formats = InternalFormats.of(
+        KEY_FORMAT,
+        VALUE_FORMAT,
+        new KsqlConfig(ImmutableMap.of())
+    );
+
+    // Then:
+    assertThat(formats.getKeyFormat(), is(KEY_FORMAT.getFormatInfo()));
+    assertThat(formats.getKeyFeatures(), is(KEY_FORMAT.getFeatures()));
+    assertThat(formats.getValueFormat(), is(VALUE_FORMAT));
+    assertThat(formats.getValueFeatures(), is(SerdeFeatures.of()));
+  }
+
+  @Test
+  public void shouldUseBinaryValueFormatIfEnabled() {
+    // When:
+    final Formats formats = InternalFormats.of(
+        KEY_FORMAT,
+        VALUE_FORMAT,
+        new KsqlConfig(ImmutableMap.of(
+            KsqlConfig.KSQL_INTERNAL_BINARY_VALUE_FORMAT_ENABLED, true
+        ))
+    );
+
+    // Then:
+    assertThat(formats.getKeyFormat(), is(KEY_FORMAT.getFormatInfo()));
+    assertThat(formats.getValueFormat(), is(FormatInfo.of(KsqlBinaryFormat.NAME)));
+    assertThat(formats.getValueFeatures(), is(SerdeFeatures.of()));
+  }
+
+  @Test
+  public void shouldThrowOnNoneKeyFormat() {
+    // Given:
+    final KeyFormat keyFormat = KeyFormat.nonWindowed(
+        FormatInfo.of(NoneFormat.NAME),
+        SerdeFeatures.of()
+    );
+
+    // When:
+    final Exception e = assertThrows(
+        IllegalArgumentException.class,
+        () -> InternalFormats.of(keyFormat, VALUE_FORMAT)
+    );
+
+    // Then:
+    assertThat(e.getMessage(), containsString("NONE can not be used for internal topics"));
+  }
+}
@@ -166,6 +166,24 @@ public class SerdeFeaturesFactoryTest {
     assertThat(result.findAny(SerdeFeatures.WRAPPING_FEATURES), is(Optional.empty()));
   }
 
+  @Test
+  public void shouldThrowIfValueFormatIsInternalOnly() {
+    // When:
+    final Exception e = assertThrows(
+        KsqlException.class,
+        () -> SerdeFeaturesFactory.buildValueFeatures(
+            MULTI_FIELD_SCHEMA,
+            FormatFactory.KSQL_BINARY,
+            SerdeFeatures.of(),
+            ksqlConfig
+        )
+    );
+
+    // Then:
+    assertThat(e.getMessage(),
+        containsString("The 'KSQL_BINARY' format can only be used for internal topics"));
+  }
+
   @Test
   public void shouldThrowIfWrapSingleValuePresentForMultiField() {
     // When:
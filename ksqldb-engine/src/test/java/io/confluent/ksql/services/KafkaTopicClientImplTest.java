@@ -34,6 +34,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.base.Ticker;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
@@ -52,6 +53,7 @@ import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -93,6 +95,7 @@ import org.mockito.stubbing.Answer;
 public class KafkaTopicClientImplTest {
 
   private static final Node A_NODE = new Node(1, "host", 9092);
+  private static final long METADATA_CACHE_TTL_MS = 1000L;
 
   @Mock
   private AdminClient adminClient;
@@ -101,6 +104,7 @@ public class KafkaTopicClientImplTest {
   private final Map<ConfigResource, Config> topicConfigs = new HashMap<>();
 
   private KafkaTopicClient kafkaTopicClient;
+  private final FakeTicker ticker = new FakeTicker();
 
   @SuppressWarnings({"deprecation", "unchecked"})
   @Before
@@ -792,6 +796,124 @@ public class KafkaTopicClientImplTest {
     verify(adminClient, times(2)).incrementalAlterConfigs(any());
   }
 
+  @Test
+  public void shouldServeCachedTopicDescriptions() {
+    // Given:
+    givenTopicExists("topicA", 1, 1);
+    final KafkaTopicClient cachingClient = givenCachingClient();
+    cachingClient.describeTopics(ImmutableList.of("topicA"));
+
+    // When:
+    final boolean exists = cachingClient.isTopicExists("topicA");
+    final TopicDescription description = cachingClient.describeTopic("topicA");
+
+    // Then:
+    assertThat(exists, is(true));
+    assertThat(description.name(), is("topicA"));
+    verify(adminClient, times(1)).describeTopics(any(), any());
+  }
+
+  @Test
+  public void shouldOnlyDescribeUncachedTopics() {
+    // Given:
+    givenTopicExists("topicA", 1, 1);
+    givenTopicExists("topicB", 1, 1);
+    final KafkaTopicClient cachingClient = givenCachingClient();
+    cachingClient.isTopicExists("topicA");
+
+    // When:
+    final Map<String, TopicDescription> descriptions =
+        cachingClient.describeTopics(ImmutableList.of("topicA", "topicB"));
+
+    // Then:
+    assertThat(descriptions.keySet(), is(ImmutableSet.of("topicA", "topicB")));
+    verify(adminClient).describeTopics(eq(ImmutableSet.of("topicB")), any());
+  }
+
+  @Test
+  public void shouldExpireCachedTopicDescriptions() {
+    // Given:
+    givenTopicExists("topicA", 1, 1);
+    final KafkaTopicClient cachingClient = givenCachingClient();
+    cachingClient.describeTopics(ImmutableList.of("topicA"));
+
+    // When:
+    ticker.advance(METADATA_CACHE_TTL_MS);
+    cachingClient.describeTopics(ImmutableList.of("topicA"));
+
+    // Then:
+    verify(adminClient, times(2)).describeTopics(any(), any());
+  }
+
+  @Test
+  public void shouldNotCacheMissingTopics() {
+    // Given:
+    final KafkaTopicClient cachingClient = givenCachingClient();
+    cachingClient.isTopicExists("topicA");
+    givenTopicExists("topicA", 1, 1);
+
+    // When:
+    final boolean exists = cachingClient.isTopicExists("topicA");
+
+    // Then:
+    assertThat(exists, is(true));
+  }
+
+  @Test
+  public void shouldInvalidateCachedTopicOnDelete() {
+    // Given:
+    givenTopicExists("topicA", 1, 1);
+    final KafkaTopicClient cachingClient = givenCachingClient();
+    cachingClient.isTopicExists("topicA");
+
+    // When:
+    cachingClient.deleteTopics(ImmutableList.of("topicA"));
+    topicPartitionInfo.remove("topicA");
+
+    // Then:
+    assertThat(cachingClient.isTopicExists("topicA"), is(false));
+  }
+
+  @Test
+  public void shouldInvalidateTopicCachedWhileBeingDeleted() {
+    // Given:
+    givenTopicExists("topicA", 1, 1);
+    final KafkaTopicClient cachingClient = givenCachingClient();
+    when(adminClient.deleteTopics(any(Collection.class))).thenAnswer(inv -> {
+      // A concurrent lookup, before the topic is gone:
+      cachingClient.isTopicExists("topicA");
+      return deleteTopicsResult().answer(inv);
+    });
+
+    // When:
+    cachingClient.deleteTopics(ImmutableList.of("topicA"));
+    topicPartitionInfo.remove("topicA");
+
+    // Then:
+    assertThat(cachingClient.isTopicExists("topicA"), is(false));
+  }
+
+  @Test
+  public void shouldServeCachedTopicConfigUntilAltered() {
+    // Given:
+    givenTopicConfigs(
+        "fred",
+        overriddenConfigEntry(TopicConfig.RETENTION_MS_CONFIG, "12345"),
+        overriddenConfigEntry(CLEANUP_POLICY_CONFIG, CLEANUP_POLICY_DELETE)
+    );
+    final KafkaTopicClient cachingClient = givenCachingClient();
+    cachingClient.getTopicConfig("fred");
+    cachingClient.getTopicCleanupPolicy("fred");
+
+    // When:
+    cachingClient.addTopicConfig("fred", ImmutableMap.of(TopicConfig.RETENTION_MS_CONFIG, 1L));
+    cachingClient.getTopicConfig("fred");
+
+    // Then:
+    // once for the cached lookup, once to check for changes, once after the change:
+    verify(adminClient, times(3)).describeConfigs(any());
+  }
+
   @Test
   public void shouldNotListAllTopicsWhenCallingIsTopicExists() {
     // Given
@@ -846,6 +968,10 @@ public class KafkaTopicClientImplTest {
     return config;
   }
 
+  private KafkaTopicClient givenCachingClient() {
+    return new KafkaTopicClientImpl(() -> adminClient, METADATA_CACHE_TTL_MS, ticker);
+  }
+
   private void givenTopicExists(final String name, final int partitions, final int rf) {
 
     final List<Node> replicas = ImmutableList.copyOf(IntStream.range(0, rf)
@@ -1112,4 +1238,18 @@ public class KafkaTopicClientImplTest {
     return configs.entrySet().stream()
         .collect(Collectors.toMap(Entry::getKey, e -> e.getValue().toString()));
   }
+
+  private static final class FakeTicker extends Ticker {
+
+    private long nanos;
+
+    void advance(final long millis) {
+      nanos += TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    @Override
+    public long read() {
+      return nanos;
+    }
+  }
 }
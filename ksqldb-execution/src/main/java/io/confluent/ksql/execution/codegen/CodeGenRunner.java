@@ -21,14 +21,19 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableMap;
 import com.google.errorprone.annotations.Immutable;
 import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.codegen.helpers.InListEvaluator;
+import io.confluent.ksql.execution.codegen.helpers.InListSet;
+import io.confluent.ksql.execution.codegen.helpers.LikeMatcher;
 import io.confluent.ksql.execution.expression.tree.CreateArrayExpression;
 import io.confluent.ksql.execution.expression.tree.CreateMapExpression;
 import io.confluent.ksql.execution.expression.tree.CreateStructExpression;
 import io.confluent.ksql.execution.expression.tree.DereferenceExpression;
 import io.confluent.ksql.execution.expression.tree.Expression;
 import io.confluent.ksql.execution.expression.tree.FunctionCall;
+import io.confluent.ksql.execution.expression.tree.InPredicate;
 import io.confluent.ksql.execution.expression.tree.LambdaFunctionCall;
 import io.confluent.ksql.execution.expression.tree.LikePredicate;
+import io.confluent.ksql.execution.expression.tree.StringLiteral;
 import io.confluent.ksql.execution.expression.tree.SubscriptExpression;
 import io.confluent.ksql.execution.expression.tree.TraversalExpressionVisitor;
 import io.confluent.ksql.execution.expression.tree.UnqualifiedColumnReferenceExp;
@@ -39,6 +44,7 @@ import io.confluent.ksql.execution.util.FunctionArgumentsUtil.FunctionTypeInfo;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.function.KsqlScalarFunction;
 import io.confluent.ksql.function.UdfFactory;
+import io.confluent.ksql.function.udf.Kudf;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.schema.ksql.Column;
@@ -203,6 +209,21 @@ public class CodeGenRunner {
       this.spec = new CodeGenSpec.Builder();
     }
 
+    @Override
+    public Void visitInPredicate(
+        final InPredicate node,
+        final Context context
+    ) {
+      process(node.getValue(), context);
+      node.getValueList().getValues().forEach(v -> process(v, context));
+
+      final InPredicate preprocessed = InListEvaluator.preprocess(
+          node, expressionTypeManager, context.getLambdaSqlTypeMapping());
+      InListSet.from(preprocessed, expressionTypeManager, context.getLambdaSqlTypeMapping())
+          .ifPresent(set -> spec.addInListSet(node, set));
+      return null;
+    }
+
     @Override
     public Void visitLikePredicate(
         final LikePredicate node,
@@ -210,6 +231,15 @@ public class CodeGenRunner {
     ) {
       process(node.getValue(), context);
       process(node.getPattern(), context);
+
+      if (node.getPattern() instanceof StringLiteral) {
+        final String pattern = ((StringLiteral) node.getPattern()).getValue();
+        try {
+          spec.addLikeMatcher(node, LikeMatcher.compile(pattern, node.getEscape()));
+        } catch (final KsqlException e) {
+          // Invalid patterns are left to fail, and be logged, as each row is evaluated
+        }
+      }
       return null;
     }
 
@@ -230,10 +260,9 @@ public class CodeGenRunner {
       final List<ArgumentInfo> argumentInfos = argumentsAndContext.getArgumentInfos();
       final KsqlScalarFunction function = argumentsAndContext.getFunction();
 
-      spec.addFunction(
-          function.name(),
-          function.newInstance(ksqlConfig)
-      );
+      final Kudf kudf = function.newInstance(ksqlConfig);
+      kudf.prepare(FunctionArgumentsUtil.constantArguments(node));
+      spec.addFunction(function.name(), kudf);
       for (int i = 0; i < arguments.size(); i++) {
         process(arguments.get(i), new Context(
             argumentInfos.get(i).getLambdaSqlTypeMapping()));
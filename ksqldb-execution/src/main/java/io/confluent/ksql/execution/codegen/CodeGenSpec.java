@@ -23,8 +23,12 @@ import com.google.common.collect.ImmutableMap;
 import com.google.errorprone.annotations.Immutable;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.codegen.helpers.InListSet;
+import io.confluent.ksql.execution.codegen.helpers.LikeMatcher;
 import io.confluent.ksql.execution.expression.formatter.ExpressionFormatter;
 import io.confluent.ksql.execution.expression.tree.CreateStructExpression;
+import io.confluent.ksql.execution.expression.tree.InPredicate;
+import io.confluent.ksql.execution.expression.tree.LikePredicate;
 import io.confluent.ksql.function.udf.Kudf;
 import io.confluent.ksql.name.ColumnName;
 import io.confluent.ksql.name.FunctionName;
@@ -33,6 +37,7 @@ import io.confluent.ksql.util.KsqlException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import org.apache.kafka.connect.data.ConnectSchema;
 import org.apache.kafka.connect.data.Schema;
 
@@ -43,17 +48,23 @@ public final class CodeGenSpec {
   private final ImmutableMap<ColumnName, String> columnToCodeName;
   private final ImmutableListMultimap<FunctionName, String> functionToCodeName;
   private final ImmutableMap<CreateStructExpression, String> structToCodeName;
+  private final ImmutableMap<LikePredicate, String> likeToCodeName;
+  private final ImmutableMap<InPredicate, String> inListToCodeName;
 
   private CodeGenSpec(
       final ImmutableList<ArgumentSpec> arguments,
       final ImmutableMap<ColumnName, String> columnToCodeName,
       final ImmutableListMultimap<FunctionName, String> functionToCodeName,
-      final ImmutableMap<CreateStructExpression, String> structToCodeName
+      final ImmutableMap<CreateStructExpression, String> structToCodeName,
+      final ImmutableMap<LikePredicate, String> likeToCodeName,
+      final ImmutableMap<InPredicate, String> inListToCodeName
   ) {
     this.arguments = arguments;
     this.columnToCodeName = columnToCodeName;
     this.functionToCodeName = functionToCodeName;
     this.structToCodeName = structToCodeName;
+    this.likeToCodeName = likeToCodeName;
+    this.inListToCodeName = inListToCodeName;
   }
 
   public String[] argumentNames() {
@@ -97,6 +108,22 @@ public final class CodeGenSpec {
     return schemaName;
   }
 
+  /**
+   * @return the name of the precompiled matcher for the supplied LIKE predicate, if its pattern
+   *         is a literal.
+   */
+  public Optional<String> getLikeMatcherName(final LikePredicate likePredicate) {
+    return Optional.ofNullable(likeToCodeName.get(likePredicate));
+  }
+
+  /**
+   * @return the name of the precomputed set of values for the supplied IN predicate, if its
+   *         values are all literals of a supported type.
+   */
+  public Optional<String> getInListSetName(final InPredicate inPredicate) {
+    return Optional.ofNullable(inListToCodeName.get(inPredicate));
+  }
+
   static class Builder {
 
     private final ImmutableList.Builder<ArgumentSpec> argumentBuilder = ImmutableList.builder();
@@ -106,7 +133,11 @@ public final class CodeGenSpec {
     private final Map<CreateStructExpression, String> structToSchemaName =
             new HashMap<CreateStructExpression, String>();
     private int argumentCount = 0;
+    private final Map<LikePredicate, String> likeToMatcherName = new HashMap<>();
     private int structSchemaCount = 0;
+    private final Map<InPredicate, String> inListToSetName = new HashMap<>();
+    private int likeMatcherCount = 0;
+    private int inListSetCount = 0;
 
     void addParameter(
         final ColumnName columnName,
@@ -133,12 +164,32 @@ public final class CodeGenSpec {
       argumentBuilder.add(new SchemaArgumentSpec(structSchemaName, schema));
     }
 
+    void addLikeMatcher(final LikePredicate like, final LikeMatcher matcher) {
+      if (likeToMatcherName.containsKey(like)) {
+        return;
+      }
+      final String matcherName = CodeGenUtil.likeMatcherName(likeMatcherCount++);
+      likeToMatcherName.put(like, matcherName);
+      argumentBuilder.add(new LikeMatcherArgumentSpec(matcherName, matcher));
+    }
+
+    void addInListSet(final InPredicate in, final InListSet set) {
+      if (inListToSetName.containsKey(in)) {
+        return;
+      }
+      final String setName = CodeGenUtil.inListSetName(inListSetCount++);
+      inListToSetName.put(in, setName);
+      argumentBuilder.add(new InListSetArgumentSpec(setName, set));
+    }
+
     CodeGenSpec build() {
       return new CodeGenSpec(
           argumentBuilder.build(),
           ImmutableMap.copyOf(columnRefToName),
           functionNameBuilder.build(),
-          ImmutableMap.copyOf(structToSchemaName)
+          ImmutableMap.copyOf(structToSchemaName),
+          ImmutableMap.copyOf(likeToMatcherName),
+          ImmutableMap.copyOf(inListToSetName)
       );
     }
   }
@@ -268,4 +319,60 @@ public final class CodeGenSpec {
           + '}';
     }
   }
+
+  @Immutable
+  public static final class LikeMatcherArgumentSpec extends BaseArgumentSpec {
+
+    private final LikeMatcher matcher;
+
+    LikeMatcherArgumentSpec(
+        final String name,
+        final LikeMatcher matcher
+    ) {
+      super(name, LikeMatcher.class);
+      this.matcher = requireNonNull(matcher, "matcher");
+    }
+
+    @Override
+    public Object resolve(final GenericRow value) {
+      return matcher;
+    }
+
+    @Override
+    public String toString() {
+      return "LikeMatcherArgumentSpec{"
+          + "name='" + name() + '\''
+          + ", type=" + type()
+          + ", matcher=" + matcher
+          + '}';
+    }
+  }
+
+  @Immutable
+  public static final class InListSetArgumentSpec extends BaseArgumentSpec {
+
+    private final InListSet set;
+
+    InListSetArgumentSpec(
+        final String name,
+        final InListSet set
+    ) {
+      super(name, InListSet.class);
+      this.set = requireNonNull(set, "set");
+    }
+
+    @Override
+    public Object resolve(final GenericRow value) {
+      return set;
+    }
+
+    @Override
+    public String toString() {
+      return "InListSetArgumentSpec{"
+          + "name='" + name() + '\''
+          + ", type=" + type()
+          + ", set=" + set
+          + '}';
+    }
+  }
 }
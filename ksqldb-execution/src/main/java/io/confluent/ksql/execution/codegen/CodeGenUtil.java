@@ -21,6 +21,8 @@ public final class CodeGenUtil {
 
   private static final String PARAM_NAME_PREFIX = "var";
   private static final String SCHEMA_NAME_PREFIX = "schema";
+  private static final String LIKE_MATCHER_NAME_PREFIX = "likeMatcher";
+  private static final String IN_LIST_SET_NAME_PREFIX = "inListSet";
 
   private CodeGenUtil() {
   }
@@ -33,6 +35,14 @@ public final class CodeGenUtil {
     return SCHEMA_NAME_PREFIX + index;
   }
 
+  public static String likeMatcherName(final int index) {
+    return LIKE_MATCHER_NAME_PREFIX + index;
+  }
+
+  public static String inListSetName(final int index) {
+    return IN_LIST_SET_NAME_PREFIX + index;
+  }
+
   public static String functionName(final FunctionName fun, final int index) {
     return fun.text() + "_" + index;
   }
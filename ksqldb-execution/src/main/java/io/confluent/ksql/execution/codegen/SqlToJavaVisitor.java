@@ -116,13 +116,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.StringJoiner;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringEscapeUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.apache.kafka.connect.data.SchemaBuilder;
 import org.apache.kafka.connect.data.Struct;
 
@@ -216,6 +216,8 @@ public class SqlToJavaVisitor {
   private final Function<FunctionName, String> funNameToCodeName;
   private final Function<ColumnName, String> colRefToCodeName;
   private final Function<CreateStructExpression, String> structToCodeName;
+  private final Function<LikePredicate, Optional<String>> likeToCodeName;
+  private final Function<InPredicate, Optional<String>> inListToCodeName;
   private final KsqlConfig ksqlConfig;
 
   public static SqlToJavaVisitor of(
@@ -234,6 +236,8 @@ public class SqlToJavaVisitor {
           return spec.getUniqueNameForFunction(name, index);
         },
         spec::getStructSchemaName,
+        spec::getLikeMatcherName,
+        spec::getInListSetName,
         ksqlConfig);
   }
 
@@ -243,6 +247,8 @@ public class SqlToJavaVisitor {
       final Function<ColumnName, String> colRefToCodeName,
       final Function<FunctionName, String> funNameToCodeName,
       final Function<CreateStructExpression, String> structToCodeName,
+      final Function<LikePredicate, Optional<String>> likeToCodeName,
+      final Function<InPredicate, Optional<String>> inListToCodeName,
       final KsqlConfig ksqlConfig
   ) {
     this.expressionTypeManager = new ExpressionTypeManager(schema, functionRegistry);
@@ -251,6 +257,8 @@ public class SqlToJavaVisitor {
     this.colRefToCodeName = Objects.requireNonNull(colRefToCodeName, "colRefToCodeName");
     this.funNameToCodeName = Objects.requireNonNull(funNameToCodeName, "funNameToCodeName");
     this.structToCodeName = Objects.requireNonNull(structToCodeName, "structToCodeName");
+    this.likeToCodeName = Objects.requireNonNull(likeToCodeName, "likeToCodeName");
+    this.inListToCodeName = Objects.requireNonNull(inListToCodeName, "inListToCodeName");
     this.ksqlConfig = Objects.requireNonNull(ksqlConfig, "ksqlConfig");
   }
 
@@ -317,6 +325,14 @@ public class SqlToJavaVisitor {
 
       final Pair<String, SqlType> value = process(preprocessed.getValue(), context);
 
+      final Optional<String> setName = inListToCodeName.apply(inPredicate);
+      if (setName.isPresent()) {
+        return new Pair<>(
+            setName.get() + ".contains(" + value.getLeft() + ")",
+            SqlTypes.BOOLEAN
+        );
+      }
+
       final String values = preprocessed.getValueList().getValues().stream()
           .map(v -> process(v, context))
           .map(Pair::getLeft)
@@ -991,36 +1007,32 @@ public class SqlToJavaVisitor {
       final String resultSchemaString =
           SchemaConverters.sqlToJavaConverter().toJavaType(resultSchema).getCanonicalName();
 
-      final List<String> lazyWhenClause = whenClauses
-          .stream()
-          .map(processedWhenClause -> functionClassName + ".whenClause("
-              + buildSupplierCode(
-              "Boolean", processedWhenClause.whenProcessResult.getLeft())
-              + ", "
-              + buildSupplierCode(
-              resultSchemaString, processedWhenClause.thenProcessResult.getLeft())
-              + ")")
-          .collect(Collectors.toList());
-
       final String defaultValue = node.getDefaultValue().isPresent()
           ? process(node.getDefaultValue().get(), context).getLeft()
           : "null";
 
-      // ImmutableList.copyOf(Arrays.asList()) replaced ImmutableList.of() to avoid
-      // CASE expressions with 12+ conditions from breaking. Don't change it unless
-      // you are certain it won't break it. See https://github.com/confluentinc/ksql/issues/5707
-      final String codeString = "((" + resultSchemaString + ")"
-          + functionClassName + ".searchedCaseFunction(ImmutableList.copyOf(Arrays.asList( "
-          + StringUtils.join(lazyWhenClause, ", ") + ")),"
-          + buildSupplierCode(resultSchemaString, defaultValue)
-          + "))";
+      // The when clauses are emitted as a chain of conditionals, rather than as suppliers passed
+      // to SearchedCaseFunction, so that evaluating a row allocates nothing. Each result is only
+      // evaluated if its condition, and no earlier condition, holds:
+      final StringBuilder codeString = new StringBuilder("(");
+      for (final CaseWhenProcessed processedWhenClause : whenClauses) {
+        codeString
+            .append(functionClassName).append(".isTrue(")
+            .append(processedWhenClause.whenProcessResult.getLeft())
+            .append(") ? ")
+            .append(buildCastCode(
+                resultSchemaString, processedWhenClause.thenProcessResult.getLeft()))
+            .append(" : ");
+      }
+      codeString
+          .append(buildCastCode(resultSchemaString, defaultValue))
+          .append(")");
 
-      return new Pair<>(codeString, resultSchema);
+      return new Pair<>(codeString.toString(), resultSchema);
     }
 
-    private String buildSupplierCode(final String typeString, final String code) {
-      return " new " + Supplier.class.getSimpleName() + "<" + typeString + ">() {"
-          + " @Override public " + typeString + " get() { return " + code + "; }}";
+    private String buildCastCode(final String typeString, final String code) {
+      return "((" + typeString + ") (" + code + "))";
     }
 
     @Override
@@ -1028,9 +1040,18 @@ public class SqlToJavaVisitor {
         final LikePredicate node, final Context context
     ) {
 
-      final String patternString = process(node.getPattern(), context).getLeft();
       final String valueString = process(node.getValue(), context).getLeft();
 
+      final Optional<String> matcherName = likeToCodeName.apply(node);
+      if (matcherName.isPresent()) {
+        return new Pair<>(
+            matcherName.get() + ".matches(" + valueString + ")",
+            SqlTypes.STRING
+        );
+      }
+
+      final String patternString = process(node.getPattern(), context).getLeft();
+
       if (node.getEscape().isPresent()) {
         return new Pair<>(
             "LikeEvaluator.matches("
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.codegen.helpers;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.errorprone.annotations.Immutable;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.expression.tree.InPredicate;
+import io.confluent.ksql.execution.expression.tree.Literal;
+import io.confluent.ksql.execution.util.ExpressionTypeManager;
+import io.confluent.ksql.schema.ksql.types.SqlBaseType;
+import io.confluent.ksql.schema.ksql.types.SqlType;
+import io.confluent.ksql.testing.EffectivelyImmutable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The values of an SQL 'IN (a, b, c)' list made up only of literals, precomputed into a hash set
+ * so that membership can be tested in constant time.
+ *
+ * <p>Only types whose values {@link InListEvaluator} matches by plain equality, once coerced to
+ * a common type, are supported. Lists of other types, or that contain non-literal expressions,
+ * are evaluated by {@link InListEvaluator#matches}.
+ *
+ * @see io.confluent.ksql.execution.expression.tree.InPredicate
+ */
+@Immutable
+public abstract class InListSet {
+
+  private InListSet() {
+  }
+
+  /**
+   * @param value the value to look for
+   * @return {@code true} if {@code value} is in the list. SQL NULL is never in the list.
+   */
+  public abstract boolean contains(Object value);
+
+  /**
+   * Builds the set for an IN predicate, if all its values are literals of a supported type.
+   *
+   * @param preprocessed the predicate, after {@link InListEvaluator#preprocess}
+   * @param typeManager the type manager for the predicate
+   * @param lambdaTypeMapping mapping of lambda variables to type
+   * @return the set, if the predicate supports one.
+   */
+  public static Optional<InListSet> from(
+      final InPredicate preprocessed,
+      final ExpressionTypeManager typeManager,
+      final Map<String, SqlType> lambdaTypeMapping
+  ) {
+    final List<Expression> expressions = preprocessed.getValueList().getValues();
+    if (expressions.isEmpty()) {
+      return Optional.empty();
+    }
+
+    final SqlType valueType =
+        typeManager.getExpressionSqlType(preprocessed.getValue(), lambdaTypeMapping);
+    if (valueType == null) {
+      return Optional.empty();
+    }
+
+    final List<Object> values = new ArrayList<>(expressions.size());
+    for (final Expression e : expressions) {
+      if (!(e instanceof Literal)
+          || !valueType.equals(typeManager.getExpressionSqlType(e, lambdaTypeMapping))) {
+        return Optional.empty();
+      }
+      values.add(((Literal) e).getValue());
+    }
+
+    final SqlBaseType baseType = valueType.baseType();
+    switch (baseType) {
+      case INTEGER:
+      case BIGINT:
+        return Optional.of(new LongSet(values));
+      case DOUBLE:
+      case STRING:
+      case BOOLEAN:
+        return Optional.of(new ObjectSet(values));
+      default:
+        return Optional.empty();
+    }
+  }
+
+  @Immutable
+  private static final class ObjectSet extends InListSet {
+
+    private final ImmutableSet<Object> values;
+
+    ObjectSet(final List<Object> values) {
+      this.values = ImmutableSet.copyOf(values);
+    }
+
+    @Override
+    public boolean contains(final Object value) {
+      return value != null && values.contains(value);
+    }
+  }
+
+  /**
+   * An open addressing hash set of longs, avoiding boxing the list's values and the indirection
+   * of looking them up in a general purpose set.
+   */
+  @Immutable
+  private static final class LongSet extends InListSet {
+
+    private static final long EMPTY = 0L;
+
+    @EffectivelyImmutable
+    private final long[] slots;
+    private final int mask;
+    private final boolean containsEmpty;
+
+    LongSet(final List<Object> values) {
+      // Power of two capacity of at least twice the size, bounding the load factor to 0.5:
+      final int capacity = Integer.highestOneBit(Math.max(values.size(), 1) * 4 - 1);
+      final long[] slots = new long[capacity];
+      final int mask = capacity - 1;
+
+      boolean containsEmpty = false;
+      for (final Object o : values) {
+        final long v = ((Number) o).longValue();
+        if (v == EMPTY) {
+          containsEmpty = true;
+          continue;
+        }
+
+        int i = hash(v) & mask;
+        while (slots[i] != EMPTY && slots[i] != v) {
+          i = (i + 1) & mask;
+        }
+        slots[i] = v;
+      }
+
+      this.slots = slots;
+      this.mask = mask;
+      this.containsEmpty = containsEmpty;
+    }
+
+    @Override
+    public boolean contains(final Object value) {
+      if (value == null) {
+        return false;
+      }
+
+      final long v = ((Number) value).longValue();
+      if (v == EMPTY) {
+        return containsEmpty;
+      }
+
+      int i = hash(v) & mask;
+      while (true) {
+        final long slot = slots[i];
+        if (slot == v) {
+          return true;
+        }
+        if (slot == EMPTY) {
+          return false;
+        }
+        i = (i + 1) & mask;
+      }
+    }
+
+    private static int hash(final long v) {
+      // Murmur3 finalizer, as consecutive values are common in IN lists:
+      long h = v;
+      h ^= h >>> 33;
+      h *= 0xff51afd7ed558ccdL;
+      h ^= h >>> 33;
+      h *= 0xc4ceb9fe1a85ec53L;
+      h ^= h >>> 33;
+      return (int) h;
+    }
+  }
+}
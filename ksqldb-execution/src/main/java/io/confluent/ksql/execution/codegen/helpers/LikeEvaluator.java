@@ -16,17 +16,28 @@
 package io.confluent.ksql.execution.codegen.helpers;
 
 import com.google.common.annotations.VisibleForTesting;
-import io.confluent.ksql.util.KsqlException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.confluent.ksql.util.Pair;
 import java.util.Optional;
-import java.util.regex.Pattern;
 
 /**
- * Used in the code generation to evaluate SQL 'LIKE' expressions.
+ * Used in the code generation to evaluate SQL 'LIKE' expressions whose pattern is not a literal.
+ *
+ * <p>LIKE expressions with a literal pattern are compiled to a {@link LikeMatcher} once, when the
+ * expression is compiled.
  *
  * @see io.confluent.ksql.execution.expression.tree.LikePredicate
  */
 public final class LikeEvaluator {
 
+  private static final int MAX_CACHED_PATTERNS = 1000;
+
+  private static final Cache<Pair<String, Optional<Character>>, LikeMatcher> MATCHERS =
+      CacheBuilder.newBuilder()
+          .maximumSize(MAX_CACHED_PATTERNS)
+          .build();
+
   private LikeEvaluator() {
   }
 
@@ -66,68 +77,23 @@ public final class LikeEvaluator {
       final String pattern,
       final Optional<Character> escape
   ) {
-    final StringBuilder regex = new StringBuilder();
-
-    final char[] chars = pattern.toCharArray();
-
-    boolean escaped = false;
-    int start = 0; // start of a plain-text portion of the pattern
-    int i = 0;     // the current index, also doubles as the end of a plain-text portion
-
-    for (; i < chars.length; i++) {
-      final char c = chars[i];
-
-      if (escaped) {
-        escaped = false;
-      } else if (escape.filter(e -> e == c).isPresent()) {
-        // the escape character is treated differently in different databases
-        // the only SQL standard indicates that
-        //
-        //    "A wildcard character is treated as a literal if preceded by
-        //    the escape character."
-        //
-        // This implementation will assume that if an escape character is encountered,
-        // the next character will be treated as a literal. Furthermore, if the escape
-        // character is one of the special characters ('%' or '_') then it becomes
-        // impossible to use those characters for their special meaning
-        //
-        // To use the escape character in the pattern, have it precede itself
-        escaped = true;
-        append(pattern, start, i, regex);
-        start = i + 1;
-      } else if (c == '%') {
-        append(pattern, start, i, regex);
-        regex.append(".*");
-        start = i + 1;
-      } else if (c == '_') {
-        append(pattern, start, i, regex);
-        regex.append(".");
-        start = i + 1;
-      }
-    }
-
-    if (escaped) {
-      throw new KsqlException("LIKE pattern must not end with escape character");
-    }
-
-    append(pattern, start, i, regex);
-    return Pattern.compile(regex.toString()).matcher(val).matches();
+    return matcher(pattern, escape).matches(val);
   }
 
   /**
-   * Escapes a plain-text portion of the pattern matching expression
-   * so that any non-special SQL characters don't translate into special
-   * regex characters.
+   * Patterns that are not literals in the query, e.g. those read from a column, can not be
+   * compiled up front. Instead, their compiled form is cached, as such patterns generally
+   * repeat.
    */
-  private static void append(
-      final String pattern,
-      final int start,
-      final int end,
-      final StringBuilder regex
-  ) {
-    if (end - start > 0) {
-      regex.append(Pattern.quote(pattern.substring(start, end)));
+  private static LikeMatcher matcher(final String pattern, final Optional<Character> escape) {
+    final Pair<String, Optional<Character>> key = Pair.of(pattern, escape);
+    final LikeMatcher cached = MATCHERS.getIfPresent(key);
+    if (cached != null) {
+      return cached;
     }
-  }
 
+    final LikeMatcher matcher = LikeMatcher.compile(pattern, escape);
+    MATCHERS.put(key, matcher);
+    return matcher;
+  }
 }
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.codegen.helpers;
+
+import com.google.errorprone.annotations.Immutable;
+import io.confluent.ksql.util.KsqlException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * A SQL 'LIKE' pattern, compiled once so that it can be matched against many values.
+ *
+ * <p>The common shapes of pattern, i.e. exact, prefix ({@code foo%}), suffix ({@code %foo}) and
+ * contains ({@code %foo%}), are matched with plain string operations. Any other pattern is
+ * matched with a regular expression.
+ *
+ * @see LikeEvaluator
+ */
+@Immutable
+public abstract class LikeMatcher {
+
+  private LikeMatcher() {
+  }
+
+  /**
+   * @param val the value to match
+   * @return whether or not {@code val} matches the pattern
+   */
+  public abstract boolean matches(String val);
+
+  /**
+   * @param pattern the pattern to compile
+   * @param escape  the escape character, if any
+   * @return the compiled matcher
+   */
+  public static LikeMatcher compile(final String pattern, final Optional<Character> escape) {
+    final List<String> literals = new ArrayList<>();
+    final StringBuilder literal = new StringBuilder();
+
+    boolean escaped = false;
+    boolean wildcardsOnly = true; // i.e. only '%' wildcards, which allow the fast paths
+    boolean leadingPercent = false;
+    boolean trailingPercent = false;
+
+    for (int i = 0; i < pattern.length(); i++) {
+      final char c = pattern.charAt(i);
+
+      if (escaped) {
+        // See LikeEvaluator for a description of how escape characters are handled
+        escaped = false;
+        literal.append(c);
+      } else if (escape.isPresent() && escape.get() == c) {
+        escaped = true;
+      } else if (c == '%') {
+        if (i == 0) {
+          leadingPercent = true;
+        }
+        if (i == pattern.length() - 1) {
+          trailingPercent = true;
+        }
+        if (literal.length() > 0 || literals.isEmpty()) {
+          literals.add(literal.toString());
+          literal.setLength(0);
+        }
+      } else if (c == '_') {
+        wildcardsOnly = false;
+        literal.append(c);
+      } else {
+        literal.append(c);
+      }
+    }
+
+    if (escaped) {
+      throw new KsqlException("LIKE pattern must not end with escape character");
+    }
+
+    literals.add(literal.toString());
+
+    if (wildcardsOnly) {
+      if (literals.size() == 1) {
+        return new Exact(literals.get(0));
+      }
+
+      final boolean singleLiteral = literals.stream().filter(s -> !s.isEmpty()).count() <= 1;
+      if (singleLiteral) {
+        final String text = String.join("", literals);
+        if (leadingPercent && trailingPercent) {
+          return new Contains(text);
+        }
+        if (leadingPercent) {
+          return new Suffix(text);
+        }
+        if (trailingPercent) {
+          return new Prefix(text);
+        }
+      }
+    }
+
+    return new Regex(toRegex(pattern, escape));
+  }
+
+  private static String toRegex(final String pattern, final Optional<Character> escape) {
+    final StringBuilder regex = new StringBuilder();
+
+    boolean escaped = false;
+    int start = 0; // start of a plain-text portion of the pattern
+    int i = 0;     // the current index, also doubles as the end of a plain-text portion
+
+    for (; i < pattern.length(); i++) {
+      final char c = pattern.charAt(i);
+
+      if (escaped) {
+        escaped = false;
+      } else if (escape.isPresent() && escape.get() == c) {
+        escaped = true;
+        append(pattern, start, i, regex);
+        start = i + 1;
+      } else if (c == '%') {
+        append(pattern, start, i, regex);
+        regex.append(".*");
+        start = i + 1;
+      } else if (c == '_') {
+        append(pattern, start, i, regex);
+        regex.append(".");
+        start = i + 1;
+      }
+    }
+
+    append(pattern, start, i, regex);
+    return regex.toString();
+  }
+
+  /**
+   * Escapes a plain-text portion of the pattern matching expression
+   * so that any non-special SQL characters don't translate into special
+   * regex characters.
+   */
+  private static void append(
+      final String pattern,
+      final int start,
+      final int end,
+      final StringBuilder regex
+  ) {
+    if (end - start > 0) {
+      regex.append(Pattern.quote(pattern.substring(start, end)));
+    }
+  }
+
+  @Immutable
+  private static final class Exact extends LikeMatcher {
+
+    private final String text;
+
+    Exact(final String text) {
+      this.text = Objects.requireNonNull(text, "text");
+    }
+
+    @Override
+    public boolean matches(final String val) {
+      return val.equals(text);
+    }
+  }
+
+  @Immutable
+  private static final class Prefix extends LikeMatcher {
+
+    private final String text;
+
+    Prefix(final String text) {
+      this.text = Objects.requireNonNull(text, "text");
+    }
+
+    @Override
+    public boolean matches(final String val) {
+      return val.startsWith(text);
+    }
+  }
+
+  @Immutable
+  private static final class Suffix extends LikeMatcher {
+
+    private final String text;
+
+    Suffix(final String text) {
+      this.text = Objects.requireNonNull(text, "text");
+    }
+
+    @Override
+    public boolean matches(final String val) {
+      return val.endsWith(text);
+    }
+  }
+
+  @Immutable
+  private static final class Contains extends LikeMatcher {
+
+    private final String text;
+
+    Contains(final String text) {
+      this.text = Objects.requireNonNull(text, "text");
+    }
+
+    @Override
+    public boolean matches(final String val) {
+      return val.contains(text);
+    }
+  }
+
+  @Immutable
+  private static final class Regex extends LikeMatcher {
+
+    private final Pattern pattern;
+
+    Regex(final String regex) {
+      // DOTALL, as SQL wildcards match any character, including line terminators:
+      this.pattern = Pattern.compile(regex, Pattern.DOTALL);
+    }
+
+    @Override
+    public boolean matches(final String val) {
+      return pattern.matcher(val).matches();
+    }
+  }
+}
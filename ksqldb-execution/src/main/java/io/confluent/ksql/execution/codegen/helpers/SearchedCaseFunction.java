@@ -18,7 +18,6 @@ package io.confluent.ksql.execution.codegen.helpers;
 import io.confluent.ksql.util.KsqlException;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.function.Supplier;
 
 public final class SearchedCaseFunction {
@@ -34,18 +33,28 @@ public final class SearchedCaseFunction {
       throw new KsqlException("When clause cannot be empty.");
     }
 
-    final Optional<Optional<T>> found = whenClauses.stream()
-        .filter(clause -> clause.operand.get())
-        .map(clause -> Optional.ofNullable(clause.result.get()))
-        .findFirst();
-
-    if (found.isPresent()) {
-      return found.get().orElse(null);
+    for (final LazyWhenClause<T> clause : whenClauses) {
+      if (isTrue(clause.operand.get())) {
+        return clause.result.get();
+      }
     }
 
     return defaultValue.get();
   }
 
+  /**
+   * Tests the condition of a when clause.
+   *
+   * <p>Generated code and the interpreter evaluate CASE expressions as a chain of conditionals,
+   * testing each when clause's condition with this method.
+   *
+   * @param condition the result of evaluating the condition
+   * @return {@code true} if the condition holds. A SQL NULL condition does not.
+   */
+  public static boolean isTrue(final Boolean condition) {
+    return condition != null && condition;
+  }
+
   public static <T> LazyWhenClause<T> whenClause(
       final Supplier<Boolean> operand,
       final Supplier<T> result
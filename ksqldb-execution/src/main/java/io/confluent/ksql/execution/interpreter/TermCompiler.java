@@ -26,6 +26,8 @@ import com.google.errorprone.annotations.Immutable;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.confluent.ksql.execution.codegen.helpers.ArrayAccess;
 import io.confluent.ksql.execution.codegen.helpers.InListEvaluator;
+import io.confluent.ksql.execution.codegen.helpers.InListSet;
+import io.confluent.ksql.execution.codegen.helpers.LikeMatcher;
 import io.confluent.ksql.execution.expression.tree.ArithmeticBinaryExpression;
 import io.confluent.ksql.execution.expression.tree.ArithmeticUnaryExpression;
 import io.confluent.ksql.execution.expression.tree.BetweenPredicate;
@@ -199,6 +201,12 @@ public class TermCompiler implements ExpressionVisitor<Term, Context> {
 
     final Term value = process(preprocessed.getValue(), context);
 
+    final Optional<InListSet> set = InListSet
+        .from(preprocessed, expressionTypeManager, context.getLambdaSqlTypeMapping());
+    if (set.isPresent()) {
+      return new InPredicateTerm(value, ImmutableList.of(), set);
+    }
+
     final List<Term> valueList = preprocessed.getValueList().getValues().stream()
         .map(v -> process(v, context))
         .collect(ImmutableList.toImmutableList());
@@ -409,6 +417,7 @@ public class TermCompiler implements ExpressionVisitor<Term, Context> {
     }
 
     final Kudf kudf = function.newInstance(ksqlConfig);
+    kudf.prepare(FunctionArgumentsUtil.constantArguments(node));
     return new FunctionCallTerm(kudf, args, javaClass, functionReturnSchema);
   }
 
@@ -540,6 +549,16 @@ public class TermCompiler implements ExpressionVisitor<Term, Context> {
     final Term patternString = process(node.getPattern(), context);
     final Term valueString = process(node.getValue(), context);
 
+    if (node.getPattern() instanceof StringLiteral) {
+      final String pattern = ((StringLiteral) node.getPattern()).getValue();
+      try {
+        final LikeMatcher matcher = LikeMatcher.compile(pattern, node.getEscape());
+        return new LikeTerm(patternString, valueString, node.getEscape(), Optional.of(matcher));
+      } catch (final KsqlException e) {
+        // Invalid patterns are left to fail, and be logged, as each row is evaluated
+      }
+    }
+
     return new LikeTerm(patternString, valueString, node.getEscape());
   }
 
@@ -17,23 +17,41 @@ package io.confluent.ksql.execution.interpreter.terms;
 
 import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.execution.codegen.helpers.InListEvaluator;
+import io.confluent.ksql.execution.codegen.helpers.InListSet;
 import io.confluent.ksql.execution.interpreter.TermEvaluationContext;
 import io.confluent.ksql.schema.ksql.types.SqlType;
 import io.confluent.ksql.schema.ksql.types.SqlTypes;
 import java.util.List;
+import java.util.Optional;
 
 public class InPredicateTerm implements Term {
 
   private final Term value;
   private final List<Term> valueList;
+  private final Optional<InListSet> set;
 
   public InPredicateTerm(final Term value, final List<Term> valueList) {
+    this(value, valueList, Optional.empty());
+  }
+
+  /**
+   * @param set the precomputed set of values, used instead of {@code valueList} if present
+   */
+  public InPredicateTerm(
+      final Term value,
+      final List<Term> valueList,
+      final Optional<InListSet> set
+  ) {
     this.value = value;
     this.valueList = ImmutableList.copyOf(valueList);
+    this.set = set;
   }
 
   @Override
   public Object getValue(final TermEvaluationContext context) {
+    if (set.isPresent()) {
+      return set.get().contains(value.getValue(context));
+    }
     final Object[] values = valueList.stream()
         .map(v -> v.getValue(context))
         .toArray();
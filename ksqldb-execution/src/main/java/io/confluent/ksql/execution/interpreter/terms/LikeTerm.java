@@ -16,6 +16,7 @@
 package io.confluent.ksql.execution.interpreter.terms;
 
 import io.confluent.ksql.execution.codegen.helpers.LikeEvaluator;
+import io.confluent.ksql.execution.codegen.helpers.LikeMatcher;
 import io.confluent.ksql.execution.interpreter.TermEvaluationContext;
 import io.confluent.ksql.schema.ksql.types.SqlType;
 import io.confluent.ksql.schema.ksql.types.SqlTypes;
@@ -26,19 +27,36 @@ public class LikeTerm implements Term {
   private final Term patternString;
   private final Term valueString;
   private final Optional<Character> escapeChar;
+  private final Optional<LikeMatcher> matcher;
 
   public LikeTerm(
       final Term patternString,
       final Term valueString,
       final Optional<Character> escapeChar
+  ) {
+    this(patternString, valueString, escapeChar, Optional.empty());
+  }
+
+  /**
+   * @param matcher the precompiled matcher to use, if the pattern is a literal
+   */
+  public LikeTerm(
+      final Term patternString,
+      final Term valueString,
+      final Optional<Character> escapeChar,
+      final Optional<LikeMatcher> matcher
   ) {
     this.patternString = patternString;
     this.valueString = valueString;
     this.escapeChar = escapeChar;
+    this.matcher = matcher;
   }
 
   @Override
   public Object getValue(final TermEvaluationContext context) {
+    if (matcher.isPresent()) {
+      return matcher.get().matches((String) valueString.getValue(context));
+    }
     return escapeChar.map(
         character -> LikeEvaluator.matches(
             (String) valueString.getValue(context), (String) patternString.getValue(context),
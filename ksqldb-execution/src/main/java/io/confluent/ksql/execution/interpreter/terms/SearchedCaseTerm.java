@@ -15,9 +15,7 @@
 
 package io.confluent.ksql.execution.interpreter.terms;
 
-import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.execution.codegen.helpers.SearchedCaseFunction;
-import io.confluent.ksql.execution.codegen.helpers.SearchedCaseFunction.LazyWhenClause;
 import io.confluent.ksql.execution.interpreter.TermEvaluationContext;
 import io.confluent.ksql.schema.ksql.types.SqlType;
 import io.confluent.ksql.util.Pair;
@@ -26,7 +24,8 @@ import java.util.Optional;
 
 public class SearchedCaseTerm implements Term {
 
-  private final List<Pair<Term, Term>> operandResultTerms;
+  private final Term[] operandTerms;
+  private final Term[] resultTerms;
   private final Optional<Term> defaultValue;
   private final SqlType resultType;
 
@@ -34,21 +33,25 @@ public class SearchedCaseTerm implements Term {
       final List<Pair<Term, Term>> operandResultTerms,
       final Optional<Term> defaultValue,
       final SqlType resultType) {
-    this.operandResultTerms = ImmutableList.copyOf(operandResultTerms);
+    this.operandTerms = new Term[operandResultTerms.size()];
+    this.resultTerms = new Term[operandResultTerms.size()];
+    for (int i = 0; i < operandResultTerms.size(); i++) {
+      this.operandTerms[i] = operandResultTerms.get(i).getLeft();
+      this.resultTerms[i] = operandResultTerms.get(i).getRight();
+    }
     this.defaultValue = defaultValue;
     this.resultType = resultType;
   }
 
   @Override
   public Object getValue(final TermEvaluationContext context) {
-    final List<LazyWhenClause<Object>> lazyWhenClause = operandResultTerms
-        .stream()
-        .map(pair -> SearchedCaseFunction.whenClause(
-            () -> (Boolean) pair.getLeft().getValue(context),
-            () -> pair.getRight().getValue(context)))
-        .collect(ImmutableList.toImmutableList());
-    return SearchedCaseFunction.searchedCaseFunction(lazyWhenClause,
-        () -> defaultValue.map(term -> term.getValue(context)).orElse(null));
+    // Evaluated in order, and only as far as the first condition that holds:
+    for (int i = 0; i < operandTerms.length; i++) {
+      if (SearchedCaseFunction.isTrue((Boolean) operandTerms[i].getValue(context))) {
+        return resultTerms[i].getValue(context);
+      }
+    }
+    return defaultValue.isPresent() ? defaultValue.get().getValue(context) : null;
   }
 
   @Override
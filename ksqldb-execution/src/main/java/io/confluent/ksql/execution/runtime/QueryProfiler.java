@@ -0,0 +1,193 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.runtime;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.execution.context.QueryContext;
+import io.confluent.ksql.metrics.MetricCollectors;
+import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.rest.entity.QueryStepProfile;
+import io.confluent.ksql.util.KsqlConstants;
+import io.confluent.ksql.util.ReservedInternalTopics;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Measurable;
+import org.apache.kafka.common.metrics.Metrics;
+
+/**
+ * Profiles the steps of a single query.
+ *
+ * <p>A profiler is created for each build of a query's topology, but only registered, making its
+ * results available via {@link #forQuery} and as metrics, once the query processes its first
+ * record. This means topologies that are built but never run, e.g. when validating statements,
+ * are never visible. Registering a profiler replaces, and removes the metrics of, any profiler
+ * previously registered for the same query, e.g. when the query is replaced.
+ */
+public final class QueryProfiler {
+
+  static final String METRIC_GROUP = "query-profile";
+  static final String RECORDS_IN_TOTAL = "records-in-total";
+  static final String RECORDS_OUT_TOTAL = "records-out-total";
+  static final String PROCESSING_TIME_AVG = "processing-time-avg-ns";
+  static final String QUERY_ID_TAG = "query_id";
+  static final String STEP_TAG = "step";
+
+  private static final Map<QueryId, QueryProfiler> PROFILERS = new ConcurrentHashMap<>();
+
+  private final Metrics metrics;
+  private final String serviceId;
+  private final QueryId queryId;
+  private final int sampleInterval;
+  private final LongSupplier nanoClock;
+  private final Map<String, StepProfiler> steps = new LinkedHashMap<>();
+  private final List<MetricName> metricNames = new ArrayList<>();
+  private volatile boolean registered;
+
+  static QueryProfiler create(
+      final String serviceId,
+      final QueryId queryId,
+      final int sampleInterval
+  ) {
+    return new QueryProfiler(
+        MetricCollectors.getMetrics(),
+        serviceId,
+        queryId,
+        sampleInterval,
+        System::nanoTime
+    );
+  }
+
+  @VisibleForTesting
+  QueryProfiler(
+      final Metrics metrics,
+      final String serviceId,
+      final QueryId queryId,
+      final int sampleInterval,
+      final LongSupplier nanoClock
+  ) {
+    this.metrics = requireNonNull(metrics, "metrics");
+    this.serviceId = requireNonNull(serviceId, "serviceId");
+    this.queryId = requireNonNull(queryId, "queryId");
+    this.sampleInterval = sampleInterval;
+    this.nanoClock = requireNonNull(nanoClock, "nanoClock");
+  }
+
+  /**
+   * Get the profile of a running query.
+   *
+   * @param queryId the id of the query.
+   * @return the profile of the steps of the query, or empty if the query is not being profiled,
+   *         or has not yet processed any records.
+   */
+  public static Optional<List<QueryStepProfile>> forQuery(final QueryId queryId) {
+    return Optional.ofNullable(PROFILERS.get(queryId))
+        .map(QueryProfiler::snapshot);
+  }
+
+  /**
+   * Remove the profile, and any metrics, of a closed query.
+   *
+   * @param queryId the id of the closed query.
+   */
+  public static void notifyQueryClose(final QueryId queryId) {
+    final QueryProfiler profiler = PROFILERS.remove(queryId);
+    if (profiler != null) {
+      profiler.removeMetrics();
+    }
+  }
+
+  synchronized StepProfiler step(final QueryContext queryContext) {
+    final String step = String.join("-", queryContext.getContext());
+    return steps.computeIfAbsent(
+        step,
+        name -> new StepProfiler(this, name, sampleInterval, nanoClock)
+    );
+  }
+
+  synchronized List<QueryStepProfile> snapshot() {
+    final ImmutableList.Builder<QueryStepProfile> builder = ImmutableList.builder();
+    steps.values().forEach(step -> builder.add(step.snapshot()));
+    return builder.build();
+  }
+
+  void ensureRegistered() {
+    if (registered) {
+      return;
+    }
+
+    synchronized (PROFILERS) {
+      if (registered) {
+        return;
+      }
+
+      final QueryProfiler previous = PROFILERS.put(queryId, this);
+      if (previous != null) {
+        previous.removeMetrics();
+      }
+
+      synchronized (this) {
+        steps.values().forEach(this::addMetrics);
+      }
+      registered = true;
+    }
+  }
+
+  private void addMetrics(final StepProfiler step) {
+    final String group = ReservedInternalTopics.KSQL_INTERNAL_TOPIC_PREFIX + METRIC_GROUP;
+    final Map<String, String> tags = ImmutableMap.of(
+        KsqlConstants.KSQL_SERVICE_ID_METRICS_TAG, serviceId,
+        QUERY_ID_TAG, queryId.toString(),
+        STEP_TAG, step.getStep()
+    );
+
+    addMetric(
+        metrics.metricName(RECORDS_IN_TOTAL, group,
+            "Total records processed by the query step", tags),
+        (config, now) -> step.getRecordsIn()
+    );
+    addMetric(
+        metrics.metricName(RECORDS_OUT_TOTAL, group,
+            "Total records output by the query step", tags),
+        (config, now) -> step.getRecordsOut()
+    );
+    addMetric(
+        metrics.metricName(PROCESSING_TIME_AVG, group,
+            "Average time, in nanoseconds, the query step took to process a sampled record",
+            tags),
+        (config, now) -> step.getAvgTimeNs()
+    );
+  }
+
+  private void addMetric(final MetricName name, final Measurable measurable) {
+    metrics.addMetric(name, measurable);
+    metricNames.add(name);
+  }
+
+  private synchronized void removeMetrics() {
+    metricNames.forEach(metrics::removeMetric);
+    metricNames.clear();
+  }
+}
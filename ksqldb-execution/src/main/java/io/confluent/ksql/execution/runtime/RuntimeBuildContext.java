@@ -68,6 +68,7 @@ public final class RuntimeBuildContext {
   private final QueryId queryId;
   private final String applicationId;
   private final QuerySchemas schemas = new QuerySchemas();
+  private QueryProfiler profiler;
 
   public static RuntimeBuildContext of(
       final StreamsBuilder streamsBuilder,
@@ -137,6 +138,32 @@ public final class RuntimeBuildContext {
     return applicationId;
   }
 
+  public QueryId getQueryId() {
+    return queryId;
+  }
+
+  /**
+   * Get the profiler for a step of the query, if query profiling is enabled.
+   *
+   * @param queryContext the context of the step.
+   * @return the profiler of the step, or empty if profiling is disabled.
+   */
+  public Optional<StepProfiler> getStepProfiler(final QueryContext queryContext) {
+    if (!ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PROFILING_ENABLED)) {
+      return Optional.empty();
+    }
+
+    if (profiler == null) {
+      profiler = QueryProfiler.create(
+          ksqlConfig.getString(KsqlConfig.KSQL_SERVICE_ID_CONFIG),
+          queryId,
+          ksqlConfig.getInt(KsqlConfig.KSQL_QUERY_PROFILING_SAMPLE_INTERVAL)
+      );
+    }
+
+    return Optional.of(profiler.step(queryContext));
+  }
+
   public StreamsBuilder getStreamsBuilder() {
     return streamsBuilder;
   }
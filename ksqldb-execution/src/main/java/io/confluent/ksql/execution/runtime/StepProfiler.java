@@ -0,0 +1,122 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.runtime;
+
+import static java.util.Objects.requireNonNull;
+
+import io.confluent.ksql.rest.entity.QueryStepProfile;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Profiles a single step of a query.
+ *
+ * <p>Every record passed to the step is counted, along with the records the step outputs. The
+ * time taken to process one in every {@code sampleInterval} records is measured, so that the
+ * cost of reading the clock is not paid for every record.
+ *
+ * <p>Usage:
+ * <pre>{@code
+ *   final long start = profiler.start();
+ *   final R result = process(record);
+ *   profiler.end(start, result == null ? 0 : 1);
+ * }</pre>
+ */
+public final class StepProfiler {
+
+  private static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+  private final QueryProfiler queryProfiler;
+  private final String step;
+  private final int sampleInterval;
+  private final LongSupplier nanoClock;
+  private final LongAdder recordsIn = new LongAdder();
+  private final LongAdder recordsOut = new LongAdder();
+  private final LongAdder sampledRecords = new LongAdder();
+  private final LongAdder sampledTimeNs = new LongAdder();
+
+  StepProfiler(
+      final QueryProfiler queryProfiler,
+      final String step,
+      final int sampleInterval,
+      final LongSupplier nanoClock
+  ) {
+    this.queryProfiler = requireNonNull(queryProfiler, "queryProfiler");
+    this.step = requireNonNull(step, "step");
+    this.sampleInterval = sampleInterval;
+    this.nanoClock = requireNonNull(nanoClock, "nanoClock");
+  }
+
+  public String getStep() {
+    return step;
+  }
+
+  /**
+   * Called before the step processes a record.
+   *
+   * @return the token to pass to {@link #end}.
+   */
+  public long start() {
+    queryProfiler.ensureRegistered();
+    recordsIn.increment();
+
+    if (sampleInterval > 1 && ThreadLocalRandom.current().nextInt(sampleInterval) != 0) {
+      return NOT_SAMPLED;
+    }
+
+    return nanoClock.getAsLong();
+  }
+
+  /**
+   * Called once the step has processed a record.
+   *
+   * @param start the token returned by {@link #start}.
+   * @param outputs the number of records output by the step for the record.
+   */
+  public void end(final long start, final int outputs) {
+    if (outputs != 0) {
+      recordsOut.add(outputs);
+    }
+
+    if (start != NOT_SAMPLED) {
+      sampledTimeNs.add(nanoClock.getAsLong() - start);
+      sampledRecords.increment();
+    }
+  }
+
+  long getRecordsIn() {
+    return recordsIn.sum();
+  }
+
+  long getRecordsOut() {
+    return recordsOut.sum();
+  }
+
+  double getAvgTimeNs() {
+    return snapshot().getAvgTimeNs();
+  }
+
+  QueryStepProfile snapshot() {
+    return new QueryStepProfile(
+        step,
+        recordsIn.sum(),
+        recordsOut.sum(),
+        sampledRecords.sum(),
+        sampledTimeNs.sum()
+    );
+  }
+}
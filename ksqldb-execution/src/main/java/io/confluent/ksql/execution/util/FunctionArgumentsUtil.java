@@ -22,6 +22,7 @@ import io.confluent.ksql.execution.codegen.LambdaMappingUtil;
 import io.confluent.ksql.execution.expression.tree.Expression;
 import io.confluent.ksql.execution.expression.tree.FunctionCall;
 import io.confluent.ksql.execution.expression.tree.LambdaFunctionCall;
+import io.confluent.ksql.execution.expression.tree.Literal;
 import io.confluent.ksql.function.GenericsUtil;
 import io.confluent.ksql.function.KsqlScalarFunction;
 import io.confluent.ksql.function.UdfFactory;
@@ -246,6 +247,21 @@ public final class FunctionArgumentsUtil {
     }
   }
 
+  /**
+   * Finds the arguments of a function call whose values are the same for every row.
+   *
+   * @param functionCall the function expression
+   * @return one entry per argument, holding the argument's value if it is a non-null literal.
+   * @see io.confluent.ksql.function.udf.Kudf#prepare
+   */
+  public static List<Optional<Object>> constantArguments(final FunctionCall functionCall) {
+    return functionCall.getArguments().stream()
+        .map(arg -> arg instanceof Literal
+            ? Optional.ofNullable(((Literal) arg).getValue())
+            : Optional.empty())
+        .collect(Collectors.toList());
+  }
+
   private static List<SqlArgument> firstPassOverFunctionArguments(
       final List<Expression> arguments,
       final ExpressionTypeManager expressionTypeManager,
@@ -43,7 +43,7 @@ public final class RecordProcessingError implements ProcessingLogger.ErrorMessag
     return new RecordProcessingError(
         errorMsg,
         Optional.of(exception),
-        Optional.ofNullable(record).map(r -> () -> serializeRow(r))
+        Optional.ofNullable(record).map(RowSerializer::new)
     );
   }
 
@@ -53,7 +53,7 @@ public final class RecordProcessingError implements ProcessingLogger.ErrorMessag
     return new RecordProcessingError(
         errorMsg,
         Optional.empty(),
-        Optional.ofNullable(record).map(r -> () -> serializeRow(r))
+        Optional.ofNullable(record).map(RowSerializer::new)
     );
   }
 
@@ -98,6 +98,19 @@ public final class RecordProcessingError implements ProcessingLogger.ErrorMessag
     return new SchemaAndValue(ProcessingLogMessageSchema.PROCESSING_LOG_SCHEMA, struct);
   }
 
+  @Override
+  public ErrorMessage snapshot(final ProcessingLogConfig config) {
+    if (!record.isPresent()) {
+      return this;
+    }
+
+    final Optional<Supplier<String>> recordSnapshot =
+        config.getBoolean(ProcessingLogConfig.INCLUDE_ROWS)
+            ? record.map(RecordProcessingError::snapshot)
+            : Optional.empty();
+    return new RecordProcessingError(errorMsg, exception, recordSnapshot);
+  }
+
   @Override
   public boolean equals(final Object o) {
     if (this == o) {
@@ -141,6 +154,17 @@ public final class RecordProcessingError implements ProcessingLogger.ErrorMessag
     return recordProcessingError;
   }
 
+  private static Supplier<String> snapshot(final Supplier<String> record) {
+    if (record instanceof RowSerializer) {
+      // Decodes any lazy columns on this thread, into a copy only this message holds:
+      return new RowSerializer(GenericRow.fromList(((RowSerializer) record).row.values()));
+    }
+
+    // Other suppliers may capture anything, so are evaluated now:
+    final String serialized = record.get();
+    return () -> serialized;
+  }
+
   private static String serializeRow(final GenericRow record) {
     try {
       return ProcessingLoggingJsonMapper.INSTANCE.get().writeValueAsString(record.values());
@@ -149,4 +173,18 @@ public final class RecordProcessingError implements ProcessingLogger.ErrorMessag
       return null;
     }
   }
+
+  private static final class RowSerializer implements Supplier<String> {
+
+    private final GenericRow row;
+
+    RowSerializer(final GenericRow row) {
+      this.row = row;
+    }
+
+    @Override
+    public String get() {
+      return serializeRow(row);
+    }
+  }
 }
@@ -123,6 +123,8 @@ public class SqlToJavaVisitorTest {
         ref -> ref.text().replace(".", "_"),
         name -> name.text() + "_" + funCounter.getAndIncrement(),
         struct -> "schema" + structCounter.getAndIncrement(),
+        like -> Optional.empty(),
+        in -> Optional.empty(),
         ksqlConfig
     );
   }
@@ -438,6 +440,28 @@ public class SqlToJavaVisitorTest {
     assertThat(javaExpression, equalTo("LikeEvaluator.matches(COL1, \"%foo\", '!')"));
   }
 
+  @Test
+  public void shouldGenerateCorrectCodeForLikePatternWithPrecompiledMatcher() {
+    // Given:
+    final Expression expression = new LikePredicate(COL1, new StringLiteral("%foo"), Optional.empty());
+    sqlToJavaVisitor = new SqlToJavaVisitor(
+        SCHEMA,
+        functionRegistry,
+        ref -> ref.text().replace(".", "_"),
+        name -> name.text(),
+        struct -> "schema",
+        like -> Optional.of("likeMatcher0"),
+        in -> Optional.empty(),
+        ksqlConfig
+    );
+
+    // When:
+    final String javaExpression = sqlToJavaVisitor.process(expression);
+
+    // Then:
+    assertThat(javaExpression, equalTo("likeMatcher0.matches(COL1)"));
+  }
+
   @Test
   public void shouldGenerateCorrectCodeForLikePatternWithColRef() {
     // Given:
@@ -475,7 +499,7 @@ public class SqlToJavaVisitorTest {
     // ThenL
     assertThat(
         javaExpression, equalTo(
-            "((java.lang.String)SearchedCaseFunction.searchedCaseFunction(ImmutableList.copyOf(Arrays.asList( SearchedCaseFunction.whenClause( new Supplier<Boolean>() { @Override public Boolean get() { return ((((Object)(COL7)) == null || ((Object)(10)) == null) ? false : (COL7 < 10)); }},  new Supplier<java.lang.String>() { @Override public java.lang.String get() { return \"small\"; }}), SearchedCaseFunction.whenClause( new Supplier<Boolean>() { @Override public Boolean get() { return ((((Object)(COL7)) == null || ((Object)(100)) == null) ? false : (COL7 < 100)); }},  new Supplier<java.lang.String>() { @Override public java.lang.String get() { return \"medium\"; }}))), new Supplier<java.lang.String>() { @Override public java.lang.String get() { return \"large\"; }}))"));
+            "(SearchedCaseFunction.isTrue(((((Object)(COL7)) == null || ((Object)(10)) == null) ? false : (COL7 < 10))) ? ((java.lang.String) (\"small\")) : SearchedCaseFunction.isTrue(((((Object)(COL7)) == null || ((Object)(100)) == null) ? false : (COL7 < 100))) ? ((java.lang.String) (\"medium\")) : ((java.lang.String) (\"large\")))"));
   }
 
   @Test
@@ -505,7 +529,7 @@ public class SqlToJavaVisitorTest {
     // ThenL
     assertThat(
             javaExpression, equalTo(
-                    "((java.lang.String)SearchedCaseFunction.searchedCaseFunction(ImmutableList.copyOf(Arrays.asList( SearchedCaseFunction.whenClause( new Supplier<Boolean>() { @Override public Boolean get() { return ((((Object)(COL7)) == null || ((Object)(0)) == null) ? false : ((COL7 <= 0) && (COL7 >= 0))); }},  new Supplier<java.lang.String>() { @Override public java.lang.String get() { return \"zero\"; }}), SearchedCaseFunction.whenClause( new Supplier<Boolean>() { @Override public Boolean get() { return ((((Object)(COL7)) == null || ((Object)(1)) == null) ? false : ((COL7 <= 1) && (COL7 >= 1))); }},  new Supplier<java.lang.String>() { @Override public java.lang.String get() { return \"one\"; }}), SearchedCaseFunction.whenClause( new Supplier<Boolean>() { @Override public Boolean get() { return ((((Object)(COL7)) == null || ((Object)(2)) == null) ? false : ((COL7 <= 2) && (COL7 >= 2))); }},  new Supplier<java.lang.String>() { @Override public java.lang.String get() { return \"two\"; }}), SearchedCaseFunction.whenClause( new Supplier<Boolean>() { @Override public Boolean get() { return ((((Object)(COL7)) == null || ((Object)(3)) == null) ? false : ((COL7 <= 3) && (COL7 >= 3))); }},  new Supplier<java.lang.String>() { @Override public java.lang.String get() { return \"three\"; }}), SearchedCaseFunction.whenClause( new Supplier<Boolean>() { @Override public Boolean get() { return ((((Object)(COL7)) == null || ((Object)(4)) == null) ? false : ((COL7 <= 4) && (COL7 >= 4))); }},  new Supplier<java.lang.String>() { @Override public java.lang.String get() { return \"four\"; }}), SearchedCaseFunction.whenClause( new Supplier<Boolean>() { @Override public Boolean get() { return ((((Object)(COL7)) == null || ((Object)(5)) == null) ? false : ((COL7 <= 5) && (COL7 >= 5))); }},  new Supplier<java.lang.String>() { @Override public java.lang.String get() { return \"five\"; }}), SearchedCaseFunction.whenClause( new Supplier<Boolean>() { @Override public Boolean get() { return ((((Object)(COL7)) == null || ((Object)(6)) == null) ? false : ((COL7 <= 6) && (COL7 >= 6))); }},  new Supplier<java.lang.String>() { @Override public java.lang.String get() { return \"six\"; }}), SearchedCaseFunction.whenClause( new Supplier<Boolean>() { @Override public Boolean get() { return ((((Object)(COL7)) == null || ((Object)(7)) == null) ? false : ((COL7 <= 7) && (COL7 >= 7))); }},  new Supplier<java.lang.String>() { @Override public java.lang.String get() { return \"seven\"; }}), SearchedCaseFunction.whenClause( new Supplier<Boolean>() { @Override public Boolean get() { return ((((Object)(COL7)) == null || ((Object)(8)) == null) ? false : ((COL7 <= 8) && (COL7 >= 8))); }},  new Supplier<java.lang.String>() { @Override public java.lang.String get() { return \"eight\"; }}), SearchedCaseFunction.whenClause( new Supplier<Boolean>() { @Override public Boolean get() { return ((((Object)(COL7)) == null || ((Object)(9)) == null) ? false : ((COL7 <= 9) && (COL7 >= 9))); }},  new Supplier<java.lang.String>() { @Override public java.lang.String get() { return \"nine\"; }}), SearchedCaseFunction.whenClause( new Supplier<Boolean>() { @Override public Boolean get() { return ((((Object)(COL7)) == null || ((Object)(10)) == null) ? false : ((COL7 <= 10) && (COL7 >= 10))); }},  new Supplier<java.lang.String>() { @Override public java.lang.String get() { return \"ten\"; }}), SearchedCaseFunction.whenClause( new Supplier<Boolean>() { @Override public Boolean get() { return ((((Object)(COL7)) == null || ((Object)(11)) == null) ? false : ((COL7 <= 11) && (COL7 >= 11))); }},  new Supplier<java.lang.String>() { @Override public java.lang.String get() { return \"eleven\"; }}), SearchedCaseFunction.whenClause( new Supplier<Boolean>() { @Override public Boolean get() { return ((((Object)(COL7)) == null || ((Object)(12)) == null) ? false : ((COL7 <= 12) && (COL7 >= 12))); }},  new Supplier<java.lang.String>() { @Override public java.lang.String get() { return \"twelve\"; }}))), new Supplier<java.lang.String>() { @Override public java.lang.String get() { return null; }}))"));
+                    "(SearchedCaseFunction.isTrue(((((Object)(COL7)) == null || ((Object)(0)) == null) ? false : ((COL7 <= 0) && (COL7 >= 0)))) ? ((java.lang.String) (\"zero\")) : SearchedCaseFunction.isTrue(((((Object)(COL7)) == null || ((Object)(1)) == null) ? false : ((COL7 <= 1) && (COL7 >= 1)))) ? ((java.lang.String) (\"one\")) : SearchedCaseFunction.isTrue(((((Object)(COL7)) == null || ((Object)(2)) == null) ? false : ((COL7 <= 2) && (COL7 >= 2)))) ? ((java.lang.String) (\"two\")) : SearchedCaseFunction.isTrue(((((Object)(COL7)) == null || ((Object)(3)) == null) ? false : ((COL7 <= 3) && (COL7 >= 3)))) ? ((java.lang.String) (\"three\")) : SearchedCaseFunction.isTrue(((((Object)(COL7)) == null || ((Object)(4)) == null) ? false : ((COL7 <= 4) && (COL7 >= 4)))) ? ((java.lang.String) (\"four\")) : SearchedCaseFunction.isTrue(((((Object)(COL7)) == null || ((Object)(5)) == null) ? false : ((COL7 <= 5) && (COL7 >= 5)))) ? ((java.lang.String) (\"five\")) : SearchedCaseFunction.isTrue(((((Object)(COL7)) == null || ((Object)(6)) == null) ? false : ((COL7 <= 6) && (COL7 >= 6)))) ? ((java.lang.String) (\"six\")) : SearchedCaseFunction.isTrue(((((Object)(COL7)) == null || ((Object)(7)) == null) ? false : ((COL7 <= 7) && (COL7 >= 7)))) ? ((java.lang.String) (\"seven\")) : SearchedCaseFunction.isTrue(((((Object)(COL7)) == null || ((Object)(8)) == null) ? false : ((COL7 <= 8) && (COL7 >= 8)))) ? ((java.lang.String) (\"eight\")) : SearchedCaseFunction.isTrue(((((Object)(COL7)) == null || ((Object)(9)) == null) ? false : ((COL7 <= 9) && (COL7 >= 9)))) ? ((java.lang.String) (\"nine\")) : SearchedCaseFunction.isTrue(((((Object)(COL7)) == null || ((Object)(10)) == null) ? false : ((COL7 <= 10) && (COL7 >= 10)))) ? ((java.lang.String) (\"ten\")) : SearchedCaseFunction.isTrue(((((Object)(COL7)) == null || ((Object)(11)) == null) ? false : ((COL7 <= 11) && (COL7 >= 11)))) ? ((java.lang.String) (\"eleven\")) : SearchedCaseFunction.isTrue(((((Object)(COL7)) == null || ((Object)(12)) == null) ? false : ((COL7 <= 12) && (COL7 >= 12)))) ? ((java.lang.String) (\"twelve\")) : ((java.lang.String) (null)))"));
   }
 
   @Test
@@ -533,7 +557,7 @@ public class SqlToJavaVisitorTest {
     // ThenL
     assertThat(
         javaExpression, equalTo(
-            "((java.lang.String)SearchedCaseFunction.searchedCaseFunction(ImmutableList.copyOf(Arrays.asList( SearchedCaseFunction.whenClause( new Supplier<Boolean>() { @Override public Boolean get() { return ((((Object)(COL7)) == null || ((Object)(10)) == null) ? false : (COL7 < 10)); }},  new Supplier<java.lang.String>() { @Override public java.lang.String get() { return \"small\"; }}), SearchedCaseFunction.whenClause( new Supplier<Boolean>() { @Override public Boolean get() { return ((((Object)(COL7)) == null || ((Object)(100)) == null) ? false : (COL7 < 100)); }},  new Supplier<java.lang.String>() { @Override public java.lang.String get() { return \"medium\"; }}))), new Supplier<java.lang.String>() { @Override public java.lang.String get() { return null; }}))"));
+            "(SearchedCaseFunction.isTrue(((((Object)(COL7)) == null || ((Object)(10)) == null) ? false : (COL7 < 10))) ? ((java.lang.String) (\"small\")) : SearchedCaseFunction.isTrue(((((Object)(COL7)) == null || ((Object)(100)) == null) ? false : (COL7 < 100))) ? ((java.lang.String) (\"medium\")) : ((java.lang.String) (null)))"));
   }
 
   @Test
@@ -1063,6 +1087,31 @@ public class SqlToJavaVisitorTest {
     assertThat(java, is("InListEvaluator.matches(COL0,1L,2L)"));
   }
 
+  @Test
+  public void shouldGenerateCorrectCodeForInPredicateWithPrecomputedSet() {
+    // Given:
+    final Expression expression = new InPredicate(
+        COL0,
+        new InListExpression(ImmutableList.of(new IntegerLiteral(1), new IntegerLiteral(2)))
+    );
+    sqlToJavaVisitor = new SqlToJavaVisitor(
+        SCHEMA,
+        functionRegistry,
+        ref -> ref.text().replace(".", "_"),
+        name -> name.text(),
+        struct -> "schema",
+        like -> Optional.empty(),
+        in -> Optional.of("inListSet0"),
+        ksqlConfig
+    );
+
+    // When:
+    final String java = sqlToJavaVisitor.process(expression);
+
+    // Then:
+    assertThat(java, is("inListSet0.contains(COL0)"));
+  }
+
   @Test
   public void shouldGenerateCorrectCodeForLambdaExpression() {
     // Given:
@@ -1205,7 +1254,7 @@ public class SqlToJavaVisitorTest {
             + " public Object apply(Object arg1, Object arg2) {\n"
             + "   final Double X = (Double) arg1;\n"
             + "   final String S = (String) arg2;\n"
-            + "   return ((java.lang.String)SearchedCaseFunction.searchedCaseFunction(ImmutableList.copyOf(Arrays.asList( SearchedCaseFunction.whenClause( new Supplier<Boolean>() { @Override public Boolean get() { return ((((Object)(X)) == null || ((Object)(10)) == null) ? false : (X < 10)); }},  new Supplier<java.lang.String>() { @Override public java.lang.String get() { return \"test\"; }}), SearchedCaseFunction.whenClause( new Supplier<Boolean>() { @Override public Boolean get() { return ((((Object)(X)) == null || ((Object)(100)) == null) ? false : (X < 100)); }},  new Supplier<java.lang.String>() { @Override public java.lang.String get() { return \"test2\"; }}))), new Supplier<java.lang.String>() { @Override public java.lang.String get() { return S; }}));\n"
+            + "   return (SearchedCaseFunction.isTrue(((((Object)(X)) == null || ((Object)(10)) == null) ? false : (X < 10))) ? ((java.lang.String) (\"test\")) : SearchedCaseFunction.isTrue(((((Object)(X)) == null || ((Object)(100)) == null) ? false : (X < 100))) ? ((java.lang.String) (\"test2\")) : ((java.lang.String) (S)));\n"
             + " }\n"
             + "}))"));
   }
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.codegen.helpers;
+
+import static io.confluent.ksql.execution.testutil.TestExpressions.COL0;
+import static io.confluent.ksql.execution.testutil.TestExpressions.COL1;
+import static io.confluent.ksql.execution.testutil.TestExpressions.COL3;
+import static io.confluent.ksql.execution.testutil.TestExpressions.COL8;
+import static io.confluent.ksql.execution.testutil.TestExpressions.SCHEMA;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.execution.expression.tree.DecimalLiteral;
+import io.confluent.ksql.execution.expression.tree.DoubleLiteral;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.expression.tree.InListExpression;
+import io.confluent.ksql.execution.expression.tree.InPredicate;
+import io.confluent.ksql.execution.expression.tree.IntegerLiteral;
+import io.confluent.ksql.execution.expression.tree.LongLiteral;
+import io.confluent.ksql.execution.expression.tree.StringLiteral;
+import io.confluent.ksql.execution.util.ExpressionTypeManager;
+import io.confluent.ksql.function.FunctionRegistry;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class InListSetTest {
+
+  @Rule
+  public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+  @Mock
+  private FunctionRegistry functionRegistry;
+  private ExpressionTypeManager typeManager;
+
+  @Before
+  public void setUp() {
+    typeManager = new ExpressionTypeManager(SCHEMA, functionRegistry);
+  }
+
+  @Test
+  public void shouldContainBigIntValues() {
+    // When:
+    final InListSet set = build(COL0, new LongLiteral(-7L), new IntegerLiteral(0),
+        new LongLiteral(Long.MAX_VALUE), new IntegerLiteral(42)).get();
+
+    // Then:
+    assertThat(set.contains(-7L), is(true));
+    assertThat(set.contains(0L), is(true));
+    assertThat(set.contains(Long.MAX_VALUE), is(true));
+    assertThat(set.contains(42L), is(true));
+    assertThat(set.contains(42), is(true));
+    assertThat(set.contains(1L), is(false));
+    assertThat(set.contains(Long.MIN_VALUE), is(false));
+  }
+
+  @Test
+  public void shouldNotContainZeroUnlessListed() {
+    // When:
+    final InListSet set = build(COL0, new LongLiteral(1L), new LongLiteral(2L)).get();
+
+    // Then:
+    assertThat(set.contains(0L), is(false));
+  }
+
+  @Test
+  public void shouldContainAllValuesOfLargeList() {
+    // Given:
+    final List<Expression> values = LongStream.range(0, 1000)
+        .map(i -> i * 31)
+        .mapToObj(LongLiteral::new)
+        .collect(Collectors.toList());
+
+    // When:
+    final InListSet set = build(COL0, values).get();
+
+    // Then:
+    for (long i = 0; i < 1000 * 31; i++) {
+      assertThat(set.contains(i), is(i % 31 == 0));
+    }
+  }
+
+  @Test
+  public void shouldContainStringValues() {
+    // When:
+    final InListSet set = build(COL1, new StringLiteral("a"), new StringLiteral("b")).get();
+
+    // Then:
+    assertThat(set.contains("a"), is(true));
+    assertThat(set.contains("c"), is(false));
+  }
+
+  @Test
+  public void shouldContainDoubleValues() {
+    // When:
+    final InListSet set = build(COL3, new DoubleLiteral(1.5), new DoubleLiteral(-2.0)).get();
+
+    // Then:
+    assertThat(set.contains(1.5), is(true));
+    assertThat(set.contains(-2.0), is(true));
+    assertThat(set.contains(2.0), is(false));
+  }
+
+  @Test
+  public void shouldNotContainNull() {
+    // Then:
+    assertThat(build(COL0, new LongLiteral(0L)).get().contains(null), is(false));
+    assertThat(build(COL1, new StringLiteral("a")).get().contains(null), is(false));
+  }
+
+  @Test
+  public void shouldNotBuildSetIfListContainsNonLiterals() {
+    // When:
+    final Optional<InListSet> set = build(COL0, new LongLiteral(1L), COL0);
+
+    // Then:
+    assertThat(set, is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldNotBuildSetForUnsupportedTypes() {
+    // When:
+    final Optional<InListSet> set =
+        build(COL8, new DecimalLiteral(new BigDecimal("1.2")));
+
+    // Then:
+    assertThat(set, is(Optional.empty()));
+  }
+
+  private Optional<InListSet> build(final Expression value, final Expression... values) {
+    return build(value, ImmutableList.copyOf(values));
+  }
+
+  private Optional<InListSet> build(final Expression value, final List<Expression> values) {
+    final InPredicate preprocessed = InListEvaluator.preprocess(
+        new InPredicate(value, new InListExpression(values)),
+        typeManager,
+        ImmutableMap.of()
+    );
+    return InListSet.from(preprocessed, typeManager, ImmutableMap.of());
+  }
+}
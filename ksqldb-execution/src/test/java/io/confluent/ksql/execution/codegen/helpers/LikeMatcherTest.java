@@ -0,0 +1,144 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.codegen.helpers;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThrows;
+
+import io.confluent.ksql.util.KsqlException;
+import java.util.Optional;
+import org.junit.Test;
+
+public class LikeMatcherTest {
+
+  @Test
+  public void shouldMatchExact() {
+    // When:
+    final LikeMatcher matcher = LikeMatcher.compile("foo", Optional.empty());
+
+    // Then:
+    assertThat(matcher.matches("foo"), is(true));
+    assertThat(matcher.matches("foo "), is(false));
+    assertThat(matcher.matches(""), is(false));
+  }
+
+  @Test
+  public void shouldMatchEmptyPatternOnlyAgainstEmptyString() {
+    // When:
+    final LikeMatcher matcher = LikeMatcher.compile("", Optional.empty());
+
+    // Then:
+    assertThat(matcher.matches(""), is(true));
+    assertThat(matcher.matches("a"), is(false));
+  }
+
+  @Test
+  public void shouldMatchPrefix() {
+    // When:
+    final LikeMatcher matcher = LikeMatcher.compile("foo%%", Optional.empty());
+
+    // Then:
+    assertThat(matcher.matches("foo"), is(true));
+    assertThat(matcher.matches("foobar"), is(true));
+    assertThat(matcher.matches("barfoo"), is(false));
+  }
+
+  @Test
+  public void shouldMatchSuffix() {
+    // When:
+    final LikeMatcher matcher = LikeMatcher.compile("%%foo", Optional.empty());
+
+    // Then:
+    assertThat(matcher.matches("foo"), is(true));
+    assertThat(matcher.matches("barfoo"), is(true));
+    assertThat(matcher.matches("foobar"), is(false));
+  }
+
+  @Test
+  public void shouldMatchContains() {
+    // When:
+    final LikeMatcher matcher = LikeMatcher.compile("%/checkout/%", Optional.empty());
+
+    // Then:
+    assertThat(matcher.matches("/checkout/"), is(true));
+    assertThat(matcher.matches("www.shop.com/checkout/confirm"), is(true));
+    assertThat(matcher.matches("www.shop.com/checkout"), is(false));
+  }
+
+  @Test
+  public void shouldMatchAnythingWithSinglePercent() {
+    // When:
+    final LikeMatcher matcher = LikeMatcher.compile("%", Optional.empty());
+
+    // Then:
+    assertThat(matcher.matches(""), is(true));
+    assertThat(matcher.matches("anything"), is(true));
+  }
+
+  @Test
+  public void shouldTreatEscapedWildcardsAtEdgesAsLiterals() {
+    // When:
+    final LikeMatcher matcher = LikeMatcher.compile("!%foo%", Optional.of('!'));
+
+    // Then:
+    assertThat(matcher.matches("%foobar"), is(true));
+    assertThat(matcher.matches("foobar"), is(false));
+    assertThat(matcher.matches("a%foobar"), is(false));
+  }
+
+  @Test
+  public void shouldNotTreatRegexCharactersInFastPathsAsSpecial() {
+    // When:
+    final LikeMatcher matcher = LikeMatcher.compile("%.*", Optional.empty());
+
+    // Then:
+    assertThat(matcher.matches("a.*"), is(true));
+    assertThat(matcher.matches("abc"), is(false));
+  }
+
+  @Test
+  public void shouldMatchComplexPatterns() {
+    // When:
+    final LikeMatcher matcher = LikeMatcher.compile("%/shop/%/confirm_", Optional.empty());
+
+    // Then:
+    assertThat(matcher.matches("a/shop/checkout/confirm?"), is(true));
+    assertThat(matcher.matches("a/shop/checkout/confirm"), is(false));
+  }
+
+  @Test
+  public void shouldMatchAcrossLineTerminatorsInAllShapes() {
+    // Then:
+    assertThat(LikeMatcher.compile("foo%", Optional.empty()).matches("foo\nbar"), is(true));
+    assertThat(LikeMatcher.compile("%bar", Optional.empty()).matches("foo\nbar"), is(true));
+    assertThat(LikeMatcher.compile("f%o_b%", Optional.empty()).matches("fo\nbar"), is(true));
+    assertThat(LikeMatcher.compile("foo_bar", Optional.empty()).matches("foo\nbar"), is(true));
+  }
+
+  @Test
+  public void shouldThrowIfPatternEndsWithEscapeCharacter() {
+    // When:
+    final Exception e = assertThrows(
+        KsqlException.class,
+        () -> LikeMatcher.compile("foo!", Optional.of('!'))
+    );
+
+    // Then:
+    assertThat(e.getMessage(), containsString("LIKE pattern must not end with escape character"));
+  }
+}
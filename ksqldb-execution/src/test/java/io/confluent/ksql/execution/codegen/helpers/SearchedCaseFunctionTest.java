@@ -221,4 +221,29 @@ public class SearchedCaseFunctionTest {
     // Then:
     assertThat(result, is(nullValue()));
   }
+
+  @Test
+  public void shouldNotMatchNullCondition() {
+    // Given:
+    final List<SearchedCaseFunction.LazyWhenClause<Integer>> lazyWhenClauses = ImmutableList.of(
+        SearchedCaseFunction.whenClause(() -> null, () -> 1),
+        SearchedCaseFunction.whenClause(() -> true, () -> 2)
+    );
+
+    // When:
+    final Integer result = SearchedCaseFunction.searchedCaseFunction(
+        lazyWhenClauses,
+        () -> 10
+    );
+
+    // Then:
+    assertThat(result, equalTo(2));
+  }
+
+  @Test
+  public void shouldOnlyTreatTrueAsTrue() {
+    assertThat(SearchedCaseFunction.isTrue(true), is(true));
+    assertThat(SearchedCaseFunction.isTrue(false), is(false));
+    assertThat(SearchedCaseFunction.isTrue(null), is(false));
+  }
 }
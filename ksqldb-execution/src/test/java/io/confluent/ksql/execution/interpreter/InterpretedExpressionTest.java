@@ -987,6 +987,22 @@ public class InterpretedExpressionTest {
     assertThat(interpreter2.evaluate(make(7, 10)), nullValue());
   }
 
+  @Test
+  public void shouldNotMatchSearchedCaseWhenClauseWithNullCondition() {
+    // Given:
+    final Expression expression = new SearchedCaseExpression(
+        ImmutableList.of(new WhenClause(COL11, new StringLiteral("Yes"))),
+        Optional.of(new StringLiteral("No"))
+    );
+
+    // When:
+    InterpretedExpression interpreter = interpreter(expression);
+
+    // Then:
+    assertThat(interpreter.evaluate(make(11, true)), is("Yes"));
+    assertThat(interpreter.evaluate(make(11, null)), is("No"));
+  }
+
   @Test
   public void shouldEvaluateLikePredicate() {
     // Given:
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.runtime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.execution.context.QueryContext;
+import io.confluent.ksql.query.QueryId;
+import io.confluent.ksql.rest.entity.QueryStepProfile;
+import io.confluent.ksql.util.KsqlConstants;
+import io.confluent.ksql.util.ReservedInternalTopics;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.KafkaMetric;
+import org.apache.kafka.common.metrics.Metrics;
+import org.junit.After;
+import org.junit.Test;
+
+public class QueryProfilerTest {
+
+  private static final QueryId QUERY_ID = new QueryId("CSAS_1");
+  private static final QueryContext SOURCE = new QueryContext.Stacker()
+      .push("KsqlTopic", "Source")
+      .getQueryContext();
+  private static final QueryContext SINK = new QueryContext.Stacker()
+      .push("Sink")
+      .getQueryContext();
+
+  private final Metrics metrics = new Metrics();
+  private final AtomicLong clock = new AtomicLong();
+
+  @After
+  public void tearDown() {
+    QueryProfiler.notifyQueryClose(QUERY_ID);
+    metrics.close();
+  }
+
+  @Test
+  public void shouldNotRegisterUntilFirstRecordProcessed() {
+    // Given:
+    givenProfiler().step(SOURCE);
+
+    // Then:
+    assertThat(QueryProfiler.forQuery(QUERY_ID), is(Optional.empty()));
+    assertThat(metrics.metric(metricName(QueryProfiler.RECORDS_IN_TOTAL, "KsqlTopic-Source")),
+        is(nullValue()));
+  }
+
+  @Test
+  public void shouldProfileSteps() {
+    // Given:
+    final QueryProfiler profiler = givenProfiler();
+    final StepProfiler source = profiler.step(SOURCE);
+    final StepProfiler sink = profiler.step(SINK);
+
+    // When:
+    process(source, 10, 1);
+    process(source, 20, 0);
+    process(sink, 5, 1);
+
+    // Then:
+    assertThat(QueryProfiler.forQuery(QUERY_ID).get(), contains(
+        new QueryStepProfile("KsqlTopic-Source", 2, 1, 2, 30),
+        new QueryStepProfile("Sink", 1, 1, 1, 5)
+    ));
+  }
+
+  @Test
+  public void shouldReturnSameStepProfilerForSameStep() {
+    // Given:
+    final QueryProfiler profiler = givenProfiler();
+
+    // When:
+    final StepProfiler first = profiler.step(SOURCE);
+    final StepProfiler second = profiler.step(SOURCE);
+
+    // Then:
+    assertThat(second, is(first));
+  }
+
+  @Test
+  public void shouldExportMetrics() {
+    // Given:
+    final StepProfiler source = givenProfiler().step(SOURCE);
+
+    // When:
+    process(source, 10, 1);
+    process(source, 20, 0);
+
+    // Then:
+    assertThat(metricValue(QueryProfiler.RECORDS_IN_TOTAL, "KsqlTopic-Source"), is(2.0));
+    assertThat(metricValue(QueryProfiler.RECORDS_OUT_TOTAL, "KsqlTopic-Source"), is(1.0));
+    assertThat(metricValue(QueryProfiler.PROCESSING_TIME_AVG, "KsqlTopic-Source"), is(15.0));
+  }
+
+  @Test
+  public void shouldReplacePreviouslyRegisteredProfiler() {
+    // Given:
+    final StepProfiler original = givenProfiler().step(SOURCE);
+    process(original, 10, 1);
+
+    final StepProfiler replacement = givenProfiler().step(SOURCE);
+
+    // When:
+    process(replacement, 20, 1);
+
+    // Then:
+    final Optional<List<QueryStepProfile>> profile = QueryProfiler.forQuery(QUERY_ID);
+    assertThat(profile.get(), contains(
+        new QueryStepProfile("KsqlTopic-Source", 1, 1, 1, 20)
+    ));
+    assertThat(metricValue(QueryProfiler.RECORDS_IN_TOTAL, "KsqlTopic-Source"), is(1.0));
+  }
+
+  @Test
+  public void shouldRemoveProfileAndMetricsOnQueryClose() {
+    // Given:
+    final StepProfiler source = givenProfiler().step(SOURCE);
+    process(source, 10, 1);
+
+    // When:
+    QueryProfiler.notifyQueryClose(QUERY_ID);
+
+    // Then:
+    assertThat(QueryProfiler.forQuery(QUERY_ID), is(Optional.empty()));
+    assertThat(metrics.metric(metricName(QueryProfiler.RECORDS_IN_TOTAL, "KsqlTopic-Source")),
+        is(nullValue()));
+  }
+
+  private QueryProfiler givenProfiler() {
+    return new QueryProfiler(metrics, "service", QUERY_ID, 1, clock::get);
+  }
+
+  private void process(final StepProfiler step, final long nanos, final int outputs) {
+    final long start = step.start();
+    clock.addAndGet(nanos);
+    step.end(start, outputs);
+  }
+
+  private Object metricValue(final String name, final String step) {
+    final KafkaMetric metric = metrics.metric(metricName(name, step));
+    return metric.metricValue();
+  }
+
+  private MetricName metricName(final String name, final String step) {
+    return metrics.metricName(
+        name,
+        ReservedInternalTopics.KSQL_INTERNAL_TOPIC_PREFIX + QueryProfiler.METRIC_GROUP,
+        ImmutableMap.of(
+            KsqlConstants.KSQL_SERVICE_ID_METRICS_TAG, "service",
+            QueryProfiler.QUERY_ID_TAG, "CSAS_1",
+            QueryProfiler.STEP_TAG, step
+        )
+    );
+  }
+}
@@ -18,6 +18,7 @@ package io.confluent.ksql.execution.runtime;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -320,4 +321,36 @@ public class RuntimeBuildContextTest {
             queryContext
         ));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldNotProfileStepsIfProfilingDisabled() {
+    // Given:
+    when(ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PROFILING_ENABLED)).thenReturn(false);
+
+    // When:
+    final Optional<StepProfiler> profiler = runtimeBuildContext.getStepProfiler(queryContext);
+
+    // Then:
+    assertThat(profiler, is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldProfileStepsIfProfilingEnabled() {
+    // Given:
+    when(ksqlConfig.getBoolean(KsqlConfig.KSQL_QUERY_PROFILING_ENABLED)).thenReturn(true);
+    when(ksqlConfig.getString(KsqlConfig.KSQL_SERVICE_ID_CONFIG)).thenReturn("service");
+    when(ksqlConfig.getInt(KsqlConfig.KSQL_QUERY_PROFILING_SAMPLE_INTERVAL)).thenReturn(1);
+
+    final QueryContext otherContext = new Stacker().push("other").getQueryContext();
+
+    // When:
+    final Optional<StepProfiler> first = runtimeBuildContext.getStepProfiler(queryContext);
+    final Optional<StepProfiler> second = runtimeBuildContext.getStepProfiler(queryContext);
+    final Optional<StepProfiler> other = runtimeBuildContext.getStepProfiler(otherContext);
+
+    // Then:
+    assertThat(first.map(StepProfiler::getStep), is(Optional.of("context")));
+    assertThat(second.get(), is(sameInstance(first.get())));
+    assertThat(other.map(StepProfiler::getStep), is(Optional.of("other")));
+  }
+}
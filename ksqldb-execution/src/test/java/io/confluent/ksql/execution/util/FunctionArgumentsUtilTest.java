@@ -35,6 +35,7 @@ import io.confluent.ksql.execution.expression.tree.FunctionCall;
 import io.confluent.ksql.execution.expression.tree.IntegerLiteral;
 import io.confluent.ksql.execution.expression.tree.LambdaFunctionCall;
 import io.confluent.ksql.execution.expression.tree.LambdaVariable;
+import io.confluent.ksql.execution.expression.tree.NullLiteral;
 import io.confluent.ksql.execution.expression.tree.SearchedCaseExpression;
 import io.confluent.ksql.execution.expression.tree.StringLiteral;
 import io.confluent.ksql.execution.expression.tree.WhenClause;
@@ -55,6 +56,7 @@ import io.confluent.ksql.schema.ksql.types.SqlLambdaResolved;
 import io.confluent.ksql.schema.ksql.types.SqlType;
 import io.confluent.ksql.schema.ksql.types.SqlTypes;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import org.junit.Before;
 import org.junit.Rule;
@@ -135,6 +137,22 @@ public class FunctionArgumentsUtilTest {
     );
   }
 
+  @Test
+  public void shouldFindConstantArguments() {
+    // Given:
+    final FunctionCall expression = new FunctionCall(
+        FunctionName.of("regexp_extract"),
+        ImmutableList.of(new StringLiteral("a.*"), ARRAYCOL, new NullLiteral(), new IntegerLiteral(1))
+    );
+
+    // When:
+    final List<Optional<Object>> constants = FunctionArgumentsUtil.constantArguments(expression);
+
+    // Then:
+    assertThat(constants, is(ImmutableList.of(
+        Optional.of("a.*"), Optional.empty(), Optional.empty(), Optional.of(1))));
+  }
+
   @Test
   public void shouldResolveFunctionWithoutLambdas() {
     // Given:
@@ -80,6 +80,27 @@ public class RecordProcessingErrorTest {
     assertThat(rowAsList, contains(123, "data"));
   }
 
+  @Test
+  public void shouldNotSeeChangesToRowAfterSnapshot() throws IOException {
+    // Given:
+    final GenericRow row = GenericRow.genericRow(123, "data");
+    final ErrorMessage snapshot = RecordProcessingError
+        .recordProcessingError(errorMsg, error, row)
+        .snapshot(config);
+
+    // When:
+    row.set(0, 456);
+
+    // Then:
+    final Struct msg = (Struct) snapshot.get(config).value();
+    final List<?> rowAsList = OBJECT_MAPPER.readValue(
+        msg.getStruct(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR)
+            .getString(ProcessingLogMessageSchema.RECORD_PROCESSING_ERROR_FIELD_RECORD),
+        List.class
+    );
+    assertThat(rowAsList, contains(123, "data"));
+  }
+
   @Test
   public void shouldBuildRecordProcessingErrorCorrectlyIfRowNull() {
     // Given:
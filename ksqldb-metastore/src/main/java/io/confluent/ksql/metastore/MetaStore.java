@@ -29,5 +29,12 @@ public interface MetaStore extends FunctionRegistry, TypeRegistry {
 
   Set<SourceName> getSourceConstraints(SourceName sourceName);
 
+  /**
+   * @return a version number that is incremented every time sources or types are added to,
+   *         replaced in or removed from the metastore. Anything derived from the contents of the
+   *         metastore, e.g. a cached query plan, is stale once the version has changed.
+   */
+  long getVersion();
+
   MetaStore copy();
 }
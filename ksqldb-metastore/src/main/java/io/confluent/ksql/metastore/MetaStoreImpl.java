@@ -39,6 +39,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.concurrent.ThreadSafe;
@@ -52,6 +53,7 @@ public final class MetaStoreImpl implements MutableMetaStore {
   private final Object metaStoreLock = new Object();
   private final FunctionRegistry functionRegistry;
   private final TypeRegistry typeRegistry;
+  private final AtomicLong version = new AtomicLong();
 
   public MetaStoreImpl(final FunctionRegistry functionRegistry) {
     this.functionRegistry = Objects.requireNonNull(functionRegistry, "functionRegistry");
@@ -62,7 +64,8 @@ public final class MetaStoreImpl implements MutableMetaStore {
       final Map<SourceName, SourceInfo> dataSources,
       final FunctionRegistry functionRegistry,
       final TypeRegistry typeRegistry,
-      final Map<SourceName, Set<SourceName>> dropConstraints
+      final Map<SourceName, Set<SourceName>> dropConstraints,
+      final long version
   ) {
     this.functionRegistry = Objects.requireNonNull(functionRegistry, "functionRegistry");
     this.typeRegistry = new TypeRegistryImpl();
@@ -76,6 +79,7 @@ public final class MetaStoreImpl implements MutableMetaStore {
       childSources.addAll(references);
       this.dropConstraints.put(source, childSources);
     });
+    this.version.set(version);
   }
 
   @Override
@@ -108,6 +112,7 @@ public final class MetaStoreImpl implements MutableMetaStore {
     // a copy of the previous source info
     dataSources.put(dataSource.getName(),
         (existing != null) ? existing.copyWith(dataSource) : new SourceInfo(dataSource));
+    version.incrementAndGet();
   }
 
   @Override
@@ -136,6 +141,7 @@ public final class MetaStoreImpl implements MutableMetaStore {
 
         return null;
       });
+      version.incrementAndGet();
     }
   }
 
@@ -203,7 +209,8 @@ public final class MetaStoreImpl implements MutableMetaStore {
   @Override
   public MutableMetaStore copy() {
     synchronized (metaStoreLock) {
-      return new MetaStoreImpl(dataSources, functionRegistry, typeRegistry, dropConstraints);
+      return new MetaStoreImpl(
+          dataSources, functionRegistry, typeRegistry, dropConstraints, version.get());
     }
   }
 
@@ -276,14 +283,27 @@ public final class MetaStoreImpl implements MutableMetaStore {
         });
   }
 
+  @Override
+  public long getVersion() {
+    return version.get();
+  }
+
   @Override
   public boolean registerType(final String name, final SqlType type) {
-    return typeRegistry.registerType(name, type);
+    final boolean registered = typeRegistry.registerType(name, type);
+    if (registered) {
+      version.incrementAndGet();
+    }
+    return registered;
   }
 
   @Override
   public boolean deleteType(final String name) {
-    return typeRegistry.deleteType(name);
+    final boolean deleted = typeRegistry.deleteType(name);
+    if (deleted) {
+      version.incrementAndGet();
+    }
+    return deleted;
   }
 
   @Override
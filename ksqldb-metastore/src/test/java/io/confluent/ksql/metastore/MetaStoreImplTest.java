@@ -293,6 +293,48 @@ public class MetaStoreImplTest {
     assertThat(e.getMessage(), containsString("No data source with name bob exists"));
   }
 
+  @Test
+  public void shouldIncrementVersionOnChange() {
+    // Given:
+    final long initial = metaStore.getVersion();
+
+    // When:
+    metaStore.putSource(dataSource, false);
+    final long afterPut = metaStore.getVersion();
+    metaStore.deleteSource(dataSource.getName());
+    final long afterDelete = metaStore.getVersion();
+    metaStore.registerType("foo", SqlPrimitiveType.of(SqlBaseType.STRING));
+
+    // Then:
+    assertThat(afterPut, is(initial + 1));
+    assertThat(afterDelete, is(initial + 2));
+    assertThat(metaStore.getVersion(), is(initial + 3));
+  }
+
+  @Test
+  public void shouldNotIncrementVersionOnFailedChange() {
+    // Given:
+    final long initial = metaStore.getVersion();
+
+    // When:
+    assertThrows(KsqlException.class, () -> metaStore.deleteSource(dataSource.getName()));
+
+    // Then:
+    assertThat(metaStore.getVersion(), is(initial));
+  }
+
+  @Test
+  public void shouldCopyVersion() {
+    // Given:
+    metaStore.putSource(dataSource, false);
+
+    // When:
+    final MetaStore copy = metaStore.copy();
+
+    // Then:
+    assertThat(copy.getVersion(), is(metaStore.getVersion()));
+  }
+
   @Test
   public void shouldRegisterType() {
     // Given:
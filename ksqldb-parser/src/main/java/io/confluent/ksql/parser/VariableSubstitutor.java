@@ -58,6 +58,13 @@ public final class VariableSubstitutor {
     }
   }
 
+  /**
+   * @return the names of all variables referenced in the supplied text.
+   */
+  public static Set<String> lookup(final String text) {
+    return VariablesLookup.lookup(text);
+  }
+
   public static String substitute(
       final String string,
       final Map<String, String> valueMap
@@ -0,0 +1,334 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.api.impl;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.analyzer.ImmutableAnalysis;
+import io.confluent.ksql.analyzer.RewrittenAnalysis;
+import io.confluent.ksql.engine.KsqlEngine;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.expression.tree.Literal;
+import io.confluent.ksql.execution.expression.tree.StringLiteral;
+import io.confluent.ksql.metrics.MetricCollectors;
+import io.confluent.ksql.parser.ExpressionParser;
+import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
+import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
+import io.confluent.ksql.parser.SqlFormatter;
+import io.confluent.ksql.parser.VariableSubstitutor;
+import io.confluent.ksql.parser.tree.Query;
+import io.confluent.ksql.parser.tree.Statement;
+import io.confluent.ksql.util.KsqlConstants;
+import io.confluent.ksql.util.ParserUtil;
+import io.confluent.ksql.util.ReservedInternalTopics;
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.CumulativeCount;
+import org.apache.kafka.common.metrics.stats.Rate;
+import org.apache.kafka.common.metrics.stats.WindowedCount;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Caches the parsed and analyzed form of pull queries, so that executing the same pull query
+ * repeatedly skips parsing and analysis.
+ *
+ * <p>Pull queries may be parameterized using session variables, e.g.
+ * {@code SELECT * FROM T WHERE ID = ${id};}. Where every variable in a statement is used as a
+ * whole literal, the statement is parsed and analyzed once, with each variable replaced by a
+ * placeholder, and the placeholders are bound to the literal values of the variables on every
+ * execution. Hence all executions of a parameterized pull query share a single cache entry,
+ * whatever the values of its variables.
+ *
+ * <p>Entries are keyed by statement text and are invalidated once the version of the metastore
+ * changes, i.e. once any source or type has been added, replaced or removed since the entry was
+ * built. Statements that aren't pull queries, or whose variables can't be bound as literals, are
+ * cached as uncacheable, so that they take the regular path without being parsed twice.
+ */
+public class PullQueryPlanCache implements Closeable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PullQueryPlanCache.class);
+
+  private static final String METRIC_GROUP = "pull-query-plan-cache";
+  private static final String PLACEHOLDER_PREFIX = "__ksql_pull_query_param_";
+  private static final String PLACEHOLDER_SUFFIX = "__";
+
+  private final KsqlEngine ksqlEngine;
+  private final Cache<String, CachedPlan> cache;
+  private final Metrics metrics;
+  private final Sensor hitSensor;
+  private final Sensor missSensor;
+  private final Sensor invalidationSensor;
+  private final Sensor evictionSensor;
+
+  public PullQueryPlanCache(
+      final KsqlEngine ksqlEngine,
+      final int maxSize,
+      final String ksqlServiceId
+  ) {
+    this(ksqlEngine, maxSize, MetricCollectors.getMetrics(), ksqlServiceId);
+  }
+
+  @VisibleForTesting
+  PullQueryPlanCache(
+      final KsqlEngine ksqlEngine,
+      final int maxSize,
+      final Metrics metrics,
+      final String ksqlServiceId
+  ) {
+    this.ksqlEngine = Objects.requireNonNull(ksqlEngine, "ksqlEngine");
+    this.metrics = Objects.requireNonNull(metrics, "metrics");
+
+    final Map<String, String> tags =
+        Collections.singletonMap(KsqlConstants.KSQL_SERVICE_ID_METRICS_TAG, ksqlServiceId);
+    this.hitSensor = countSensor("hit", "Pull queries whose plan was served from cache", tags);
+    this.missSensor = countSensor("miss", "Pull queries whose plan wasn't cached", tags);
+    this.invalidationSensor = countSensor("invalidation",
+        "Cached pull query plans invalidated by metastore changes", tags);
+    this.evictionSensor = countSensor("eviction",
+        "Cached pull query plans evicted as the cache was full", tags);
+
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .<String, CachedPlan>removalListener(notification -> {
+          if (notification.getCause() == RemovalCause.SIZE) {
+            evictionSensor.record();
+          }
+        })
+        .build();
+  }
+
+  /**
+   * Returns the statement and analysis of the supplied pull query, with any variables bound.
+   *
+   * @param sql the statement text, which may reference session variables.
+   * @param sessionVariables the values of the session variables.
+   * @return the prepared pull query, or empty if the statement can't be served from the cache, in
+   *         which case it should be prepared and analyzed the regular way.
+   */
+  public Optional<BoundPullQuery> get(
+      final String sql,
+      final Map<String, String> sessionVariables
+  ) {
+    final long metaStoreVersion = ksqlEngine.getMetaStore().getVersion();
+    CachedPlan plan = cache.getIfPresent(sql);
+    if (plan != null && plan.metaStoreVersion != metaStoreVersion) {
+      invalidationSensor.record();
+      cache.invalidate(sql);
+      plan = null;
+    }
+
+    if (plan == null) {
+      missSensor.record();
+      plan = buildPlan(sql, metaStoreVersion);
+      cache.put(sql, plan);
+    } else if (plan.isCacheable()) {
+      hitSensor.record();
+    }
+
+    return plan.isCacheable() ? plan.bind(sessionVariables) : Optional.empty();
+  }
+
+  @Override
+  public void close() {
+    cache.invalidateAll();
+    metrics.removeSensor(hitSensor.name());
+    metrics.removeSensor(missSensor.name());
+    metrics.removeSensor(invalidationSensor.name());
+    metrics.removeSensor(evictionSensor.name());
+  }
+
+  @VisibleForTesting
+  long size() {
+    return cache.size();
+  }
+
+  private CachedPlan buildPlan(final String sql, final long metaStoreVersion) {
+    try {
+      final List<ParsedStatement> statements = ksqlEngine.parse(sql);
+      if (statements.size() != 1) {
+        return CachedPlan.uncacheable(metaStoreVersion);
+      }
+
+      final String templateText = statements.get(0).getStatementText();
+      final Map<String, String> placeholders = new HashMap<>();
+      for (final String variable : VariableSubstitutor.lookup(templateText)) {
+        placeholders.put(variable, "'" + PLACEHOLDER_PREFIX + variable + PLACEHOLDER_SUFFIX + "'");
+      }
+
+      final ParsedStatement parsed = placeholders.isEmpty()
+          ? statements.get(0)
+          : ksqlEngine.parse(VariableSubstitutor.substitute(templateText, placeholders)).get(0);
+      final PreparedStatement<?> prepared = ksqlEngine.prepare(parsed, ImmutableMap.of());
+      final Statement statement = prepared.getStatement();
+      if (!(statement instanceof Query) || !((Query) statement).isPullQuery()) {
+        return CachedPlan.uncacheable(metaStoreVersion);
+      }
+
+      // Variables within string literals, e.g. 'a-${id}', can't be bound as literals:
+      final String formatted = placeholders.isEmpty() ? "" : SqlFormatter.formatSql(statement);
+      for (final Map.Entry<String, String> placeholder : placeholders.entrySet()) {
+        if (countOccurrences(formatted, placeholder.getValue())
+            != countOccurrences(templateText, variableReference(placeholder.getKey()))) {
+          return CachedPlan.uncacheable(metaStoreVersion);
+        }
+      }
+
+      @SuppressWarnings("unchecked")
+      final PreparedStatement<Query> query = (PreparedStatement<Query>) prepared;
+      final ImmutableAnalysis analysis = ksqlEngine
+          .analyzeQueryWithNoOutputTopic(query.getStatement(), query.getStatementText());
+
+      return new CachedPlan(
+          metaStoreVersion,
+          templateText,
+          query.getStatement(),
+          analysis,
+          placeholders.keySet()
+      );
+    } catch (final Exception e) {
+      // Leave it to the regular path to report the error:
+      LOG.debug("Pull query can not be cached", e);
+      return CachedPlan.uncacheable(metaStoreVersion);
+    }
+  }
+
+  private Sensor countSensor(
+      final String name,
+      final String description,
+      final Map<String, String> tags
+  ) {
+    final String group = ReservedInternalTopics.KSQL_INTERNAL_TOPIC_PREFIX + METRIC_GROUP;
+    final Sensor sensor = metrics.sensor(METRIC_GROUP + "-" + name);
+    sensor.add(
+        metrics.metricName(name + "-total", group, description, tags),
+        new CumulativeCount());
+    sensor.add(
+        metrics.metricName(name + "-rate", group, description + " per second", tags),
+        new Rate(new WindowedCount()));
+    return sensor;
+  }
+
+  private static String variableReference(final String variable) {
+    return VariableSubstitutor.PREFIX + variable + VariableSubstitutor.SUFFIX;
+  }
+
+  private static int countOccurrences(final String text, final String substring) {
+    int count = 0;
+    int index = text.indexOf(substring);
+    while (index >= 0) {
+      count++;
+      index = text.indexOf(substring, index + substring.length());
+    }
+    return count;
+  }
+
+  /**
+   * A pull query with its variables bound, ready for execution.
+   */
+  public static final class BoundPullQuery {
+
+    private final PreparedStatement<Query> statement;
+    private final ImmutableAnalysis analysis;
+
+    private BoundPullQuery(
+        final PreparedStatement<Query> statement,
+        final ImmutableAnalysis analysis
+    ) {
+      this.statement = Objects.requireNonNull(statement, "statement");
+      this.analysis = Objects.requireNonNull(analysis, "analysis");
+    }
+
+    public PreparedStatement<Query> getStatement() {
+      return statement;
+    }
+
+    public ImmutableAnalysis getAnalysis() {
+      return analysis;
+    }
+  }
+
+  private static final class CachedPlan {
+
+    private final long metaStoreVersion;
+    private final String templateText;
+    private final Query query;
+    private final ImmutableAnalysis analysis;
+    private final Iterable<String> variables;
+
+    static CachedPlan uncacheable(final long metaStoreVersion) {
+      return new CachedPlan(metaStoreVersion, null, null, null, Collections.emptySet());
+    }
+
+    private CachedPlan(
+        final long metaStoreVersion,
+        final String templateText,
+        final Query query,
+        final ImmutableAnalysis analysis,
+        final Iterable<String> variables
+    ) {
+      this.metaStoreVersion = metaStoreVersion;
+      this.templateText = templateText;
+      this.query = query;
+      this.analysis = analysis;
+      this.variables = variables;
+    }
+
+    boolean isCacheable() {
+      return query != null;
+    }
+
+    Optional<BoundPullQuery> bind(final Map<String, String> sessionVariables) {
+      final Map<String, Literal> bound = new HashMap<>();
+      for (final String variable : variables) {
+        final String value = sessionVariables.get(variable);
+        if (value == null) {
+          return Optional.empty();
+        }
+        final Expression literal = ExpressionParser.parseExpression(ParserUtil.sanitize(value));
+        if (!(literal instanceof Literal)) {
+          return Optional.empty();
+        }
+        bound.put(PLACEHOLDER_PREFIX + variable + PLACEHOLDER_SUFFIX, (Literal) literal);
+      }
+
+      if (bound.isEmpty()) {
+        return Optional.of(new BoundPullQuery(
+            PreparedStatement.of(templateText, query), analysis));
+      }
+
+      final String statementText = VariableSubstitutor.substitute(templateText, sessionVariables);
+      final ImmutableAnalysis boundAnalysis = new RewrittenAnalysis(
+          analysis,
+          (expression, context) -> expression instanceof StringLiteral
+              ? Optional.ofNullable(bound.get(((StringLiteral) expression).getValue()))
+              : Optional.empty()
+      );
+      return Optional.of(new BoundPullQuery(
+          PreparedStatement.of(statementText, query), boundAnalysis));
+    }
+  }
+}
@@ -19,6 +19,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.util.concurrent.RateLimiter;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.confluent.ksql.analyzer.ImmutableAnalysis;
+import io.confluent.ksql.api.impl.PullQueryPlanCache.BoundPullQuery;
 import io.confluent.ksql.api.server.MetricsCallbackHolder;
 import io.confluent.ksql.api.server.QueryHandle;
 import io.confluent.ksql.api.server.SlidingWindowRateLimiter;
@@ -85,6 +86,7 @@ public class QueryEndpoint {
   private final HARouting routing;
   private final PushRouting pushRouting;
   private final Optional<LocalCommands> localCommands;
+  private final Optional<PullQueryPlanCache> pullQueryPlanCache;
 
   // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
   @SuppressFBWarnings(value = "EI_EXPOSE_REP2")
@@ -100,7 +102,8 @@ public class QueryEndpoint {
       final SlidingWindowRateLimiter pullBandLimiter,
       final HARouting routing,
       final PushRouting pushRouting,
-      final Optional<LocalCommands> localCommands
+      final Optional<LocalCommands> localCommands,
+      final Optional<PullQueryPlanCache> pullQueryPlanCache
   ) {
     this.ksqlEngine = ksqlEngine;
     this.ksqlConfig = ksqlConfig;
@@ -113,6 +116,7 @@ public class QueryEndpoint {
     this.routing = routing;
     this.pushRouting = pushRouting;
     this.localCommands = localCommands;
+    this.pullQueryPlanCache = pullQueryPlanCache;
   }
 
   public QueryPublisher createQueryPublisher(
@@ -127,6 +131,21 @@ public class QueryEndpoint {
     // Must be run on worker as all this stuff is slow
     VertxUtils.checkIsWorker();
 
+    final Optional<BoundPullQuery> cached = pullQueryPlanCache.flatMap(cache ->
+        cache.get(sql, toStringValues(sessionVariables)));
+    if (cached.isPresent()) {
+      return createTablePullQueryPublisher(
+          cached.get().getAnalysis(),
+          context,
+          serviceContext,
+          ConfiguredStatement.of(
+              cached.get().getStatement(), SessionConfig.of(ksqlConfig, properties)),
+          pullQueryMetrics,
+          workerExecutor,
+          metricsCallbackHolder
+      );
+    }
+
     final ConfiguredStatement<Query> statement = createStatement(
         sql, properties, sessionVariables);
 
@@ -303,9 +322,7 @@ public class QueryEndpoint {
     }
     final PreparedStatement<?> ps = ksqlEngine.prepare(
         statements.get(0),
-        sessionVariables.entrySet()
-            .stream()
-            .collect(Collectors.toMap(e -> e.getKey(), e -> e.getValue().toString()))
+        toStringValues(sessionVariables)
     );
     final Statement statement = ps.getStatement();
     if (!(statement instanceof Query)) {
@@ -316,6 +333,12 @@ public class QueryEndpoint {
     return ConfiguredStatement.of(psq, SessionConfig.of(ksqlConfig, properties));
   }
 
+  private static Map<String, String> toStringValues(final Map<String, Object> sessionVariables) {
+    return sessionVariables.entrySet()
+        .stream()
+        .collect(Collectors.toMap(e -> e.getKey(), e -> e.getValue().toString()));
+  }
+
   private static List<String> colTypesFromSchema(final List<Column> columns) {
     return columns.stream()
         .map(Column::type)
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.api.server;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.rest.entity.KsqlErrorMessage;
+import io.confluent.ksql.rest.entity.QueryResponseMetadata;
+import io.vertx.core.Context;
+import io.vertx.core.buffer.Buffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Writes the query response stream in a compact binary, columnar format.
+ *
+ * <p>The first entry in the response is a JSON object representing the metadata of the query,
+ * terminated by a newline, exactly as in the delimited format.
+ *
+ * <p>The metadata is followed by a sequence of frames. Each frame starts with a 4 byte big-endian
+ * length, which does not include the length itself, followed by a one byte frame type:
+ * <ul>
+ *   <li>{@link #ROWS_FRAME}: a batch of rows laid out column by column. The payload is a 4 byte
+ *   row count followed, for each column, by a one byte column encoding, a null bitmap of
+ *   {@code ceil(rowCount / 8)} bytes (bit set means null) and the non-null values of the column.
+ *   Strings and JSON values are written as a 4 byte length followed by UTF-8 bytes.</li>
+ *   <li>{@link #ERROR_FRAME}: a JSON object representing the error.</li>
+ * </ul>
+ *
+ * <p>Rows are buffered and written as a single frame, either once {@link #MAX_BATCH_ROWS} rows
+ * have accumulated or once the current context task completes. This means all rows handed over by
+ * the publisher in one go are written to the response in one go. Frames are written through the
+ * supplied {@link QueryStreamWriteBatcher}.
+ */
+public class BinaryQueryStreamResponseWriter implements QueryStreamResponseWriter {
+
+  static final byte ROWS_FRAME = 1;
+  static final byte ERROR_FRAME = 2;
+
+  static final byte BOOLEAN_ENCODING = 1;
+  static final byte INT_ENCODING = 2;
+  static final byte LONG_ENCODING = 3;
+  static final byte DOUBLE_ENCODING = 4;
+  static final byte STRING_ENCODING = 5;
+  static final byte JSON_ENCODING = 6;
+
+  private static final int MAX_BATCH_ROWS = 500;
+  private static final int MIN_FRAME_SIZE = 1024;
+
+  private final QueryStreamWriteBatcher batcher;
+  private final Context context;
+  private final List<GenericRow> batch = new ArrayList<>(MAX_BATCH_ROWS);
+  private byte[] columnEncodings;
+  private int lastFrameSize = MIN_FRAME_SIZE;
+  private boolean flushScheduled;
+
+  @SuppressFBWarnings(value = "EI_EXPOSE_REP2")
+  public BinaryQueryStreamResponseWriter(
+      final QueryStreamWriteBatcher batcher,
+      final Context context
+  ) {
+    this.batcher = Objects.requireNonNull(batcher);
+    this.context = Objects.requireNonNull(context);
+  }
+
+  @Override
+  public QueryStreamResponseWriter writeMetadata(final QueryResponseMetadata metaData) {
+    columnEncodings = new byte[metaData.columnTypes.size()];
+    for (int i = 0; i < columnEncodings.length; i++) {
+      columnEncodings[i] = encodingForType(metaData.columnTypes.get(i));
+    }
+    batcher.write(ServerUtils.serializeObject(metaData).appendString("\n"), 0);
+    batcher.flush();
+    return this;
+  }
+
+  @Override
+  public QueryStreamResponseWriter writeRow(final GenericRow row) {
+    if (columnEncodings == null) {
+      throw new IllegalStateException("writeRow called before metadata written");
+    }
+
+    batch.add(row);
+    if (batch.size() >= MAX_BATCH_ROWS) {
+      flush();
+    } else if (!flushScheduled) {
+      flushScheduled = true;
+      context.runOnContext(v -> {
+        flushScheduled = false;
+        flush();
+      });
+    }
+    return this;
+  }
+
+  @Override
+  public QueryStreamResponseWriter writeError(final KsqlErrorMessage error) {
+    flush();
+    final Buffer json = ServerUtils.serializeObject(error);
+    final Buffer frame = Buffer.buffer(json.length() + Integer.BYTES + 1)
+        .appendInt(json.length() + 1)
+        .appendByte(ERROR_FRAME)
+        .appendBuffer(json);
+    batcher.write(frame, 0);
+    batcher.flush();
+    return this;
+  }
+
+  @Override
+  public void end() {
+    flush();
+    batcher.end();
+  }
+
+  private void flush() {
+    if (batch.isEmpty()) {
+      return;
+    }
+
+    final Buffer frame = Buffer.buffer(lastFrameSize);
+    frame.appendInt(0);
+    frame.appendByte(ROWS_FRAME);
+    frame.appendInt(batch.size());
+    for (int col = 0; col < columnEncodings.length; col++) {
+      encodeColumn(frame, col);
+    }
+    frame.setInt(0, frame.length() - Integer.BYTES);
+
+    lastFrameSize = Math.max(MIN_FRAME_SIZE, frame.length());
+    final int rows = batch.size();
+    batch.clear();
+    batcher.write(frame, rows);
+    batcher.flush();
+  }
+
+  private void encodeColumn(final Buffer frame, final int col) {
+    final byte encoding = columnMatchesEncoding(col) ? columnEncodings[col] : JSON_ENCODING;
+    frame.appendByte(encoding);
+
+    final int bitmapStart = frame.length();
+    final int bitmapSize = (batch.size() + 7) / 8;
+    for (int i = 0; i < bitmapSize; i++) {
+      frame.appendByte((byte) 0);
+    }
+
+    for (int row = 0; row < batch.size(); row++) {
+      final Object value = batch.get(row).get(col);
+      if (value == null) {
+        final int pos = bitmapStart + row / 8;
+        frame.setByte(pos, (byte) (frame.getByte(pos) | (1 << (row % 8))));
+      } else {
+        appendValue(frame, encoding, value);
+      }
+    }
+  }
+
+  private boolean columnMatchesEncoding(final int col) {
+    final Class<?> expected = javaTypeForEncoding(columnEncodings[col]);
+    if (expected == null) {
+      return true;
+    }
+    for (final GenericRow row : batch) {
+      final Object value = row.get(col);
+      if (value != null && value.getClass() != expected) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void appendValue(final Buffer frame, final byte encoding, final Object value) {
+    switch (encoding) {
+      case BOOLEAN_ENCODING:
+        frame.appendByte((Boolean) value ? (byte) 1 : (byte) 0);
+        break;
+      case INT_ENCODING:
+        frame.appendInt((Integer) value);
+        break;
+      case LONG_ENCODING:
+        frame.appendLong((Long) value);
+        break;
+      case DOUBLE_ENCODING:
+        frame.appendDouble((Double) value);
+        break;
+      case STRING_ENCODING:
+        final byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+        frame.appendInt(bytes.length);
+        frame.appendBytes(bytes);
+        break;
+      default:
+        final Buffer json = ServerUtils.serializeObject(value);
+        frame.appendInt(json.length());
+        frame.appendBuffer(json);
+        break;
+    }
+  }
+
+  private static byte encodingForType(final String columnType) {
+    switch (columnType) {
+      case "BOOLEAN":
+        return BOOLEAN_ENCODING;
+      case "INTEGER":
+        return INT_ENCODING;
+      case "BIGINT":
+        return LONG_ENCODING;
+      case "DOUBLE":
+        return DOUBLE_ENCODING;
+      case "STRING":
+        return STRING_ENCODING;
+      default:
+        return JSON_ENCODING;
+    }
+  }
+
+  private static Class<?> javaTypeForEncoding(final byte encoding) {
+    switch (encoding) {
+      case BOOLEAN_ENCODING:
+        return Boolean.class;
+      case INT_ENCODING:
+        return Integer.class;
+      case LONG_ENCODING:
+        return Long.class;
+      case DOUBLE_ENCODING:
+        return Double.class;
+      case STRING_ENCODING:
+        return String.class;
+      default:
+        return null;
+    }
+  }
+}
@@ -19,7 +19,6 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.rest.entity.KsqlErrorMessage;
 import io.confluent.ksql.rest.entity.QueryResponseMetadata;
-import io.vertx.core.http.HttpServerResponse;
 import java.util.Objects;
 
 /**
@@ -37,37 +36,41 @@ import java.util.Objects;
  * <p>Each subsequent entry in the stream is a JSON array representing the values of the columns
  * returned by the query.
  *
+ * <p>Rows are coalesced into larger writes by the supplied {@link QueryStreamWriteBatcher}.
+ *
  * <p>Please consult the API documentation for a full description of the format.
  */
 public class DelimitedQueryStreamResponseWriter implements QueryStreamResponseWriter {
 
-  private final HttpServerResponse response;
+  private final QueryStreamWriteBatcher batcher;
 
   @SuppressFBWarnings(value = "EI_EXPOSE_REP2")
-  public DelimitedQueryStreamResponseWriter(final HttpServerResponse response) {
-    this.response = Objects.requireNonNull(response);
+  public DelimitedQueryStreamResponseWriter(final QueryStreamWriteBatcher batcher) {
+    this.batcher = Objects.requireNonNull(batcher);
   }
 
   @Override
   public QueryStreamResponseWriter writeMetadata(final QueryResponseMetadata metaData) {
-    response.write(ServerUtils.serializeObject(metaData).appendString("\n"));
+    batcher.write(ServerUtils.serializeObject(metaData).appendString("\n"), 0);
+    batcher.flush();
     return this;
   }
 
   @Override
   public QueryStreamResponseWriter writeRow(final GenericRow row) {
-    response.write(ServerUtils.serializeObject(row.values()).appendString("\n"));
+    batcher.write(ServerUtils.serializeObject(row.values()).appendString("\n"), 1);
     return this;
   }
 
   @Override
   public QueryStreamResponseWriter writeError(final KsqlErrorMessage error) {
-    response.write(ServerUtils.serializeObject(error).appendString("\n"));
+    batcher.write(ServerUtils.serializeObject(error).appendString("\n"), 0);
+    batcher.flush();
     return this;
   }
 
   @Override
   public void end() {
-    response.end();
+    batcher.end();
   }
 }
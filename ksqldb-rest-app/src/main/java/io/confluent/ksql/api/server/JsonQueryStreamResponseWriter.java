@@ -20,7 +20,6 @@ import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.rest.entity.KsqlErrorMessage;
 import io.confluent.ksql.rest.entity.QueryResponseMetadata;
 import io.vertx.core.buffer.Buffer;
-import io.vertx.core.http.HttpServerResponse;
 import java.util.Objects;
 
 /**
@@ -39,45 +38,50 @@ import java.util.Objects;
  * <p>Each subsequent entry in the array is a JSON array representing the values of the columns
  * returned by the query.
  *
+ * <p>Rows are coalesced into larger writes by the supplied {@link QueryStreamWriteBatcher}.
+ *
  * <p>Please consult the API documentation for a full description of the format.
  */
 public class JsonQueryStreamResponseWriter implements QueryStreamResponseWriter {
 
-  private final HttpServerResponse response;
+  private final QueryStreamWriteBatcher batcher;
 
   @SuppressFBWarnings(value = "EI_EXPOSE_REP2")
-  public JsonQueryStreamResponseWriter(final HttpServerResponse response) {
-    this.response = Objects.requireNonNull(response);
+  public JsonQueryStreamResponseWriter(final QueryStreamWriteBatcher batcher) {
+    this.batcher = Objects.requireNonNull(batcher);
   }
 
   @Override
   public QueryStreamResponseWriter writeMetadata(final QueryResponseMetadata metaData) {
     final Buffer buff = Buffer.buffer().appendByte((byte) '[');
     buff.appendBuffer(ServerUtils.serializeObject(metaData));
-    response.write(buff);
+    batcher.write(buff, 0);
+    batcher.flush();
     return this;
   }
 
   @Override
   public QueryStreamResponseWriter writeRow(final GenericRow row) {
-    writeBuffer(ServerUtils.serializeObject(row.values()));
+    writeBuffer(ServerUtils.serializeObject(row.values()), 1);
     return this;
   }
 
   @Override
   public QueryStreamResponseWriter writeError(final KsqlErrorMessage error) {
-    writeBuffer(ServerUtils.serializeObject(error));
+    writeBuffer(ServerUtils.serializeObject(error), 0);
+    batcher.flush();
     return this;
   }
 
-  private void writeBuffer(final Buffer buffer) {
-    final Buffer buff = Buffer.buffer().appendByte((byte) ',');
+  private void writeBuffer(final Buffer buffer, final int rows) {
+    final Buffer buff = Buffer.buffer(buffer.length() + 1).appendByte((byte) ',');
     buff.appendBuffer(buffer);
-    response.write(buff);
+    batcher.write(buff, rows);
   }
 
   @Override
   public void end() {
-    response.write("]").end();
+    batcher.write(Buffer.buffer("]"), 0);
+    batcher.end();
   }
 }
@@ -39,6 +39,7 @@ public class QueryStreamHandler implements Handler<RoutingContext> {
   private static final Logger log = LoggerFactory.getLogger(QueryStreamHandler.class);
 
   static final String DELIMITED_CONTENT_TYPE = "application/vnd.ksqlapi.delimited.v1";
+  static final String BINARY_CONTENT_TYPE = "application/vnd.ksqlapi.binary.v1";
 
   private final Endpoints endpoints;
   private final ConnectionQueryManager connectionQueryManager;
@@ -64,13 +65,16 @@ public class QueryStreamHandler implements Handler<RoutingContext> {
     }
 
     final String contentType = routingContext.getAcceptableContentType();
+    final QueryStreamWriteBatcher batcher = new QueryStreamWriteBatcher(
+        routingContext.response(), context, server.getQueryStreamWriteMetrics());
     final QueryStreamResponseWriter queryStreamResponseWriter;
     if (DELIMITED_CONTENT_TYPE.equals(contentType) || contentType == null) {
       // Default
-      queryStreamResponseWriter =
-          new DelimitedQueryStreamResponseWriter(routingContext.response());
+      queryStreamResponseWriter = new DelimitedQueryStreamResponseWriter(batcher);
+    } else if (BINARY_CONTENT_TYPE.equals(contentType)) {
+      queryStreamResponseWriter = new BinaryQueryStreamResponseWriter(batcher, context);
     } else {
-      queryStreamResponseWriter = new JsonQueryStreamResponseWriter(routingContext.response());
+      queryStreamResponseWriter = new JsonQueryStreamResponseWriter(batcher);
     }
 
     final Optional<QueryStreamArgs> queryStreamArgs = ServerUtils
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.api.server;
+
+import com.google.common.annotations.VisibleForTesting;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.vertx.core.Context;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import java.util.Objects;
+
+/**
+ * Coalesces the writes of a query stream response into fewer, larger writes.
+ *
+ * <p>Writing every row as its own HTTP chunk costs a syscall and chunk framing per row, which
+ * dominates at high row rates. Instead, writes are buffered and flushed once the current context
+ * task completes, which is when the publisher has finished handing over its current batch of rows,
+ * or as soon as the buffered bytes reach the current batch size.
+ *
+ * <p>The batch size adapts to how quickly the client consumes the response: it grows while the
+ * write queue of the response is full, as the client can't take data any quicker and larger writes
+ * are cheaper, and shrinks back while the client keeps up, to keep latency low.
+ *
+ * <p>All methods must be called on the context of the response.
+ */
+public class QueryStreamWriteBatcher {
+
+  static final int MIN_BATCH_BYTES = 4 * 1024;
+  static final int MAX_BATCH_BYTES = 256 * 1024;
+
+  private final HttpServerResponse response;
+  private final Context context;
+  private final QueryStreamWriteMetrics metrics;
+  private Buffer pending = Buffer.buffer(MIN_BATCH_BYTES);
+  private int pendingRows;
+  private int batchBytes = MIN_BATCH_BYTES;
+  private boolean flushScheduled;
+
+  @SuppressFBWarnings(value = "EI_EXPOSE_REP2")
+  public QueryStreamWriteBatcher(
+      final HttpServerResponse response,
+      final Context context,
+      final QueryStreamWriteMetrics metrics
+  ) {
+    this.response = Objects.requireNonNull(response);
+    this.context = Objects.requireNonNull(context);
+    this.metrics = Objects.requireNonNull(metrics);
+  }
+
+  /**
+   * Buffers the supplied bytes for writing.
+   *
+   * @param buffer the bytes to write.
+   * @param rows the number of rows contained in the bytes.
+   */
+  public void write(final Buffer buffer, final int rows) {
+    pending.appendBuffer(buffer);
+    pendingRows += rows;
+
+    if (pending.length() >= batchBytes) {
+      flush();
+    } else if (!flushScheduled) {
+      flushScheduled = true;
+      context.runOnContext(v -> {
+        flushScheduled = false;
+        flush();
+      });
+    }
+  }
+
+  /**
+   * Writes any buffered bytes to the response.
+   */
+  public void flush() {
+    if (pending.length() == 0) {
+      return;
+    }
+
+    if (response.ended() || response.closed()) {
+      // Nothing more can be written, e.g. because the client went away:
+      pending = Buffer.buffer();
+      pendingRows = 0;
+      return;
+    }
+
+    final Buffer toWrite = pending;
+    metrics.recordFlush(toWrite.length(), pendingRows);
+    pending = Buffer.buffer(Math.min(toWrite.length(), batchBytes));
+    pendingRows = 0;
+
+    response.write(toWrite);
+
+    if (response.writeQueueFull()) {
+      batchBytes = Math.min(MAX_BATCH_BYTES, batchBytes * 2);
+    } else {
+      batchBytes = Math.max(MIN_BATCH_BYTES, batchBytes / 2);
+    }
+  }
+
+  /**
+   * Writes any buffered bytes and ends the response.
+   */
+  public void end() {
+    flush();
+    response.end();
+  }
+
+  @VisibleForTesting
+  int getBatchBytes() {
+    return batchBytes;
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.api.server;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.confluent.ksql.metrics.MetricCollectors;
+import io.confluent.ksql.util.KsqlConstants;
+import io.confluent.ksql.util.ReservedInternalTopics;
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.Avg;
+import org.apache.kafka.common.metrics.stats.Max;
+import org.apache.kafka.common.metrics.stats.Rate;
+import org.apache.kafka.common.metrics.stats.WindowedCount;
+
+/**
+ * Metrics on how the query stream endpoint coalesces rows into writes on the response.
+ */
+public class QueryStreamWriteMetrics implements Closeable {
+
+  private static final String METRIC_GROUP = "query-stream";
+
+  private final Metrics metrics;
+  private final Sensor bytesPerWriteSensor;
+  private final Sensor rowsPerFlushSensor;
+
+  public QueryStreamWriteMetrics(final String ksqlServiceId) {
+    this(MetricCollectors.getMetrics(), ksqlServiceId);
+  }
+
+  @VisibleForTesting
+  QueryStreamWriteMetrics(final Metrics metrics, final String ksqlServiceId) {
+    this.metrics = Objects.requireNonNull(metrics, "metrics");
+    final Map<String, String> tags =
+        Collections.singletonMap(KsqlConstants.KSQL_SERVICE_ID_METRICS_TAG, ksqlServiceId);
+    final String group = ReservedInternalTopics.KSQL_INTERNAL_TOPIC_PREFIX + METRIC_GROUP;
+
+    this.bytesPerWriteSensor = metrics.sensor(METRIC_GROUP + "-bytes-per-write");
+    bytesPerWriteSensor.add(
+        metrics.metricName("bytes-per-write-avg", group,
+            "Average number of bytes in each write to a query stream response", tags),
+        new Avg());
+    bytesPerWriteSensor.add(
+        metrics.metricName("bytes-per-write-max", group,
+            "Max number of bytes in each write to a query stream response", tags),
+        new Max());
+    bytesPerWriteSensor.add(
+        metrics.metricName("write-rate", group,
+            "Rate of writes to query stream responses", tags),
+        new Rate(new WindowedCount()));
+
+    this.rowsPerFlushSensor = metrics.sensor(METRIC_GROUP + "-rows-per-flush");
+    rowsPerFlushSensor.add(
+        metrics.metricName("rows-per-flush-avg", group,
+            "Average number of rows in each write to a query stream response", tags),
+        new Avg());
+    rowsPerFlushSensor.add(
+        metrics.metricName("rows-per-flush-max", group,
+            "Max number of rows in each write to a query stream response", tags),
+        new Max());
+  }
+
+  public void recordFlush(final int bytes, final int rows) {
+    bytesPerWriteSensor.record(bytes);
+    rowsPerFlushSensor.record(rows);
+  }
+
+  @Override
+  public void close() {
+    metrics.removeSensor(bytesPerWriteSensor.name());
+    metrics.removeSensor(rowsPerFlushSensor.name());
+  }
+}
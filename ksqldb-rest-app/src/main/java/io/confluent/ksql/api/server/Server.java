@@ -27,6 +27,7 @@ import io.confluent.ksql.rest.entity.PushQueryId;
 import io.confluent.ksql.rest.server.KsqlRestConfig;
 import io.confluent.ksql.rest.server.state.ServerState;
 import io.confluent.ksql.security.KsqlSecurityExtension;
+import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.VertxCompletableFuture;
 import io.confluent.ksql.util.VertxSslOptionsFactory;
@@ -82,6 +83,7 @@ public class Server {
   private final Optional<PullQueryExecutorMetrics> pullQueryMetrics;
   private URI internalListener;
   private WorkerExecutor workerExecutor;
+  private QueryStreamWriteMetrics queryStreamWriteMetrics;
   private FileWatcher fileWatcher;
 
   @SuppressFBWarnings(value = "EI_EXPOSE_REP2")
@@ -114,6 +116,9 @@ public class Server {
 
     this.workerExecutor = vertx.createSharedWorkerExecutor("ksql-workers",
         config.getInt(KsqlRestConfig.WORKER_POOL_SIZE));
+    this.queryStreamWriteMetrics = new QueryStreamWriteMetrics(
+        new KsqlConfig(config.getKsqlConfigProperties())
+            .getString(KsqlConfig.KSQL_SERVICE_ID_CONFIG));
     final LoggingRateLimiter loggingRateLimiter = new LoggingRateLimiter(config);
     configureTlsCertReload(config);
 
@@ -183,6 +188,9 @@ public class Server {
     if (workerExecutor != null) {
       workerExecutor.close();
     }
+    if (queryStreamWriteMetrics != null) {
+      queryStreamWriteMetrics.close();
+    }
     if (fileWatcher != null) {
       fileWatcher.shutdown();
     }
@@ -212,6 +220,10 @@ public class Server {
     return workerExecutor;
   }
 
+  public QueryStreamWriteMetrics getQueryStreamWriteMetrics() {
+    return queryStreamWriteMetrics;
+  }
+
   synchronized void registerQuery(final PushQueryHolder query) throws KsqlApiException {
     Objects.requireNonNull(query);
     if (queries.size() == maxPushQueryCount) {
@@ -15,7 +15,9 @@
 
 package io.confluent.ksql.rest.entity;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import io.confluent.ksql.execution.runtime.QueryProfiler;
 import io.confluent.ksql.model.WindowType;
 import io.confluent.ksql.name.SourceName;
 import io.confluent.ksql.rest.util.EntityUtil;
@@ -74,7 +76,8 @@ public final class QueryDescriptionFactory {
         ksqlHostQueryStatus,
         queryMetadata.getQueryType(),
         queryMetadata.getQueryErrors(),
-        queryMetadata.getTaskMetadata()
+        queryMetadata.getTaskMetadata(),
+        QueryProfiler.forQuery(queryMetadata.getQueryId()).orElse(ImmutableList.of())
     );
   }
 }
@@ -44,6 +44,7 @@ import io.confluent.ksql.function.InternalFunctionRegistry;
 import io.confluent.ksql.function.MutableFunctionRegistry;
 import io.confluent.ksql.function.UserFunctionLoader;
 import io.confluent.ksql.internal.PullQueryExecutorMetrics;
+import io.confluent.ksql.internal.ScalablePushQueryMetrics;
 import io.confluent.ksql.internal.UtilizationMetricsListener;
 import io.confluent.ksql.logging.processing.ProcessingLogConfig;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
@@ -93,6 +94,7 @@ import io.confluent.ksql.rest.util.KsqlUncaughtExceptionHandler;
 import io.confluent.ksql.rest.util.PersistentQueryCleanupImpl;
 import io.confluent.ksql.rest.util.RocksDBConfigSetterHandler;
 import io.confluent.ksql.schema.registry.KsqlSchemaRegistryClientFactory;
+import io.confluent.ksql.schema.registry.SchemaRegistryLookupCache;
 import io.confluent.ksql.security.KsqlAuthorizationValidator;
 import io.confluent.ksql.security.KsqlAuthorizationValidatorFactory;
 import io.confluent.ksql.security.KsqlDefaultSecurityExtension;
@@ -532,6 +534,12 @@ public final class KsqlRestApplication implements Executable {
       log.error("Exception while waiting for pull query metrics to close", e);
     }
 
+    try {
+      pushQueryRouting.close();
+    } catch (final Exception e) {
+      log.error("Exception while waiting for push query routing to close", e);
+    }
+
     localCommands.ifPresent(lc -> {
       try {
         lc.close();
@@ -749,10 +757,15 @@ public final class KsqlRestApplication implements Executable {
 
     final KsqlSecurityExtension securityExtension = loadSecurityExtension(ksqlConfig);
 
+    // Requests get a new service context each, so share a cache of the Schema Registry lookups
+    // of their statements. Users' own contexts don't, as their lookups use their credentials:
+    final Optional<SchemaRegistryLookupCache> schemaLookupCache =
+        SchemaRegistryLookupCache.create(ksqlConfig);
     final KsqlSecurityContextProvider ksqlSecurityContextProvider =
         new DefaultKsqlSecurityContextProvider(
             securityExtension,
-            RestServiceContextFactory::create,
+            (config, authHeader, srClientFactory, client) -> RestServiceContextFactory.create(
+                config, authHeader, srClientFactory, schemaLookupCache, client),
             RestServiceContextFactory::create, ksqlConfig, schemaRegistryClientFactory,
             sharedClient);
 
@@ -793,10 +806,17 @@ public final class KsqlRestApplication implements Executable {
         Time.SYSTEM))
         : Optional.empty();
 
+    final Optional<ScalablePushQueryMetrics> scalablePushQueryMetrics = ksqlConfig.getBoolean(
+        KsqlConfig.KSQL_QUERY_PUSH_SCALABLE_ENABLED)
+        ? Optional.of(new ScalablePushQueryMetrics(
+        ksqlEngine.getServiceId(),
+        ksqlConfig.getStringAsMap(KsqlConfig.KSQL_CUSTOM_METRICS_TAGS),
+        Time.SYSTEM))
+        : Optional.empty();
 
     final HARouting pullQueryRouting = new HARouting(
         routingFilterFactory, pullQueryMetrics, ksqlConfig);
-    final PushRouting pushQueryRouting = new PushRouting();
+    final PushRouting pushQueryRouting = new PushRouting(scalablePushQueryMetrics);
 
     final Optional<LocalCommands> localCommands = createLocalCommands(restConfig, ksqlEngine);
 
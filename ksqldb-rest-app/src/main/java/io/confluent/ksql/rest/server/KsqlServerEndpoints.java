@@ -22,6 +22,7 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.confluent.ksql.api.auth.ApiSecurityContext;
 import io.confluent.ksql.api.impl.InsertsStreamEndpoint;
 import io.confluent.ksql.api.impl.KsqlSecurityContextProvider;
+import io.confluent.ksql.api.impl.PullQueryPlanCache;
 import io.confluent.ksql.api.impl.QueryEndpoint;
 import io.confluent.ksql.api.server.InsertResult;
 import io.confluent.ksql.api.server.InsertsStreamSubscriber;
@@ -95,6 +96,7 @@ public class KsqlServerEndpoints implements Endpoints {
   private final HARouting routing;
   private final PushRouting pushRouting;
   private final Optional<LocalCommands> localCommands;
+  private final Optional<PullQueryPlanCache> pullQueryPlanCache;
 
   // CHECKSTYLE_RULES.OFF: ParameterNumber
   @SuppressFBWarnings(value = "EI_EXPOSE_REP2")
@@ -147,6 +149,11 @@ public class KsqlServerEndpoints implements Endpoints {
     this.routing = Objects.requireNonNull(routing);
     this.pushRouting = pushRouting;
     this.localCommands = Objects.requireNonNull(localCommands);
+    final int planCacheSize = ksqlConfig.getInt(KsqlConfig.KSQL_QUERY_PULL_PLAN_CACHE_SIZE_CONFIG);
+    this.pullQueryPlanCache = planCacheSize > 0
+        ? Optional.of(new PullQueryPlanCache(
+            ksqlEngine, planCacheSize, ksqlConfig.getString(KsqlConfig.KSQL_SERVICE_ID_CONFIG)))
+        : Optional.empty();
   }
 
   @Override
@@ -165,7 +172,7 @@ public class KsqlServerEndpoints implements Endpoints {
         return new QueryEndpoint(
             ksqlEngine, ksqlConfig, ksqlRestConfig, routingFilterFactory, pullQueryMetrics,
             rateLimiter, pullConcurrencyLimiter, pullBandRateLimiter, routing, pushRouting,
-            localCommands)
+            localCommands, pullQueryPlanCache)
             .createQueryPublisher(
                 sql,
                 properties,
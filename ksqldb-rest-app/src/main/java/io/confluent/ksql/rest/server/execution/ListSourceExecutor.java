@@ -75,11 +75,15 @@ import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.common.KafkaException;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.TopicPartitionInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 // CHECKSTYLE_RULES.OFF: ClassDataAbstractionCoupling
 public final class ListSourceExecutor {
   // CHECKSTYLE_RULES.ON: ClassDataAbstractionCoupling
 
+  private static final Logger LOG = LoggerFactory.getLogger(ListSourceExecutor.class);
+
   private ListSourceExecutor() {
   }
 
@@ -102,6 +106,7 @@ public final class ListSourceExecutor {
         ? RemoteSourceDescriptionExecutor.fetchSourceDescriptions(remoteHostExecutor)
         : ImmutableMultimap.of();
 
+    prefetchTopicDescriptions(serviceContext, sources);
 
     final List<SourceDescriptionWithWarnings> descriptions = sources.stream()
         .map(
@@ -126,6 +131,29 @@ public final class ListSourceExecutor {
     );
   }
 
+  /**
+   * Describes the topics of all sources in a single request, so that describing each source is
+   * served from the metadata cache of the topic client rather than making a request per source.
+   */
+  private static void prefetchTopicDescriptions(
+      final ServiceContext serviceContext,
+      final List<? extends DataSource> sources
+  ) {
+    final Set<String> topics = sources.stream()
+        .map(DataSource::getKafkaTopicName)
+        .collect(Collectors.toSet());
+    if (topics.size() < 2) {
+      return;
+    }
+
+    try {
+      serviceContext.getTopicClient().describeTopics(topics);
+    } catch (final Exception e) {
+      // Any error is reported against the sources it affects as each is described:
+      LOG.debug("Failed to prefetch the descriptions of topics: {}", topics, e);
+    }
+  }
+
   public static StatementExecutorResponse streams(
       final ConfiguredStatement<ListStreams> statement,
       final SessionProperties sessionProperties,
@@ -17,6 +17,7 @@ package io.confluent.ksql.rest.server.services;
 
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.ksql.rest.client.KsqlClient;
+import io.confluent.ksql.schema.registry.SchemaRegistryLookupCache;
 import io.confluent.ksql.services.DefaultConnectClient;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.services.ServiceContextFactory;
@@ -68,16 +69,52 @@ public final class RestServiceContextFactory {
   }
 
   public static ServiceContext create(
+      final KsqlConfig ksqlConfig,
+      final Optional<String> authHeader,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      final Optional<SchemaRegistryLookupCache> schemaLookupCache,
+      final KsqlClient sharedClient
+  ) {
+    return create(
+        ksqlConfig,
+        authHeader,
+        new DefaultKafkaClientSupplier(),
+        schemaRegistryClientFactory,
+        schemaLookupCache,
+        sharedClient
+    );
+  }
+
+  public static ServiceContext create(
+      final KsqlConfig ksqlConfig,
+      final Optional<String> authHeader,
+      final KafkaClientSupplier kafkaClientSupplier,
+      final Supplier<SchemaRegistryClient> srClientFactory,
+      final KsqlClient sharedClient
+  ) {
+    return create(
+        ksqlConfig,
+        authHeader,
+        kafkaClientSupplier,
+        srClientFactory,
+        Optional.empty(),
+        sharedClient
+    );
+  }
+
+  private static ServiceContext create(
       final KsqlConfig ksqlConfig,
       final Optional<String> authHeader,
       final KafkaClientSupplier kafkaClientSupplier,
       final Supplier<SchemaRegistryClient> srClientFactory,
+      final Optional<SchemaRegistryLookupCache> schemaLookupCache,
       final KsqlClient sharedClient
   ) {
     return ServiceContextFactory.create(
         ksqlConfig,
         kafkaClientSupplier,
         srClientFactory,
+        schemaLookupCache,
         () -> new DefaultConnectClient(ksqlConfig.getString(KsqlConfig.CONNECT_URL_PROPERTY),
             authHeader),
         () -> new DefaultKsqlClient(authHeader, sharedClient)
@@ -0,0 +1,331 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.api.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.confluent.ksql.analyzer.ImmutableAnalysis;
+import io.confluent.ksql.api.impl.PullQueryPlanCache.BoundPullQuery;
+import io.confluent.ksql.config.SessionConfig;
+import io.confluent.ksql.engine.KsqlEngine;
+import io.confluent.ksql.execution.expression.tree.ComparisonExpression;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.expression.tree.IntegerLiteral;
+import io.confluent.ksql.execution.streams.RoutingOptions;
+import io.confluent.ksql.metastore.MetaStore;
+import io.confluent.ksql.parser.DefaultKsqlParser;
+import io.confluent.ksql.parser.KsqlParser.ParsedStatement;
+import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
+import io.confluent.ksql.parser.SqlBaseParser.SingleStatementContext;
+import io.confluent.ksql.parser.tree.Query;
+import io.confluent.ksql.physical.pull.PullPhysicalPlan;
+import io.confluent.ksql.physical.pull.PullQueryResultCache;
+import io.confluent.ksql.physical.pull.PullQueryResultCache.Key;
+import io.confluent.ksql.physical.pull.PullQueryResultCache.ResultCapture;
+import io.confluent.ksql.physical.pull.PullQueryRow;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.statement.ConfiguredStatement;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.ReservedInternalTopics;
+import java.util.Collections;
+import java.util.Optional;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Metrics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class PullQueryPlanCacheTest {
+
+  private static final String SQL = "SELECT * FROM T WHERE ID = 10;";
+  private static final String SQL_WITH_VARIABLE = "SELECT * FROM T WHERE ID = ${id};";
+  private static final DefaultKsqlParser KSQL_PARSER = new DefaultKsqlParser();
+
+  @Rule
+  public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+  @Mock
+  private KsqlEngine ksqlEngine;
+  @Mock
+  private MetaStore metaStore;
+  @Mock
+  private SingleStatementContext statementContext;
+  @Mock
+  private Query query;
+  @Mock
+  private ImmutableAnalysis analysis;
+  @Mock
+  private PullPhysicalPlan pullPhysicalPlan;
+  @Mock
+  private RoutingOptions routingOptions;
+
+  private Metrics metrics;
+  private PullQueryPlanCache cache;
+
+  @Before
+  public void setUp() {
+    metrics = new Metrics();
+    cache = new PullQueryPlanCache(ksqlEngine, 10, metrics, "service-id");
+
+    final ParsedStatement parsed = ParsedStatement.of(SQL, statementContext);
+    when(ksqlEngine.getMetaStore()).thenReturn(metaStore);
+    when(ksqlEngine.parse(SQL)).thenReturn(ImmutableList.of(parsed));
+    when(ksqlEngine.prepare(parsed, ImmutableMap.of()))
+        .thenAnswer(inv -> PreparedStatement.of(SQL, query));
+    when(ksqlEngine.analyzeQueryWithNoOutputTopic(query, SQL)).thenReturn(analysis);
+    when(query.isPullQuery()).thenReturn(true);
+  }
+
+  @After
+  public void tearDown() {
+    cache.close();
+    metrics.close();
+  }
+
+  @Test
+  public void shouldOnlyParseAndAnalyzeOnce() {
+    // When:
+    cache.get(SQL, ImmutableMap.of());
+    final Optional<BoundPullQuery> result = cache.get(SQL, ImmutableMap.of());
+
+    // Then:
+    assertThat(result.isPresent(), is(true));
+    assertThat(result.get().getStatement().getStatement(), is(sameInstance(query)));
+    assertThat(result.get().getStatement().getStatementText(), is(SQL));
+    assertThat(result.get().getAnalysis(), is(sameInstance(analysis)));
+    verify(ksqlEngine, times(1)).parse(SQL);
+    verify(ksqlEngine, times(1)).analyzeQueryWithNoOutputTopic(query, SQL);
+    assertThat(metricValue("hit-total"), is(1.0));
+    assertThat(metricValue("miss-total"), is(1.0));
+  }
+
+  @Test
+  public void shouldRebuildOnceMetaStoreChanges() {
+    // Given:
+    when(metaStore.getVersion()).thenReturn(1L);
+    cache.get(SQL, ImmutableMap.of());
+    when(metaStore.getVersion()).thenReturn(2L);
+
+    // When:
+    final Optional<BoundPullQuery> result = cache.get(SQL, ImmutableMap.of());
+
+    // Then:
+    assertThat(result.isPresent(), is(true));
+    verify(ksqlEngine, times(2)).analyzeQueryWithNoOutputTopic(query, SQL);
+    assertThat(metricValue("invalidation-total"), is(1.0));
+    assertThat(metricValue("miss-total"), is(2.0));
+  }
+
+  @Test
+  public void shouldNotServePushQueries() {
+    // Given:
+    when(query.isPullQuery()).thenReturn(false);
+
+    // When:
+    final Optional<BoundPullQuery> first = cache.get(SQL, ImmutableMap.of());
+    final Optional<BoundPullQuery> second = cache.get(SQL, ImmutableMap.of());
+
+    // Then:
+    assertThat(first.isPresent(), is(false));
+    assertThat(second.isPresent(), is(false));
+    verify(ksqlEngine, times(1)).parse(SQL);
+  }
+
+  @Test
+  public void shouldNotServeStatementsThatFailToPrepare() {
+    // Given:
+    when(ksqlEngine.prepare(any(), any())).thenThrow(new RuntimeException("boom"));
+
+    // When:
+    final Optional<BoundPullQuery> result = cache.get(SQL, ImmutableMap.of());
+
+    // Then:
+    assertThat(result.isPresent(), is(false));
+  }
+
+  @Test
+  public void shouldNotServeMultipleStatements() {
+    // Given:
+    final ParsedStatement parsed = ParsedStatement.of(SQL, statementContext);
+    when(ksqlEngine.parse(anyString())).thenReturn(ImmutableList.of(parsed, parsed));
+
+    // When:
+    final Optional<BoundPullQuery> result = cache.get(SQL + SQL, ImmutableMap.of());
+
+    // Then:
+    assertThat(result.isPresent(), is(false));
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedOnceFull() {
+    // Given:
+    cache.close();
+    cache = new PullQueryPlanCache(ksqlEngine, 1, metrics, "service-id");
+    when(ksqlEngine.parse("other")).thenReturn(Collections.emptyList());
+
+    // When:
+    cache.get(SQL, ImmutableMap.of());
+    cache.get("other", ImmutableMap.of());
+
+    // Then:
+    assertThat(cache.size(), is(1L));
+    assertThat(metricValue("eviction-total"), is(1.0));
+  }
+
+  @Test
+  public void shouldBindVariablesOfSharedPlan() {
+    // Given:
+    givenRealParser();
+
+    // When:
+    final Optional<BoundPullQuery> ten =
+        cache.get(SQL_WITH_VARIABLE, ImmutableMap.of("id", "10"));
+    final Optional<BoundPullQuery> twenty =
+        cache.get(SQL_WITH_VARIABLE, ImmutableMap.of("id", "20"));
+
+    // Then:
+    assertThat(ten.isPresent(), is(true));
+    assertThat(twenty.isPresent(), is(true));
+    assertThat(ten.get().getStatement().getStatementText(),
+        is("SELECT * FROM T WHERE ID = 10;"));
+    assertThat(twenty.get().getStatement().getStatementText(),
+        is("SELECT * FROM T WHERE ID = 20;"));
+    assertThat(boundId(ten.get()), is(new IntegerLiteral(10)));
+    assertThat(boundId(twenty.get()), is(new IntegerLiteral(20)));
+    assertThat(cache.size(), is(1L));
+    verify(ksqlEngine, times(1)).analyzeQueryWithNoOutputTopic(any(), any());
+    assertThat(metricValue("hit-total"), is(1.0));
+  }
+
+  @Test
+  public void shouldNotServeVariablesBoundToNonLiterals() {
+    // Given:
+    givenRealParser();
+
+    // When:
+    final Optional<BoundPullQuery> column =
+        cache.get(SQL_WITH_VARIABLE, ImmutableMap.of("id", "OTHER_ID"));
+    final Optional<BoundPullQuery> arithmetic =
+        cache.get(SQL_WITH_VARIABLE, ImmutableMap.of("id", "1 + 1"));
+
+    // Then:
+    assertThat(column.isPresent(), is(false));
+    assertThat(arithmetic.isPresent(), is(false));
+  }
+
+  @Test
+  public void shouldNotServeVariablesWithinStringLiterals() {
+    // Given:
+    givenRealParser();
+    final String sql = "SELECT * FROM T WHERE NAME = 'a-${id}';";
+
+    // When:
+    final Optional<BoundPullQuery> first = cache.get(sql, ImmutableMap.of("id", "10"));
+    final Optional<BoundPullQuery> second = cache.get(sql, ImmutableMap.of("id", "20"));
+
+    // Then:
+    assertThat(first.isPresent(), is(false));
+    assertThat(second.isPresent(), is(false));
+    verify(ksqlEngine, never()).analyzeQueryWithNoOutputTopic(any(), any());
+  }
+
+  @Test
+  public void shouldNotServeCachedResultOfOtherVariableValues() {
+    // Given:
+    givenRealParser();
+    when(pullPhysicalPlan.getApplicationId()).thenReturn("app-id");
+    when(routingOptions.getPartitions()).thenReturn(ImmutableSet.of());
+    final KsqlConfig ksqlConfig = new KsqlConfig(ImmutableMap.of(
+        KsqlConfig.KSQL_QUERY_PULL_RESULT_CACHE_MAX_ENTRIES_CONFIG, 10,
+        KsqlConfig.KSQL_QUERY_PULL_RESULT_CACHE_STALENESS_MS_CONFIG, 60_000L
+    ));
+    final PullQueryResultCache resultCache = PullQueryResultCache.create(ksqlConfig).get();
+    final PullQueryRow row = new PullQueryRow(
+        ImmutableList.of(10), LogicalSchema.builder().build(), Optional.empty());
+
+    try {
+      final Key ten = resultKey(resultCache, ksqlConfig, ImmutableMap.of("id", "10"));
+      final ResultCapture capture = resultCache.capture(ten, ImmutableList.of(0));
+      capture.addRow(row);
+      capture.complete();
+
+      // When:
+      final Key twenty = resultKey(resultCache, ksqlConfig, ImmutableMap.of("id", "20"));
+
+      // Then:
+      assertThat(resultCache.get(twenty), is(Optional.empty()));
+      assertThat(resultCache.get(ten).get(), contains(row));
+      assertThat(cache.size(), is(1L));
+    } finally {
+      resultCache.close();
+    }
+  }
+
+  private Key resultKey(
+      final PullQueryResultCache resultCache,
+      final KsqlConfig ksqlConfig,
+      final ImmutableMap<String, String> sessionVariables
+  ) {
+    final BoundPullQuery bound = cache.get(SQL_WITH_VARIABLE, sessionVariables).get();
+    final ConfiguredStatement<Query> statement = ConfiguredStatement.of(
+        bound.getStatement(), SessionConfig.of(ksqlConfig, ImmutableMap.of()));
+    return resultCache.key(statement, pullPhysicalPlan, routingOptions).get();
+  }
+
+  private void givenRealParser() {
+    when(ksqlEngine.parse(anyString())).thenAnswer(inv -> KSQL_PARSER.parse(inv.getArgument(0)));
+    when(ksqlEngine.prepare(any(), any()))
+        .thenAnswer(inv -> KSQL_PARSER.prepare(inv.getArgument(0), metaStore));
+    when(ksqlEngine.analyzeQueryWithNoOutputTopic(any(), any())).thenAnswer(inv -> {
+      final Query prepared = inv.getArgument(0);
+      final ImmutableAnalysis preparedAnalysis = mock(ImmutableAnalysis.class);
+      when(preparedAnalysis.getWhereExpression()).thenReturn(prepared.getWhere());
+      return preparedAnalysis;
+    });
+  }
+
+  private static Expression boundId(final BoundPullQuery bound) {
+    final ComparisonExpression where =
+        (ComparisonExpression) bound.getAnalysis().getWhereExpression().get();
+    return where.getRight();
+  }
+
+  private double metricValue(final String name) {
+    final MetricName metricName = metrics.metricName(
+        name,
+        ReservedInternalTopics.KSQL_INTERNAL_TOPIC_PREFIX + "pull-query-plan-cache",
+        Collections.singletonMap("ksql_service_id", "service-id")
+    );
+    return (Double) metrics.metric(metricName).metricValue();
+  }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.api.server;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.rest.entity.KsqlErrorMessage;
+import io.confluent.ksql.rest.entity.QueryResponseMetadata;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BinaryQueryStreamResponseWriterTest {
+
+  @Mock
+  private QueryStreamWriteBatcher batcher;
+  @Mock
+  private Context context;
+  @Captor
+  private ArgumentCaptor<Handler<Void>> flushTask;
+  @Captor
+  private ArgumentCaptor<Buffer> written;
+
+  @Test
+  public void shouldWriteMetadataAsDelimitedJson() {
+    // When:
+    givenWriter("INTEGER");
+
+    // Then:
+    final Buffer metadata = writes().get(0);
+    assertThat(metadata.toString(), startsWith("{"));
+    assertThat(metadata.toString(), containsString("\"columnTypes\":[\"INTEGER\"]"));
+    assertThat(metadata.getByte(metadata.length() - 1), is((byte) '\n'));
+    verify(batcher).flush();
+  }
+
+  @Test
+  public void shouldSetNullBitmapAndOnlyWriteNonNullValues() {
+    // Given:
+    final BinaryQueryStreamResponseWriter writer = givenWriter("INTEGER");
+
+    // When:
+    writer.writeRow(GenericRow.genericRow(1));
+    writer.writeRow(GenericRow.genericRow((Object) null));
+    writer.writeRow(GenericRow.genericRow(3));
+    runFlushTask();
+
+    // Then:
+    final Buffer frame = writes().get(1);
+    assertThat(frame.getInt(0), is(frame.length() - Integer.BYTES));
+    assertThat(frame.getByte(4), is(BinaryQueryStreamResponseWriter.ROWS_FRAME));
+    assertThat(frame.getInt(5), is(3));
+    assertThat(frame.getByte(9), is(BinaryQueryStreamResponseWriter.INT_ENCODING));
+    assertThat(frame.getByte(10), is((byte) 0b010));
+    assertThat(frame.getInt(11), is(1));
+    assertThat(frame.getInt(15), is(3));
+    assertThat(frame.length(), is(19));
+    verify(batcher).write(frame, 3);
+  }
+
+  @Test
+  public void shouldWriteNullBitmapOfOneBitPerRow() {
+    // Given:
+    final BinaryQueryStreamResponseWriter writer = givenWriter("STRING");
+
+    // When:
+    for (int i = 0; i < 9; i++) {
+      writer.writeRow(GenericRow.genericRow(i == 8 ? null : "a"));
+    }
+    runFlushTask();
+
+    // Then: a 2 byte bitmap, with only the bit of the ninth row set:
+    final Buffer frame = writes().get(1);
+    assertThat(frame.getByte(9), is(BinaryQueryStreamResponseWriter.STRING_ENCODING));
+    assertThat(frame.getByte(10), is((byte) 0));
+    assertThat(frame.getByte(11), is((byte) 1));
+    assertThat(frame.getInt(12), is(1));
+    assertThat(frame.getString(16, 17), is("a"));
+  }
+
+  @Test
+  public void shouldWriteColumnsOfOtherTypesAsJson() {
+    // Given:
+    final BinaryQueryStreamResponseWriter writer = givenWriter("ARRAY<INTEGER>");
+
+    // When:
+    writer.writeRow(GenericRow.genericRow(ImmutableList.of(1, 2)));
+    runFlushTask();
+
+    // Then:
+    final Buffer frame = writes().get(1);
+    assertThat(frame.getByte(9), is(BinaryQueryStreamResponseWriter.JSON_ENCODING));
+    assertThat(frame.getInt(11), is(5));
+    assertThat(frame.getString(15, 20), is("[1,2]"));
+  }
+
+  @Test
+  public void shouldFallBackToJsonIfValuesDoNotMatchColumnType() {
+    // Given:
+    final BinaryQueryStreamResponseWriter writer = givenWriter("BIGINT");
+
+    // When:
+    writer.writeRow(GenericRow.genericRow(10L));
+    writer.writeRow(GenericRow.genericRow(20));
+    runFlushTask();
+
+    // Then:
+    final Buffer frame = writes().get(1);
+    assertThat(frame.getByte(9), is(BinaryQueryStreamResponseWriter.JSON_ENCODING));
+    assertThat(frame.getInt(11), is(2));
+    assertThat(frame.getString(15, 17), is("10"));
+    assertThat(frame.getInt(17), is(2));
+    assertThat(frame.getString(21, 23), is("20"));
+  }
+
+  @Test
+  public void shouldFlushRowsBeforeWritingErrorFrame() {
+    // Given:
+    final BinaryQueryStreamResponseWriter writer = givenWriter("INTEGER");
+    writer.writeRow(GenericRow.genericRow(1));
+
+    // When:
+    writer.writeError(new KsqlErrorMessage(50000, "boom"));
+
+    // Then:
+    final List<Buffer> writes = writes();
+    assertThat(writes, hasSize(3));
+    assertThat(writes.get(1).getByte(4), is(BinaryQueryStreamResponseWriter.ROWS_FRAME));
+    final Buffer error = writes.get(2);
+    assertThat(error.getInt(0), is(error.length() - Integer.BYTES));
+    assertThat(error.getByte(4), is(BinaryQueryStreamResponseWriter.ERROR_FRAME));
+    assertThat(error.getString(5, error.length()), containsString("\"message\":\"boom\""));
+  }
+
+  @Test
+  public void shouldThrowIfRowWrittenBeforeMetadata() {
+    // Given:
+    final BinaryQueryStreamResponseWriter writer =
+        new BinaryQueryStreamResponseWriter(batcher, context);
+
+    // When:
+    final Exception e = assertThrows(
+        IllegalStateException.class,
+        () -> writer.writeRow(GenericRow.genericRow(1))
+    );
+
+    // Then:
+    assertThat(e.getMessage(), containsString("before metadata written"));
+  }
+
+  private BinaryQueryStreamResponseWriter givenWriter(final String columnType) {
+    final BinaryQueryStreamResponseWriter writer =
+        new BinaryQueryStreamResponseWriter(batcher, context);
+    writer.writeMetadata(new QueryResponseMetadata(
+        "query-id", ImmutableList.of("COL"), ImmutableList.of(columnType)));
+    return writer;
+  }
+
+  private void runFlushTask() {
+    verify(context).runOnContext(flushTask.capture());
+    flushTask.getValue().handle(null);
+  }
+
+  private List<Buffer> writes() {
+    verify(batcher, atLeastOnce()).write(written.capture(), anyInt());
+    return written.getAllValues();
+  }
+}
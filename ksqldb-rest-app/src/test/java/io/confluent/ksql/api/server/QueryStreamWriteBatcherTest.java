@@ -0,0 +1,145 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.api.server;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class QueryStreamWriteBatcherTest {
+
+  @Mock
+  private HttpServerResponse response;
+  @Mock
+  private Context context;
+  @Mock
+  private QueryStreamWriteMetrics metrics;
+  @Captor
+  private ArgumentCaptor<Handler<Void>> flushTask;
+  @Captor
+  private ArgumentCaptor<Buffer> written;
+
+  private QueryStreamWriteBatcher batcher;
+
+  @Before
+  public void setUp() {
+    batcher = new QueryStreamWriteBatcher(response, context, metrics);
+  }
+
+  @Test
+  public void shouldCoalesceWritesUntilEndOfContextTask() {
+    // When:
+    batcher.write(Buffer.buffer("a\n"), 1);
+    batcher.write(Buffer.buffer("b\n"), 1);
+    batcher.write(Buffer.buffer("c\n"), 1);
+
+    // Then:
+    verify(response, never()).write(any(Buffer.class));
+    verify(context, times(1)).runOnContext(flushTask.capture());
+
+    // When:
+    flushTask.getValue().handle(null);
+
+    // Then:
+    verify(response).write(written.capture());
+    assertThat(written.getValue().toString(), is("a\nb\nc\n"));
+    verify(metrics).recordFlush(6, 3);
+  }
+
+  @Test
+  public void shouldFlushOnceBatchSizeReached() {
+    // When:
+    batcher.write(Buffer.buffer(new byte[QueryStreamWriteBatcher.MIN_BATCH_BYTES]), 10);
+
+    // Then:
+    verify(response).write(any(Buffer.class));
+    verify(metrics).recordFlush(QueryStreamWriteBatcher.MIN_BATCH_BYTES, 10);
+  }
+
+  @Test
+  public void shouldGrowBatchSizeWhileClientIsSlow() {
+    // Given:
+    when(response.writeQueueFull()).thenReturn(true);
+
+    // When:
+    batcher.write(Buffer.buffer("a"), 1);
+    batcher.flush();
+    batcher.write(Buffer.buffer("b"), 1);
+    batcher.flush();
+
+    // Then:
+    assertThat(batcher.getBatchBytes(), is(QueryStreamWriteBatcher.MIN_BATCH_BYTES * 4));
+  }
+
+  @Test
+  public void shouldShrinkBatchSizeOnceClientCatchesUp() {
+    // Given:
+    when(response.writeQueueFull()).thenReturn(true, true, false);
+    batcher.write(Buffer.buffer("a"), 1);
+    batcher.flush();
+    batcher.write(Buffer.buffer("b"), 1);
+    batcher.flush();
+
+    // When:
+    batcher.write(Buffer.buffer("c"), 1);
+    batcher.flush();
+
+    // Then:
+    assertThat(batcher.getBatchBytes(), is(QueryStreamWriteBatcher.MIN_BATCH_BYTES * 2));
+  }
+
+  @Test
+  public void shouldNotWriteIfResponseClosed() {
+    // Given:
+    when(response.closed()).thenReturn(true);
+
+    // When:
+    batcher.write(Buffer.buffer("a"), 1);
+    batcher.flush();
+
+    // Then:
+    verify(response, never()).write(any(Buffer.class));
+  }
+
+  @Test
+  public void shouldFlushOnEnd() {
+    // When:
+    batcher.write(Buffer.buffer("a"), 1);
+    batcher.end();
+
+    // Then:
+    verify(response).write(written.capture());
+    assertThat(written.getValue().toString(), is("a"));
+    verify(response).end();
+  }
+}
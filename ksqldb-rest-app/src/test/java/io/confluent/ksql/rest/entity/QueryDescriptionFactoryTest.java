@@ -17,6 +17,7 @@ package io.confluent.ksql.rest.entity;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
@@ -196,6 +197,12 @@ public class QueryDescriptionFactoryTest {
     assertThat(persistentQueryDescription.getExecutionPlan(), is("execution plan"));
   }
 
+  @Test
+  public void shouldHaveNoStepProfilesIfQueryNotProfiled() {
+    assertThat(transientQueryDescription.getStepProfiles(), is(empty()));
+    assertThat(persistentQueryDescription.getStepProfiles(), is(empty()));
+  }
+
   @Test
   public void shouldExposeSources() {
     assertThat(transientQueryDescription.getSources(), is(SOURCE_NAMES.stream().map(SourceName::text).collect(Collectors.toSet())));
@@ -242,10 +242,10 @@ public class PullQueryMetricsTest {
         PullSourceType.NON_WINDOWED, PullPhysicalPlanType.KEY_LOOKUP, RoutingNodeType.SOURCE_NODE);
 
     // Then:
-    assertThat(detailed50, closeTo(297857.85, 0.1));
-    assertThat(detailed75, closeTo(398398.39, 0.1));
-    assertThat(detailed90, closeTo(495555.55, 0.1));
-    assertThat(detailed99, closeTo(495555.55, 0.1));
+    assertThat(detailed50, closeTo(303103.0, 0.1));
+    assertThat(detailed75, closeTo(401407.0, 0.1));
+    assertThat(detailed90, closeTo(507903.0, 0.1));
+    assertThat(detailed99, closeTo(507903.0, 0.1));
   }
 
   @Test
@@ -53,6 +53,7 @@ public class QueryDescription {
   private final KsqlQueryType queryType;
   private final List<QueryError> queryErrors;
   private final Set<StreamsTaskMetadata> tasksMetadata;
+  private final List<QueryStepProfile> stepProfiles;
 
   // CHECKSTYLE_RULES.OFF: ParameterNumberCheck
   @SuppressWarnings("WeakerAccess") // Invoked via reflection
@@ -71,7 +72,8 @@ public class QueryDescription {
           ksqlHostQueryStatus,
       @JsonProperty("queryType") final KsqlQueryType queryType,
       @JsonProperty("queryErrors") final List<QueryError> queryErrors,
-      @JsonProperty("tasksMetadata") final Set<StreamsTaskMetadata> tasksMetadata
+      @JsonProperty("tasksMetadata") final Set<StreamsTaskMetadata> tasksMetadata,
+      @JsonProperty("stepProfiles") final List<QueryStepProfile> stepProfiles
   ) {
     this.id = Objects.requireNonNull(id, "id");
     this.statementText = Objects.requireNonNull(statementText, "statementText");
@@ -88,6 +90,10 @@ public class QueryDescription {
     this.queryType = Objects.requireNonNull(queryType, "queryType");
     this.queryErrors = new ArrayList<>(Objects.requireNonNull(queryErrors, "queryErrors"));
     this.tasksMetadata = new HashSet<>(Objects.requireNonNull(tasksMetadata));
+    // stepProfiles is not present in responses from older servers:
+    this.stepProfiles = stepProfiles == null
+        ? ImmutableList.of()
+        : ImmutableList.copyOf(stepProfiles);
   }
 
   public QueryId getId() {
@@ -141,6 +147,11 @@ public class QueryDescription {
     return ImmutableSet.copyOf(tasksMetadata);
   }
 
+  @SuppressFBWarnings(value = "EI_EXPOSE_REP", justification = "stepProfiles is ImmutableList")
+  public List<QueryStepProfile> getStepProfiles() {
+    return stepProfiles;
+  }
+
   // kept for backwards compatibility
   @JsonProperty("state")
   public Optional<String> getState() {
@@ -195,7 +206,8 @@ public class QueryDescription {
         && Objects.equals(ksqlHostQueryStatus, that.ksqlHostQueryStatus)
         && Objects.equals(queryType, that.queryType)
         && Objects.equals(queryErrors, that.queryErrors)
-        && Objects.equals(tasksMetadata, that.tasksMetadata);
+        && Objects.equals(tasksMetadata, that.tasksMetadata)
+        && Objects.equals(stepProfiles, that.stepProfiles);
   }
 
   @Override
@@ -213,7 +225,8 @@ public class QueryDescription {
         ksqlHostQueryStatus,
         queryType,
         queryErrors,
-        tasksMetadata
+        tasksMetadata,
+        stepProfiles
     );
   }
 }
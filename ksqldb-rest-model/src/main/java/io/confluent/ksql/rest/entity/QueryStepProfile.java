@@ -0,0 +1,119 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.rest.entity;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Objects;
+
+/**
+ * The records processed by, and sampled processing time of, a single step of a query, since the
+ * query was started on this server.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class QueryStepProfile {
+
+  private final String step;
+  private final long recordsIn;
+  private final long recordsOut;
+  private final long sampledRecords;
+  private final long sampledTimeNs;
+
+  @JsonCreator
+  public QueryStepProfile(
+      @JsonProperty("step") final String step,
+      @JsonProperty("recordsIn") final long recordsIn,
+      @JsonProperty("recordsOut") final long recordsOut,
+      @JsonProperty("sampledRecords") final long sampledRecords,
+      @JsonProperty("sampledTimeNs") final long sampledTimeNs
+  ) {
+    this.step = Objects.requireNonNull(step, "step");
+    this.recordsIn = recordsIn;
+    this.recordsOut = recordsOut;
+    this.sampledRecords = sampledRecords;
+    this.sampledTimeNs = sampledTimeNs;
+  }
+
+  public String getStep() {
+    return step;
+  }
+
+  public long getRecordsIn() {
+    return recordsIn;
+  }
+
+  public long getRecordsOut() {
+    return recordsOut;
+  }
+
+  public long getSampledRecords() {
+    return sampledRecords;
+  }
+
+  public long getSampledTimeNs() {
+    return sampledTimeNs;
+  }
+
+  /**
+   * @return the average time taken to process a record, from the sampled records.
+   */
+  @JsonIgnore
+  public double getAvgTimeNs() {
+    return sampledRecords == 0 ? 0 : (double) sampledTimeNs / sampledRecords;
+  }
+
+  /**
+   * @return the estimated total time taken to process all records.
+   */
+  @JsonIgnore
+  public double getEstimatedTotalTimeNs() {
+    return getAvgTimeNs() * recordsIn;
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final QueryStepProfile that = (QueryStepProfile) o;
+    return recordsIn == that.recordsIn
+        && recordsOut == that.recordsOut
+        && sampledRecords == that.sampledRecords
+        && sampledTimeNs == that.sampledTimeNs
+        && Objects.equals(step, that.step);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(step, recordsIn, recordsOut, sampledRecords, sampledTimeNs);
+  }
+
+  @Override
+  public String toString() {
+    return "QueryStepProfile{"
+        + "step='" + step + '\''
+        + ", recordsIn=" + recordsIn
+        + ", recordsOut=" + recordsOut
+        + ", sampledRecords=" + sampledRecords
+        + ", sampledTimeNs=" + sampledTimeNs
+        + '}';
+  }
+}
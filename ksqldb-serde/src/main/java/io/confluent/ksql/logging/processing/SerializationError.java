@@ -51,6 +51,19 @@ public class SerializationError<T> implements ProcessingLogger.ErrorMessage {
     return new SchemaAndValue(ProcessingLogMessageSchema.PROCESSING_LOG_SCHEMA, struct);
   }
 
+  @Override
+  public ProcessingLogger.ErrorMessage snapshot(final ProcessingLogConfig config) {
+    // The record may be mutable, so only its string form is kept, if needed at all:
+    return new SerializationError<>(
+        exception,
+        config.getBoolean(ProcessingLogConfig.INCLUDE_ROWS)
+            ? record.map(Object::toString)
+            : Optional.empty(),
+        topic,
+        isKey
+    );
+  }
+
   @Override
   public boolean equals(final Object o) {
     if (this == o) {
@@ -130,6 +130,10 @@ public final class GenericRowSerDe implements ValueSerdeFactory {
   }
 
   private static GenericRow createGenericRow(final List<?> values) {
+    if (values instanceof LazyColumns) {
+      return GenericRow.fromDecoder(values.size(), (LazyColumns) values, ADDITIONAL_CAPACITY);
+    }
+
     final GenericRow row = new GenericRow(values.size() + ADDITIONAL_CAPACITY);
     row.appendAll(values);
     return row;
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde;
+
+import io.confluent.ksql.GenericRow;
+import java.util.AbstractList;
+
+/**
+ * The columns of a deserialized row, decoded on demand.
+ *
+ * <p>Format deserializers may return an instance of this class, rather than a list of decoded
+ * values, from which {@link GenericRowSerDe} builds a row that decodes each column the first
+ * time it is accessed. Accessing the columns through this list decodes them on every call.
+ *
+ * @see GenericRow#fromDecoder
+ */
+public abstract class LazyColumns extends AbstractList<Object>
+    implements GenericRow.ColumnDecoder {
+
+  @Override
+  public Object get(final int index) {
+    return decode(index);
+  }
+}
@@ -0,0 +1,442 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.avro;
+
+import io.confluent.ksql.serde.SerdeUtils;
+import io.confluent.ksql.util.DecimalUtil;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.avro.LogicalType;
+import org.apache.avro.LogicalTypes;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.kafka.connect.data.Date;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Time;
+import org.apache.kafka.connect.data.Timestamp;
+
+/**
+ * Compiles decoders that read Avro binary data, written with a specific writer schema, straight
+ * into the ksqlDB representation of a record.
+ *
+ * <p>The decoders apply the same type coercion and case-insensitive field matching as
+ * {@link io.confluent.ksql.serde.connect.ConnectDataTranslator}, without first building Avro
+ * and Connect representations of each record. Writer fields with no matching ksqlDB field are
+ * skipped without being materialized.
+ *
+ * <p>Compilation fails, i.e. returns {@link Optional#empty()}, for any combination of schemas it
+ * does not support, e.g. general unions, or where the writer schema can not be coerced to the
+ * ksqlDB schema. Such records should be deserialized via Connect, which also reports any errors.
+ */
+final class AvroBinaryDecoders {
+
+  private AvroBinaryDecoders() {
+  }
+
+  /**
+   * Reads a value from the supplied decoder.
+   */
+  interface ValueDecoder {
+    Object decode(BinaryDecoder in) throws IOException;
+  }
+
+  private interface Skipper {
+    void skip(BinaryDecoder in) throws IOException;
+  }
+
+  private interface FieldStep {
+    void apply(BinaryDecoder in, Struct struct) throws IOException;
+  }
+
+  /**
+   * Compiles a decoder for records written with {@code writerSchema}.
+   *
+   * @param writerSchema the Avro schema the data was written with.
+   * @param ksqlSchema the ksqlDB struct schema to decode into.
+   * @return the decoder, or empty if the schemas are not supported.
+   */
+  static Optional<ValueDecoder> compileRecord(
+      final org.apache.avro.Schema writerSchema,
+      final Schema ksqlSchema
+  ) {
+    if (writerSchema.getType() != org.apache.avro.Schema.Type.RECORD
+        || ksqlSchema.type() != Schema.Type.STRUCT) {
+      return Optional.empty();
+    }
+
+    return Optional.ofNullable(structDecoder(writerSchema, ksqlSchema, new IdentityHashMap<>()));
+  }
+
+  // CHECKSTYLE_RULES.OFF: CyclomaticComplexity
+  private static ValueDecoder decoder(
+      final org.apache.avro.Schema writer,
+      final Schema ksql,
+      final Map<org.apache.avro.Schema, Skipper> skippers
+  ) {
+    // CHECKSTYLE_RULES.ON: CyclomaticComplexity
+    if (writer.getType() == org.apache.avro.Schema.Type.UNION) {
+      return optionalDecoder(writer, ksql, skippers);
+    }
+
+    switch (ksql.type()) {
+      case BOOLEAN:
+        return writer.getType() == org.apache.avro.Schema.Type.BOOLEAN
+            ? BinaryDecoder::readBoolean
+            : null;
+      case INT32:
+        return int32Decoder(writer, ksql);
+      case INT64:
+        return int64Decoder(writer, ksql);
+      case FLOAT64:
+        return float64Decoder(writer);
+      case STRING:
+        return stringDecoder(writer);
+      case BYTES:
+        return decimalDecoder(writer, ksql);
+      case ARRAY:
+        return arrayDecoder(writer, ksql, skippers);
+      case MAP:
+        return mapDecoder(writer, ksql, skippers);
+      case STRUCT:
+        return writer.getType() == org.apache.avro.Schema.Type.RECORD
+            ? structDecoder(writer, ksql, skippers)
+            : null;
+      default:
+        return null;
+    }
+  }
+
+  private static ValueDecoder optionalDecoder(
+      final org.apache.avro.Schema writer,
+      final Schema ksql,
+      final Map<org.apache.avro.Schema, Skipper> skippers
+  ) {
+    final List<org.apache.avro.Schema> types = writer.getTypes();
+    if (types.size() != 2) {
+      return null;
+    }
+
+    final int nullIndex = types.get(0).getType() == org.apache.avro.Schema.Type.NULL ? 0 : 1;
+    final org.apache.avro.Schema valueSchema = types.get(1 - nullIndex);
+    if (types.get(nullIndex).getType() != org.apache.avro.Schema.Type.NULL
+        || valueSchema.getType() == org.apache.avro.Schema.Type.UNION) {
+      return null;
+    }
+
+    final ValueDecoder valueDecoder = decoder(valueSchema, ksql, skippers);
+    if (valueDecoder == null) {
+      return null;
+    }
+
+    return in -> in.readIndex() == nullIndex ? null : valueDecoder.decode(in);
+  }
+
+  private static ValueDecoder int32Decoder(final org.apache.avro.Schema writer, final Schema ksql) {
+    if (writer.getType() != org.apache.avro.Schema.Type.INT) {
+      return null;
+    }
+
+    if (Time.LOGICAL_NAME.equals(ksql.name())) {
+      return in -> new java.sql.Time(in.readInt());
+    }
+    if (Date.LOGICAL_NAME.equals(ksql.name())) {
+      return in -> SerdeUtils.getDateFromEpochDays(in.readInt());
+    }
+    return BinaryDecoder::readInt;
+  }
+
+  private static ValueDecoder int64Decoder(final org.apache.avro.Schema writer, final Schema ksql) {
+    final ValueDecoder longDecoder;
+    switch (writer.getType()) {
+      case INT:
+        longDecoder = in -> (long) in.readInt();
+        break;
+      case LONG:
+        longDecoder = BinaryDecoder::readLong;
+        break;
+      default:
+        return null;
+    }
+
+    if (Timestamp.LOGICAL_NAME.equals(ksql.name())) {
+      return in -> new java.sql.Timestamp((Long) longDecoder.decode(in));
+    }
+    return longDecoder;
+  }
+
+  private static ValueDecoder float64Decoder(final org.apache.avro.Schema writer) {
+    switch (writer.getType()) {
+      case FLOAT:
+        return in -> (double) in.readFloat();
+      case DOUBLE:
+        return BinaryDecoder::readDouble;
+      default:
+        return null;
+    }
+  }
+
+  private static ValueDecoder stringDecoder(final org.apache.avro.Schema writer) {
+    switch (writer.getType()) {
+      case STRING:
+        return in -> in.readString();
+      case ENUM:
+        final List<String> symbols = writer.getEnumSymbols();
+        return in -> symbols.get(in.readEnum());
+      case BOOLEAN:
+        return in -> String.valueOf(in.readBoolean());
+      case INT:
+        return in -> String.valueOf(in.readInt());
+      case LONG:
+        return in -> String.valueOf(in.readLong());
+      case FLOAT:
+        return in -> String.valueOf(in.readFloat());
+      case DOUBLE:
+        return in -> String.valueOf(in.readDouble());
+      default:
+        return null;
+    }
+  }
+
+  private static ValueDecoder decimalDecoder(
+      final org.apache.avro.Schema writer,
+      final Schema ksql
+  ) {
+    final LogicalType logicalType = writer.getLogicalType();
+    if (!DecimalUtil.isDecimal(ksql) || !(logicalType instanceof LogicalTypes.Decimal)) {
+      return null;
+    }
+
+    final int scale = ((LogicalTypes.Decimal) logicalType).getScale();
+    switch (writer.getType()) {
+      case BYTES:
+        return in -> {
+          final ByteBuffer buffer = in.readBytes(null);
+          final byte[] bytes = new byte[buffer.remaining()];
+          buffer.get(bytes);
+          return toDecimal(bytes, scale, ksql);
+        };
+      case FIXED:
+        final int size = writer.getFixedSize();
+        return in -> {
+          final byte[] bytes = new byte[size];
+          in.readFixed(bytes);
+          return toDecimal(bytes, scale, ksql);
+        };
+      default:
+        return null;
+    }
+  }
+
+  private static BigDecimal toDecimal(final byte[] bytes, final int scale, final Schema ksql) {
+    return DecimalUtil.ensureFit(new BigDecimal(new BigInteger(bytes), scale), ksql);
+  }
+
+  private static ValueDecoder arrayDecoder(
+      final org.apache.avro.Schema writer,
+      final Schema ksql,
+      final Map<org.apache.avro.Schema, Skipper> skippers
+  ) {
+    if (writer.getType() != org.apache.avro.Schema.Type.ARRAY) {
+      return null;
+    }
+
+    final ValueDecoder elementDecoder =
+        decoder(writer.getElementType(), ksql.valueSchema(), skippers);
+    if (elementDecoder == null) {
+      return null;
+    }
+
+    return in -> {
+      long blockSize = in.readArrayStart();
+      final List<Object> array = new ArrayList<>((int) blockSize);
+      while (blockSize > 0) {
+        for (long i = 0; i < blockSize; i++) {
+          array.add(elementDecoder.decode(in));
+        }
+        blockSize = in.arrayNext();
+      }
+      return array;
+    };
+  }
+
+  private static ValueDecoder mapDecoder(
+      final org.apache.avro.Schema writer,
+      final Schema ksql,
+      final Map<org.apache.avro.Schema, Skipper> skippers
+  ) {
+    if (writer.getType() != org.apache.avro.Schema.Type.MAP
+        || ksql.keySchema().type() != Schema.Type.STRING) {
+      return null;
+    }
+
+    final ValueDecoder valueDecoder = decoder(writer.getValueType(), ksql.valueSchema(), skippers);
+    if (valueDecoder == null) {
+      return null;
+    }
+
+    return in -> {
+      long blockSize = in.readMapStart();
+      final Map<Object, Object> map = new HashMap<>();
+      while (blockSize > 0) {
+        for (long i = 0; i < blockSize; i++) {
+          final String key = in.readString();
+          map.put(key, valueDecoder.decode(in));
+        }
+        blockSize = in.mapNext();
+      }
+      return map;
+    };
+  }
+
+  private static ValueDecoder structDecoder(
+      final org.apache.avro.Schema writer,
+      final Schema ksql,
+      final Map<org.apache.avro.Schema, Skipper> skippers
+  ) {
+    final Map<String, Field> ksqlFields = new HashMap<>();
+    for (final Field field : ksql.fields()) {
+      // Match against the Avro compatible field names, as Connect does:
+      ksqlFields.put(field.name().replace(".", "_"), field);
+    }
+
+    final List<org.apache.avro.Schema.Field> writerFields = writer.getFields();
+    final FieldStep[] steps = new FieldStep[writerFields.size()];
+    for (int i = 0; i < steps.length; i++) {
+      final org.apache.avro.Schema.Field writerField = writerFields.get(i);
+
+      Field ksqlField = ksqlFields.get(writerField.name());
+      if (ksqlField == null) {
+        ksqlField = ksqlFields.get(writerField.name().toUpperCase());
+      }
+
+      if (ksqlField == null) {
+        final Skipper skipper = skipper(writerField.schema(), skippers);
+        steps[i] = (in, struct) -> skipper.skip(in);
+        continue;
+      }
+
+      final Field target = ksqlField;
+      final ValueDecoder fieldDecoder = decoder(writerField.schema(), target.schema(), skippers);
+      if (fieldDecoder == null) {
+        return null;
+      }
+      steps[i] = (in, struct) -> struct.put(target, fieldDecoder.decode(in));
+    }
+
+    return in -> {
+      final Struct struct = new Struct(ksql);
+      for (final FieldStep step : steps) {
+        step.apply(in, struct);
+      }
+      return struct;
+    };
+  }
+
+  // CHECKSTYLE_RULES.OFF: CyclomaticComplexity
+  private static Skipper skipper(
+      final org.apache.avro.Schema writer,
+      final Map<org.apache.avro.Schema, Skipper> skippers
+  ) {
+    // CHECKSTYLE_RULES.ON: CyclomaticComplexity
+    switch (writer.getType()) {
+      case NULL:
+        return in -> in.readNull();
+      case BOOLEAN:
+        return BinaryDecoder::readBoolean;
+      case INT:
+        return BinaryDecoder::readInt;
+      case LONG:
+        return BinaryDecoder::readLong;
+      case FLOAT:
+        return BinaryDecoder::readFloat;
+      case DOUBLE:
+        return BinaryDecoder::readDouble;
+      case STRING:
+        return BinaryDecoder::skipString;
+      case BYTES:
+        return BinaryDecoder::skipBytes;
+      case ENUM:
+        return BinaryDecoder::readEnum;
+      case FIXED:
+        final int size = writer.getFixedSize();
+        return in -> in.skipFixed(size);
+      case ARRAY:
+        final Skipper elementSkipper = skipper(writer.getElementType(), skippers);
+        return in -> {
+          for (long n = in.skipArray(); n != 0; n = in.skipArray()) {
+            for (long i = 0; i < n; i++) {
+              elementSkipper.skip(in);
+            }
+          }
+        };
+      case MAP:
+        final Skipper valueSkipper = skipper(writer.getValueType(), skippers);
+        return in -> {
+          for (long n = in.skipMap(); n != 0; n = in.skipMap()) {
+            for (long i = 0; i < n; i++) {
+              in.skipString();
+              valueSkipper.skip(in);
+            }
+          }
+        };
+      case UNION:
+        final List<org.apache.avro.Schema> types = writer.getTypes();
+        final Skipper[] branches = new Skipper[types.size()];
+        for (int i = 0; i < branches.length; i++) {
+          branches[i] = skipper(types.get(i), skippers);
+        }
+        return in -> branches[in.readIndex()].skip(in);
+      case RECORD:
+        return recordSkipper(writer, skippers);
+      default:
+        throw new IllegalArgumentException("Unknown Avro type: " + writer.getType());
+    }
+  }
+
+  private static Skipper recordSkipper(
+      final org.apache.avro.Schema writer,
+      final Map<org.apache.avro.Schema, Skipper> skippers
+  ) {
+    final Skipper existing = skippers.get(writer);
+    if (existing != null) {
+      return existing;
+    }
+
+    // Records may be recursive, so register the skipper before compiling the fields:
+    final List<org.apache.avro.Schema.Field> fields = writer.getFields();
+    final Skipper[] fieldSkippers = new Skipper[fields.size()];
+    final Skipper recordSkipper = in -> {
+      for (final Skipper fieldSkipper : fieldSkippers) {
+        fieldSkipper.skip(in);
+      }
+    };
+    skippers.put(writer, recordSkipper);
+
+    for (int i = 0; i < fieldSkippers.length; i++) {
+      fieldSkippers[i] = skipper(fields.get(i).schema(), skippers);
+    }
+    return recordSkipper;
+  }
+}
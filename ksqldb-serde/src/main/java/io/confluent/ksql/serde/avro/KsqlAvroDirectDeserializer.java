@@ -0,0 +1,125 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.avro;
+
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.ksql.serde.avro.AvroBinaryDecoders.ValueDecoder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Deserializes Avro records straight into ksqlDB structs, using a decoder compiled per writer
+ * schema id.
+ *
+ * <p>Records whose writer schema the direct decoders do not support are handed to the
+ * {@code fallback} deserializer, which goes via Connect's data model.
+ *
+ * <p>Not thread safe: instances are expected to be thread local.
+ */
+class KsqlAvroDirectDeserializer implements Deserializer<Struct> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(KsqlAvroDirectDeserializer.class);
+
+  private static final byte MAGIC_BYTE = 0x0;
+  private static final int HEADER_SIZE = 1 + Integer.BYTES;
+
+  private final SchemaRegistryClient srClient;
+  private final Schema ksqlSchema;
+  private final Deserializer<Struct> fallback;
+  private final Map<Integer, Optional<ValueDecoder>> decoders = new HashMap<>();
+  private BinaryDecoder binaryDecoder;
+
+  KsqlAvroDirectDeserializer(
+      final SchemaRegistryClient srClient,
+      final Schema ksqlSchema,
+      final Deserializer<Struct> fallback
+  ) {
+    this.srClient = Objects.requireNonNull(srClient, "srClient");
+    this.ksqlSchema = Objects.requireNonNull(ksqlSchema, "ksqlSchema");
+    this.fallback = Objects.requireNonNull(fallback, "fallback");
+  }
+
+  @Override
+  public void configure(final Map<String, ?> configs, final boolean isKey) {
+    fallback.configure(configs, isKey);
+  }
+
+  @Override
+  public Struct deserialize(final String topic, final byte[] bytes) {
+    if (bytes == null || bytes.length < HEADER_SIZE || bytes[0] != MAGIC_BYTE) {
+      return fallback.deserialize(topic, bytes);
+    }
+
+    final int schemaId = ((bytes[1] & 0xFF) << 24)
+        | ((bytes[2] & 0xFF) << 16)
+        | ((bytes[3] & 0xFF) << 8)
+        | (bytes[4] & 0xFF);
+
+    final Optional<ValueDecoder> decoder = getDecoder(schemaId);
+    if (!decoder.isPresent()) {
+      return fallback.deserialize(topic, bytes);
+    }
+
+    try {
+      binaryDecoder = DecoderFactory.get()
+          .binaryDecoder(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE, binaryDecoder);
+      return (Struct) decoder.get().decode(binaryDecoder);
+    } catch (final Exception e) {
+      throw new SerializationException(
+          "Error deserializing message from topic: " + topic, e);
+    }
+  }
+
+  @Override
+  public void close() {
+    fallback.close();
+  }
+
+  private Optional<ValueDecoder> getDecoder(final int schemaId) {
+    final Optional<ValueDecoder> cached = decoders.get(schemaId);
+    if (cached != null) {
+      return cached;
+    }
+
+    final ParsedSchema writerSchema;
+    try {
+      writerSchema = srClient.getSchemaById(schemaId);
+    } catch (final Exception e) {
+      // Not cached, leaving the fallback to report the error:
+      LOG.debug("Failed to look up writer schema with id {}", schemaId, e);
+      return Optional.empty();
+    }
+
+    final Optional<ValueDecoder> decoder = writerSchema instanceof AvroSchema
+        ? AvroBinaryDecoders.compileRecord(((AvroSchema) writerSchema).rawSchema(), ksqlSchema)
+        : Optional.empty();
+
+    decoders.put(schemaId, decoder);
+    return decoder;
+  }
+}
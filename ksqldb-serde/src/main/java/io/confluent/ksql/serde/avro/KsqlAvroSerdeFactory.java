@@ -34,6 +34,7 @@ import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.connect.data.ConnectSchema;
 import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
 
 @Immutable
 class KsqlAvroSerdeFactory {
@@ -114,13 +115,36 @@ class KsqlAvroSerdeFactory {
     return () -> {
       final AvroDataTranslator translator = createAvroTranslator(schema);
 
-      final AvroConverter avroConverter =
-          getAvroConverter(srFactory.get(), ksqlConfig, isKey);
+      final SchemaRegistryClient srClient = srFactory.get();
+      final AvroConverter avroConverter = getAvroConverter(srClient, ksqlConfig, isKey);
+
+      final Deserializer<T> connectDeserializer =
+          new KsqlConnectDeserializer<>(avroConverter, translator, targetType);
 
-      return new KsqlConnectDeserializer<>(avroConverter, translator, targetType);
+      return useDirectDeserializer(ksqlConfig, targetType)
+          ? directDeserializer(srClient, schema, connectDeserializer)
+          : connectDeserializer;
     };
   }
 
+  private static boolean useDirectDeserializer(
+      final KsqlConfig ksqlConfig,
+      final Class<?> targetType
+  ) {
+    return targetType.equals(Struct.class)
+        && ksqlConfig.getBoolean(KsqlConfig.KSQL_AVRO_DIRECT_DECODING_ENABLED);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> Deserializer<T> directDeserializer(
+      final SchemaRegistryClient srClient,
+      final ConnectSchema schema,
+      final Deserializer<T> connectDeserializer
+  ) {
+    return (Deserializer<T>) new KsqlAvroDirectDeserializer(
+        srClient, schema, (Deserializer<Struct>) connectDeserializer);
+  }
+
   private AvroDataTranslator createAvroTranslator(final Schema schema) {
     return new AvroDataTranslator(schema, fullSchemaName);
   }
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.binary;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import org.apache.kafka.common.errors.SerializationException;
+
+/**
+ * Reads primitive values written by {@link BinaryWriter}.
+ */
+final class BinaryReader {
+
+  private final byte[] buf;
+  private int pos;
+
+  BinaryReader(final byte[] buf) {
+    this(buf, 0);
+  }
+
+  BinaryReader(final byte[] buf, final int pos) {
+    this.buf = Objects.requireNonNull(buf, "buf");
+    this.pos = pos;
+  }
+
+  int position() {
+    return pos;
+  }
+
+  void skip(final int length) {
+    checkAvailable(length);
+    pos += length;
+  }
+
+  /**
+   * Skips over length prefixed bytes, as written by {@link BinaryWriter#writeBytes}.
+   */
+  void skipBytes() {
+    pos += readLength();
+  }
+
+  int readByte() {
+    checkAvailable(1);
+    return buf[pos++] & 0xFF;
+  }
+
+  long readZigZag() {
+    final long v = readVarLong();
+    return (v >>> 1) ^ -(v & 1);
+  }
+
+  long readVarLong() {
+    long result = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      final int b = readByte();
+      result |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return result;
+      }
+    }
+    throw new SerializationException("Malformed varint at offset " + pos);
+  }
+
+  double readDouble() {
+    checkAvailable(8);
+    long bits = 0;
+    for (int i = 0; i < 8; i++) {
+      bits = (bits << 8) | (buf[pos++] & 0xFF);
+    }
+    return Double.longBitsToDouble(bits);
+  }
+
+  byte[] readBytes() {
+    final int length = readLength();
+    final byte[] bytes = Arrays.copyOfRange(buf, pos, pos + length);
+    pos += length;
+    return bytes;
+  }
+
+  String readString() {
+    final int length = readLength();
+    final String s = new String(buf, pos, length, StandardCharsets.UTF_8);
+    pos += length;
+    return s;
+  }
+
+  /**
+   * Skips over a bitmap of {@code count} bits.
+   *
+   * @return the offset of the bitmap, to pass to {@link #isSet}.
+   */
+  int readBitmap(final int count) {
+    final int length = (count + 7) >>> 3;
+    checkAvailable(length);
+    final int start = pos;
+    pos += length;
+    return start;
+  }
+
+  boolean isSet(final int bitmapStart, final int index) {
+    return (buf[bitmapStart + (index >>> 3)] & (1 << (index & 7))) != 0;
+  }
+
+  boolean hasRemaining() {
+    return pos < buf.length;
+  }
+
+  /**
+   * Reads the number of elements in a collection, each of which takes at least the one bit in
+   * the collection's null bitmap.
+   */
+  int readCount() {
+    final long count = readVarLong();
+    if (count < 0 || count > (buf.length - pos) * 8L) {
+      throw new SerializationException("Invalid element count " + count + " at offset " + pos);
+    }
+    return (int) count;
+  }
+
+  private int readLength() {
+    final long length = readVarLong();
+    if (length < 0 || length > buf.length - pos) {
+      throw new SerializationException("Invalid length " + length + " at offset " + pos);
+    }
+    return (int) length;
+  }
+
+  private void checkAvailable(final int length) {
+    if (length > buf.length - pos) {
+      throw new SerializationException("Unexpected end of data at offset " + pos);
+    }
+  }
+}
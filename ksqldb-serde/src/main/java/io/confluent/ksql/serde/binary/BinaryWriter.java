@@ -0,0 +1,124 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.binary;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A growable buffer that primitive values are written to in the {@link KsqlBinaryFormat}
+ * encoding.
+ */
+final class BinaryWriter {
+
+  private byte[] buf;
+  private int pos;
+
+  BinaryWriter(final int initialCapacity) {
+    this.buf = new byte[Math.max(initialCapacity, 16)];
+  }
+
+  void writeByte(final int b) {
+    ensureCapacity(1);
+    buf[pos++] = (byte) b;
+  }
+
+  /**
+   * Writes a signed value as a zig-zag encoded varint, so that small negative values are as
+   * compact as small positive ones.
+   */
+  void writeZigZag(final long v) {
+    writeVarLong((v << 1) ^ (v >> 63));
+  }
+
+  /**
+   * Writes an unsigned value as a varint: seven bits per byte, least significant group first,
+   * with the high bit set on all but the last byte.
+   */
+  void writeVarLong(final long v) {
+    ensureCapacity(10);
+    long remaining = v;
+    while ((remaining & ~0x7FL) != 0) {
+      buf[pos++] = (byte) ((remaining & 0x7F) | 0x80);
+      remaining >>>= 7;
+    }
+    buf[pos++] = (byte) remaining;
+  }
+
+  void writeDouble(final double d) {
+    ensureCapacity(8);
+    final long bits = Double.doubleToLongBits(d);
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      buf[pos++] = (byte) (bits >>> shift);
+    }
+  }
+
+  /**
+   * Writes the bytes, prefixed with their length.
+   */
+  void writeBytes(final byte[] bytes) {
+    writeVarLong(bytes.length);
+    ensureCapacity(bytes.length);
+    System.arraycopy(bytes, 0, buf, pos, bytes.length);
+    pos += bytes.length;
+  }
+
+  /**
+   * Writes the remaining bytes of the buffer, prefixed with their length, without changing its
+   * position.
+   */
+  void writeBytes(final ByteBuffer bytes) {
+    final ByteBuffer src = bytes.duplicate();
+    final int length = src.remaining();
+    writeVarLong(length);
+    ensureCapacity(length);
+    src.get(buf, pos, length);
+    pos += length;
+  }
+
+  /**
+   * Reserves a zeroed bitmap with a bit for each of {@code count} values.
+   *
+   * @return the offset of the bitmap, to pass to {@link #setBit}.
+   */
+  int reserveBitmap(final int count) {
+    final int length = (count + 7) >>> 3;
+    ensureCapacity(length);
+    final int start = pos;
+    Arrays.fill(buf, start, start + length, (byte) 0);
+    pos += length;
+    return start;
+  }
+
+  void setBit(final int bitmapStart, final int index) {
+    buf[bitmapStart + (index >>> 3)] |= (byte) (1 << (index & 7));
+  }
+
+  int size() {
+    return pos;
+  }
+
+  byte[] toByteArray() {
+    return Arrays.copyOf(buf, pos);
+  }
+
+  private void ensureCapacity(final int additional) {
+    final int required = pos + additional;
+    if (required > buf.length) {
+      buf = Arrays.copyOf(buf, Math.max(required, buf.length * 2));
+    }
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.binary;
+
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import io.confluent.ksql.schema.ksql.types.SqlType;
+import io.confluent.ksql.serde.Format;
+import io.confluent.ksql.serde.FormatProperties;
+import io.confluent.ksql.serde.SerdeUtils;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.apache.kafka.common.serialization.Serde;
+
+/**
+ * A compact, positional, binary value format used only for the internal topics and state stores
+ * of ksqlDB's own queries, i.e. repartition topics, changelog topics and stores.
+ *
+ * <p>As the schema of internal data is always known, rows are written without field names or
+ * type information. See {@link KsqlBinarySerdeFactory} for the encoding.
+ *
+ * <p>The format can not be used for keys, nor for user topics.
+ */
+public class KsqlBinaryFormat implements Format {
+
+  public static final String NAME = "KSQL_BINARY";
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public Serde<List<?>> getSerde(
+      final PersistenceSchema schema,
+      final Map<String, String> formatProperties,
+      final KsqlConfig ksqlConfig,
+      final Supplier<SchemaRegistryClient> srClientFactory,
+      final boolean isKey) {
+    FormatProperties.validateProperties(name(), formatProperties, getSupportedProperties());
+    SerdeUtils.throwOnUnsupportedFeatures(schema.features(), supportedFeatures());
+
+    if (isKey) {
+      throw new IllegalArgumentException(NAME + " can not be used for keys");
+    }
+
+    return KsqlBinarySerdeFactory.createSerde(schema);
+  }
+
+  @Override
+  public boolean supportsKeyType(final SqlType type) {
+    return false;
+  }
+}
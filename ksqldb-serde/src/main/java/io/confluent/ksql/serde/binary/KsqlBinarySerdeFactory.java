@@ -0,0 +1,629 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.binary;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import io.confluent.ksql.schema.ksql.SchemaConverters;
+import io.confluent.ksql.schema.ksql.SimpleColumn;
+import io.confluent.ksql.schema.ksql.types.SqlArray;
+import io.confluent.ksql.schema.ksql.types.SqlDecimal;
+import io.confluent.ksql.schema.ksql.types.SqlMap;
+import io.confluent.ksql.schema.ksql.types.SqlStruct;
+import io.confluent.ksql.schema.ksql.types.SqlType;
+import io.confluent.ksql.serde.LazyColumns;
+import io.confluent.ksql.serde.SerdeUtils;
+import io.confluent.ksql.util.KsqlException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+
+/**
+ * Creates serde for the {@link KsqlBinaryFormat}.
+ *
+ * <p>A row is encoded as a version byte, followed by a bitmap with a bit set for each non-null
+ * column, followed by the value of each non-null column, in column order. Neither column names
+ * nor types are written, as both are known from the schema. Values are encoded as:
+ * <ul>
+ *   <li>BOOLEAN: a single byte.</li>
+ *   <li>INT, BIGINT: a zig-zag varint.</li>
+ *   <li>DOUBLE: eight bytes.</li>
+ *   <li>STRING, BYTES: a varint length, followed by the (UTF-8) bytes.</li>
+ *   <li>DECIMAL: the length prefixed two's-complement unscaled value. The scale is the
+ *   schema's.</li>
+ *   <li>TIMESTAMP, TIME: a zig-zag varint of milliseconds. DATE: a zig-zag varint of days.</li>
+ *   <li>ARRAY: a varint element count, a null bitmap over the elements, then each non-null
+ *   element.</li>
+ *   <li>MAP: a varint entry count, a null bitmap over each entry's key and value, then each
+ *   non-null key and value.</li>
+ *   <li>STRUCT: a null bitmap over the fields, then each non-null field, in field order.</li>
+ * </ul>
+ *
+ * <p>Wide rows are deserialized to {@link LazyColumns}, see {@link #LAZY_COLUMN_THRESHOLD}.
+ */
+final class KsqlBinarySerdeFactory {
+
+  static final int VERSION = 0;
+
+  /**
+   * Rows with at least this many columns are deserialized lazily: the deserializer only records
+   * where each column starts, leaving each to be decoded when, and if, it is first accessed. For
+   * narrower rows the cost of the extra pass outweighs the columns that are never accessed.
+   */
+  static final int LAZY_COLUMN_THRESHOLD = 16;
+
+  private static final int NULL_OFFSET = -1;
+
+  private KsqlBinarySerdeFactory() {
+  }
+
+  static Serde<List<?>> createSerde(final PersistenceSchema schema) {
+    final Codec[] codecs = schema.columns().stream()
+        .map(SimpleColumn::type)
+        .map(KsqlBinarySerdeFactory::codecFor)
+        .toArray(Codec[]::new);
+
+    return Serdes.serdeFrom(new RowSerializer(codecs), new RowDeserializer(codecs));
+  }
+
+  private static Codec codecFor(final SqlType type) {
+    switch (type.baseType()) {
+      case BOOLEAN:
+        return BOOLEAN;
+      case INTEGER:
+        return INTEGER;
+      case BIGINT:
+        return BIGINT;
+      case DOUBLE:
+        return DOUBLE;
+      case STRING:
+        return STRING;
+      case BYTES:
+        return BYTES;
+      case TIMESTAMP:
+        return TIMESTAMP;
+      case TIME:
+        return TIME;
+      case DATE:
+        return DATE;
+      case DECIMAL:
+        return new DecimalCodec((SqlDecimal) type);
+      case ARRAY:
+        return new ArrayCodec(codecFor(((SqlArray) type).getItemType()));
+      case MAP:
+        return new MapCodec(
+            codecFor(((SqlMap) type).getKeyType()),
+            codecFor(((SqlMap) type).getValueType())
+        );
+      case STRUCT:
+        return new StructCodec((SqlStruct) type);
+      default:
+        throw new KsqlException("The '" + KsqlBinaryFormat.NAME
+            + "' format does not support type '" + type + "'");
+    }
+  }
+
+  /**
+   * Encodes and decodes non-null values of a single type.
+   */
+  private interface Codec {
+
+    void write(Object value, BinaryWriter out);
+
+    Object read(BinaryReader in);
+
+    /**
+     * Skips over a value, validating its structure without decoding it.
+     */
+    void skip(BinaryReader in);
+  }
+
+  private static final Codec BOOLEAN = new Codec() {
+    @Override
+    public void write(final Object value, final BinaryWriter out) {
+      out.writeByte((Boolean) value ? 1 : 0);
+    }
+
+    @Override
+    public Object read(final BinaryReader in) {
+      return in.readByte() != 0;
+    }
+
+    @Override
+    public void skip(final BinaryReader in) {
+      in.skip(1);
+    }
+  };
+
+  private static final Codec INTEGER = new Codec() {
+    @Override
+    public void write(final Object value, final BinaryWriter out) {
+      out.writeZigZag((Integer) value);
+    }
+
+    @Override
+    public Object read(final BinaryReader in) {
+      return (int) in.readZigZag();
+    }
+
+    @Override
+    public void skip(final BinaryReader in) {
+      in.readVarLong();
+    }
+  };
+
+  private static final Codec BIGINT = new Codec() {
+    @Override
+    public void write(final Object value, final BinaryWriter out) {
+      out.writeZigZag((Long) value);
+    }
+
+    @Override
+    public Object read(final BinaryReader in) {
+      return in.readZigZag();
+    }
+
+    @Override
+    public void skip(final BinaryReader in) {
+      in.readVarLong();
+    }
+  };
+
+  private static final Codec DOUBLE = new Codec() {
+    @Override
+    public void write(final Object value, final BinaryWriter out) {
+      out.writeDouble((Double) value);
+    }
+
+    @Override
+    public Object read(final BinaryReader in) {
+      return in.readDouble();
+    }
+
+    @Override
+    public void skip(final BinaryReader in) {
+      in.skip(8);
+    }
+  };
+
+  private static final Codec STRING = new Codec() {
+    @Override
+    public void write(final Object value, final BinaryWriter out) {
+      out.writeBytes(((String) value).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Object read(final BinaryReader in) {
+      return in.readString();
+    }
+
+    @Override
+    public void skip(final BinaryReader in) {
+      in.skipBytes();
+    }
+  };
+
+  private static final Codec BYTES = new Codec() {
+    @Override
+    public void write(final Object value, final BinaryWriter out) {
+      out.writeBytes((ByteBuffer) value);
+    }
+
+    @Override
+    public Object read(final BinaryReader in) {
+      return ByteBuffer.wrap(in.readBytes());
+    }
+
+    @Override
+    public void skip(final BinaryReader in) {
+      in.skipBytes();
+    }
+  };
+
+  private static final Codec TIMESTAMP = new Codec() {
+    @Override
+    public void write(final Object value, final BinaryWriter out) {
+      out.writeZigZag(((Timestamp) value).getTime());
+    }
+
+    @Override
+    public Object read(final BinaryReader in) {
+      return new Timestamp(in.readZigZag());
+    }
+
+    @Override
+    public void skip(final BinaryReader in) {
+      in.readVarLong();
+    }
+  };
+
+  private static final Codec TIME = new Codec() {
+    @Override
+    public void write(final Object value, final BinaryWriter out) {
+      out.writeZigZag(((Time) value).getTime());
+    }
+
+    @Override
+    public Object read(final BinaryReader in) {
+      return SerdeUtils.returnTimeOrThrow(in.readZigZag());
+    }
+
+    @Override
+    public void skip(final BinaryReader in) {
+      in.readVarLong();
+    }
+  };
+
+  private static final Codec DATE = new Codec() {
+    @Override
+    public void write(final Object value, final BinaryWriter out) {
+      out.writeZigZag(SerdeUtils.toEpochDays((Date) value));
+    }
+
+    @Override
+    public Object read(final BinaryReader in) {
+      return SerdeUtils.getDateFromEpochDays(in.readZigZag());
+    }
+
+    @Override
+    public void skip(final BinaryReader in) {
+      in.readVarLong();
+    }
+  };
+
+  private static final class DecimalCodec implements Codec {
+
+    private final int scale;
+
+    DecimalCodec(final SqlDecimal type) {
+      this.scale = type.getScale();
+    }
+
+    @Override
+    public void write(final Object value, final BinaryWriter out) {
+      final BigDecimal decimal = ((BigDecimal) value).setScale(scale, RoundingMode.UNNECESSARY);
+      out.writeBytes(decimal.unscaledValue().toByteArray());
+    }
+
+    @Override
+    public Object read(final BinaryReader in) {
+      return new BigDecimal(new BigInteger(in.readBytes()), scale);
+    }
+
+    @Override
+    public void skip(final BinaryReader in) {
+      in.skipBytes();
+    }
+  }
+
+  private static final class ArrayCodec implements Codec {
+
+    private final Codec elementCodec;
+
+    ArrayCodec(final Codec elementCodec) {
+      this.elementCodec = Objects.requireNonNull(elementCodec, "elementCodec");
+    }
+
+    @Override
+    public void write(final Object value, final BinaryWriter out) {
+      final List<?> list = (List<?>) value;
+      final int size = list.size();
+      out.writeVarLong(size);
+
+      final int bitmap = out.reserveBitmap(size);
+      for (int i = 0; i < size; i++) {
+        final Object element = list.get(i);
+        if (element != null) {
+          out.setBit(bitmap, i);
+          elementCodec.write(element, out);
+        }
+      }
+    }
+
+    @Override
+    public Object read(final BinaryReader in) {
+      final int size = in.readCount();
+      final int bitmap = in.readBitmap(size);
+
+      final List<Object> list = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        list.add(in.isSet(bitmap, i) ? elementCodec.read(in) : null);
+      }
+      return list;
+    }
+
+    @Override
+    public void skip(final BinaryReader in) {
+      final int size = in.readCount();
+      final int bitmap = in.readBitmap(size);
+
+      for (int i = 0; i < size; i++) {
+        if (in.isSet(bitmap, i)) {
+          elementCodec.skip(in);
+        }
+      }
+    }
+  }
+
+  private static final class MapCodec implements Codec {
+
+    private final Codec keyCodec;
+    private final Codec valueCodec;
+
+    MapCodec(final Codec keyCodec, final Codec valueCodec) {
+      this.keyCodec = Objects.requireNonNull(keyCodec, "keyCodec");
+      this.valueCodec = Objects.requireNonNull(valueCodec, "valueCodec");
+    }
+
+    @Override
+    public void write(final Object value, final BinaryWriter out) {
+      final Map<?, ?> map = (Map<?, ?>) value;
+      final int size = map.size();
+      out.writeVarLong(size);
+
+      final int bitmap = out.reserveBitmap(size * 2);
+      int i = 0;
+      for (final Map.Entry<?, ?> e : map.entrySet()) {
+        if (e.getKey() != null) {
+          out.setBit(bitmap, i);
+          keyCodec.write(e.getKey(), out);
+        }
+        if (e.getValue() != null) {
+          out.setBit(bitmap, i + 1);
+          valueCodec.write(e.getValue(), out);
+        }
+        i += 2;
+      }
+    }
+
+    @Override
+    public Object read(final BinaryReader in) {
+      final int size = in.readCount();
+      final int bitmap = in.readBitmap(size * 2);
+
+      final Map<Object, Object> map = new LinkedHashMap<>(size * 2);
+      for (int i = 0; i < size * 2; i += 2) {
+        final Object key = in.isSet(bitmap, i) ? keyCodec.read(in) : null;
+        final Object val = in.isSet(bitmap, i + 1) ? valueCodec.read(in) : null;
+        map.put(key, val);
+      }
+      return map;
+    }
+
+    @Override
+    public void skip(final BinaryReader in) {
+      final int size = in.readCount();
+      final int bitmap = in.readBitmap(size * 2);
+
+      for (int i = 0; i < size * 2; i += 2) {
+        if (in.isSet(bitmap, i)) {
+          keyCodec.skip(in);
+        }
+        if (in.isSet(bitmap, i + 1)) {
+          valueCodec.skip(in);
+        }
+      }
+    }
+  }
+
+  private static final class StructCodec implements Codec {
+
+    private final Schema schema;
+    private final List<Field> fields;
+    private final Codec[] codecs;
+
+    StructCodec(final SqlStruct type) {
+      this.schema = SchemaConverters.sqlToConnectConverter().toConnectSchema(type);
+      this.fields = schema.fields();
+      this.codecs = type.fields().stream()
+          .map(SqlStruct.Field::type)
+          .map(KsqlBinarySerdeFactory::codecFor)
+          .toArray(Codec[]::new);
+    }
+
+    @Override
+    public void write(final Object value, final BinaryWriter out) {
+      final Struct struct = (Struct) value;
+
+      final int bitmap = out.reserveBitmap(codecs.length);
+      for (int i = 0; i < codecs.length; i++) {
+        // Look up by name, as the value's schema may be an equivalent, but different, instance:
+        final Object fieldValue = struct.get(fields.get(i).name());
+        if (fieldValue != null) {
+          out.setBit(bitmap, i);
+          codecs[i].write(fieldValue, out);
+        }
+      }
+    }
+
+    @Override
+    public Object read(final BinaryReader in) {
+      final int bitmap = in.readBitmap(codecs.length);
+
+      final Struct struct = new Struct(schema);
+      for (int i = 0; i < codecs.length; i++) {
+        if (in.isSet(bitmap, i)) {
+          struct.put(fields.get(i), codecs[i].read(in));
+        }
+      }
+      return struct;
+    }
+
+    @Override
+    public void skip(final BinaryReader in) {
+      final int bitmap = in.readBitmap(codecs.length);
+
+      for (int i = 0; i < codecs.length; i++) {
+        if (in.isSet(bitmap, i)) {
+          codecs[i].skip(in);
+        }
+      }
+    }
+  }
+
+  private static final class RowSerializer implements Serializer<List<?>> {
+
+    private final Codec[] codecs;
+    private int lastSize = 64;
+
+    RowSerializer(final Codec[] codecs) {
+      this.codecs = Objects.requireNonNull(codecs, "codecs");
+    }
+
+    @Override
+    public byte[] serialize(final String topic, final List<?> values) {
+      if (values == null) {
+        return null;
+      }
+
+      SerdeUtils.throwOnColumnCountMismatch(codecs.length, values.size(), true, topic);
+
+      try {
+        final BinaryWriter out = new BinaryWriter(lastSize);
+        out.writeByte(VERSION);
+
+        final int bitmap = out.reserveBitmap(codecs.length);
+        for (int i = 0; i < codecs.length; i++) {
+          final Object value = values.get(i);
+          if (value != null) {
+            out.setBit(bitmap, i);
+            codecs[i].write(value, out);
+          }
+        }
+
+        // Rows of a schema tend to be of similar size, so start the next one big enough:
+        lastSize = out.size();
+        return out.toByteArray();
+      } catch (final Exception e) {
+        throw new SerializationException(
+            "Error serializing " + KsqlBinaryFormat.NAME + " message for topic: " + topic, e);
+      }
+    }
+  }
+
+  private static final class RowDeserializer implements Deserializer<List<?>> {
+
+    private final Codec[] codecs;
+
+    RowDeserializer(final Codec[] codecs) {
+      this.codecs = Objects.requireNonNull(codecs, "codecs");
+    }
+
+    @Override
+    public List<?> deserialize(final String topic, final byte[] bytes) {
+      if (bytes == null) {
+        return null;
+      }
+
+      try {
+        final BinaryReader in = new BinaryReader(bytes);
+        final int version = in.readByte();
+        if (version != VERSION) {
+          throw new SerializationException("Unsupported version: " + version);
+        }
+
+        final int bitmap = in.readBitmap(codecs.length);
+        final List<?> values = codecs.length < LAZY_COLUMN_THRESHOLD
+            ? readColumns(in, bitmap)
+            : indexColumns(in, bitmap, bytes);
+
+        if (in.hasRemaining()) {
+          throw new SerializationException("Unexpected trailing data");
+        }
+
+        return values;
+      } catch (final Exception e) {
+        throw new SerializationException(
+            "Error deserializing " + KsqlBinaryFormat.NAME + " message from topic: " + topic, e);
+      }
+    }
+
+    private List<?> readColumns(final BinaryReader in, final int bitmap) {
+      final List<Object> values = new ArrayList<>(codecs.length);
+      for (int i = 0; i < codecs.length; i++) {
+        values.add(in.isSet(bitmap, i) ? codecs[i].read(in) : null);
+      }
+      return values;
+    }
+
+    /**
+     * Records the offset of each column, skipping over, but not decoding, the values.
+     */
+    private List<?> indexColumns(final BinaryReader in, final int bitmap, final byte[] bytes) {
+      final int[] offsets = new int[codecs.length];
+      for (int i = 0; i < codecs.length; i++) {
+        if (in.isSet(bitmap, i)) {
+          offsets[i] = in.position();
+          codecs[i].skip(in);
+        } else {
+          offsets[i] = NULL_OFFSET;
+        }
+      }
+      return new IndexedColumns(codecs, bytes, offsets);
+    }
+  }
+
+  /**
+   * The columns of a row, decoded on demand from the offsets found when the row was deserialized.
+   */
+  private static final class IndexedColumns extends LazyColumns {
+
+    private final Codec[] codecs;
+    private final byte[] bytes;
+    private final int[] offsets;
+
+    @SuppressFBWarnings(
+        value = "EI_EXPOSE_REP2",
+        justification = "bytes are the deserialized message, which is not otherwise retained"
+    )
+    IndexedColumns(final Codec[] codecs, final byte[] bytes, final int[] offsets) {
+      this.codecs = codecs;
+      this.bytes = bytes;
+      this.offsets = offsets;
+    }
+
+    @Override
+    public int size() {
+      return codecs.length;
+    }
+
+    @Override
+    public Object decode(final int index) {
+      final int offset = offsets[index];
+      return offset == NULL_OFFSET
+          ? null
+          : codecs[index].read(new BinaryReader(bytes, offset));
+    }
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.protobuf;
+
+import com.google.protobuf.CodedInputStream;
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.protobuf.MessageIndexes;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
+import io.confluent.ksql.serde.protobuf.ProtobufDecoders.MessageDecoder;
+import io.confluent.ksql.serde.protobuf.ProtobufDecoders.UnsupportedValueException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Deserializes Protobuf messages straight into ksqlDB structs, using a decoder compiled per
+ * writer schema id and message index.
+ *
+ * <p>Messages the direct decoders do not support are handed to the {@code fallback}
+ * deserializer, which goes via Connect's data model.
+ *
+ * <p>Not thread safe: instances are expected to be thread local.
+ */
+class KsqlProtobufDirectDeserializer implements Deserializer<Struct> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(KsqlProtobufDirectDeserializer.class);
+
+  private static final byte MAGIC_BYTE = 0x0;
+  private static final int HEADER_SIZE = 1 + Integer.BYTES;
+
+  private final SchemaRegistryClient srClient;
+  private final Schema ksqlSchema;
+  private final Deserializer<Struct> fallback;
+  private final Map<DecoderKey, Optional<MessageDecoder>> decoders = new HashMap<>();
+
+  KsqlProtobufDirectDeserializer(
+      final SchemaRegistryClient srClient,
+      final Schema ksqlSchema,
+      final Deserializer<Struct> fallback
+  ) {
+    this.srClient = Objects.requireNonNull(srClient, "srClient");
+    this.ksqlSchema = Objects.requireNonNull(ksqlSchema, "ksqlSchema");
+    this.fallback = Objects.requireNonNull(fallback, "fallback");
+  }
+
+  @Override
+  public void configure(final Map<String, ?> configs, final boolean isKey) {
+    fallback.configure(configs, isKey);
+  }
+
+  @Override
+  public Struct deserialize(final String topic, final byte[] bytes) {
+    if (bytes == null || bytes.length < HEADER_SIZE || bytes[0] != MAGIC_BYTE) {
+      return fallback.deserialize(topic, bytes);
+    }
+
+    try {
+      final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      buffer.get();
+      final int schemaId = buffer.getInt();
+      final MessageIndexes indexes = MessageIndexes.readFrom(buffer);
+
+      final Optional<MessageDecoder> decoder = getDecoder(schemaId, indexes);
+      if (!decoder.isPresent()) {
+        return fallback.deserialize(topic, bytes);
+      }
+
+      final CodedInputStream in = CodedInputStream
+          .newInstance(bytes, buffer.position(), buffer.remaining());
+      return decoder.get().decode(in);
+    } catch (final UnsupportedValueException e) {
+      return fallback.deserialize(topic, bytes);
+    } catch (final Exception e) {
+      throw new SerializationException(
+          "Error deserializing message from topic: " + topic, e);
+    }
+  }
+
+  @Override
+  public void close() {
+    fallback.close();
+  }
+
+  private Optional<MessageDecoder> getDecoder(final int schemaId, final MessageIndexes indexes) {
+    final DecoderKey key = new DecoderKey(schemaId, indexes);
+    final Optional<MessageDecoder> cached = decoders.get(key);
+    if (cached != null) {
+      return cached;
+    }
+
+    final ParsedSchema writerSchema;
+    try {
+      writerSchema = srClient.getSchemaById(schemaId);
+    } catch (final Exception e) {
+      // Not cached, leaving the fallback to report the error:
+      LOG.debug("Failed to look up writer schema with id {}", schemaId, e);
+      return Optional.empty();
+    }
+
+    Optional<MessageDecoder> decoder = Optional.empty();
+    if (writerSchema instanceof ProtobufSchema) {
+      final ProtobufSchema protobufSchema = (ProtobufSchema) writerSchema;
+      try {
+        decoder = ProtobufDecoders.compile(
+            protobufSchema.toDescriptor(protobufSchema.toMessageName(indexes)),
+            ksqlSchema
+        );
+      } catch (final Exception e) {
+        LOG.debug("Failed to compile decoder for schema id {}", schemaId, e);
+      }
+    }
+
+    decoders.put(key, decoder);
+    return decoder;
+  }
+
+  private static final class DecoderKey {
+
+    private final int schemaId;
+    private final int[] indexes;
+
+    DecoderKey(final int schemaId, final MessageIndexes indexes) {
+      this.schemaId = schemaId;
+      this.indexes = indexes.indexes().stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final DecoderKey that = (DecoderKey) o;
+      return schemaId == that.schemaId && Arrays.equals(indexes, that.indexes);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * schemaId + Arrays.hashCode(indexes);
+    }
+  }
+}
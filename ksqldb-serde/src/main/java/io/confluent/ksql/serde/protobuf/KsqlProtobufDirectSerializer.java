@@ -0,0 +1,154 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.protobuf;
+
+import com.google.protobuf.CodedOutputStream;
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.protobuf.MessageIndexes;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
+import io.confluent.ksql.serde.protobuf.ProtobufDecoders.UnsupportedValueException;
+import io.confluent.ksql.serde.protobuf.ProtobufEncoders.MessageEncoder;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serializes ksqlDB structs straight to Protobuf messages, using an encoder compiled from the
+ * schema registered for the topic.
+ *
+ * <p>The first record for each topic is serialized by the {@code fallback} serializer, which
+ * goes via Connect's data model and registers, or looks up, the schema. The header of its output,
+ * i.e. the schema id and message indexes, identifies the descriptor the encoder is compiled
+ * from. Subsequent records are encoded directly, unless the schema is not supported, in which
+ * case all records continue to be handed to the fallback.
+ *
+ * <p>Not thread safe: instances are expected to be thread local.
+ */
+class KsqlProtobufDirectSerializer implements Serializer<Struct> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(KsqlProtobufDirectSerializer.class);
+
+  private static final byte MAGIC_BYTE = 0x0;
+  private static final int HEADER_SIZE = 1 + Integer.BYTES;
+
+  private final SchemaRegistryClient srClient;
+  private final Schema ksqlSchema;
+  private final Serializer<Struct> fallback;
+  private final Map<String, Optional<TopicEncoder>> encoders = new HashMap<>();
+  private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+  KsqlProtobufDirectSerializer(
+      final SchemaRegistryClient srClient,
+      final Schema ksqlSchema,
+      final Serializer<Struct> fallback
+  ) {
+    this.srClient = Objects.requireNonNull(srClient, "srClient");
+    this.ksqlSchema = Objects.requireNonNull(ksqlSchema, "ksqlSchema");
+    this.fallback = Objects.requireNonNull(fallback, "fallback");
+  }
+
+  @Override
+  public void configure(final Map<String, ?> configs, final boolean isKey) {
+    fallback.configure(configs, isKey);
+  }
+
+  @Override
+  public byte[] serialize(final String topic, final Struct data) {
+    if (data == null) {
+      return null;
+    }
+
+    final Optional<TopicEncoder> encoder = encoders.get(topic);
+    if (encoder == null) {
+      final byte[] bytes = fallback.serialize(topic, data);
+      encoders.put(topic, compile(bytes));
+      return bytes;
+    }
+
+    if (!encoder.isPresent()) {
+      return fallback.serialize(topic, data);
+    }
+
+    try {
+      buffer.reset();
+      buffer.write(encoder.get().header);
+      final CodedOutputStream out = CodedOutputStream.newInstance(buffer);
+      encoder.get().encoder.encode(data, out);
+      out.flush();
+      return buffer.toByteArray();
+    } catch (final UnsupportedValueException e) {
+      return fallback.serialize(topic, data);
+    } catch (final Exception e) {
+      throw new SerializationException(
+          "Error serializing message to topic: " + topic + ". " + e.getMessage(), e);
+    }
+  }
+
+  @Override
+  public void close() {
+    fallback.close();
+  }
+
+  private Optional<TopicEncoder> compile(final byte[] serialized) {
+    if (serialized == null || serialized.length < HEADER_SIZE || serialized[0] != MAGIC_BYTE) {
+      return Optional.empty();
+    }
+
+    try {
+      final ByteBuffer bytes = ByteBuffer.wrap(serialized);
+      bytes.get();
+      final int schemaId = bytes.getInt();
+      final MessageIndexes indexes = MessageIndexes.readFrom(bytes);
+
+      final ParsedSchema schema = srClient.getSchemaById(schemaId);
+      if (!(schema instanceof ProtobufSchema)) {
+        return Optional.empty();
+      }
+
+      final ProtobufSchema protobufSchema = (ProtobufSchema) schema;
+      final byte[] header = Arrays.copyOf(serialized, bytes.position());
+      return ProtobufEncoders.compile(
+          protobufSchema.toDescriptor(protobufSchema.toMessageName(indexes)),
+          ksqlSchema
+      ).map(encoder -> new TopicEncoder(header, encoder));
+    } catch (final Exception e) {
+      LOG.debug("Failed to compile encoder, serializing via Connect", e);
+      return Optional.empty();
+    }
+  }
+
+  private static final class TopicEncoder {
+
+    private final byte[] header;
+    private final MessageEncoder encoder;
+
+    TopicEncoder(final byte[] header, final MessageEncoder encoder) {
+      this.header = header;
+      this.encoder = encoder;
+    }
+  }
+}
@@ -0,0 +1,505 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.protobuf;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.EnumDescriptor;
+import com.google.protobuf.Descriptors.EnumValueDescriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Descriptors.FileDescriptor.Syntax;
+import com.google.protobuf.WireFormat;
+import io.confluent.ksql.serde.SerdeUtils;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import org.apache.kafka.connect.data.Date;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Time;
+import org.apache.kafka.connect.data.Timestamp;
+
+/**
+ * Compiles decoders that read the Protobuf wire format straight into the ksqlDB representation
+ * of a message, using tables from field number to column built from the registered schema.
+ *
+ * <p>The decoders mirror the values Connect's {@code ProtobufConverter} and
+ * {@link io.confluent.ksql.serde.connect.ConnectDataTranslator} produce: unset scalars take
+ * their proto3 defaults, unset repeated and map fields are empty, and unset messages are null.
+ * Fields with no matching ksqlDB column, and unknown fields, are skipped.
+ *
+ * <p>Compilation returns {@link Optional#empty()} for any schema it does not support, e.g.
+ * proto2 syntax, oneofs, bytes and most well-known types, or where a field can not be coerced to
+ * its column's type. Values the decoders can not handle, such as unknown enum numbers, cause an
+ * {@link UnsupportedValueException}. In both cases the data should be deserialized via Connect.
+ */
+final class ProtobufDecoders {
+
+  static final String TIMESTAMP_MESSAGE = "google.protobuf.Timestamp";
+
+  private ProtobufDecoders() {
+  }
+
+  /**
+   * Reads a message from the supplied stream, up to its current limit.
+   */
+  interface MessageDecoder {
+    Struct decode(CodedInputStream in) throws IOException;
+  }
+
+  /**
+   * Thrown for values that should be decoded, or encoded, via Connect instead.
+   */
+  static final class UnsupportedValueException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    static final UnsupportedValueException INSTANCE = new UnsupportedValueException();
+
+    private UnsupportedValueException() {
+      super("Value not supported by direct Protobuf coding", null, false, false);
+    }
+  }
+
+  private interface ValueReader {
+    Object read(CodedInputStream in) throws IOException;
+  }
+
+  private abstract static class FieldReader {
+
+    final int index;
+
+    FieldReader(final int index) {
+      this.index = index;
+    }
+
+    abstract Object initialValue();
+
+    abstract void read(CodedInputStream in, int wireType, Object[] values) throws IOException;
+  }
+
+  static Optional<MessageDecoder> compile(final Descriptor descriptor, final Schema ksqlSchema) {
+    if (ksqlSchema.type() != Schema.Type.STRUCT) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(messageDecoder(descriptor, ksqlSchema));
+  }
+
+  private static MessageDecoder messageDecoder(final Descriptor descriptor, final Schema ksql) {
+    if (descriptor.getFile().getSyntax() != Syntax.PROTO3) {
+      return null;
+    }
+
+    final Map<Integer, FieldReader> readers = new HashMap<>();
+    for (final FieldDescriptor field : descriptor.getFields()) {
+      if (field.getContainingOneof() != null) {
+        return null;
+      }
+
+      Field ksqlField = ksql.field(field.getName());
+      if (ksqlField == null) {
+        // ksqlDB treats a field as a case-insensitive match if it matches once upper-cased:
+        ksqlField = ksql.field(field.getName().toUpperCase());
+        if (ksqlField == null) {
+          continue;
+        }
+      }
+
+      final FieldReader reader = fieldReader(field, ksqlField);
+      if (reader == null) {
+        return null;
+      }
+      readers.put(field.getNumber(), reader);
+    }
+
+    final FieldReader[] fieldReaders = readers.values().toArray(new FieldReader[0]);
+    final List<Field> ksqlFields = ksql.fields();
+
+    return in -> {
+      final Object[] values = new Object[ksqlFields.size()];
+      for (final FieldReader reader : fieldReaders) {
+        values[reader.index] = reader.initialValue();
+      }
+
+      for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+        final FieldReader reader = readers.get(WireFormat.getTagFieldNumber(tag));
+        if (reader == null) {
+          in.skipField(tag);
+        } else {
+          reader.read(in, WireFormat.getTagWireType(tag), values);
+        }
+      }
+
+      final Struct struct = new Struct(ksql);
+      for (int i = 0; i < values.length; i++) {
+        if (values[i] != null) {
+          struct.put(ksqlFields.get(i), values[i]);
+        }
+      }
+      return struct;
+    };
+  }
+
+  private static FieldReader fieldReader(final FieldDescriptor field, final Field ksqlField) {
+    if (field.isMapField()) {
+      return mapReader(field, ksqlField);
+    }
+
+    final Schema ksql = ksqlField.schema();
+    if (field.isRepeated()) {
+      return ksql.type() == Schema.Type.ARRAY
+          ? repeatedReader(field, ksqlField.index(), ksql.valueSchema())
+          : null;
+    }
+
+    final ValueReader reader = valueReader(field, ksql);
+    if (reader == null) {
+      return null;
+    }
+
+    if (field.getJavaType() == FieldDescriptor.JavaType.MESSAGE) {
+      return new FieldReader(ksqlField.index()) {
+        @Override
+        Object initialValue() {
+          return null;
+        }
+
+        @Override
+        void read(final CodedInputStream in, final int wireType, final Object[] values)
+            throws IOException {
+          if (values[index] != null) {
+            // Repeated occurrences of a message are merged, which is left to Connect:
+            throw UnsupportedValueException.INSTANCE;
+          }
+          values[index] = reader.read(in);
+        }
+      };
+    }
+
+    final Function<Object, Object> coercion = coercion(ksql, connectType(field));
+    final Object defaultValue = rawDefault(field);
+    final int expectedWireType = wireType(field);
+    return new FieldReader(ksqlField.index()) {
+      @Override
+      Object initialValue() {
+        return coercion.apply(defaultValue);
+      }
+
+      @Override
+      void read(final CodedInputStream in, final int wireType, final Object[] values)
+          throws IOException {
+        if (wireType != expectedWireType) {
+          throw UnsupportedValueException.INSTANCE;
+        }
+        values[index] = reader.read(in);
+      }
+    };
+  }
+
+  private static FieldReader repeatedReader(
+      final FieldDescriptor field,
+      final int index,
+      final Schema ksqlElement
+  ) {
+    final ValueReader reader = valueReader(field, ksqlElement);
+    if (reader == null) {
+      return null;
+    }
+
+    final boolean packable = field.isPackable();
+    return new FieldReader(index) {
+      @Override
+      Object initialValue() {
+        return new ArrayList<>();
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      void read(final CodedInputStream in, final int wireType, final Object[] values)
+          throws IOException {
+        final List<Object> list = (List<Object>) values[index];
+        if (packable && wireType == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+          final int limit = in.pushLimit(in.readRawVarint32());
+          while (in.getBytesUntilLimit() > 0) {
+            list.add(reader.read(in));
+          }
+          in.popLimit(limit);
+        } else {
+          list.add(reader.read(in));
+        }
+      }
+    };
+  }
+
+  private static FieldReader mapReader(final FieldDescriptor field, final Field ksqlField) {
+    final Schema ksql = ksqlField.schema();
+    final FieldDescriptor keyField = field.getMessageType().findFieldByNumber(1);
+    final FieldDescriptor valueField = field.getMessageType().findFieldByNumber(2);
+    if (ksql.type() != Schema.Type.MAP
+        || ksql.keySchema().type() != Schema.Type.STRING
+        || keyField.getType() != FieldDescriptor.Type.STRING) {
+      return null;
+    }
+
+    final ValueReader valueReader = valueReader(valueField, ksql.valueSchema());
+    if (valueReader == null) {
+      return null;
+    }
+
+    final boolean valueIsMessage = valueField.getJavaType() == FieldDescriptor.JavaType.MESSAGE;
+    final Function<Object, Object> valueCoercion = valueIsMessage
+        ? Function.identity()
+        : coercion(ksql.valueSchema(), connectType(valueField));
+    final Object valueDefault = valueIsMessage ? null : rawDefault(valueField);
+
+    return new FieldReader(ksqlField.index()) {
+      @Override
+      Object initialValue() {
+        return new HashMap<>();
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      void read(final CodedInputStream in, final int wireType, final Object[] values)
+          throws IOException {
+        String key = "";
+        Object value = null;
+
+        final int limit = in.pushLimit(in.readRawVarint32());
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+          switch (WireFormat.getTagFieldNumber(tag)) {
+            case 1:
+              key = in.readString();
+              break;
+            case 2:
+              value = valueReader.read(in);
+              break;
+            default:
+              in.skipField(tag);
+          }
+        }
+        in.popLimit(limit);
+
+        if (value == null) {
+          if (valueIsMessage) {
+            throw UnsupportedValueException.INSTANCE;
+          }
+          value = valueCoercion.apply(valueDefault);
+        }
+        ((Map<Object, Object>) values[index]).put(key, value);
+      }
+    };
+  }
+
+  private static ValueReader valueReader(final FieldDescriptor field, final Schema ksql) {
+    if (field.getJavaType() != FieldDescriptor.JavaType.MESSAGE) {
+      final ValueReader rawReader = rawReader(field);
+      final Function<Object, Object> coercion = coercion(ksql, connectType(field));
+      if (rawReader == null || coercion == null) {
+        return null;
+      }
+      return in -> coercion.apply(rawReader.read(in));
+    }
+
+    final Descriptor messageType = field.getMessageType();
+    if (TIMESTAMP_MESSAGE.equals(messageType.getFullName())) {
+      final Function<Object, Object> coercion = coercion(ksql, Schema.Type.INT64);
+      if (coercion == null) {
+        return null;
+      }
+      return in -> coercion.apply(readTimestampMillis(in));
+    }
+
+    if (messageType.getFullName().startsWith("google.")
+        || messageType.getFullName().startsWith("confluent.")
+        || ksql.type() != Schema.Type.STRUCT) {
+      return null;
+    }
+
+    final MessageDecoder decoder = messageDecoder(messageType, ksql);
+    if (decoder == null) {
+      return null;
+    }
+
+    return in -> {
+      final int limit = in.pushLimit(in.readRawVarint32());
+      final Struct struct = decoder.decode(in);
+      in.popLimit(limit);
+      return struct;
+    };
+  }
+
+  private static long readTimestampMillis(final CodedInputStream in) throws IOException {
+    long seconds = 0;
+    int nanos = 0;
+
+    final int limit = in.pushLimit(in.readRawVarint32());
+    for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+      switch (WireFormat.getTagFieldNumber(tag)) {
+        case 1:
+          seconds = in.readInt64();
+          break;
+        case 2:
+          nanos = in.readInt32();
+          break;
+        default:
+          in.skipField(tag);
+      }
+    }
+    in.popLimit(limit);
+
+    return Math.addExact(Math.multiplyExact(seconds, 1000L), nanos / 1_000_000);
+  }
+
+  // CHECKSTYLE_RULES.OFF: CyclomaticComplexity
+  private static ValueReader rawReader(final FieldDescriptor field) {
+    // CHECKSTYLE_RULES.ON: CyclomaticComplexity
+    switch (field.getType()) {
+      case INT32:
+        return CodedInputStream::readInt32;
+      case SINT32:
+        return CodedInputStream::readSInt32;
+      case SFIXED32:
+        return CodedInputStream::readSFixed32;
+      case UINT32:
+        return in -> Integer.toUnsignedLong(in.readUInt32());
+      case FIXED32:
+        return in -> Integer.toUnsignedLong(in.readFixed32());
+      case INT64:
+        return CodedInputStream::readInt64;
+      case SINT64:
+        return CodedInputStream::readSInt64;
+      case SFIXED64:
+        return CodedInputStream::readSFixed64;
+      case UINT64:
+        return CodedInputStream::readUInt64;
+      case FIXED64:
+        return CodedInputStream::readFixed64;
+      case FLOAT:
+        return CodedInputStream::readFloat;
+      case DOUBLE:
+        return CodedInputStream::readDouble;
+      case BOOL:
+        return CodedInputStream::readBool;
+      case STRING:
+        return CodedInputStream::readStringRequireUtf8;
+      case ENUM:
+        final EnumDescriptor enumType = field.getEnumType();
+        return in -> {
+          final EnumValueDescriptor value = enumType.findValueByNumber(in.readEnum());
+          if (value == null) {
+            throw UnsupportedValueException.INSTANCE;
+          }
+          return value.getName();
+        };
+      default:
+        return null;
+    }
+  }
+
+  private static Object rawDefault(final FieldDescriptor field) {
+    final Object defaultValue = field.getDefaultValue();
+    switch (field.getType()) {
+      case UINT32:
+      case FIXED32:
+        return Integer.toUnsignedLong((Integer) defaultValue);
+      case ENUM:
+        return ((EnumValueDescriptor) defaultValue).getName();
+      default:
+        return defaultValue;
+    }
+  }
+
+  private static int wireType(final FieldDescriptor field) {
+    return field.getLiteType().getWireType();
+  }
+
+  /**
+   * @return the Connect type the converter maps the field's type to.
+   */
+  static Schema.Type connectType(final FieldDescriptor field) {
+    switch (field.getType()) {
+      case INT32:
+      case SINT32:
+      case SFIXED32:
+        return Schema.Type.INT32;
+      case UINT32:
+      case FIXED32:
+      case INT64:
+      case SINT64:
+      case SFIXED64:
+      case UINT64:
+      case FIXED64:
+        return Schema.Type.INT64;
+      case FLOAT:
+        return Schema.Type.FLOAT32;
+      case DOUBLE:
+        return Schema.Type.FLOAT64;
+      case BOOL:
+        return Schema.Type.BOOLEAN;
+      case STRING:
+      case ENUM:
+        return Schema.Type.STRING;
+      default:
+        return Schema.Type.BYTES;
+    }
+  }
+
+  /**
+   * @return the coercion ConnectDataTranslator applies from {@code source} to {@code ksql}, or
+   *         null if the types are not compatible.
+   */
+  // CHECKSTYLE_RULES.OFF: CyclomaticComplexity
+  private static Function<Object, Object> coercion(final Schema ksql, final Schema.Type source) {
+    // CHECKSTYLE_RULES.ON: CyclomaticComplexity
+    switch (ksql.type()) {
+      case BOOLEAN:
+        return source == Schema.Type.BOOLEAN ? Function.identity() : null;
+      case INT32:
+        if (source != Schema.Type.INT32) {
+          return null;
+        }
+        if (Time.LOGICAL_NAME.equals(ksql.name())) {
+          return v -> new java.sql.Time((Integer) v);
+        }
+        if (Date.LOGICAL_NAME.equals(ksql.name())) {
+          return v -> SerdeUtils.getDateFromEpochDays((Integer) v);
+        }
+        return Function.identity();
+      case INT64:
+        if (source != Schema.Type.INT32 && source != Schema.Type.INT64) {
+          return null;
+        }
+        if (Timestamp.LOGICAL_NAME.equals(ksql.name())) {
+          return v -> new java.sql.Timestamp(((Number) v).longValue());
+        }
+        return v -> ((Number) v).longValue();
+      case FLOAT64:
+        return source == Schema.Type.FLOAT32 || source == Schema.Type.FLOAT64
+            ? v -> ((Number) v).doubleValue()
+            : null;
+      case STRING:
+        return source != Schema.Type.BYTES ? String::valueOf : null;
+      default:
+        return null;
+    }
+  }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.protobuf;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Descriptors.FileDescriptor.Syntax;
+import io.confluent.ksql.serde.protobuf.ProtobufDecoders.UnsupportedValueException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Timestamp;
+
+/**
+ * Compiles encoders that write ksqlDB structs straight to the Protobuf wire format, without
+ * building Connect data or a {@code DynamicMessage}.
+ *
+ * <p>Encoders are compiled against the descriptor ksqlDB registered for the schema, so only
+ * support fields that map one-to-one, by name and type, to the struct's fields. Compilation
+ * returns {@link Optional#empty()} otherwise. Values the encoders can not write, such as null
+ * array elements, cause an {@link UnsupportedValueException}. In both cases the data should be
+ * serialized via Connect.
+ */
+final class ProtobufEncoders {
+
+  private ProtobufEncoders() {
+  }
+
+  /**
+   * Writes the fields of a message to the supplied stream.
+   */
+  interface MessageEncoder {
+    void encode(Struct struct, CodedOutputStream out) throws IOException;
+  }
+
+  private interface FieldWriter {
+    void write(Object value, CodedOutputStream out) throws IOException;
+  }
+
+  private interface ValueWriter {
+    void write(int number, Object value, CodedOutputStream out) throws IOException;
+  }
+
+  static Optional<MessageEncoder> compile(final Descriptor descriptor, final Schema ksqlSchema) {
+    if (ksqlSchema.type() != Schema.Type.STRUCT) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(messageEncoder(descriptor, ksqlSchema));
+  }
+
+  private static MessageEncoder messageEncoder(final Descriptor descriptor, final Schema ksql) {
+    if (descriptor.getFile().getSyntax() != Syntax.PROTO3
+        || descriptor.getFields().size() != ksql.fields().size()) {
+      return null;
+    }
+
+    final List<FieldDescriptor> fields = new ArrayList<>(descriptor.getFields());
+    fields.sort(Comparator.comparingInt(FieldDescriptor::getNumber));
+
+    final Field[] ksqlFields = new Field[fields.size()];
+    final FieldWriter[] writers = new FieldWriter[fields.size()];
+    for (int i = 0; i < fields.size(); i++) {
+      final FieldDescriptor field = fields.get(i);
+      if (field.getContainingOneof() != null) {
+        return null;
+      }
+
+      ksqlFields[i] = ksql.field(field.getName());
+      if (ksqlFields[i] == null) {
+        return null;
+      }
+
+      writers[i] = fieldWriter(field, ksqlFields[i].schema());
+      if (writers[i] == null) {
+        return null;
+      }
+    }
+
+    return (struct, out) -> {
+      for (int i = 0; i < writers.length; i++) {
+        final Object value = struct.get(ksqlFields[i]);
+        if (value != null) {
+          writers[i].write(value, out);
+        }
+      }
+    };
+  }
+
+  private static FieldWriter fieldWriter(final FieldDescriptor field, final Schema ksql) {
+    final int number = field.getNumber();
+
+    if (field.isMapField()) {
+      return mapWriter(field, ksql);
+    }
+
+    if (field.isRepeated()) {
+      if (ksql.type() != Schema.Type.ARRAY) {
+        return null;
+      }
+
+      final ValueWriter writer = valueWriter(field, ksql.valueSchema());
+      if (writer == null) {
+        return null;
+      }
+
+      if (field.isPacked()) {
+        final ValueWriter elementWriter = rawWriter(field);
+        return (value, out) -> {
+          final List<?> list = (List<?>) value;
+          if (list.isEmpty()) {
+            return;
+          }
+          final byte[] packed = encode(o -> {
+            for (final Object element : list) {
+              elementWriter.write(number, nonNull(element), o);
+            }
+          });
+          out.writeByteArray(number, packed);
+        };
+      }
+
+      return (value, out) -> {
+        for (final Object element : (List<?>) value) {
+          writer.write(number, nonNull(element), out);
+        }
+      };
+    }
+
+    final ValueWriter writer = valueWriter(field, ksql);
+    if (writer == null) {
+      return null;
+    }
+
+    if (field.getJavaType() == FieldDescriptor.JavaType.MESSAGE) {
+      return (value, out) -> writer.write(number, value, out);
+    }
+
+    // proto3 does not write singular scalars that hold their default value:
+    final Object defaultValue = field.getDefaultValue();
+    return (value, out) -> {
+      if (!value.equals(defaultValue)) {
+        writer.write(number, value, out);
+      }
+    };
+  }
+
+  private static FieldWriter mapWriter(final FieldDescriptor field, final Schema ksql) {
+    final FieldDescriptor keyField = field.getMessageType().findFieldByNumber(1);
+    final FieldDescriptor valueField = field.getMessageType().findFieldByNumber(2);
+    if (ksql.type() != Schema.Type.MAP
+        || ksql.keySchema().type() != Schema.Type.STRING
+        || keyField.getType() != FieldDescriptor.Type.STRING) {
+      return null;
+    }
+
+    final ValueWriter valueWriter = valueWriter(valueField, ksql.valueSchema());
+    if (valueWriter == null) {
+      return null;
+    }
+
+    final int number = field.getNumber();
+    final boolean valueIsMessage = valueField.getJavaType() == FieldDescriptor.JavaType.MESSAGE;
+    final Object valueDefault = valueIsMessage ? null : valueField.getDefaultValue();
+    return (value, out) -> {
+      for (final Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+        final String key = (String) nonNull(e.getKey());
+        final Object entryValue = nonNull(e.getValue());
+        final byte[] entry = encode(o -> {
+          if (!key.isEmpty()) {
+            o.writeString(1, key);
+          }
+          if (valueIsMessage || !entryValue.equals(valueDefault)) {
+            valueWriter.write(2, entryValue, o);
+          }
+        });
+        out.writeByteArray(number, entry);
+      }
+    };
+  }
+
+  private static ValueWriter valueWriter(final FieldDescriptor field, final Schema ksql) {
+    if (field.getJavaType() != FieldDescriptor.JavaType.MESSAGE) {
+      return ksqlType(field) == ksql.type() && ksql.name() == null
+          ? rawWriter(field)
+          : null;
+    }
+
+    final Descriptor messageType = field.getMessageType();
+    if (ProtobufDecoders.TIMESTAMP_MESSAGE.equals(messageType.getFullName())) {
+      if (ksql.type() != Schema.Type.INT64 || !Timestamp.LOGICAL_NAME.equals(ksql.name())) {
+        return null;
+      }
+      return (number, value, out) -> {
+        final long millis = ((java.util.Date) value).getTime();
+        final long seconds = Math.floorDiv(millis, 1000L);
+        final int nanos = (int) Math.floorMod(millis, 1000L) * 1_000_000;
+        out.writeByteArray(number, encode(o -> {
+          if (seconds != 0) {
+            o.writeInt64(1, seconds);
+          }
+          if (nanos != 0) {
+            o.writeInt32(2, nanos);
+          }
+        }));
+      };
+    }
+
+    if (ksql.type() != Schema.Type.STRUCT) {
+      return null;
+    }
+
+    final MessageEncoder encoder = messageEncoder(messageType, ksql);
+    if (encoder == null) {
+      return null;
+    }
+
+    return (number, value, out) ->
+        out.writeByteArray(number, encode(o -> encoder.encode((Struct) value, o)));
+  }
+
+  /**
+   * @return a writer for a scalar value, which writes untagged values if {@code number} is 0.
+   */
+  private static ValueWriter rawWriter(final FieldDescriptor field) {
+    switch (field.getType()) {
+      case INT32:
+        return (number, value, out) -> {
+          if (number == 0) {
+            out.writeInt32NoTag((Integer) value);
+          } else {
+            out.writeInt32(number, (Integer) value);
+          }
+        };
+      case INT64:
+        return (number, value, out) -> {
+          if (number == 0) {
+            out.writeInt64NoTag((Long) value);
+          } else {
+            out.writeInt64(number, (Long) value);
+          }
+        };
+      case DOUBLE:
+        return (number, value, out) -> {
+          if (number == 0) {
+            out.writeDoubleNoTag((Double) value);
+          } else {
+            out.writeDouble(number, (Double) value);
+          }
+        };
+      case BOOL:
+        return (number, value, out) -> {
+          if (number == 0) {
+            out.writeBoolNoTag((Boolean) value);
+          } else {
+            out.writeBool(number, (Boolean) value);
+          }
+        };
+      case STRING:
+        return (number, value, out) -> out.writeString(number, (String) value);
+      default:
+        return null;
+    }
+  }
+
+  private static Schema.Type ksqlType(final FieldDescriptor field) {
+    switch (field.getType()) {
+      case INT32:
+        return Schema.Type.INT32;
+      case INT64:
+        return Schema.Type.INT64;
+      case DOUBLE:
+        return Schema.Type.FLOAT64;
+      case BOOL:
+        return Schema.Type.BOOLEAN;
+      case STRING:
+        return Schema.Type.STRING;
+      default:
+        return null;
+    }
+  }
+
+  private static Object nonNull(final Object value) {
+    if (value == null) {
+      // Connect handles, or rejects, nulls in collections:
+      throw UnsupportedValueException.INSTANCE;
+    }
+    return value;
+  }
+
+  private interface Body {
+    void write(CodedOutputStream out) throws IOException;
+  }
+
+  private static byte[] encode(final Body body) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+    body.write(out);
+    out.flush();
+    return bytes.toByteArray();
+  }
+}
@@ -35,6 +35,7 @@ import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.connect.data.ConnectSchema;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.Schema.Type;
+import org.apache.kafka.connect.data.Struct;
 
 final class ProtobufSerdeFactory {
 
@@ -78,37 +79,81 @@ final class ProtobufSerdeFactory {
     SchemaWalker.visit(schema, new SchemaValidator());
   }
 
-  private static <T> KsqlConnectSerializer<T> createSerializer(
+  private static <T> Serializer<T> createSerializer(
       final ConnectSchema schema,
       final KsqlConfig ksqlConfig,
       final Supplier<SchemaRegistryClient> srFactory,
       final Class<T> targetType,
       final boolean isKey
   ) {
-    final ProtobufConverter converter = getConverter(srFactory.get(), ksqlConfig, isKey);
+    final SchemaRegistryClient srClient = srFactory.get();
+    final ProtobufConverter converter = getConverter(srClient, ksqlConfig, isKey);
 
-    return new KsqlConnectSerializer<>(
+    final KsqlConnectSerializer<T> connectSerializer = new KsqlConnectSerializer<>(
         schema,
         new ConnectDataTranslator(schema),
         converter,
         targetType
     );
+
+    return useDirectSerde(ksqlConfig, targetType)
+        ? directSerializer(srClient, schema, connectSerializer)
+        : connectSerializer;
   }
 
-  private static <T> KsqlConnectDeserializer<T> createDeserializer(
+  private static <T> Deserializer<T> createDeserializer(
       final ConnectSchema schema,
       final KsqlConfig ksqlConfig,
       final Supplier<SchemaRegistryClient> srFactory,
       final Class<T> targetType,
       final boolean isKey
   ) {
-    final ProtobufConverter converter = getConverter(srFactory.get(), ksqlConfig, isKey);
+    final SchemaRegistryClient srClient = srFactory.get();
+    final ProtobufConverter converter = getConverter(srClient, ksqlConfig, isKey);
 
-    return new KsqlConnectDeserializer<>(
+    final KsqlConnectDeserializer<T> connectDeserializer = new KsqlConnectDeserializer<>(
         converter,
         new ConnectDataTranslator(schema),
         targetType
     );
+
+    return useDirectSerde(ksqlConfig, targetType)
+        ? directDeserializer(srClient, schema, connectDeserializer)
+        : connectDeserializer;
+  }
+
+  private static boolean useDirectSerde(
+      final KsqlConfig ksqlConfig,
+      final Class<?> targetType
+  ) {
+    return targetType.equals(Struct.class)
+        && ksqlConfig.getBoolean(KsqlConfig.KSQL_PROTOBUF_DIRECT_SERDE_ENABLED);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> Serializer<T> directSerializer(
+      final SchemaRegistryClient srClient,
+      final Schema schema,
+      final Serializer<T> connectSerializer
+  ) {
+    return (Serializer<T>) new KsqlProtobufDirectSerializer(
+        srClient,
+        schema,
+        (Serializer<Struct>) connectSerializer
+    );
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> Deserializer<T> directDeserializer(
+      final SchemaRegistryClient srClient,
+      final Schema schema,
+      final Deserializer<T> connectDeserializer
+  ) {
+    return (Deserializer<T>) new KsqlProtobufDirectDeserializer(
+        srClient,
+        schema,
+        (Deserializer<Struct>) connectDeserializer
+    );
   }
 
   private static ProtobufConverter getConverter(
@@ -52,6 +52,25 @@ public class SerializationErrorTest {
       Collections.singletonMap(ProcessingLogConfig.INCLUDE_ROWS, true)
   );
 
+  @Test
+  public void shouldNotSeeChangesToRecordAfterSnapshot() {
+    // Given:
+    final GenericRow record = genericRow("some", "fields");
+    final ProcessingLogger.ErrorMessage snapshot =
+        new SerializationError<>(ERROR, Optional.of(record), TOPIC, false)
+            .snapshot(LOGGING_CONFIG);
+
+    // When:
+    record.set(0, "other");
+
+    // Then:
+    final Struct struct = (Struct) snapshot.get(LOGGING_CONFIG).value();
+    assertThat(
+        struct.getStruct(SERIALIZATION_ERROR).get(SERIALIZATION_ERROR_FIELD_RECORD),
+        equalTo(RECORD.toString())
+    );
+  }
+
   @Test
   public void shouldBuildSerializationError() {
     // Given:
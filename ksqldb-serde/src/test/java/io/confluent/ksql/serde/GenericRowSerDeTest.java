@@ -16,6 +16,8 @@
 package io.confluent.ksql.serde;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.sameInstance;
@@ -26,13 +28,16 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import io.confluent.ksql.schema.ksql.SimpleColumn;
 import io.confluent.ksql.serde.tracked.TrackedCallback;
 import io.confluent.ksql.util.KsqlConfig;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Supplier;
@@ -76,6 +81,8 @@ public class GenericRowSerDeTest {
   private Serde<Object> trackingSerde;
   @Mock
   private TrackedCallback callback;
+  @Mock
+  private SimpleColumn column;
   @Captor
   private ArgumentCaptor<Serde<GenericRow>> rowSerdeCaptor;
 
@@ -166,4 +173,40 @@ public class GenericRowSerDeTest {
     // Then:
     assertThat(result, is(sameInstance(loggingSerde)));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void shouldDecodeLazyColumnsOnDemand() {
+    // Given:
+    when(schema.columns()).thenReturn(ImmutableList.of(column, column));
+
+    final List<Integer> decoded = new ArrayList<>();
+    when(innerDeserializer.deserialize(any(), any())).thenReturn(new LazyColumns() {
+      @Override
+      public Object decode(final int index) {
+        decoded.add(index);
+        return "col" + index;
+      }
+
+      @Override
+      public int size() {
+        return 2;
+      }
+    });
+
+    factory.create(format, schema, config, srClientFactory, LOGGER_PREFIX, processingLogCxt,
+        Optional.empty());
+    verify(innerFactory).wrapInLoggingSerde(rowSerdeCaptor.capture(), any(), any());
+
+    // When:
+    final GenericRow row = rowSerdeCaptor.getValue().deserializer()
+        .deserialize("topic", new byte[0]);
+
+    // Then:
+    assertThat(decoded, is(empty()));
+    assertThat(row.get(1), is("col1"));
+    assertThat(row.get(1), is("col1"));
+    assertThat(decoded, contains(1));
+    assertThat(row.values(), contains("col0", "col1"));
+    assertThat(decoded, contains(1, 0));
+  }
+}
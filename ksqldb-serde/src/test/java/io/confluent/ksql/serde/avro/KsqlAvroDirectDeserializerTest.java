@@ -0,0 +1,231 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.avro;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.AbstractKafkaSchemaSerDeConfig;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import io.confluent.ksql.util.DecimalUtil;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.apache.avro.generic.GenericData;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class KsqlAvroDirectDeserializerTest {
+
+  private static final String TOPIC = "topic";
+
+  private static final org.apache.avro.Schema WRITER_SCHEMA = parse("{"
+      + "\"type\": \"record\","
+      + "\"name\": \"row\","
+      + "\"fields\": ["
+      + " {\"name\": \"id\", \"type\": \"int\"},"
+      + " {\"name\": \"ignored\", \"type\": {\"type\": \"map\", \"values\": "
+      + "   {\"type\": \"array\", \"items\": [\"null\", \"string\", \"double\"]}}},"
+      + " {\"name\": \"name\", \"type\": [\"null\", \"string\"]},"
+      + " {\"name\": \"price\", \"type\": {\"type\": \"bytes\", \"logicalType\": \"decimal\","
+      + "   \"precision\": 4, \"scale\": 2}},"
+      + " {\"name\": \"tags\", \"type\": {\"type\": \"array\", \"items\": \"string\"}},"
+      + " {\"name\": \"inner\", \"type\": {\"type\": \"record\", \"name\": \"inner\", \"fields\": ["
+      + "   {\"name\": \"count\", \"type\": \"long\"}]}}"
+      + " ]"
+      + "}");
+
+  private static final Schema INNER_SCHEMA = SchemaBuilder.struct()
+      .field("COUNT", Schema.OPTIONAL_INT64_SCHEMA)
+      .optional()
+      .build();
+
+  private static final Schema KSQL_SCHEMA = SchemaBuilder.struct()
+      .field("ID", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("NAME", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("PRICE", DecimalUtil.builder(4, 2).optional().build())
+      .field("TAGS", SchemaBuilder.array(Schema.OPTIONAL_STRING_SCHEMA).optional().build())
+      .field("INNER", INNER_SCHEMA)
+      .field("MISSING", Schema.OPTIONAL_STRING_SCHEMA)
+      .build();
+
+  @Mock
+  private Deserializer<Struct> fallback;
+  private SchemaRegistryClient srClient;
+  private KafkaAvroSerializer serializer;
+  private KsqlAvroDirectDeserializer deserializer;
+
+  @Before
+  public void setUp() {
+    srClient = spy(new MockSchemaRegistryClient());
+    serializer = new KafkaAvroSerializer(srClient, ImmutableMap.of(
+        AbstractKafkaSchemaSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG, "fake-url",
+        AbstractKafkaSchemaSerDeConfig.AUTO_REGISTER_SCHEMAS, true
+    ));
+    deserializer = new KsqlAvroDirectDeserializer(srClient, KSQL_SCHEMA, fallback);
+  }
+
+  @Test
+  public void shouldDecodeProjectedFieldsAndSkipOthers() {
+    // Given:
+    final byte[] bytes = serializer.serialize(TOPIC, givenRecord("bob"));
+
+    // When:
+    final Struct result = deserializer.deserialize(TOPIC, bytes);
+
+    // Then:
+    assertThat(result, is(new Struct(KSQL_SCHEMA)
+        .put("ID", 10L)
+        .put("NAME", "bob")
+        .put("PRICE", new BigDecimal("12.34"))
+        .put("TAGS", ImmutableList.of("a", "b"))
+        .put("INNER", new Struct(INNER_SCHEMA).put("COUNT", 3L))));
+    verify(fallback, never()).deserialize(any(), any());
+  }
+
+  @Test
+  public void shouldDecodeNullUnionBranch() {
+    // Given:
+    final byte[] bytes = serializer.serialize(TOPIC, givenRecord(null));
+
+    // When:
+    final Struct result = deserializer.deserialize(TOPIC, bytes);
+
+    // Then:
+    assertThat(result.get("NAME"), is((Object) null));
+    assertThat(result.get("ID"), is(10L));
+  }
+
+  @Test
+  public void shouldOnlyCompileOncePerSchemaId() throws Exception {
+    // Given:
+    final byte[] bytes = serializer.serialize(TOPIC, givenRecord("bob"));
+    clearInvocations(srClient);
+
+    // When:
+    deserializer.deserialize(TOPIC, bytes);
+    deserializer.deserialize(TOPIC, bytes);
+
+    // Then:
+    verify(srClient, times(1)).getSchemaById(anyInt());
+  }
+
+  @Test
+  public void shouldFallBackIfSchemaCanNotBeCoerced() {
+    // Given:
+    final org.apache.avro.Schema schema = parse("{"
+        + "\"type\": \"record\", \"name\": \"row\", \"fields\": ["
+        + " {\"name\": \"id\", \"type\": \"string\"}]}");
+    final GenericData.Record record = new GenericData.Record(schema);
+    record.put("id", "not a number");
+    final byte[] bytes = serializer.serialize(TOPIC, record);
+    final Struct expected = new Struct(KSQL_SCHEMA);
+    when(fallback.deserialize(TOPIC, bytes)).thenReturn(expected);
+
+    // When:
+    final Struct result = deserializer.deserialize(TOPIC, bytes);
+
+    // Then:
+    assertThat(result, is(expected));
+  }
+
+  @Test
+  public void shouldFallBackOnGeneralUnions() {
+    // Given:
+    final org.apache.avro.Schema schema = parse("{"
+        + "\"type\": \"record\", \"name\": \"row\", \"fields\": ["
+        + " {\"name\": \"name\", \"type\": [\"null\", \"string\", \"int\"]}]}");
+    final GenericData.Record record = new GenericData.Record(schema);
+    record.put("name", "bob");
+    final byte[] bytes = serializer.serialize(TOPIC, record);
+
+    // When:
+    deserializer.deserialize(TOPIC, bytes);
+
+    // Then:
+    verify(fallback).deserialize(TOPIC, bytes);
+  }
+
+  @Test
+  public void shouldFallBackOnUnknownMagicByte() {
+    // Given:
+    final byte[] bytes = {1, 0, 0, 0, 1, 2};
+
+    // When:
+    deserializer.deserialize(TOPIC, bytes);
+
+    // Then:
+    verify(fallback).deserialize(TOPIC, bytes);
+  }
+
+  @Test
+  public void shouldThrowOnTruncatedData() {
+    // Given:
+    final byte[] bytes = serializer.serialize(TOPIC, givenRecord("bob"));
+    final byte[] truncated = Arrays.copyOf(bytes, bytes.length - 4);
+
+    // When:
+    final Exception e = assertThrows(
+        SerializationException.class,
+        () -> deserializer.deserialize(TOPIC, truncated)
+    );
+
+    // Then:
+    assertThat(e.getMessage(), containsString("Error deserializing message from topic: topic"));
+  }
+
+  private static GenericData.Record givenRecord(final String name) {
+    final GenericData.Record inner =
+        new GenericData.Record(WRITER_SCHEMA.getField("inner").schema());
+    inner.put("count", 3L);
+
+    final GenericData.Record record = new GenericData.Record(WRITER_SCHEMA);
+    record.put("id", 10);
+    record.put("ignored", ImmutableMap.of("k", Arrays.asList(null, "v", 1.5)));
+    record.put("name", name);
+    record.put("price", ByteBuffer.wrap(new BigDecimal("12.34").unscaledValue().toByteArray()));
+    record.put("tags", ImmutableList.of("a", "b"));
+    record.put("inner", inner);
+    return record;
+  }
+
+  private static org.apache.avro.Schema parse(final String schema) {
+    return new org.apache.avro.Schema.Parser().parse(schema);
+  }
+}
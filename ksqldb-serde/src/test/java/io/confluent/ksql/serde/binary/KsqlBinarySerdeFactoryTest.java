@@ -0,0 +1,302 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.binary;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThrows;
+
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.PersistenceSchema;
+import io.confluent.ksql.schema.ksql.PhysicalSchema;
+import io.confluent.ksql.schema.ksql.SchemaConverters;
+import io.confluent.ksql.schema.ksql.SystemColumns;
+import io.confluent.ksql.schema.ksql.types.SqlStruct;
+import io.confluent.ksql.schema.ksql.types.SqlType;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import io.confluent.ksql.serde.LazyColumns;
+import io.confluent.ksql.serde.SerdeFeatures;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Test;
+
+public class KsqlBinarySerdeFactoryTest {
+
+  private static final SqlStruct ADDRESS = SqlTypes.struct()
+      .field("street", SqlTypes.STRING)
+      .field("number", SqlTypes.INTEGER)
+      .build();
+
+  private static final LogicalSchema SCHEMA = LogicalSchema.builder()
+      .keyColumn(SystemColumns.ROWKEY_NAME, SqlTypes.STRING)
+      .valueColumn(ColumnName.of("BOOL"), SqlTypes.BOOLEAN)
+      .valueColumn(ColumnName.of("INT"), SqlTypes.INTEGER)
+      .valueColumn(ColumnName.of("BIGINT"), SqlTypes.BIGINT)
+      .valueColumn(ColumnName.of("DOUBLE"), SqlTypes.DOUBLE)
+      .valueColumn(ColumnName.of("DECIMAL"), SqlTypes.decimal(4, 2))
+      .valueColumn(ColumnName.of("STRING"), SqlTypes.STRING)
+      .valueColumn(ColumnName.of("BYTES"), SqlTypes.BYTES)
+      .valueColumn(ColumnName.of("TIMESTAMP"), SqlTypes.TIMESTAMP)
+      .valueColumn(ColumnName.of("TIME"), SqlTypes.TIME)
+      .valueColumn(ColumnName.of("DATE"), SqlTypes.DATE)
+      .valueColumn(ColumnName.of("ARRAY"), SqlTypes.array(SqlTypes.BIGINT))
+      .valueColumn(ColumnName.of("MAP"), SqlTypes.map(SqlTypes.STRING, SqlTypes.DOUBLE))
+      .valueColumn(ColumnName.of("STRUCT"), ADDRESS)
+      .build();
+
+  private final Serde<List<?>> serde = KsqlBinarySerdeFactory.createSerde(persistence(SCHEMA));
+
+  @Test
+  public void shouldRoundTripAllTypes() {
+    // Given:
+    final Map<String, Double> map = new HashMap<>();
+    map.put("a", 1.5);
+    map.put("b", null);
+
+    final Struct address = new Struct(
+        SchemaConverters.sqlToConnectConverter().toConnectSchema(ADDRESS))
+        .put("street", "Main St")
+        .put("number", 221);
+
+    final List<?> row = Arrays.asList(
+        true,
+        -7,
+        Long.MAX_VALUE,
+        3.25,
+        new BigDecimal("12.30"),
+        "h\u00e9llo",
+        ByteBuffer.wrap(new byte[]{1, 2, 3}),
+        new Timestamp(1_612_345_678_901L),
+        new Time(45_296_000L),
+        new Date(18_659L * 86_400_000L),
+        Arrays.asList(1L, null, -1L),
+        map,
+        address
+    );
+
+    // When:
+    final List<?> result = roundTrip(row);
+
+    // Then:
+    assertThat(result, is(row));
+  }
+
+  @Test
+  public void shouldRoundTripNulls() {
+    // Given:
+    final List<?> row = new ArrayList<>(Collections.nCopies(13, null));
+
+    // When:
+    final List<?> result = roundTrip(row);
+
+    // Then:
+    assertThat(result, is(row));
+  }
+
+  @Test
+  public void shouldRoundTripStructWithNullField() {
+    // Given:
+    final Serde<List<?>> serde = serdeFor(ADDRESS);
+    final Struct address = new Struct(
+        SchemaConverters.sqlToConnectConverter().toConnectSchema(ADDRESS))
+        .put("street", "Main St");
+
+    // When:
+    final List<?> result = serde.deserializer()
+        .deserialize("t", serde.serializer().serialize("t", Collections.singletonList(address)));
+
+    // Then:
+    assertThat(result, is(Collections.singletonList(address)));
+  }
+
+  @Test
+  public void shouldWriteSmallNumbersCompactly() {
+    // Given:
+    final Serde<List<?>> serde = serdeFor(SqlTypes.BIGINT);
+
+    // When:
+    final byte[] bytes = serde.serializer().serialize("t", Collections.singletonList(-1L));
+
+    // Then:
+    assertThat(bytes.length, is(3)); // version, null bitmap, single byte varint
+  }
+
+  @Test
+  public void shouldBeSmallerThanJsonText() {
+    // Given:
+    final List<?> row = Arrays.asList(
+        true, 10, 10_000L, 1.0, new BigDecimal("1.00"), "x", null, null, null, null, null, null,
+        null
+    );
+
+    // When:
+    final byte[] bytes = serde.serializer().serialize("t", row);
+
+    // Then:
+    final String json = "{\"BOOL\":true,\"INT\":10,\"BIGINT\":10000,\"DOUBLE\":1.0,"
+        + "\"DECIMAL\":1.00,\"STRING\":\"x\"}";
+    assertThat(bytes.length, is(lessThan(json.getBytes(StandardCharsets.UTF_8).length / 2)));
+  }
+
+  @Test
+  public void shouldSerializeNullRowAsNull() {
+    assertThat(serde.serializer().serialize("t", null), is(nullValue()));
+    assertThat(serde.deserializer().deserialize("t", null), is(nullValue()));
+  }
+
+  @Test
+  public void shouldThrowOnColumnCountMismatch() {
+    // When:
+    final Exception e = assertThrows(
+        SerializationException.class,
+        () -> serde.serializer().serialize("t", Collections.singletonList(1))
+    );
+
+    // Then:
+    assertThat(e.getMessage(), containsString("Column count mismatch on serialization"));
+  }
+
+  @Test
+  public void shouldThrowOnWrongValueType() {
+    // Given:
+    final Serde<List<?>> serde = serdeFor(SqlTypes.INTEGER);
+
+    // When:
+    final Exception e = assertThrows(
+        SerializationException.class,
+        () -> serde.serializer().serialize("t", Collections.singletonList("not an int"))
+    );
+
+    // Then:
+    assertThat(e.getMessage(), containsString("Error serializing KSQL_BINARY message"));
+  }
+
+  @Test
+  public void shouldThrowOnTruncatedData() {
+    // Given:
+    final Serde<List<?>> serde = serdeFor(SqlTypes.STRING);
+    final byte[] bytes = serde.serializer().serialize("t", Collections.singletonList("hello"));
+
+    // When:
+    final Exception e = assertThrows(
+        SerializationException.class,
+        () -> serde.deserializer().deserialize("t", Arrays.copyOf(bytes, bytes.length - 1))
+    );
+
+    // Then:
+    assertThat(e.getMessage(), containsString("Error deserializing KSQL_BINARY message"));
+  }
+
+  @Test
+  public void shouldThrowOnUnknownVersion() {
+    // When:
+    final Exception e = assertThrows(
+        SerializationException.class,
+        () -> serdeFor(SqlTypes.STRING).deserializer().deserialize("t", new byte[]{9, 0})
+    );
+
+    // Then:
+    assertThat(e.getCause().getMessage(), containsString("Unsupported version: 9"));
+  }
+
+  @Test
+  public void shouldDeserializeWideRowsLazily() {
+    // Given:
+    final Serde<List<?>> serde = wideSerde();
+    final List<Object> row = wideRow();
+
+    // When:
+    final List<?> result = serde.deserializer()
+        .deserialize("t", serde.serializer().serialize("t", row));
+
+    // Then:
+    assertThat(result, is(instanceOf(LazyColumns.class)));
+    assertThat(result, is(row));
+  }
+
+  @Test
+  public void shouldValidateWideRowsWhenDeserializing() {
+    // Given:
+    final Serde<List<?>> serde = wideSerde();
+    final byte[] bytes = serde.serializer().serialize("t", wideRow());
+
+    // When:
+    final Exception e = assertThrows(
+        SerializationException.class,
+        () -> serde.deserializer().deserialize("t", Arrays.copyOf(bytes, bytes.length - 1))
+    );
+
+    // Then:
+    assertThat(e.getMessage(), containsString("Error deserializing KSQL_BINARY message"));
+  }
+
+  private List<?> roundTrip(final List<?> row) {
+    return serde.deserializer().deserialize("t", serde.serializer().serialize("t", row));
+  }
+
+  private static Serde<List<?>> wideSerde() {
+    final LogicalSchema.Builder builder = LogicalSchema.builder()
+        .keyColumn(SystemColumns.ROWKEY_NAME, SqlTypes.STRING);
+    for (int i = 0; i < KsqlBinarySerdeFactory.LAZY_COLUMN_THRESHOLD; i++) {
+      builder.valueColumn(ColumnName.of("f" + i),
+          i % 2 == 0 ? SqlTypes.STRING : SqlTypes.array(SqlTypes.BIGINT));
+    }
+    return KsqlBinarySerdeFactory.createSerde(persistence(builder.build()));
+  }
+
+  private static List<Object> wideRow() {
+    final List<Object> row = new ArrayList<>();
+    for (int i = 0; i < KsqlBinarySerdeFactory.LAZY_COLUMN_THRESHOLD; i++) {
+      if (i % 4 == 3) {
+        row.add(null);
+      } else {
+        row.add(i % 2 == 0 ? "value" + i : Arrays.asList((long) i, null));
+      }
+    }
+    return row;
+  }
+
+  private static Serde<List<?>> serdeFor(final SqlType type) {
+    return KsqlBinarySerdeFactory.createSerde(persistence(LogicalSchema.builder()
+        .keyColumn(SystemColumns.ROWKEY_NAME, SqlTypes.STRING)
+        .valueColumn(ColumnName.of("f0"), type)
+        .build()));
+  }
+
+  private static PersistenceSchema persistence(final LogicalSchema logical) {
+    return PhysicalSchema
+        .from(logical, SerdeFeatures.of(), SerdeFeatures.of())
+        .valueSchema();
+  }
+}
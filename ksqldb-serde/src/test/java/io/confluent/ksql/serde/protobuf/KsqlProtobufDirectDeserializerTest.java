@@ -0,0 +1,254 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.protobuf;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.DynamicMessage;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchema;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class KsqlProtobufDirectDeserializerTest {
+
+  private static final String TOPIC = "topic";
+
+  private static final ProtobufSchema WRITER_SCHEMA = new ProtobufSchema(
+      "syntax = \"proto3\";\n"
+          + "message Row {\n"
+          + "  int32 id = 1;\n"
+          + "  map<string, double> ignored = 2;\n"
+          + "  string name = 3;\n"
+          + "  repeated int64 tags = 4;\n"
+          + "  Inner inner = 5;\n"
+          + "  Colour colour = 6;\n"
+          + "  uint32 big = 7;\n"
+          + "  message Inner {\n"
+          + "    int64 count = 1;\n"
+          + "  }\n"
+          + "  enum Colour {\n"
+          + "    RED = 0;\n"
+          + "    GREEN = 1;\n"
+          + "  }\n"
+          + "}\n");
+
+  private static final Schema INNER_SCHEMA = SchemaBuilder.struct()
+      .field("COUNT", Schema.OPTIONAL_INT64_SCHEMA)
+      .optional()
+      .build();
+
+  private static final Schema KSQL_SCHEMA = SchemaBuilder.struct()
+      .field("ID", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("NAME", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("TAGS", SchemaBuilder.array(Schema.OPTIONAL_INT64_SCHEMA).optional().build())
+      .field("INNER", INNER_SCHEMA)
+      .field("COLOUR", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("BIG", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("MISSING", Schema.OPTIONAL_STRING_SCHEMA)
+      .build();
+
+  @Mock
+  private Deserializer<Struct> fallback;
+  private SchemaRegistryClient srClient;
+  private KsqlProtobufDirectDeserializer deserializer;
+
+  @Before
+  public void setUp() {
+    srClient = spy(new MockSchemaRegistryClient());
+    deserializer = new KsqlProtobufDirectDeserializer(srClient, KSQL_SCHEMA, fallback);
+  }
+
+  @Test
+  public void shouldDecodeProjectedFieldsAndSkipOthers() {
+    // Given:
+    final byte[] bytes = givenSerialized(WRITER_SCHEMA, givenMessage());
+
+    // When:
+    final Struct result = deserializer.deserialize(TOPIC, bytes);
+
+    // Then:
+    assertThat(result, is(new Struct(KSQL_SCHEMA)
+        .put("ID", 10L)
+        .put("NAME", "bob")
+        .put("TAGS", ImmutableList.of(1L, -2L))
+        .put("INNER", new Struct(INNER_SCHEMA).put("COUNT", 3L))
+        .put("COLOUR", "GREEN")
+        .put("BIG", 4294967295L)));
+    verify(fallback, never()).deserialize(any(), any());
+  }
+
+  @Test
+  public void shouldDecodeProto3DefaultsForAbsentFields() {
+    // Given:
+    final Descriptor descriptor = WRITER_SCHEMA.toDescriptor();
+    final byte[] bytes = givenSerialized(
+        WRITER_SCHEMA, DynamicMessage.newBuilder(descriptor).build());
+
+    // When:
+    final Struct result = deserializer.deserialize(TOPIC, bytes);
+
+    // Then:
+    assertThat(result, is(new Struct(KSQL_SCHEMA)
+        .put("ID", 0L)
+        .put("NAME", "")
+        .put("TAGS", ImmutableList.of())
+        .put("COLOUR", "RED")
+        .put("BIG", 0L)));
+  }
+
+  @Test
+  public void shouldOnlyCompileOncePerSchemaId() throws Exception {
+    // Given:
+    final byte[] bytes = givenSerialized(WRITER_SCHEMA, givenMessage());
+    clearInvocations(srClient);
+
+    // When:
+    deserializer.deserialize(TOPIC, bytes);
+    deserializer.deserialize(TOPIC, bytes);
+
+    // Then:
+    verify(srClient, times(1)).getSchemaById(anyInt());
+  }
+
+  @Test
+  public void shouldFallBackIfSchemaCanNotBeCoerced() {
+    // Given:
+    final ProtobufSchema schema = new ProtobufSchema(
+        "syntax = \"proto3\"; message Row { bool id = 1; }");
+    final byte[] bytes = givenSerialized(schema, DynamicMessage.newBuilder(schema.toDescriptor())
+        .setField(schema.toDescriptor().findFieldByName("id"), true)
+        .build());
+    final Struct expected = new Struct(KSQL_SCHEMA);
+    when(fallback.deserialize(TOPIC, bytes)).thenReturn(expected);
+
+    // When:
+    final Struct result = deserializer.deserialize(TOPIC, bytes);
+
+    // Then:
+    assertThat(result, is(expected));
+  }
+
+  @Test
+  public void shouldFallBackOnOneofs() {
+    // Given:
+    final ProtobufSchema schema = new ProtobufSchema(
+        "syntax = \"proto3\"; message Row { oneof choice { string name = 1; int32 id = 2; } }");
+    final byte[] bytes = givenSerialized(schema, DynamicMessage.newBuilder(schema.toDescriptor())
+        .setField(schema.toDescriptor().findFieldByName("name"), "bob")
+        .build());
+
+    // When:
+    deserializer.deserialize(TOPIC, bytes);
+
+    // Then:
+    verify(fallback).deserialize(TOPIC, bytes);
+  }
+
+  @Test
+  public void shouldFallBackOnUnknownMagicByte() {
+    // Given:
+    final byte[] bytes = {1, 0, 0, 0, 1, 0, 2};
+
+    // When:
+    deserializer.deserialize(TOPIC, bytes);
+
+    // Then:
+    verify(fallback).deserialize(TOPIC, bytes);
+  }
+
+  @Test
+  public void shouldThrowOnTruncatedData() {
+    // Given:
+    final byte[] bytes = givenSerialized(WRITER_SCHEMA, givenMessage());
+    final byte[] truncated = Arrays.copyOf(bytes, bytes.length - 2);
+
+    // When:
+    final Exception e = assertThrows(
+        SerializationException.class,
+        () -> deserializer.deserialize(TOPIC, truncated)
+    );
+
+    // Then:
+    assertThat(e.getMessage(), containsString("Error deserializing message from topic: topic"));
+  }
+
+  private static DynamicMessage givenMessage() {
+    final Descriptor descriptor = WRITER_SCHEMA.toDescriptor();
+    final Descriptor innerDescriptor = descriptor.findNestedTypeByName("Inner");
+    final Descriptor entryDescriptor = descriptor.findFieldByName("ignored").getMessageType();
+
+    return DynamicMessage.newBuilder(descriptor)
+        .setField(descriptor.findFieldByName("id"), 10)
+        .addRepeatedField(descriptor.findFieldByName("ignored"),
+            DynamicMessage.newBuilder(entryDescriptor)
+                .setField(entryDescriptor.findFieldByName("key"), "k")
+                .setField(entryDescriptor.findFieldByName("value"), 1.5)
+                .build())
+        .setField(descriptor.findFieldByName("name"), "bob")
+        .setField(descriptor.findFieldByName("tags"), ImmutableList.of(1L, -2L))
+        .setField(descriptor.findFieldByName("inner"), DynamicMessage.newBuilder(innerDescriptor)
+            .setField(innerDescriptor.findFieldByName("count"), 3L)
+            .build())
+        .setField(descriptor.findFieldByName("colour"),
+            descriptor.findEnumTypeByName("Colour").findValueByName("GREEN"))
+        .setField(descriptor.findFieldByName("big"), -1)
+        .build();
+  }
+
+  private byte[] givenSerialized(final ProtobufSchema schema, final DynamicMessage message) {
+    final int id;
+    try {
+      id = srClient.register(TOPIC + "-value", schema);
+    } catch (final Exception e) {
+      throw new AssertionError(e);
+    }
+
+    final byte[] payload = message.toByteArray();
+    return ByteBuffer.allocate(1 + Integer.BYTES + 1 + payload.length)
+        .put((byte) 0)
+        .putInt(id)
+        // Message indexes of [0], i.e. the first message in the schema:
+        .put((byte) 0)
+        .put(payload)
+        .array();
+  }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.protobuf;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.connect.protobuf.ProtobufConverter;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.AbstractKafkaSchemaSerDeConfig;
+import io.confluent.ksql.serde.connect.ConnectDataTranslator;
+import io.confluent.ksql.serde.connect.KsqlConnectDeserializer;
+import io.confluent.ksql.serde.connect.KsqlConnectSerializer;
+import io.confluent.ksql.util.DecimalUtil;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.connect.data.ConnectSchema;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Timestamp;
+import org.junit.Before;
+import org.junit.Test;
+
+public class KsqlProtobufDirectSerializerTest {
+
+  private static final String TOPIC = "topic";
+
+  private static final Schema INNER_SCHEMA = SchemaBuilder.struct()
+      .field("COUNT", Schema.OPTIONAL_INT64_SCHEMA)
+      .optional()
+      .build();
+
+  private static final ConnectSchema SCHEMA = (ConnectSchema) SchemaBuilder.struct()
+      .field("ID", Schema.OPTIONAL_INT32_SCHEMA)
+      .field("NAME", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("PRICE", Schema.OPTIONAL_FLOAT64_SCHEMA)
+      .field("ACTIVE", Schema.OPTIONAL_BOOLEAN_SCHEMA)
+      .field("TAGS", SchemaBuilder.array(Schema.OPTIONAL_INT64_SCHEMA).optional().build())
+      .field("INNER", INNER_SCHEMA)
+      .field("TS", Timestamp.builder().optional().build())
+      .build();
+
+  private SchemaRegistryClient srClient;
+  private ProtobufConverter converter;
+  private Serializer<Struct> fallback;
+  private KsqlConnectDeserializer<Struct> connectDeserializer;
+
+  @Before
+  public void setUp() {
+    srClient = new MockSchemaRegistryClient();
+    converter = new ProtobufConverter(srClient);
+    converter.configure(ImmutableMap.of(
+        AbstractKafkaSchemaSerDeConfig.AUTO_REGISTER_SCHEMAS, true,
+        AbstractKafkaSchemaSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG, ""
+    ), false);
+
+    fallback = spy(givenConnectSerializer(SCHEMA));
+    connectDeserializer = new KsqlConnectDeserializer<>(
+        converter, new ConnectDataTranslator(SCHEMA), Struct.class);
+  }
+
+  @Test
+  public void shouldOnlySerializeFirstRecordViaConnect() {
+    // Given:
+    final Serializer<Struct> serializer =
+        new KsqlProtobufDirectSerializer(srClient, SCHEMA, fallback);
+
+    // When:
+    serializer.serialize(TOPIC, givenStruct());
+    serializer.serialize(TOPIC, givenStruct());
+    serializer.serialize(TOPIC, givenStruct());
+
+    // Then:
+    verify(fallback, times(1)).serialize(any(), any());
+  }
+
+  @Test
+  public void shouldSerializeSameBytesAsConnect() {
+    // Given:
+    final Serializer<Struct> serializer =
+        new KsqlProtobufDirectSerializer(srClient, SCHEMA, fallback);
+    final byte[] viaConnect = serializer.serialize(TOPIC, givenStruct());
+
+    // When:
+    final byte[] direct = serializer.serialize(TOPIC, givenStruct());
+
+    // Then:
+    assertThat(direct, is(viaConnect));
+  }
+
+  @Test
+  public void shouldRoundTripDefaultsAndNulls() {
+    // Given:
+    final Serializer<Struct> serializer =
+        new KsqlProtobufDirectSerializer(srClient, SCHEMA, fallback);
+    serializer.serialize(TOPIC, givenStruct());
+    final Struct struct = new Struct(SCHEMA)
+        .put("ID", 0)
+        .put("NAME", "")
+        .put("PRICE", -0.0)
+        .put("TAGS", ImmutableList.of(0L))
+        .put("INNER", new Struct(INNER_SCHEMA))
+        .put("TS", new java.sql.Timestamp(-1500));
+
+    // When:
+    final byte[] bytes = serializer.serialize(TOPIC, struct);
+
+    // Then:
+    assertThat(connectDeserializer.deserialize(TOPIC, bytes), is(new Struct(SCHEMA)
+        .put("ID", 0)
+        .put("NAME", "")
+        .put("PRICE", -0.0)
+        .put("ACTIVE", false)
+        .put("TAGS", ImmutableList.of(0L))
+        .put("INNER", new Struct(INNER_SCHEMA).put("COUNT", 0L))
+        .put("TS", new java.sql.Timestamp(-1500))));
+  }
+
+  @Test
+  public void shouldFallBackOnNullArrayElements() {
+    // Given:
+    final Serializer<Struct> serializer =
+        new KsqlProtobufDirectSerializer(srClient, SCHEMA, fallback);
+    serializer.serialize(TOPIC, givenStruct());
+    final Struct struct = givenStruct().put("TAGS", Arrays.asList(1L, null));
+
+    // When:
+    serializer.serialize(TOPIC, struct);
+
+    // Then:
+    verify(fallback).serialize(TOPIC, struct);
+  }
+
+  @Test
+  public void shouldAlwaysFallBackOnUnsupportedSchemas() {
+    // Given:
+    final ConnectSchema schema = (ConnectSchema) SchemaBuilder.struct()
+        .field("PRICE", DecimalUtil.builder(4, 2).optional().build())
+        .build();
+    final Serializer<Struct> decimalFallback = spy(givenConnectSerializer(schema));
+    final Serializer<Struct> serializer =
+        new KsqlProtobufDirectSerializer(srClient, schema, decimalFallback);
+    final Struct struct = new Struct(schema).put("PRICE", new BigDecimal("12.34"));
+
+    // When:
+    serializer.serialize(TOPIC, struct);
+    serializer.serialize(TOPIC, struct);
+
+    // Then:
+    verify(decimalFallback, times(2)).serialize(TOPIC, struct);
+  }
+
+  @Test
+  public void shouldSerializeNullAsNull() {
+    // Given:
+    final Serializer<Struct> serializer =
+        new KsqlProtobufDirectSerializer(srClient, SCHEMA, fallback);
+
+    // When:
+    final byte[] bytes = serializer.serialize(TOPIC, null);
+
+    // Then:
+    assertThat(bytes, is(nullValue()));
+  }
+
+  private KsqlConnectSerializer<Struct> givenConnectSerializer(final ConnectSchema schema) {
+    return new KsqlConnectSerializer<>(
+        schema,
+        new ConnectDataTranslator(schema),
+        converter,
+        Struct.class
+    );
+  }
+
+  private static Struct givenStruct() {
+    return new Struct(SCHEMA)
+        .put("ID", 10)
+        .put("NAME", "bob")
+        .put("PRICE", 1.5)
+        .put("ACTIVE", true)
+        .put("TAGS", ImmutableList.of(1L, -2L))
+        .put("INNER", new Struct(INNER_SCHEMA).put("COUNT", 3L))
+        .put("TS", new java.sql.Timestamp(1234567));
+  }
+}
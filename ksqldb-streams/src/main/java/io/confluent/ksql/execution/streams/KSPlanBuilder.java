@@ -16,6 +16,8 @@
 package io.confluent.ksql.execution.streams;
 
 import io.confluent.ksql.GenericKey;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.plan.ExecutionStep;
 import io.confluent.ksql.execution.plan.ForeignKeyTableTableJoin;
 import io.confluent.ksql.execution.plan.KGroupedStreamHolder;
 import io.confluent.ksql.execution.plan.KGroupedTableHolder;
@@ -52,6 +54,7 @@ import io.confluent.ksql.execution.plan.WindowedTableSource;
 import io.confluent.ksql.execution.runtime.RuntimeBuildContext;
 import io.confluent.ksql.execution.transform.sqlpredicate.SqlPredicate;
 import java.util.Objects;
+import java.util.Optional;
 import org.apache.kafka.streams.kstream.Windowed;
 
 /**
@@ -89,10 +92,42 @@ public final class KSPlanBuilder implements PlanBuilder {
   public <K> KStreamHolder<K> visitStreamFilter(
       final StreamFilter<K> streamFilter,
       final PlanInfo planInfo) {
-    final KStreamHolder<K> source = streamFilter.getSource().build(this, planInfo);
+    final KStreamHolder<K> source = buildFilterSource(streamFilter, planInfo);
     return StreamFilterBuilder.build(source, streamFilter, buildContext, sqlPredicateFactory);
   }
 
+  /**
+   * Stream sources consumed directly by a filter are built with the filter, so that the part of
+   * it that can be evaluated on the source's values is applied as they are deserialized.
+   */
+  @SuppressWarnings("unchecked")
+  private <K> KStreamHolder<K> buildFilterSource(
+      final StreamFilter<K> streamFilter,
+      final PlanInfo planInfo) {
+    final ExecutionStep<KStreamHolder<K>> source = streamFilter.getSource();
+    final Optional<Expression> filter = Optional.of(streamFilter.getFilterExpression());
+
+    if (source instanceof StreamSource) {
+      return (KStreamHolder<K>) SourceBuilder.buildStream(
+          buildContext,
+          (StreamSource) source,
+          streamsFactories.getConsumedFactory(),
+          filter
+      );
+    }
+
+    if (source instanceof WindowedStreamSource) {
+      return (KStreamHolder<K>) SourceBuilder.buildWindowedStream(
+          buildContext,
+          (WindowedStreamSource) source,
+          streamsFactories.getConsumedFactory(),
+          filter
+      );
+    }
+
+    return source.build(this, planInfo);
+  }
+
   @Override
   public <K> KGroupedStreamHolder visitStreamGroupBy(
       final StreamGroupByV1<K> streamGroupBy,
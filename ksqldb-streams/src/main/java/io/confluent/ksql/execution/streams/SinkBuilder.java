@@ -68,10 +68,13 @@ public final class SinkBuilder {
         queryContext
     );
 
-    final Serde<GenericRow> valueSerde = buildContext.buildValueSerde(
-        formats.getValueFormat(),
-        physicalSchema,
-        queryContext
+    final Serde<GenericRow> valueSerde = StepProfiling.serializer(
+        buildContext.getStepProfiler(queryContext),
+        buildContext.buildValueSerde(
+            formats.getValueFormat(),
+            physicalSchema,
+            queryContext
+        )
     );
 
     final Optional<TransformTimestamp<K>> tsTransformer = timestampTransformer(
@@ -20,6 +20,7 @@ import io.confluent.ksql.GenericKey;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.context.QueryContext;
 import io.confluent.ksql.execution.context.QueryContext.Stacker;
+import io.confluent.ksql.execution.expression.tree.Expression;
 import io.confluent.ksql.execution.materialization.MaterializationInfo;
 import io.confluent.ksql.execution.plan.ExecutionKeyFactory;
 import io.confluent.ksql.execution.plan.ExecutionStepPropertiesV1;
@@ -32,6 +33,7 @@ import io.confluent.ksql.execution.plan.TableSource;
 import io.confluent.ksql.execution.plan.WindowedStreamSource;
 import io.confluent.ksql.execution.plan.WindowedTableSource;
 import io.confluent.ksql.execution.runtime.RuntimeBuildContext;
+import io.confluent.ksql.execution.streams.metrics.SourcePreFilterMetrics;
 import io.confluent.ksql.execution.streams.timestamp.TimestampExtractionPolicy;
 import io.confluent.ksql.execution.streams.timestamp.TimestampExtractionPolicyFactory;
 import io.confluent.ksql.execution.timestamp.TimestampColumn;
@@ -83,10 +85,33 @@ public final class SourceBuilder {
       final RuntimeBuildContext buildContext,
       final StreamSource source,
       final ConsumedFactory consumedFactory
+  ) {
+    return buildStream(buildContext, source, consumedFactory, Optional.empty());
+  }
+
+  /**
+   * Build a stream source.
+   *
+   * @param filter the filter applied directly to the source, if any. The part of the filter that
+   *               can be evaluated on the source's values is applied as they are deserialized.
+   */
+  static KStreamHolder<GenericKey> buildStream(
+      final RuntimeBuildContext buildContext,
+      final StreamSource source,
+      final ConsumedFactory consumedFactory,
+      final Optional<Expression> filter
   ) {
     final PhysicalSchema physicalSchema = getPhysicalSchema(source);
 
-    final Serde<GenericRow> valueSerde = getValueSerde(buildContext, source, physicalSchema);
+    final Serde<GenericRow> valueSerde = StepProfiling.deserializer(
+        buildContext.getStepProfiler(source.getProperties().getQueryContext()),
+        preFilter(
+            buildContext,
+            source,
+            getValueSerde(buildContext, source, physicalSchema),
+            filter
+        )
+    );
 
     final Serde<GenericKey> keySerde = buildContext.buildKeySerde(
         source.getFormats().getKeyFormat(),
@@ -121,10 +146,33 @@ public final class SourceBuilder {
       final RuntimeBuildContext buildContext,
       final WindowedStreamSource source,
       final ConsumedFactory consumedFactory
+  ) {
+    return buildWindowedStream(buildContext, source, consumedFactory, Optional.empty());
+  }
+
+  /**
+   * Build a windowed stream source.
+   *
+   * @param filter the filter applied directly to the source, if any. The part of the filter that
+   *               can be evaluated on the source's values is applied as they are deserialized.
+   */
+  static KStreamHolder<Windowed<GenericKey>> buildWindowedStream(
+      final RuntimeBuildContext buildContext,
+      final WindowedStreamSource source,
+      final ConsumedFactory consumedFactory,
+      final Optional<Expression> filter
   ) {
     final PhysicalSchema physicalSchema = getPhysicalSchema(source);
 
-    final Serde<GenericRow> valueSerde = getValueSerde(buildContext, source, physicalSchema);
+    final Serde<GenericRow> valueSerde = StepProfiling.deserializer(
+        buildContext.getStepProfiler(source.getProperties().getQueryContext()),
+        preFilter(
+            buildContext,
+            source,
+            getValueSerde(buildContext, source, physicalSchema),
+            filter
+        )
+    );
 
     final WindowInfo windowInfo = source.getWindowInfo();
     final Serde<Windowed<GenericKey>> keySerde = buildContext.buildKeySerde(
@@ -285,6 +333,33 @@ public final class SourceBuilder {
     );
   }
 
+  private static Serde<GenericRow> preFilter(
+      final RuntimeBuildContext buildContext,
+      final SourceStep<?> streamSource,
+      final Serde<GenericRow> valueSerde,
+      final Optional<Expression> filter
+  ) {
+    // Values dropped by the pre-filter reach the timestamp extractor as nulls, so sources that
+    // extract their timestamp from a column are not pre-filtered:
+    if (!filter.isPresent()
+        || streamSource.getTimestampColumn().isPresent()
+        || !buildContext.getKsqlConfig().getBoolean(KsqlConfig.KSQL_SOURCE_PRE_FILTER_ENABLED)) {
+      return valueSerde;
+    }
+
+    return SourcePreFilter.from(filter.get(), streamSource.getSourceSchema())
+        .map(preFilter -> preFilter.wrap(
+            valueSerde,
+            SourcePreFilterMetrics.droppedRecordsSensor(
+                buildContext.getApplicationId(),
+                buildContext.getKsqlConfig().getString(KsqlConfig.KSQL_SERVICE_ID_CONFIG),
+                buildContext.getQueryId().toString(),
+                StreamsUtil.buildOpName(streamSource.getProperties().getQueryContext())
+            )
+        ))
+        .orElse(valueSerde);
+  }
+
   private static PhysicalSchema getPhysicalSchema(final SourceStep<?> streamSource) {
     return PhysicalSchema.from(
         streamSource.getSourceSchema(),
@@ -0,0 +1,398 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.streams;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.expression.tree.BooleanLiteral;
+import io.confluent.ksql.execution.expression.tree.ComparisonExpression;
+import io.confluent.ksql.execution.expression.tree.DoubleLiteral;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.expression.tree.IntegerLiteral;
+import io.confluent.ksql.execution.expression.tree.IsNotNullPredicate;
+import io.confluent.ksql.execution.expression.tree.IsNullPredicate;
+import io.confluent.ksql.execution.expression.tree.Literal;
+import io.confluent.ksql.execution.expression.tree.LogicalBinaryExpression;
+import io.confluent.ksql.execution.expression.tree.LongLiteral;
+import io.confluent.ksql.execution.expression.tree.StringLiteral;
+import io.confluent.ksql.execution.expression.tree.UnqualifiedColumnReferenceExp;
+import io.confluent.ksql.schema.ksql.Column;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlBaseType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+
+/**
+ * The part of a stream's filter that can be evaluated on the source's values as they are
+ * deserialized.
+ *
+ * <p>Conjuncts of the filter that compare a top-level primitive value column to a literal, or
+ * check such a column for null, are evaluated against each deserialized value. Values that fail
+ * any of them are replaced with {@code null}, which the source passes through untouched and the
+ * filter drops. Formats that decode columns on demand only decode the columns being tested.
+ *
+ * <p>The full filter is still applied downstream, so the pre-filter only ever needs to be
+ * conservative: any row it can not evaluate, it keeps.
+ */
+final class SourcePreFilter {
+
+  private final List<ColumnTest> tests;
+
+  private SourcePreFilter(final List<ColumnTest> tests) {
+    this.tests = ImmutableList.copyOf(requireNonNull(tests, "tests"));
+  }
+
+  /**
+   * Extract the part of the supplied {@code filter} that can be evaluated on deserialized rows of
+   * the supplied {@code sourceSchema}.
+   *
+   * @param filter the filter expression, in terms of the source's columns.
+   * @param sourceSchema the schema of the source.
+   * @return the pre-filter, or empty if no part of the filter can be pushed down.
+   */
+  static Optional<SourcePreFilter> from(
+      final Expression filter,
+      final LogicalSchema sourceSchema
+  ) {
+    final List<Expression> conjuncts = new ArrayList<>();
+    splitConjuncts(filter, conjuncts);
+
+    final List<ColumnTest> tests = new ArrayList<>();
+    for (final Expression conjunct : conjuncts) {
+      toColumnTest(conjunct, sourceSchema).ifPresent(tests::add);
+    }
+
+    return tests.isEmpty()
+        ? Optional.empty()
+        : Optional.of(new SourcePreFilter(tests));
+  }
+
+  /**
+   * @param row the deserialized source row.
+   * @return {@code false} if the row can not pass the filter.
+   */
+  boolean test(final GenericRow row) {
+    try {
+      for (final ColumnTest test : tests) {
+        if (!test.predicate.test(row.get(test.index))) {
+          return false;
+        }
+      }
+      return true;
+    } catch (final RuntimeException e) {
+      // Leave the row for the filter to evaluate, and log, as normal:
+      return true;
+    }
+  }
+
+  /**
+   * Wrap the supplied source value serde so that its deserializer returns {@code null} for any
+   * value that fails this pre-filter.
+   *
+   * @param serde the source value serde.
+   * @param droppedRecords the sensor to record dropped values on.
+   * @return the wrapped serde.
+   */
+  Serde<GenericRow> wrap(final Serde<GenericRow> serde, final Sensor droppedRecords) {
+    return Serdes.serdeFrom(
+        serde.serializer(),
+        new PreFilteringDeserializer(serde.deserializer(), this, droppedRecords)
+    );
+  }
+
+  private static void splitConjuncts(final Expression expression, final List<Expression> result) {
+    if (expression instanceof LogicalBinaryExpression
+        && ((LogicalBinaryExpression) expression).getType() == LogicalBinaryExpression.Type.AND) {
+      splitConjuncts(((LogicalBinaryExpression) expression).getLeft(), result);
+      splitConjuncts(((LogicalBinaryExpression) expression).getRight(), result);
+    } else {
+      result.add(expression);
+    }
+  }
+
+  private static Optional<ColumnTest> toColumnTest(
+      final Expression conjunct,
+      final LogicalSchema sourceSchema
+  ) {
+    if (conjunct instanceof IsNullPredicate) {
+      return findColumn(((IsNullPredicate) conjunct).getValue(), sourceSchema)
+          .map(column -> new ColumnTest(column.index(), Objects::isNull));
+    }
+
+    if (conjunct instanceof IsNotNullPredicate) {
+      return findColumn(((IsNotNullPredicate) conjunct).getValue(), sourceSchema)
+          .map(column -> new ColumnTest(column.index(), Objects::nonNull));
+    }
+
+    if (!(conjunct instanceof ComparisonExpression)) {
+      return Optional.empty();
+    }
+
+    final ComparisonExpression comparison = (ComparisonExpression) conjunct;
+    final Optional<Column> left = findColumn(comparison.getLeft(), sourceSchema);
+    if (left.isPresent()) {
+      return comparisonTest(left.get(), comparison.getType(), comparison.getRight());
+    }
+
+    final Optional<Column> right = findColumn(comparison.getRight(), sourceSchema);
+    return right.flatMap(column ->
+        flip(comparison.getType()).flatMap(type ->
+            comparisonTest(column, type, comparison.getLeft())));
+  }
+
+  private static Optional<Column> findColumn(
+      final Expression expression,
+      final LogicalSchema sourceSchema
+  ) {
+    if (!(expression instanceof UnqualifiedColumnReferenceExp)) {
+      return Optional.empty();
+    }
+
+    return sourceSchema
+        .findValueColumn(((UnqualifiedColumnReferenceExp) expression).getColumnName())
+        .filter(column -> isPrimitive(column.type().baseType()));
+  }
+
+  private static boolean isPrimitive(final SqlBaseType type) {
+    switch (type) {
+      case BOOLEAN:
+      case INTEGER:
+      case BIGINT:
+      case DOUBLE:
+      case STRING:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Builds a test for {@code column <type> literal}, mirroring the semantics of the code generated
+   * for the comparison, in which a comparison with a null column is always false.
+   */
+  private static Optional<ColumnTest> comparisonTest(
+      final Column column,
+      final ComparisonExpression.Type type,
+      final Expression literal
+  ) {
+    final Optional<Predicate<Object>> predicate;
+    switch (column.type().baseType()) {
+      case BOOLEAN:
+        predicate = booleanTest(type, literal);
+        break;
+      case STRING:
+        predicate = stringTest(type, literal);
+        break;
+      default:
+        predicate = numericTest(column.type().baseType(), type, literal);
+        break;
+    }
+
+    return predicate.map(p -> new ColumnTest(column.index(), v -> v != null && p.test(v)));
+  }
+
+  private static Optional<Predicate<Object>> booleanTest(
+      final ComparisonExpression.Type type,
+      final Expression literal
+  ) {
+    if (!(literal instanceof BooleanLiteral)) {
+      return Optional.empty();
+    }
+
+    final boolean expected = ((BooleanLiteral) literal).getValue();
+    switch (type) {
+      case EQUAL:
+        return Optional.of(v -> (Boolean) v == expected);
+      case NOT_EQUAL:
+        return Optional.of(v -> (Boolean) v != expected);
+      default:
+        return Optional.empty();
+    }
+  }
+
+  private static Optional<Predicate<Object>> stringTest(
+      final ComparisonExpression.Type type,
+      final Expression literal
+  ) {
+    if (!(literal instanceof StringLiteral)) {
+      return Optional.empty();
+    }
+
+    final String expected = ((StringLiteral) literal).getValue();
+    switch (type) {
+      case EQUAL:
+        return Optional.of(expected::equals);
+      case NOT_EQUAL:
+        return Optional.of(v -> !expected.equals(v));
+      default:
+        return compareResultTest(type)
+            .map(test -> v -> test.test(((String) v).compareTo(expected)));
+    }
+  }
+
+  private static Optional<Predicate<Object>> numericTest(
+      final SqlBaseType columnType,
+      final ComparisonExpression.Type type,
+      final Expression literal
+  ) {
+    if (literal instanceof IntegerLiteral || literal instanceof LongLiteral) {
+      final long expected = ((Number) ((Literal) literal).getValue()).longValue();
+      if (columnType == SqlBaseType.DOUBLE) {
+        return doubleTest(type, expected);
+      }
+      return compareResultTest(type)
+          .map(test -> v -> test.test(Long.compare(((Number) v).longValue(), expected)));
+    }
+
+    if (literal instanceof DoubleLiteral) {
+      return doubleTest(type, ((DoubleLiteral) literal).getValue());
+    }
+
+    return Optional.empty();
+  }
+
+  /**
+   * Double comparisons use primitive operators, as the generated code does, so that comparisons
+   * with {@code NaN} behave the same, i.e. are always false.
+   */
+  private static Optional<Predicate<Object>> doubleTest(
+      final ComparisonExpression.Type type,
+      final double expected
+  ) {
+    switch (type) {
+      case EQUAL:
+        return Optional.of(v -> {
+          final double d = ((Number) v).doubleValue();
+          return d <= expected && d >= expected;
+        });
+      case NOT_EQUAL:
+        return Optional.of(v -> {
+          final double d = ((Number) v).doubleValue();
+          return d < expected || d > expected;
+        });
+      case LESS_THAN:
+        return Optional.of(v -> ((Number) v).doubleValue() < expected);
+      case LESS_THAN_OR_EQUAL:
+        return Optional.of(v -> ((Number) v).doubleValue() <= expected);
+      case GREATER_THAN:
+        return Optional.of(v -> ((Number) v).doubleValue() > expected);
+      case GREATER_THAN_OR_EQUAL:
+        return Optional.of(v -> ((Number) v).doubleValue() >= expected);
+      default:
+        return Optional.empty();
+    }
+  }
+
+  private static Optional<IntTest> compareResultTest(final ComparisonExpression.Type type) {
+    switch (type) {
+      case EQUAL:
+        return Optional.of(c -> c == 0);
+      case NOT_EQUAL:
+        return Optional.of(c -> c != 0);
+      case LESS_THAN:
+        return Optional.of(c -> c < 0);
+      case LESS_THAN_OR_EQUAL:
+        return Optional.of(c -> c <= 0);
+      case GREATER_THAN:
+        return Optional.of(c -> c > 0);
+      case GREATER_THAN_OR_EQUAL:
+        return Optional.of(c -> c >= 0);
+      default:
+        return Optional.empty();
+    }
+  }
+
+  private static Optional<ComparisonExpression.Type> flip(final ComparisonExpression.Type type) {
+    switch (type) {
+      case EQUAL:
+      case NOT_EQUAL:
+        return Optional.of(type);
+      case LESS_THAN:
+        return Optional.of(ComparisonExpression.Type.GREATER_THAN);
+      case LESS_THAN_OR_EQUAL:
+        return Optional.of(ComparisonExpression.Type.GREATER_THAN_OR_EQUAL);
+      case GREATER_THAN:
+        return Optional.of(ComparisonExpression.Type.LESS_THAN);
+      case GREATER_THAN_OR_EQUAL:
+        return Optional.of(ComparisonExpression.Type.LESS_THAN_OR_EQUAL);
+      default:
+        return Optional.empty();
+    }
+  }
+
+  private interface IntTest {
+    boolean test(int value);
+  }
+
+  private static final class ColumnTest {
+
+    private final int index;
+    private final Predicate<Object> predicate;
+
+    ColumnTest(final int index, final Predicate<Object> predicate) {
+      this.index = index;
+      this.predicate = requireNonNull(predicate, "predicate");
+    }
+  }
+
+  private static final class PreFilteringDeserializer implements Deserializer<GenericRow> {
+
+    private final Deserializer<GenericRow> delegate;
+    private final SourcePreFilter preFilter;
+    private final Sensor droppedRecords;
+
+    PreFilteringDeserializer(
+        final Deserializer<GenericRow> delegate,
+        final SourcePreFilter preFilter,
+        final Sensor droppedRecords
+    ) {
+      this.delegate = requireNonNull(delegate, "delegate");
+      this.preFilter = requireNonNull(preFilter, "preFilter");
+      this.droppedRecords = requireNonNull(droppedRecords, "droppedRecords");
+    }
+
+    @Override
+    public void configure(final Map<String, ?> configs, final boolean isKey) {
+      delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public GenericRow deserialize(final String topic, final byte[] data) {
+      final GenericRow row = delegate.deserialize(topic, data);
+      if (row == null || preFilter.test(row)) {
+        return row;
+      }
+
+      droppedRecords.record();
+      return null;
+    }
+
+    @Override
+    public void close() {
+      delegate.close();
+    }
+  }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.streams;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.runtime.StepProfiler;
+import io.confluent.ksql.execution.transform.KsqlTransformer;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.ToIntFunction;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.streams.kstream.Aggregator;
+
+/**
+ * Wraps the functions that make up the steps of a query so that they are profiled.
+ *
+ * <p>Each method returns the supplied function unchanged if the step is not being profiled.
+ */
+final class StepProfiling {
+
+  private StepProfiling() {
+  }
+
+  static <K, R> KsqlTransformer<K, R> transformer(
+      final Optional<StepProfiler> profiler,
+      final KsqlTransformer<K, R> delegate,
+      final ToIntFunction<R> outputs
+  ) {
+    if (!profiler.isPresent()) {
+      return delegate;
+    }
+
+    final StepProfiler stepProfiler = profiler.get();
+    return (key, value, ctx) -> {
+      final long start = stepProfiler.start();
+      final R result = delegate.transform(key, value, ctx);
+      stepProfiler.end(start, outputs.applyAsInt(result));
+      return result;
+    };
+  }
+
+  static <K> Aggregator<K, GenericRow, GenericRow> aggregator(
+      final Optional<StepProfiler> profiler,
+      final Aggregator<K, GenericRow, GenericRow> delegate
+  ) {
+    if (!profiler.isPresent()) {
+      return delegate;
+    }
+
+    final StepProfiler stepProfiler = profiler.get();
+    return (key, value, aggregate) -> {
+      final long start = stepProfiler.start();
+      final GenericRow result = delegate.apply(key, value, aggregate);
+      stepProfiler.end(start, 1);
+      return result;
+    };
+  }
+
+  /**
+   * Profile the deserialization of a source's values. Deserialized values that are null, i.e.
+   * tombstones, or values dropped by a pre-filter, are not counted as outputs.
+   */
+  static Serde<GenericRow> deserializer(
+      final Optional<StepProfiler> profiler,
+      final Serde<GenericRow> delegate
+  ) {
+    if (!profiler.isPresent()) {
+      return delegate;
+    }
+
+    return Serdes.serdeFrom(
+        delegate.serializer(),
+        new ProfilingDeserializer(profiler.get(), delegate.deserializer())
+    );
+  }
+
+  /**
+   * Profile the serialization of a sink's values.
+   */
+  static Serde<GenericRow> serializer(
+      final Optional<StepProfiler> profiler,
+      final Serde<GenericRow> delegate
+  ) {
+    if (!profiler.isPresent()) {
+      return delegate;
+    }
+
+    return Serdes.serdeFrom(
+        new ProfilingSerializer(profiler.get(), delegate.serializer()),
+        delegate.deserializer()
+    );
+  }
+
+  private static final class ProfilingDeserializer implements Deserializer<GenericRow> {
+
+    private final StepProfiler profiler;
+    private final Deserializer<GenericRow> delegate;
+
+    ProfilingDeserializer(
+        final StepProfiler profiler,
+        final Deserializer<GenericRow> delegate
+    ) {
+      this.profiler = profiler;
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void configure(final Map<String, ?> configs, final boolean isKey) {
+      delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public GenericRow deserialize(final String topic, final byte[] data) {
+      final long start = profiler.start();
+      final GenericRow row = delegate.deserialize(topic, data);
+      profiler.end(start, row == null ? 0 : 1);
+      return row;
+    }
+
+    @Override
+    public void close() {
+      delegate.close();
+    }
+  }
+
+  private static final class ProfilingSerializer implements Serializer<GenericRow> {
+
+    private final StepProfiler profiler;
+    private final Serializer<GenericRow> delegate;
+
+    ProfilingSerializer(
+        final StepProfiler profiler,
+        final Serializer<GenericRow> delegate
+    ) {
+      this.profiler = profiler;
+      this.delegate = delegate;
+    }
+
+    @Override
+    public void configure(final Map<String, ?> configs, final boolean isKey) {
+      delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(final String topic, final GenericRow data) {
+      final long start = profiler.start();
+      final byte[] bytes = delegate.serialize(topic, data);
+      profiler.end(start, 1);
+      return bytes;
+    }
+
+    @Override
+    public void close() {
+      delegate.close();
+    }
+  }
+}
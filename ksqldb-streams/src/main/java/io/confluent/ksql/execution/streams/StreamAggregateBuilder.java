@@ -43,6 +43,7 @@ import java.util.List;
 import java.util.Objects;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.kstream.Aggregator;
 import org.apache.kafka.streams.kstream.KGroupedStream;
 import org.apache.kafka.streams.kstream.KTable;
 import org.apache.kafka.streams.kstream.Materialized;
@@ -105,7 +106,10 @@ public final class StreamAggregateBuilder {
 
     final KTable<GenericKey, GenericRow> aggregated = groupedStream.getGroupedStream().aggregate(
         aggregateParams.getInitializer(),
-        aggregateParams.getAggregator(),
+        StepProfiling.aggregator(
+            buildContext.getStepProfiler(aggregate.getProperties().getQueryContext()),
+            aggregateParams.<GenericKey>getAggregator()
+        ),
         materialized
     );
 
@@ -226,6 +230,7 @@ public final class StreamAggregateBuilder {
     final Serde<GenericKey> keySerde;
     final Serde<GenericRow> valueSerde;
     final AggregateParams aggregateParams;
+    final Aggregator<GenericKey, GenericRow, GenericRow> aggregator;
 
     WindowedAggregator(
         final KGroupedStream<GenericKey, GenericRow> groupedStream,
@@ -240,6 +245,10 @@ public final class StreamAggregateBuilder {
       this.materializedFactory = Objects.requireNonNull(materializedFactory, "materializedFactory");
       this.aggregateParams = Objects.requireNonNull(aggregateParams, "aggregateParams");
       this.queryContext = MaterializationUtil.materializeContext(aggregate);
+      this.aggregator = StepProfiling.aggregator(
+          buildContext.getStepProfiler(aggregate.getProperties().getQueryContext()),
+          aggregateParams.getAggregator()
+      );
       this.formats = aggregate.getInternalFormats();
       final PhysicalSchema physicalSchema = PhysicalSchema.from(
           aggregateSchema,
@@ -275,7 +284,7 @@ public final class StreamAggregateBuilder {
           .windowedBy(windows)
           .aggregate(
               aggregateParams.getInitializer(),
-              aggregateParams.getAggregator(),
+              aggregator,
               materializedFactory.create(keySerde,
                   valueSerde,
                   StreamsUtil.buildOpName(queryContext),
@@ -297,7 +306,7 @@ public final class StreamAggregateBuilder {
           .windowedBy(windows)
           .aggregate(
               aggregateParams.getInitializer(),
-              aggregateParams.getAggregator(),
+              aggregator,
               aggregateParams.getAggregator().getMerger(),
               materializedFactory.create(keySerde,
                   valueSerde,
@@ -320,7 +329,7 @@ public final class StreamAggregateBuilder {
           .windowedBy(windows)
           .aggregate(
               aggregateParams.getInitializer(),
-              aggregateParams.getAggregator(),
+              aggregator,
               materializedFactory.create(keySerde,
                   valueSerde,
                   StreamsUtil.buildOpName(queryContext),
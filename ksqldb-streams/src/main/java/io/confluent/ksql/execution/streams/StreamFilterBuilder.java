@@ -19,6 +19,7 @@ import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.plan.KStreamHolder;
 import io.confluent.ksql.execution.plan.StreamFilter;
 import io.confluent.ksql.execution.runtime.RuntimeBuildContext;
+import io.confluent.ksql.execution.runtime.StepProfiler;
 import io.confluent.ksql.execution.streams.transform.KsTransformer;
 import io.confluent.ksql.execution.transform.KsqlTransformer;
 import io.confluent.ksql.execution.transform.sqlpredicate.SqlPredicate;
@@ -57,9 +58,16 @@ public final class StreamFilterBuilder {
     final ProcessingLogger processingLogger = buildContext
         .getProcessingLogger(step.getProperties().getQueryContext());
 
+    final Optional<StepProfiler> profiler = buildContext
+        .getStepProfiler(step.getProperties().getQueryContext());
+
     final KStream<K, GenericRow> filtered = stream.getStream()
         .flatTransformValues(
-            () -> toFlatMapTransformer(predicate.getTransformer(processingLogger)),
+            () -> toFlatMapTransformer(StepProfiling.transformer(
+                profiler,
+                predicate.getTransformer(processingLogger),
+                result -> result.isPresent() ? 1 : 0
+            )),
             Named.as(StreamsUtil.buildOpName(step.getProperties().getQueryContext()))
         );
 
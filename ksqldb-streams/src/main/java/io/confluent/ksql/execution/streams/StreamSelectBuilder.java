@@ -19,11 +19,13 @@ import io.confluent.ksql.execution.context.QueryContext;
 import io.confluent.ksql.execution.plan.KStreamHolder;
 import io.confluent.ksql.execution.plan.StreamSelect;
 import io.confluent.ksql.execution.runtime.RuntimeBuildContext;
+import io.confluent.ksql.execution.runtime.StepProfiler;
 import io.confluent.ksql.execution.streams.transform.KsTransformer;
 import io.confluent.ksql.execution.transform.select.SelectValueMapper;
 import io.confluent.ksql.execution.transform.select.Selection;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
+import java.util.Optional;
 import org.apache.kafka.streams.kstream.Named;
 
 public final class StreamSelectBuilder {
@@ -51,12 +53,18 @@ public final class StreamSelectBuilder {
 
     final ProcessingLogger logger = buildContext.getProcessingLogger(queryContext);
 
+    final Optional<StepProfiler> profiler = buildContext.getStepProfiler(queryContext);
+
     final Named selectName =
         Named.as(StreamsUtil.buildOpName(queryContext));
 
     return stream.withStream(
         stream.getStream().transformValues(
-            () -> new KsTransformer<>(selectMapper.getTransformer(logger)),
+            () -> new KsTransformer<>(StepProfiling.transformer(
+                profiler,
+                selectMapper.getTransformer(logger),
+                result -> 1
+            )),
             selectName
         ),
         selection.getSchema()
@@ -89,6 +89,13 @@ public interface Locator {
      *         {@link RoutingOptions} as invalid candidates for routing.
      */
     KsqlPartitionLocation removeFilteredHosts();
+
+    /**
+     * @param nodes the nodes to contact, in order.
+     * @return a {@code KsqlPartitionLocation} for the same partition and keys, but with the
+     *         supplied nodes.
+     */
+    KsqlPartitionLocation withNodes(List<KsqlNode> nodes);
   }
 
   /**
@@ -454,6 +454,11 @@ public final class KsLocator implements Locator {
       );
     }
 
+    @Override
+    public KsqlPartitionLocation withNodes(final List<KsqlNode> nodes) {
+      return new PartitionLocation(keys, partition, nodes);
+    }
+
     @SuppressFBWarnings(value = "EI_EXPOSE_REP", justification = "nodes is ImmutableList")
     public List<KsqlNode> getNodes() {
       return nodes;
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.streams.metrics;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.metrics.MetricCollectors;
+import io.confluent.ksql.util.KsqlConstants;
+import io.confluent.ksql.util.ReservedInternalTopics;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.CumulativeCount;
+import org.apache.kafka.common.metrics.stats.Rate;
+import org.apache.kafka.common.metrics.stats.WindowedCount;
+
+/**
+ * Metrics on the records dropped by the pre-filters of stream sources, i.e. the records whose
+ * values failed the part of a query's filter that was pushed down into deserialization.
+ *
+ * <p>Sensors are registered per query application and removed when the application is closed.
+ */
+public final class SourcePreFilterMetrics {
+
+  static final String METRIC_GROUP = "source-pre-filter";
+  static final String RECORDS_DROPPED_RATE = "records-dropped-rate";
+  static final String RECORDS_DROPPED_TOTAL = "records-dropped-total";
+  static final String QUERY_ID_TAG = "query_id";
+  static final String SOURCE_TAG = "source";
+
+  private static final Map<String, SourcePreFilterMetrics> APPLICATIONS =
+      new ConcurrentHashMap<>();
+
+  private final Metrics metrics;
+  private final Set<String> sensorNames = ConcurrentHashMap.newKeySet();
+
+  private SourcePreFilterMetrics(final Metrics metrics) {
+    this.metrics = Objects.requireNonNull(metrics, "metrics");
+  }
+
+  /**
+   * Get the sensor that records the values dropped by the pre-filter of a source.
+   *
+   * @param applicationId the application id of the query.
+   * @param serviceId the ksql service id.
+   * @param queryId the id of the query.
+   * @param sourceOpName the operation name of the source.
+   * @return the sensor.
+   */
+  public static Sensor droppedRecordsSensor(
+      final String applicationId,
+      final String serviceId,
+      final String queryId,
+      final String sourceOpName
+  ) {
+    return droppedRecordsSensor(
+        MetricCollectors.getMetrics(),
+        applicationId,
+        serviceId,
+        queryId,
+        sourceOpName
+    );
+  }
+
+  @VisibleForTesting
+  static Sensor droppedRecordsSensor(
+      final Metrics metrics,
+      final String applicationId,
+      final String serviceId,
+      final String queryId,
+      final String sourceOpName
+  ) {
+    return APPLICATIONS
+        .computeIfAbsent(applicationId, id -> new SourcePreFilterMetrics(metrics))
+        .sensor(applicationId, serviceId, queryId, sourceOpName);
+  }
+
+  /**
+   * Remove any sensors registered for the supplied application.
+   *
+   * @param applicationId the application id of the closed query.
+   */
+  public static void notifyApplicationClose(final String applicationId) {
+    final SourcePreFilterMetrics applicationMetrics = APPLICATIONS.remove(applicationId);
+    if (applicationMetrics != null) {
+      applicationMetrics.sensorNames.forEach(applicationMetrics.metrics::removeSensor);
+    }
+  }
+
+  private synchronized Sensor sensor(
+      final String applicationId,
+      final String serviceId,
+      final String queryId,
+      final String sourceOpName
+  ) {
+    final String name = METRIC_GROUP + "-" + applicationId + "-" + sourceOpName;
+    final Sensor existing = metrics.getSensor(name);
+    if (existing != null) {
+      return existing;
+    }
+
+    final Map<String, String> tags = ImmutableMap.of(
+        KsqlConstants.KSQL_SERVICE_ID_METRICS_TAG, serviceId,
+        QUERY_ID_TAG, queryId,
+        SOURCE_TAG, sourceOpName
+    );
+    final String group = ReservedInternalTopics.KSQL_INTERNAL_TOPIC_PREFIX + METRIC_GROUP;
+
+    final Sensor sensor = metrics.sensor(name);
+    sensor.add(
+        metrics.metricName(RECORDS_DROPPED_RATE, group,
+            "Rate of source records dropped by the pushed down part of the query's filter",
+            tags),
+        new Rate(new WindowedCount()));
+    sensor.add(
+        metrics.metricName(RECORDS_DROPPED_TOTAL, group,
+            "Total source records dropped by the pushed down part of the query's filter",
+            tags),
+        new CumulativeCount());
+
+    sensorNames.add(name);
+    return sensor;
+  }
+}
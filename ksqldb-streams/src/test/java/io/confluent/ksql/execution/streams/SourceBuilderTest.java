@@ -20,6 +20,8 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -37,6 +39,10 @@ import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.execution.runtime.RuntimeBuildContext;
 import io.confluent.ksql.execution.context.QueryContext;
 import io.confluent.ksql.execution.context.QueryContext.Stacker;
+import io.confluent.ksql.execution.expression.tree.ComparisonExpression;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.expression.tree.IntegerLiteral;
+import io.confluent.ksql.execution.expression.tree.UnqualifiedColumnReferenceExp;
 import io.confluent.ksql.execution.plan.ExecutionStep;
 import io.confluent.ksql.execution.plan.ExecutionStepPropertiesV1;
 import io.confluent.ksql.execution.plan.Formats;
@@ -52,6 +58,7 @@ import io.confluent.ksql.execution.plan.WindowedTableSource;
 import io.confluent.ksql.execution.timestamp.TimestampColumn;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.schema.ksql.LogicalSchema;
 import io.confluent.ksql.schema.ksql.PhysicalSchema;
 import io.confluent.ksql.schema.ksql.SystemColumns;
@@ -67,7 +74,9 @@ import java.util.Optional;
 import java.util.OptionalInt;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.utils.Bytes;
 import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.Topology.AutoOffsetReset;
@@ -131,6 +140,12 @@ public class SourceBuilderTest {
       )
   );
 
+  private static final Expression FILTER = new ComparisonExpression(
+      ComparisonExpression.Type.GREATER_THAN,
+      new UnqualifiedColumnReferenceExp(ColumnName.of("field2")),
+      new IntegerLiteral(10)
+  );
+
   private static final long A_WINDOW_START = 10L;
   private static final long A_WINDOW_END = 20L;
   private static final long A_ROWTIME = 456L;
@@ -159,6 +174,8 @@ public class SourceBuilderTest {
   @Mock
   private Serde<GenericRow> valueSerde;
   @Mock
+  private Deserializer<GenericRow> valueDeserializer;
+  @Mock
   private Serde<GenericKey> keySerde;
   @Mock
   private Serde<Windowed<GenericKey>> windowedKeySerde;
@@ -190,6 +207,8 @@ public class SourceBuilderTest {
   private ArgumentCaptor<TimestampExtractor> timestampExtractorCaptor;
   @Captor
   private ArgumentCaptor<StaticTopicSerde<GenericRow>> serdeCaptor;
+  @Captor
+  private ArgumentCaptor<Serde<GenericRow>> valueSerdeCaptor;
   private final GenericRow row = genericRow("baz", 123);
   private PlanBuilder planBuilder;
 
@@ -293,6 +312,52 @@ public class SourceBuilderTest {
     verify(consumed).withOffsetResetPolicy(AutoOffsetReset.EARLIEST);
   }
 
+  @Test
+  public void shouldPreFilterStreamValuesOnPushableFilter() {
+    // Given:
+    givenUnwindowedSourceStreamWithoutTimestampColumn();
+    when(valueSerde.deserializer()).thenReturn(valueDeserializer);
+    when(valueDeserializer.deserialize(any(), any())).thenReturn(genericRow("baz", 5L));
+
+    // When:
+    SourceBuilder.buildStream(buildContext, streamSource, consumedFactory, Optional.of(FILTER));
+
+    // Then:
+    verify(consumedFactory).create(eq(keySerde), valueSerdeCaptor.capture());
+    assertThat(valueSerdeCaptor.getValue(), is(not(valueSerde)));
+    assertThat(
+        valueSerdeCaptor.getValue().deserializer().deserialize(TOPIC_NAME, new byte[0]),
+        is(nullValue())
+    );
+  }
+
+  @Test
+  public void shouldNotPreFilterStreamWithTimestampColumn() {
+    // Given:
+    givenUnwindowedSourceStream();
+
+    // When:
+    SourceBuilder.buildStream(buildContext, streamSource, consumedFactory, Optional.of(FILTER));
+
+    // Then:
+    verify(consumedFactory).create(keySerde, valueSerde);
+  }
+
+  @Test
+  public void shouldNotPreFilterStreamIfDisabled() {
+    // Given:
+    when(buildContext.getKsqlConfig()).thenReturn(new KsqlConfig(
+        ImmutableMap.of(KsqlConfig.KSQL_SOURCE_PRE_FILTER_ENABLED, false)
+    ));
+    givenUnwindowedSourceStreamWithoutTimestampColumn();
+
+    // When:
+    SourceBuilder.buildStream(buildContext, streamSource, consumedFactory, Optional.of(FILTER));
+
+    // Then:
+    verify(consumedFactory).create(keySerde, valueSerde);
+  }
+
   @Test
   @SuppressWarnings("unchecked")
   public void shouldBuildStreamWithCorrectTimestampExtractor() {
@@ -842,6 +907,22 @@ public class SourceBuilderTest {
     );
   }
 
+  private void givenUnwindowedSourceStreamWithoutTimestampColumn() {
+    when(buildContext.getQueryId()).thenReturn(new QueryId("CSAS_1"));
+    when(valueSerde.serializer()).thenReturn(mock(Serializer.class));
+    when(consumedFactory.create(eq(keySerde), any())).thenReturn(consumed);
+    when(consumed.withTimestampExtractor(any())).thenReturn(consumed);
+    when(consumed.withOffsetResetPolicy(any())).thenReturn(consumed);
+    streamSource = new StreamSource(
+        new ExecutionStepPropertiesV1(ctx),
+        TOPIC_NAME,
+        Formats.of(keyFormatInfo, valueFormatInfo, KEY_FEATURES, VALUE_FEATURES),
+        Optional.empty(),
+        SOURCE_SCHEMA,
+        OptionalInt.of(SystemColumns.CURRENT_PSEUDOCOLUMN_VERSION_NUMBER)
+    );
+  }
+
   private void givenMultiColumnSourceStream() {
     when(buildContext.buildKeySerde(any(), any(), any())).thenReturn(keySerde);
     givenConsumed(consumed, keySerde);
@@ -0,0 +1,314 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.streams;
+
+import static io.confluent.ksql.GenericRow.genericRow;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.expression.tree.ArithmeticBinaryExpression;
+import io.confluent.ksql.execution.expression.tree.BooleanLiteral;
+import io.confluent.ksql.execution.expression.tree.ComparisonExpression;
+import io.confluent.ksql.execution.expression.tree.ComparisonExpression.Type;
+import io.confluent.ksql.execution.expression.tree.DoubleLiteral;
+import io.confluent.ksql.execution.expression.tree.Expression;
+import io.confluent.ksql.execution.expression.tree.IntegerLiteral;
+import io.confluent.ksql.execution.expression.tree.IsNotNullPredicate;
+import io.confluent.ksql.execution.expression.tree.IsNullPredicate;
+import io.confluent.ksql.execution.expression.tree.LogicalBinaryExpression;
+import io.confluent.ksql.execution.expression.tree.LongLiteral;
+import io.confluent.ksql.execution.expression.tree.StringLiteral;
+import io.confluent.ksql.execution.expression.tree.UnqualifiedColumnReferenceExp;
+import io.confluent.ksql.name.ColumnName;
+import io.confluent.ksql.schema.Operator;
+import io.confluent.ksql.schema.ksql.LogicalSchema;
+import io.confluent.ksql.schema.ksql.types.SqlTypes;
+import java.util.Arrays;
+import java.util.Optional;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class SourcePreFilterTest {
+
+  private static final ColumnName K0 = ColumnName.of("K0");
+  private static final ColumnName BOOL = ColumnName.of("BOOL");
+  private static final ColumnName INT = ColumnName.of("INT");
+  private static final ColumnName BIGINT = ColumnName.of("BIGINT");
+  private static final ColumnName DOUBLE = ColumnName.of("DOUBLE");
+  private static final ColumnName STRING = ColumnName.of("STRING");
+  private static final ColumnName ARRAY = ColumnName.of("ARRAY");
+
+  private static final LogicalSchema SCHEMA = LogicalSchema.builder()
+      .keyColumn(K0, SqlTypes.BIGINT)
+      .valueColumn(BOOL, SqlTypes.BOOLEAN)
+      .valueColumn(INT, SqlTypes.INTEGER)
+      .valueColumn(BIGINT, SqlTypes.BIGINT)
+      .valueColumn(DOUBLE, SqlTypes.DOUBLE)
+      .valueColumn(STRING, SqlTypes.STRING)
+      .valueColumn(ARRAY, SqlTypes.array(SqlTypes.BIGINT))
+      .build();
+
+  private static final GenericRow ROW =
+      genericRow(true, 10, 100L, 1.5, "foo", Arrays.asList(1L, 2L));
+
+  @Mock
+  private Serde<GenericRow> serde;
+  @Mock
+  private Serializer<GenericRow> serializer;
+  @Mock
+  private Deserializer<GenericRow> deserializer;
+  @Mock
+  private Sensor droppedRecords;
+
+  @Rule
+  public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+  @Before
+  public void setUp() {
+    when(serde.serializer()).thenReturn(serializer);
+    when(serde.deserializer()).thenReturn(deserializer);
+  }
+
+  @Test
+  public void shouldEvaluateIntegerComparisons() {
+    assertThat(test(compare(Type.EQUAL, INT, new IntegerLiteral(10))), is(true));
+    assertThat(test(compare(Type.NOT_EQUAL, INT, new IntegerLiteral(10))), is(false));
+    assertThat(test(compare(Type.LESS_THAN, INT, new IntegerLiteral(10))), is(false));
+    assertThat(test(compare(Type.LESS_THAN_OR_EQUAL, INT, new IntegerLiteral(10))), is(true));
+    assertThat(test(compare(Type.GREATER_THAN, BIGINT, new LongLiteral(99L))), is(true));
+    assertThat(test(compare(Type.GREATER_THAN_OR_EQUAL, BIGINT, new IntegerLiteral(101))),
+        is(false));
+  }
+
+  @Test
+  public void shouldEvaluateDoubleComparisons() {
+    assertThat(test(compare(Type.EQUAL, DOUBLE, new DoubleLiteral(1.5))), is(true));
+    assertThat(test(compare(Type.GREATER_THAN, DOUBLE, new IntegerLiteral(1))), is(true));
+    assertThat(test(compare(Type.LESS_THAN, INT, new DoubleLiteral(10.5))), is(true));
+    assertThat(test(compare(Type.GREATER_THAN, INT, new DoubleLiteral(10.5))), is(false));
+  }
+
+  @Test
+  public void shouldEvaluateNanComparisonsAsFalse() {
+    // Given:
+    final GenericRow row = genericRow(true, 10, 100L, Double.NaN, "foo", null);
+
+    // Then:
+    assertThat(test(compare(Type.NOT_EQUAL, DOUBLE, new DoubleLiteral(1.0)), row), is(false));
+    assertThat(test(compare(Type.LESS_THAN, DOUBLE, new DoubleLiteral(1.0)), row), is(false));
+  }
+
+  @Test
+  public void shouldEvaluateStringComparisons() {
+    assertThat(test(compare(Type.EQUAL, STRING, new StringLiteral("foo"))), is(true));
+    assertThat(test(compare(Type.NOT_EQUAL, STRING, new StringLiteral("foo"))), is(false));
+    assertThat(test(compare(Type.GREATER_THAN, STRING, new StringLiteral("bar"))), is(true));
+    assertThat(test(compare(Type.LESS_THAN, STRING, new StringLiteral("bar"))), is(false));
+  }
+
+  @Test
+  public void shouldEvaluateBooleanComparisons() {
+    assertThat(test(compare(Type.EQUAL, BOOL, new BooleanLiteral(true))), is(true));
+    assertThat(test(compare(Type.NOT_EQUAL, BOOL, new BooleanLiteral(true))), is(false));
+  }
+
+  @Test
+  public void shouldEvaluateComparisonsWithColumnOnRight() {
+    // Given:
+    final Expression filter = new ComparisonExpression(
+        Type.LESS_THAN,
+        new IntegerLiteral(5),
+        new UnqualifiedColumnReferenceExp(INT)
+    );
+
+    // Then:
+    assertThat(test(filter), is(true));
+  }
+
+  @Test
+  public void shouldEvaluateComparisonWithNullColumnAsFalse() {
+    // Given:
+    final GenericRow row = genericRow(true, null, 100L, 1.5, "foo", null);
+
+    // Then:
+    assertThat(test(compare(Type.NOT_EQUAL, INT, new IntegerLiteral(1)), row), is(false));
+  }
+
+  @Test
+  public void shouldEvaluateNullChecks() {
+    // Given:
+    final GenericRow row = genericRow(true, null, 100L, 1.5, "foo", null);
+
+    // Then:
+    assertThat(test(new IsNullPredicate(column(INT)), row), is(true));
+    assertThat(test(new IsNullPredicate(column(STRING)), row), is(false));
+    assertThat(test(new IsNotNullPredicate(column(INT)), row), is(false));
+    assertThat(test(new IsNotNullPredicate(column(STRING)), row), is(true));
+  }
+
+  @Test
+  public void shouldEvaluatePushableConjunctsOfFilter() {
+    // Given:
+    final Expression filter = LogicalBinaryExpression.and(
+        compare(Type.EQUAL, STRING, new StringLiteral("foo")),
+        LogicalBinaryExpression.and(
+            new IsNotNullPredicate(column(ARRAY)),
+            compare(Type.GREATER_THAN, INT, new IntegerLiteral(20))
+        )
+    );
+
+    // Then:
+    assertThat(test(filter), is(false));
+  }
+
+  @Test
+  public void shouldNotPushDownDisjunctions() {
+    // Given:
+    final Expression filter = LogicalBinaryExpression.or(
+        compare(Type.EQUAL, STRING, new StringLiteral("bar")),
+        compare(Type.EQUAL, INT, new IntegerLiteral(20))
+    );
+
+    // Then:
+    assertThat(SourcePreFilter.from(filter, SCHEMA), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldNotPushDownNonPrimitiveOrKeyColumns() {
+    assertThat(
+        SourcePreFilter.from(new IsNullPredicate(column(ARRAY)), SCHEMA),
+        is(Optional.empty())
+    );
+    assertThat(
+        SourcePreFilter.from(compare(Type.EQUAL, K0, new IntegerLiteral(1)), SCHEMA),
+        is(Optional.empty())
+    );
+  }
+
+  @Test
+  public void shouldNotPushDownComparisonsWithExpressions() {
+    // Given:
+    final Expression filter = new ComparisonExpression(
+        Type.EQUAL,
+        column(INT),
+        new ArithmeticBinaryExpression(Operator.ADD, column(BIGINT), new IntegerLiteral(1))
+    );
+
+    // Then:
+    assertThat(SourcePreFilter.from(filter, SCHEMA), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldNotPushDownDistinctComparisons() {
+    assertThat(
+        SourcePreFilter.from(compare(Type.IS_DISTINCT_FROM, INT, new IntegerLiteral(1)), SCHEMA),
+        is(Optional.empty())
+    );
+  }
+
+  @Test
+  public void shouldKeepRowsThatCanNotBeEvaluated() {
+    // Given:
+    final GenericRow row = genericRow(true, "not an int", 100L, 1.5, "foo", null);
+
+    // Then:
+    assertThat(test(compare(Type.EQUAL, INT, new IntegerLiteral(1)), row), is(true));
+  }
+
+  @Test
+  public void shouldDropFailingValuesOnDeserialization() {
+    // Given:
+    when(deserializer.deserialize("t", new byte[0])).thenReturn(ROW);
+    final Serde<GenericRow> wrapped = preFilter(compare(Type.EQUAL, INT, new IntegerLiteral(1)))
+        .wrap(serde, droppedRecords);
+
+    // When:
+    final GenericRow result = wrapped.deserializer().deserialize("t", new byte[0]);
+
+    // Then:
+    assertThat(result, is(nullValue()));
+    verify(droppedRecords).record();
+  }
+
+  @Test
+  public void shouldPassMatchingValuesOnDeserialization() {
+    // Given:
+    when(deserializer.deserialize("t", new byte[0])).thenReturn(ROW);
+    final Serde<GenericRow> wrapped = preFilter(compare(Type.EQUAL, INT, new IntegerLiteral(10)))
+        .wrap(serde, droppedRecords);
+
+    // When:
+    final GenericRow result = wrapped.deserializer().deserialize("t", new byte[0]);
+
+    // Then:
+    assertThat(result, is(ROW));
+    verify(droppedRecords, never()).record();
+  }
+
+  @Test
+  public void shouldPassNullValuesOnDeserialization() {
+    // Given:
+    when(deserializer.deserialize(any(), any())).thenReturn(null);
+    final Serde<GenericRow> wrapped = preFilter(new IsNullPredicate(column(INT)))
+        .wrap(serde, droppedRecords);
+
+    // When:
+    final GenericRow result = wrapped.deserializer().deserialize("t", null);
+
+    // Then:
+    assertThat(result, is(nullValue()));
+    verify(droppedRecords, never()).record();
+  }
+
+  private static boolean test(final Expression filter) {
+    return test(filter, ROW);
+  }
+
+  private static boolean test(final Expression filter, final GenericRow row) {
+    return preFilter(filter).test(row);
+  }
+
+  private static SourcePreFilter preFilter(final Expression filter) {
+    return SourcePreFilter.from(filter, SCHEMA)
+        .orElseThrow(() -> new AssertionError("Expected filter to be pushed down: " + filter));
+  }
+
+  private static ComparisonExpression compare(
+      final Type type,
+      final ColumnName column,
+      final Expression literal
+  ) {
+    return new ComparisonExpression(type, column(column), literal);
+  }
+
+  private static UnqualifiedColumnReferenceExp column(final ColumnName column) {
+    return new UnqualifiedColumnReferenceExp(column);
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.streams;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.confluent.ksql.GenericKey;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.execution.runtime.StepProfiler;
+import io.confluent.ksql.execution.transform.KsqlProcessingContext;
+import io.confluent.ksql.execution.transform.KsqlTransformer;
+import java.util.Optional;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.streams.kstream.Aggregator;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StepProfilingTest {
+
+  private static final String TOPIC = "topic";
+  private static final byte[] BYTES = new byte[]{1, 2, 3};
+  private static final long START = 12345L;
+  private static final GenericKey KEY = GenericKey.genericKey("k");
+  private static final GenericRow ROW = GenericRow.genericRow(1, "a");
+  private static final GenericRow AGGREGATE = GenericRow.genericRow(2L);
+
+  @Mock
+  private StepProfiler profiler;
+  @Mock
+  private KsqlTransformer<GenericKey, Optional<GenericRow>> transformer;
+  @Mock
+  private Aggregator<GenericKey, GenericRow, GenericRow> aggregator;
+  @Mock
+  private Serde<GenericRow> serde;
+  @Mock
+  private Serializer<GenericRow> serializer;
+  @Mock
+  private Deserializer<GenericRow> deserializer;
+  @Mock
+  private KsqlProcessingContext ctx;
+
+  @Test
+  public void shouldNotWrapIfNotProfiling() {
+    assertThat(StepProfiling.transformer(Optional.empty(), transformer, r -> 1),
+        is(sameInstance(transformer)));
+    assertThat(StepProfiling.aggregator(Optional.empty(), aggregator),
+        is(sameInstance(aggregator)));
+    assertThat(StepProfiling.deserializer(Optional.empty(), serde), is(sameInstance(serde)));
+    assertThat(StepProfiling.serializer(Optional.empty(), serde), is(sameInstance(serde)));
+  }
+
+  @Test
+  public void shouldProfileTransformer() {
+    // Given:
+    when(profiler.start()).thenReturn(START);
+    when(transformer.transform(KEY, ROW, ctx)).thenReturn(Optional.empty());
+    final KsqlTransformer<GenericKey, Optional<GenericRow>> profiled = StepProfiling
+        .transformer(Optional.of(profiler), transformer, r -> r.isPresent() ? 1 : 0);
+
+    // When:
+    final Optional<GenericRow> result = profiled.transform(KEY, ROW, ctx);
+
+    // Then:
+    assertThat(result, is(Optional.empty()));
+    verify(profiler).end(START, 0);
+  }
+
+  @Test
+  public void shouldProfileAggregator() {
+    // Given:
+    when(profiler.start()).thenReturn(START);
+    when(aggregator.apply(KEY, ROW, AGGREGATE)).thenReturn(ROW);
+    final Aggregator<GenericKey, GenericRow, GenericRow> profiled = StepProfiling
+        .aggregator(Optional.of(profiler), aggregator);
+
+    // When:
+    final GenericRow result = profiled.apply(KEY, ROW, AGGREGATE);
+
+    // Then:
+    assertThat(result, is(sameInstance(ROW)));
+    verify(profiler).end(START, 1);
+  }
+
+  @Test
+  public void shouldProfileDeserializer() {
+    // Given:
+    when(profiler.start()).thenReturn(START);
+    when(serde.serializer()).thenReturn(serializer);
+    when(serde.deserializer()).thenReturn(deserializer);
+    when(deserializer.deserialize(TOPIC, BYTES)).thenReturn(ROW);
+    final Serde<GenericRow> profiled = StepProfiling.deserializer(Optional.of(profiler), serde);
+
+    // When:
+    final GenericRow result = profiled.deserializer().deserialize(TOPIC, BYTES);
+
+    // Then:
+    assertThat(result, is(sameInstance(ROW)));
+    verify(profiler).end(START, 1);
+  }
+
+  @Test
+  public void shouldNotCountNullDeserializedValuesAsOutputs() {
+    // Given:
+    when(profiler.start()).thenReturn(START);
+    when(serde.serializer()).thenReturn(serializer);
+    when(serde.deserializer()).thenReturn(deserializer);
+    final Serde<GenericRow> profiled = StepProfiling.deserializer(Optional.of(profiler), serde);
+
+    // When:
+    final GenericRow result = profiled.deserializer().deserialize(TOPIC, BYTES);
+
+    // Then:
+    assertThat(result, is(nullValue()));
+    verify(profiler).end(START, 0);
+  }
+
+  @Test
+  public void shouldProfileSerializer() {
+    // Given:
+    when(profiler.start()).thenReturn(START);
+    when(serde.serializer()).thenReturn(serializer);
+    when(serde.deserializer()).thenReturn(deserializer);
+    when(serializer.serialize(TOPIC, ROW)).thenReturn(BYTES);
+    final Serde<GenericRow> profiled = StepProfiling.serializer(Optional.of(profiler), serde);
+
+    // When:
+    final byte[] result = profiled.serializer().serialize(TOPIC, ROW);
+
+    // Then:
+    assertThat(result, is(BYTES));
+    verify(profiler).end(START, 1);
+  }
+}
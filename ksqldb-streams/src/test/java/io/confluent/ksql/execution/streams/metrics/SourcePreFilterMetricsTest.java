@@ -0,0 +1,101 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.execution.streams.metrics;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.util.KsqlConstants;
+import io.confluent.ksql.util.ReservedInternalTopics;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.junit.After;
+import org.junit.Test;
+
+public class SourcePreFilterMetricsTest {
+
+  private static final String APP_ID = "_confluent-ksql-default_query_CSAS_1";
+
+  private final Metrics metrics = new Metrics();
+
+  @After
+  public void tearDown() {
+    SourcePreFilterMetrics.notifyApplicationClose(APP_ID);
+    metrics.close();
+  }
+
+  @Test
+  public void shouldRecordDroppedRecords() {
+    // Given:
+    final Sensor sensor = SourcePreFilterMetrics
+        .droppedRecordsSensor(metrics, APP_ID, "service", "CSAS_1", "KsqlTopic-Source");
+
+    // When:
+    sensor.record();
+    sensor.record();
+
+    // Then:
+    assertThat(
+        metrics.metric(metricName(SourcePreFilterMetrics.RECORDS_DROPPED_TOTAL)).metricValue(),
+        is(2.0)
+    );
+  }
+
+  @Test
+  public void shouldReuseSensorForSameSource() {
+    // When:
+    final Sensor first = SourcePreFilterMetrics
+        .droppedRecordsSensor(metrics, APP_ID, "service", "CSAS_1", "KsqlTopic-Source");
+    final Sensor second = SourcePreFilterMetrics
+        .droppedRecordsSensor(metrics, APP_ID, "service", "CSAS_1", "KsqlTopic-Source");
+
+    // Then:
+    assertThat(second, is(sameInstance(first)));
+  }
+
+  @Test
+  public void shouldRemoveSensorsOnApplicationClose() {
+    // Given:
+    final Sensor sensor = SourcePreFilterMetrics
+        .droppedRecordsSensor(metrics, APP_ID, "service", "CSAS_1", "KsqlTopic-Source");
+
+    // When:
+    SourcePreFilterMetrics.notifyApplicationClose(APP_ID);
+
+    // Then:
+    assertThat(metrics.getSensor(sensor.name()), is(nullValue()));
+    assertThat(
+        metrics.metric(metricName(SourcePreFilterMetrics.RECORDS_DROPPED_RATE)),
+        is(nullValue())
+    );
+  }
+
+  private MetricName metricName(final String name) {
+    return metrics.metricName(
+        name,
+        ReservedInternalTopics.KSQL_INTERNAL_TOPIC_PREFIX + SourcePreFilterMetrics.METRIC_GROUP,
+        ImmutableMap.of(
+            KsqlConstants.KSQL_SERVICE_ID_METRICS_TAG, "service",
+            SourcePreFilterMetrics.QUERY_ID_TAG, "CSAS_1",
+            SourcePreFilterMetrics.SOURCE_TAG, "KsqlTopic-Source"
+        )
+    );
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2021 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udf;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implemented by a UDF class with arguments that are costly to process for every invocation,
+ * e.g. a regular expression that must be compiled, so that it can process them once when their
+ * values are known up front, e.g. because they are literals in the query.
+ *
+ * <p>Each use of a function in a query has its own instance of the UDF class, which is prepared
+ * once, before it is first invoked. The instance is still passed every argument on every
+ * invocation, and should check that a prepared argument has the value it was prepared for
+ * before using the result.
+ */
+public interface PreparableUdf {
+
+  /**
+   * Prepares the function for the arguments whose values are known up front.
+   *
+   * <p>Values are those of the literals in the query, before any implicit conversion to the
+   * type of the parameter, so implementations should check the type of any value they use.
+   * Implementations should not throw for invalid values, leaving them to be reported when
+   * the function is invoked.
+   *
+   * @param constantArgs one entry per argument, holding its value if it is the same for every
+   *                     invocation.
+   */
+  void prepare(List<Optional<Object>> constantArgs);
+}